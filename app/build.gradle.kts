@@ -3,6 +3,7 @@ plugins {
     alias(libs.plugins.hilt)
     id("com.google.gms.google-services")
     alias(libs.plugins.navigation.safeargs)
+    alias(libs.plugins.androidx.baselineprofile)
 }
 
 android {
@@ -69,6 +70,7 @@ dependencies {
     annotationProcessor(libs.hilt.compiler)
     implementation(libs.hilt.androidx)
     annotationProcessor(libs.hilt.androidx.compiler)
+    implementation(libs.hilt.work)
 
     // Lifecycle Components
     implementation(libs.lifecycle.viewmodel)
@@ -79,6 +81,11 @@ dependencies {
     implementation(libs.navigation.ui)
     implementation(libs.navigation.dynamic.features)
 
+    // Startup
+    implementation(libs.tracing)
+    implementation(libs.profileinstaller)
+    baselineProfile(project(":baselineprofile"))
+
     // Testing
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
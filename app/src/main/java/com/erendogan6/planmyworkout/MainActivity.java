@@ -27,6 +27,7 @@ public class MainActivity extends BaseActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
+        StartupTracing.endFirstFrameOnDraw(getWindow().getDecorView());
 
         // Set up the NavController
         NavHostFragment navHostFragment = (NavHostFragment) getSupportFragmentManager()
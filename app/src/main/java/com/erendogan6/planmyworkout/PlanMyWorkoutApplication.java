@@ -2,10 +2,60 @@ package com.erendogan6.planmyworkout;
 
 import android.app.Application;
 
+import androidx.annotation.NonNull;
+import androidx.hilt.work.HiltWorkerFactory;
+import androidx.tracing.Trace;
+import androidx.work.Configuration;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.EntryPointAccessors;
 import dagger.hilt.android.HiltAndroidApp;
+import dagger.hilt.components.SingletonComponent;
 
 /**
  * Main application class for PlanMyWorkout.
+ * Startup work is deferred to WarmUpInitializer, which runs on a background thread; onCreate
+ * only records trace sections around the work that remains on the main thread.
  */
 @HiltAndroidApp
-public class PlanMyWorkoutApplication extends Application {}
+public class PlanMyWorkoutApplication extends Application implements Configuration.Provider {
+
+    /**
+     * Gives WorkManager the Hilt worker factory.
+     * A field can't be injected here, because the warm-up may start WorkManager before onCreate.
+     */
+    @EntryPoint
+    @InstallIn(SingletonComponent.class)
+    interface WorkerFactoryEntryPoint {
+        HiltWorkerFactory workerFactory();
+    }
+
+    @Override
+    public void onCreate() {
+        StartupTracing.beginFirstFrame();
+        Trace.beginSection(StartupTracing.SECTION_APPLICATION_ON_CREATE);
+        try {
+            // Creates the Hilt component, unless the warm-up already did, and injects the application
+            Trace.beginSection(StartupTracing.SECTION_HILT_GRAPH);
+            try {
+                super.onCreate();
+            } finally {
+                Trace.endSection();
+            }
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    @NonNull
+    @Override
+    public Configuration getWorkManagerConfiguration() {
+        HiltWorkerFactory workerFactory = EntryPointAccessors
+                .fromApplication(this, WorkerFactoryEntryPoint.class)
+                .workerFactory();
+        return new Configuration.Builder()
+                .setWorkerFactory(workerFactory)
+                .build();
+    }
+}
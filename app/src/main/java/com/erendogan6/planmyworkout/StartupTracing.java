@@ -0,0 +1,52 @@
+package com.erendogan6.planmyworkout;
+
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.tracing.Trace;
+
+/**
+ * Trace sections of the cold start path, visible in system traces and macrobenchmark results.
+ */
+final class StartupTracing {
+
+    static final String SECTION_APPLICATION_ON_CREATE = "PlanMyWorkoutApplication.onCreate";
+    static final String SECTION_HILT_GRAPH = "Hilt.graph";
+
+    private static final String SECTION_FIRST_FRAME = "FirstFrame";
+    private static final int FIRST_FRAME_COOKIE = 0;
+
+    private static boolean firstFrameStarted;
+
+    private StartupTracing() {
+        // Utility class
+    }
+
+    /**
+     * Start measuring the time until the first frame is drawn.
+     */
+    static void beginFirstFrame() {
+        firstFrameStarted = true;
+        Trace.beginAsyncSection(SECTION_FIRST_FRAME, FIRST_FRAME_COOKIE);
+    }
+
+    /**
+     * End the first frame section when the given view is about to draw for the first time.
+     *
+     * @param view The root view of the first activity
+     */
+    static void endFirstFrameOnDraw(View view) {
+        if (!firstFrameStarted) {
+            return;
+        }
+        firstFrameStarted = false;
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                Trace.endAsyncSection(SECTION_FIRST_FRAME, FIRST_FRAME_COOKIE);
+                return true;
+            }
+        });
+    }
+}
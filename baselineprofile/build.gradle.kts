@@ -0,0 +1,34 @@
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.androidx.baselineprofile)
+}
+
+android {
+    namespace = "com.erendogan6.planmyworkout.baselineprofile"
+    compileSdk = 36
+
+    defaultConfig {
+        // Profiles can only be collected on Android 9 and above
+        minSdk = 28
+        targetSdk = 36
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    targetProjectPath = ":app"
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+}
+
+// Profiles are collected on a connected device or emulator
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+}
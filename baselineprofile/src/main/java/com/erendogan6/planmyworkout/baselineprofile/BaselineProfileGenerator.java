@@ -0,0 +1,74 @@
+package com.erendogan6.planmyworkout.baselineprofile;
+
+import android.os.Bundle;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.regex.Pattern;
+
+import kotlin.Unit;
+
+/**
+ * Collects the Baseline Profile of the cold start path from launch through login to the home
+ * screen. Run it with ./gradlew :app:generateBaselineProfile.
+ * The login step needs an account, passed as instrumentation arguments:
+ * -Pandroid.testInstrumentationRunnerArguments.email=... and ...password=...
+ * Without them only the path of a user who is already signed in is collected.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    private static final String PACKAGE_NAME = "com.erendogan6.planmyworkout";
+    private static final long TIMEOUT_MS = 10_000;
+
+    private static final int MAX_ITERATIONS = 15;
+    private static final int STABLE_ITERATIONS = 3;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void loginToHome() {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String email = arguments.getString("email");
+        String password = arguments.getString("password");
+
+        baselineProfileRule.collect(
+                PACKAGE_NAME,
+                MAX_ITERATIONS,
+                STABLE_ITERATIONS,
+                null,
+                true,
+                false,
+                className -> true,
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+
+                    UiDevice device = scope.getDevice();
+                    // Signed-in users go straight to the home screen
+                    device.wait(Until.hasObject(By.res(Pattern.compile(PACKAGE_NAME + ":id/(etEmail|layoutHeader)"))),
+                            TIMEOUT_MS);
+                    UiObject2 emailField = device.findObject(By.res(PACKAGE_NAME, "etEmail"));
+                    if (emailField != null && email != null && password != null) {
+                        emailField.setText(email);
+                        device.findObject(By.res(PACKAGE_NAME, "etPassword")).setText(password);
+                        device.findObject(By.res(PACKAGE_NAME, "btnLogin")).click();
+                    }
+
+                    device.wait(Until.hasObject(By.res(PACKAGE_NAME, "layoutHeader")), TIMEOUT_MS);
+                    device.waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+}
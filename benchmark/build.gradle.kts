@@ -0,0 +1,106 @@
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+plugins {
+    alias(libs.plugins.android.library)
+    alias(libs.plugins.androidx.benchmark)
+}
+
+android {
+    namespace = "com.erendogan6.planmyworkout.benchmark"
+    compileSdk = 36
+
+    defaultConfig {
+        minSdk = 26
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_17
+        targetCompatibility = JavaVersion.VERSION_17
+    }
+}
+
+dependencies {
+    // Modules under measurement
+    androidTestImplementation(project(":core"))
+    androidTestImplementation(project(":feature:workout"))
+
+    // Firebase, for the value types of fake documents
+    androidTestImplementation(platform(libs.firebase.bom))
+    androidTestImplementation(libs.firebase.firestore)
+
+    // Views inflated by the adapter benchmarks
+    androidTestImplementation(libs.material)
+
+    // Benchmark
+    androidTestImplementation(libs.benchmark.junit4)
+    androidTestImplementation(libs.ext.junit)
+}
+
+// Baselines are the median run times in nanoseconds, keyed by "Class.method"
+val baselineFile = layout.projectDirectory.file("baselines/benchmark-baselines.json").asFile
+val resultsDir = layout.buildDirectory.dir("outputs/connected_android_test_additional_output").get().asFile
+val allowedRegression = 0.10
+
+fun readMedians(dir: File): Map<String, Double> {
+    val medians = sortedMapOf<String, Double>()
+    dir.walkTopDown()
+        .filter { it.isFile && it.name.endsWith("benchmarkData.json") }
+        .forEach { file ->
+            val data = JsonSlurper().parse(file) as Map<*, *>
+            for (entry in data["benchmarks"] as List<*>) {
+                val benchmark = entry as Map<*, *>
+                val timeNs = (benchmark["metrics"] as Map<*, *>)["timeNs"] as Map<*, *>
+                val className = (benchmark["className"] as String).substringAfterLast('.')
+                medians["$className.${benchmark["name"]}"] = (timeNs["median"] as Number).toDouble()
+            }
+        }
+    return medians
+}
+
+tasks.register("recordBenchmarkBaselines") {
+    group = "benchmark"
+    description = "Writes the medians of the last connectedAndroidTest run to the checked-in baselines."
+    doLast {
+        val medians = readMedians(resultsDir)
+        if (medians.isEmpty()) {
+            throw GradleException("No benchmark results found, run connectedAndroidTest first")
+        }
+        baselineFile.writeText(JsonOutput.prettyPrint(JsonOutput.toJson(medians)) + "\n")
+    }
+}
+
+tasks.register("checkBenchmarkBaselines") {
+    group = "verification"
+    description = "Fails if a benchmark got more than 10% slower than its checked-in baseline, or has none."
+    doLast {
+        @Suppress("UNCHECKED_CAST")
+        val baselines = JsonSlurper().parse(baselineFile) as Map<String, Number>
+        val medians = readMedians(resultsDir)
+        if (medians.isEmpty()) {
+            throw GradleException("No benchmark results found, run connectedAndroidTest first")
+        }
+
+        // A benchmark without a baseline could never be flagged, so it fails the check as well
+        val missing = medians.keys.filter { it !in baselines }
+        if (missing.isNotEmpty()) {
+            throw GradleException(
+                "Benchmarks without a baseline, run recordBenchmarkBaselines on the reference device " +
+                    "and commit the result:\n" + missing.joinToString("\n")
+            )
+        }
+
+        val regressions = medians.mapNotNull { (name, median) ->
+            val baseline = baselines.getValue(name).toDouble()
+            if (median > baseline * (1 + allowedRegression)) {
+                "$name: ${median.toLong()} ns, baseline ${baseline.toLong()} ns"
+            } else {
+                null
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Benchmark regressions:\n" + regressions.joinToString("\n"))
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.erendogan6.planmyworkout.benchmark;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.erendogan6.planmyworkout.core.log.ExerciseLogCodec;
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentCodec;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.feature.workout.adapter.ExerciseListAdapter;
+import com.erendogan6.planmyworkout.feature.workout.adapter.ExerciseLogAdapter;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogItem;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures binding list rows, which runs on the main thread for every row scrolled into view.
+ * One view holder is created up front and rebound with each item in turn.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AdapterBindingBenchmark {
+
+    private static final int EXERCISE_COUNT = 40;
+    private static final int LOG_COUNT = 200;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private RecyclerView parent;
+
+    @Before
+    public void setUp() {
+        Context context = new ContextThemeWrapper(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                com.google.android.material.R.style.Theme_Material3_DayNight_NoActionBar);
+        parent = new RecyclerView(context);
+        parent.setLayoutManager(new LinearLayoutManager(context));
+    }
+
+    @Test
+    public void bindExerciseRows() {
+        PlanDocument plan = PlanDocumentCodec.decode(FakeDocuments.PLAN_ID, FakeDocuments.plan(EXERCISE_COUNT));
+        List<ExerciseWithProgress> exercises = new ArrayList<>(EXERCISE_COUNT);
+        for (PlanExercise exercise : plan.getExercises()) {
+            exercises.add(ExerciseWithProgress.fromPlanExercise(exercise));
+        }
+
+        ExerciseListAdapter adapter = new ExerciseListAdapter(exercise -> {
+        });
+        // The first list is applied without diffing, so it is in place when this returns
+        adapter.submitList(exercises);
+        measureBinding(adapter);
+    }
+
+    @Test
+    public void bindLogRows() {
+        List<Map<String, Object>> logData = FakeDocuments.logs(LOG_COUNT);
+        List<ExerciseLogItem> items = new ArrayList<>(LOG_COUNT);
+        for (int i = 0; i < LOG_COUNT; i++) {
+            ExerciseLog log = ExerciseLog.fromEntity(ExerciseLogCodec.decode(FakeDocuments.USER_ID,
+                    FakeDocuments.PLAN_ID, FakeDocuments.EXERCISE_ID, FakeDocuments.logId(LOG_COUNT, i),
+                    logData.get(i)));
+            items.add(ExerciseLogItem.from(log));
+        }
+
+        ExerciseLogAdapter adapter = new ExerciseLogAdapter(log -> {
+        });
+        adapter.submitList(items);
+        measureBinding(adapter);
+    }
+
+    private void measureBinding(RecyclerView.Adapter<?> adapter) {
+        // The view holder classes are package-private, so their type is captured rather than named
+        bindAll(adapter);
+    }
+
+    private <VH extends RecyclerView.ViewHolder> void bindAll(RecyclerView.Adapter<VH> adapter) {
+        VH holder = adapter.onCreateViewHolder(parent, 0);
+        int itemCount = adapter.getItemCount();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int position = 0; position < itemCount; position++) {
+                adapter.onBindViewHolder(holder, position);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.erendogan6.planmyworkout.benchmark;
+
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds document data shaped like what Firestore returns, with the same value types:
+ * Long for integers, Double for decimals and Timestamp for dates.
+ */
+final class FakeDocuments {
+
+    static final String USER_ID = "user";
+    static final String PLAN_ID = "plan";
+    static final String EXERCISE_ID = "ex_0";
+
+    private static final long FIRST_LOG_MILLIS = 1_700_000_000_000L;
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private FakeDocuments() {
+    }
+
+    /**
+     * A plan with the given number of exercises, each with a latest log summary.
+     */
+    static Map<String, Object> plan(int exerciseCount) {
+        List<Map<String, Object>> exercises = new ArrayList<>(exerciseCount);
+        Map<String, Object> latestLogs = new HashMap<>();
+        for (int i = 0; i < exerciseCount; i++) {
+            Map<String, Object> exercise = new HashMap<>();
+            exercise.put("id", "ex_" + i);
+            exercise.put("name", "Exercise " + i);
+            exercise.put("description", "Description of exercise " + i);
+            exercise.put("muscleGroup", "Chest");
+            exercise.put("sets", 4L);
+            exercise.put("reps", 10L);
+            exercise.put("restSeconds", 90L);
+            exercise.put("unit", "reps");
+            exercises.add(exercise);
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("logId", String.valueOf(FIRST_LOG_MILLIS + i));
+            summary.put("weight", 40.0 + i);
+            summary.put("reps", 10L);
+            summary.put("timestamp", timestamp(FIRST_LOG_MILLIS + i));
+            latestLogs.put("ex_" + i, summary);
+        }
+
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("name", "Benchmark Plan");
+        plan.put("description", "A plan with " + exerciseCount + " exercises");
+        plan.put("difficulty", "Intermediate");
+        plan.put("days", 4L);
+        plan.put("durationWeeks", 12L);
+        plan.put("weeklySchedule", Arrays.asList("Monday", "Tuesday", "Thursday", "Friday"));
+        plan.put("exercises", exercises);
+        plan.put("latestLogs", latestLogs);
+        return plan;
+    }
+
+    /**
+     * A page of log documents, newest first.
+     */
+    static List<Map<String, Object>> logs(int count) {
+        List<Map<String, Object>> logs = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            Map<String, Object> log = new HashMap<>();
+            log.put("weight", 40.0 + (i % 20) * 2.5);
+            log.put("reps", (long) (8 + i % 5));
+            log.put("notes", i % 3 == 0 ? "Felt strong today" : null);
+            log.put("timestamp", timestamp(FIRST_LOG_MILLIS + i * DAY_MILLIS));
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    /**
+     * The document ID of the log at a position of {@link #logs(int)}.
+     */
+    static String logId(int count, int position) {
+        return String.valueOf(FIRST_LOG_MILLIS + (count - 1 - position) * DAY_MILLIS);
+    }
+
+    private static Timestamp timestamp(long millis) {
+        return new Timestamp(millis / 1000, (int) (millis % 1000) * 1_000_000);
+    }
+}
@@ -0,0 +1,70 @@
+package com.erendogan6.planmyworkout.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogCodec;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogItem;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures turning log documents into what the history screen shows.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LogMappingBenchmark {
+
+    private static final int LOG_COUNT = 200;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final List<Map<String, Object>> logData = FakeDocuments.logs(LOG_COUNT);
+
+    /**
+     * Decoding a full history into cache entities and models, as getExerciseLogs does.
+     */
+    @Test
+    public void mapLogs() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            List<ExerciseLogEntity> entities = new ArrayList<>(LOG_COUNT);
+            List<ExerciseLog> logs = new ArrayList<>(LOG_COUNT);
+            for (int i = 0; i < LOG_COUNT; i++) {
+                ExerciseLogEntity entity = ExerciseLogCodec.decode(FakeDocuments.USER_ID, FakeDocuments.PLAN_ID,
+                        FakeDocuments.EXERCISE_ID, FakeDocuments.logId(LOG_COUNT, i), logData.get(i));
+                entities.add(entity);
+                logs.add(ExerciseLog.fromEntity(entity));
+            }
+        }
+    }
+
+    /**
+     * Building the display models of a full history.
+     */
+    @Test
+    public void buildDisplayItems() {
+        List<ExerciseLog> logs = new ArrayList<>(LOG_COUNT);
+        for (int i = 0; i < LOG_COUNT; i++) {
+            logs.add(ExerciseLog.fromEntity(ExerciseLogCodec.decode(FakeDocuments.USER_ID, FakeDocuments.PLAN_ID,
+                    FakeDocuments.EXERCISE_ID, FakeDocuments.logId(LOG_COUNT, i), logData.get(i))));
+        }
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            List<ExerciseLogItem> items = new ArrayList<>(LOG_COUNT);
+            for (ExerciseLog log : logs) {
+                items.add(ExerciseLogItem.from(log));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.erendogan6.planmyworkout.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentCodec;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures reading plan documents, as done for every plan load and snapshot.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PlanParsingBenchmark {
+
+    private static final int EXERCISE_COUNT = 40;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final Map<String, Object> planData = FakeDocuments.plan(EXERCISE_COUNT);
+
+    /**
+     * Decoding a plan document, as the ready-made plan list and the plan store do.
+     */
+    @Test
+    public void decodePlan() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            PlanDocumentCodec.decode(FakeDocuments.PLAN_ID, planData);
+        }
+    }
+
+    /**
+     * Building the exercise list of a plan from its document, as getExercisesForPlan does.
+     */
+    @Test
+    public void assembleExerciseList() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            PlanDocument plan = PlanDocumentCodec.decode(FakeDocuments.PLAN_ID, planData);
+            List<ExerciseWithProgress> exercises = new ArrayList<>(plan.getExercises().size());
+            for (PlanExercise exercise : plan.getExercises()) {
+                exercises.add(ExerciseWithProgress.fromPlanExercise(exercise));
+            }
+        }
+    }
+
+    /**
+     * Writing a plan document, as saving a user plan does.
+     */
+    @Test
+    public void encodePlan() {
+        PlanDocument plan = PlanDocumentCodec.decode(FakeDocuments.PLAN_ID, planData);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            PlanDocumentCodec.encode(plan);
+        }
+    }
+}
@@ -4,6 +4,9 @@ plugins {
     alias(libs.plugins.android.library) apply false
     alias(libs.plugins.hilt) apply false
     alias(libs.plugins.navigation.safeargs) apply false
+    alias(libs.plugins.androidx.benchmark) apply false
+    alias(libs.plugins.android.test) apply false
+    alias(libs.plugins.androidx.baselineprofile) apply false
 }
 
 buildscript {
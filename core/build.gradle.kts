@@ -32,6 +32,9 @@ android {
 }
 
 dependencies {
+    // Core module dependencies
+    api(project(":core:database"))
+
     // AndroidX Core Libraries
     implementation(libs.appcompat)
     implementation(libs.material)
@@ -44,10 +47,20 @@ dependencies {
     // Hilt Dependency Injection
     implementation(libs.hilt.android)
     annotationProcessor(libs.hilt.compiler)
+    implementation(libs.hilt.work)
+    annotationProcessor(libs.hilt.androidx.compiler)
     
     // Lifecycle Components
     implementation(libs.lifecycle.viewmodel)
     implementation(libs.lifecycle.runtime)
+    api(libs.lifecycle.livedata)
+
+    // Startup
+    implementation(libs.startup.runtime)
+    implementation(libs.tracing)
+
+    // Background sync
+    api(libs.work.runtime)
     
     // Testing
     testImplementation(libs.junit)
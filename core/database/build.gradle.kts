@@ -33,7 +33,8 @@ dependencies {
     implementation(project(":core:common"))
 
     // Room Database
-    implementation(libs.room.runtime)
+    api(libs.room.runtime)
+    api(libs.lifecycle.livedata)
     annotationProcessor(libs.room.compiler)
 
     // Hilt Dependency Injection
@@ -0,0 +1,42 @@
+package com.erendogan6.planmyworkout.core.database;
+
+import androidx.room.Database;
+import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+
+import com.erendogan6.planmyworkout.core.database.converter.Converters;
+import com.erendogan6.planmyworkout.core.database.dao.ExerciseDao;
+import com.erendogan6.planmyworkout.core.database.dao.ExerciseLogDao;
+import com.erendogan6.planmyworkout.core.database.dao.PlanDao;
+import com.erendogan6.planmyworkout.core.database.dao.SyncStateDao;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseEntity;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.database.entity.PlanEntity;
+import com.erendogan6.planmyworkout.core.database.entity.SyncStateEntity;
+
+/**
+ * Local Room database that caches Firestore data so screens can render from disk.
+ */
+@Database(
+        entities = {
+                PlanEntity.class,
+                ExerciseEntity.class,
+                ExerciseLogEntity.class,
+                SyncStateEntity.class
+        },
+        version = 5,
+        exportSchema = false
+)
+@TypeConverters(Converters.class)
+public abstract class AppDatabase extends RoomDatabase {
+
+    public static final String DATABASE_NAME = "plan_my_workout.db";
+
+    public abstract PlanDao planDao();
+
+    public abstract ExerciseDao exerciseDao();
+
+    public abstract ExerciseLogDao exerciseLogDao();
+
+    public abstract SyncStateDao syncStateDao();
+}
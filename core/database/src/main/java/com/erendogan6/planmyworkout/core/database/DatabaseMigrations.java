@@ -0,0 +1,76 @@
+package com.erendogan6.planmyworkout.core.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Schema migrations of the local database.
+ */
+public final class DatabaseMigrations {
+
+    /**
+     * Adds the outbox columns to exercise logs.
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE exercise_logs ADD COLUMN pending INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE exercise_logs ADD COLUMN revision INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_exercise_logs_ownerId_pending "
+                    + "ON exercise_logs (ownerId, pending)");
+        }
+    };
+
+    /**
+     * Adds the sync watermark, which the plan catalog used to keep in its sync time.
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE sync_state ADD COLUMN watermark INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE sync_state SET watermark = syncedAt WHERE `key` LIKE '%/plans'");
+        }
+    };
+
+    /**
+     * Adds the values last pushed to Firestore to exercise logs. Synced logs were pushed with
+     * their current values. Pending logs that were edited may or may not have been pushed
+     * before, so they count as pushed with unknown values.
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE exercise_logs ADD COLUMN pushed INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE exercise_logs ADD COLUMN pushedWeight REAL NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE exercise_logs ADD COLUMN pushedReps INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE exercise_logs SET pushed = 1, pushedWeight = weight, pushedReps = reps "
+                    + "WHERE pending = 0");
+            db.execSQL("UPDATE exercise_logs SET pushed = 1, pushedReps = -1 WHERE pending = 1 AND revision > 1");
+        }
+    };
+
+    /**
+     * Marks cached exercises whose ID is the positional fallback of an entry without a stored ID.
+     * Which cached IDs were stored is unknown, so the catalog loses its version and is downloaded
+     * again. User plans are read again from Firestore before they are copied.
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE exercises ADD COLUMN positionalId INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE sync_state SET watermark = 0 WHERE `key` = 'readyWorkoutPlans/plans'");
+        }
+    };
+
+    public static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5
+    };
+
+    private DatabaseMigrations() {
+        // Utility class
+    }
+}
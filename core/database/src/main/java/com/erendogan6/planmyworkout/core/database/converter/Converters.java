@@ -0,0 +1,35 @@
+package com.erendogan6.planmyworkout.core.database.converter;
+
+import androidx.room.TypeConverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Room type converters for the app database.
+ */
+public class Converters {
+
+    // Unit separator, never part of user visible text
+    private static final String LIST_SEPARATOR = "\u001F";
+
+    @TypeConverter
+    public static String fromStringList(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        return String.join(LIST_SEPARATOR, values);
+    }
+
+    @TypeConverter
+    public static List<String> toStringList(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(value.split(LIST_SEPARATOR, -1)));
+    }
+}
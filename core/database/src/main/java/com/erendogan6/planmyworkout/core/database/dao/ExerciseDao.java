@@ -0,0 +1,53 @@
+package com.erendogan6.planmyworkout.core.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseEntity;
+
+import java.util.List;
+
+/**
+ * Data access object for cached plan exercises.
+ */
+@Dao
+public abstract class ExerciseDao {
+
+    @Query("SELECT * FROM exercises WHERE ownerId = :ownerId AND planId = :planId ORDER BY position")
+    public abstract List<ExerciseEntity> getExercises(String ownerId, String planId);
+
+    @Query("SELECT * FROM exercises WHERE ownerId = :ownerId ORDER BY planId, position")
+    public abstract List<ExerciseEntity> getExercisesForOwner(String ownerId);
+
+    @Query("SELECT * FROM exercises WHERE ownerId = :ownerId AND planId = :planId AND exerciseId = :exerciseId")
+    public abstract ExerciseEntity getExercise(String ownerId, String planId, String exerciseId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertExercises(List<ExerciseEntity> exercises);
+
+    @Query("DELETE FROM exercises WHERE ownerId = :ownerId AND planId = :planId")
+    public abstract void deleteExercises(String ownerId, String planId);
+
+    @Query("DELETE FROM exercises WHERE ownerId = :ownerId")
+    public abstract void deleteExercisesForOwner(String ownerId);
+
+    @Query("UPDATE exercises SET lastWeight = :weight, lastReps = :reps "
+            + "WHERE ownerId = :ownerId AND planId = :planId AND exerciseId = :exerciseId")
+    public abstract void updateLastTry(String ownerId, String planId, String exerciseId, double weight, int reps);
+
+    /**
+     * Replace all cached exercises of a plan in a single transaction.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exercises The exercises to cache
+     */
+    @Transaction
+    public void replaceExercises(String ownerId, String planId, List<ExerciseEntity> exercises) {
+        deleteExercises(ownerId, planId);
+        insertExercises(exercises);
+    }
+}
@@ -0,0 +1,149 @@
+package com.erendogan6.planmyworkout.core.database.dao;
+
+import android.database.Cursor;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.database.model.LatestExerciseLog;
+import com.erendogan6.planmyworkout.core.database.model.PendingExerciseLog;
+
+import java.util.List;
+
+/**
+ * Data access object for cached exercise logs.
+ */
+@Dao
+public abstract class ExerciseLogDao {
+
+    @Query("SELECT * FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId ORDER BY timestamp DESC")
+    public abstract List<ExerciseLogEntity> getLogs(String ownerId, String planId, String exerciseId);
+
+    /**
+     * Read the values of all logs of an exercise, oldest first, without building entities.
+     * The cursor holds the timestamp, weight and reps columns in that order and must be closed.
+     */
+    @Query("SELECT timestamp, weight, reps FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId ORDER BY timestamp")
+    public abstract Cursor getLogValues(String ownerId, String planId, String exerciseId);
+
+    @Query("SELECT * FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId AND timestamp < :before ORDER BY timestamp DESC LIMIT :limit")
+    public abstract List<ExerciseLogEntity> getLogsBefore(String ownerId, String planId, String exerciseId,
+                                                          long before, int limit);
+
+    @Query("SELECT * FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId AND pending = 1 AND timestamp < :before AND timestamp >= :from "
+            + "ORDER BY timestamp DESC")
+    public abstract List<ExerciseLogEntity> getPendingLogsBetween(String ownerId, String planId, String exerciseId,
+                                                                  long before, long from);
+
+    @Query("SELECT * FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId ORDER BY timestamp DESC LIMIT 1")
+    public abstract ExerciseLogEntity getLatestLog(String ownerId, String planId, String exerciseId);
+
+    @Query("SELECT * FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId ORDER BY timestamp DESC LIMIT 1")
+    public abstract LiveData<ExerciseLogEntity> observeLatestLog(String ownerId, String planId, String exerciseId);
+
+    @Query("SELECT l.*, t.logCount, t.weightTotal, t.repsTotal, t.volumeTotal FROM exercise_logs l, "
+            + "(SELECT COUNT(*) AS logCount, TOTAL(weight) AS weightTotal, TOTAL(reps) AS repsTotal, "
+            + "TOTAL(weight * reps) AS volumeTotal FROM exercise_logs WHERE ownerId = :ownerId "
+            + "AND planId = :planId AND exerciseId = :exerciseId) t "
+            + "WHERE l.ownerId = :ownerId AND l.planId = :planId AND l.exerciseId = :exerciseId "
+            + "ORDER BY l.timestamp DESC LIMIT 1")
+    public abstract LiveData<LatestExerciseLog> observeLatestLogWithTotals(String ownerId, String planId,
+                                                                           String exerciseId);
+
+    @Query("SELECT * FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId AND logId = :logId")
+    public abstract ExerciseLogEntity getLog(String ownerId, String planId, String exerciseId, String logId);
+
+    @Query("SELECT l.*, l.timestamp >= (SELECT MAX(m.timestamp) FROM exercise_logs m "
+            + "WHERE m.ownerId = l.ownerId AND m.planId = l.planId AND m.exerciseId = l.exerciseId) AS latest "
+            + "FROM exercise_logs l WHERE l.ownerId = :ownerId AND l.pending = 1 "
+            + "ORDER BY l.timestamp LIMIT :limit")
+    public abstract List<PendingExerciseLog> getPendingLogs(String ownerId, int limit);
+
+    @Query("SELECT l.* FROM exercise_logs l WHERE l.ownerId = :ownerId AND l.planId = :planId AND l.pending = 1 "
+            + "AND l.timestamp >= (SELECT MAX(m.timestamp) FROM exercise_logs m "
+            + "WHERE m.ownerId = l.ownerId AND m.planId = l.planId AND m.exerciseId = l.exerciseId)")
+    public abstract List<ExerciseLogEntity> getLatestPendingLogs(String ownerId, String planId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertLog(ExerciseLogEntity log);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    public abstract void insertLogsIfAbsent(List<ExerciseLogEntity> logs);
+
+    @Query("UPDATE exercise_logs SET weight = :weight, reps = :reps, notes = :notes, "
+            + "pending = 1, revision = revision + 1 "
+            + "WHERE ownerId = :ownerId AND planId = :planId AND exerciseId = :exerciseId AND logId = :logId")
+    public abstract int updatePendingLog(String ownerId, String planId, String exerciseId, String logId,
+                                         double weight, int reps, String notes);
+
+    @Query("UPDATE exercise_logs SET pending = 0 WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId AND logId = :logId AND revision = :revision")
+    public abstract void markSynced(String ownerId, String planId, String exerciseId, String logId, int revision);
+
+    /**
+     * Record the values a log was pushed with, whether or not it changed again since.
+     */
+    @Query("UPDATE exercise_logs SET pushed = 1, pushedWeight = :weight, pushedReps = :reps "
+            + "WHERE ownerId = :ownerId AND planId = :planId AND exerciseId = :exerciseId AND logId = :logId")
+    public abstract void markPushed(String ownerId, String planId, String exerciseId, String logId,
+                                    double weight, int reps);
+
+    @Query("DELETE FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId")
+    public abstract void deletePlanLogs(String ownerId, String planId);
+
+    @Query("DELETE FROM exercise_logs WHERE ownerId = :ownerId AND planId = :planId "
+            + "AND exerciseId = :exerciseId AND pending = 0")
+    public abstract void deleteSyncedLogs(String ownerId, String planId, String exerciseId);
+
+    /**
+     * Cache a log read from Firestore unless a local change to it is still pending.
+     *
+     * @param log The log read from Firestore
+     */
+    @Transaction
+    public void insertRemoteLog(ExerciseLogEntity log) {
+        ExerciseLogEntity cachedLog = getLog(log.getOwnerId(), log.getPlanId(), log.getExerciseId(), log.getLogId());
+        if (cachedLog == null || !cachedLog.isPending()) {
+            insertLog(log);
+        }
+    }
+
+    /**
+     * Cache logs read from Firestore, skipping those with a pending local change.
+     *
+     * @param logs The logs read from Firestore
+     */
+    @Transaction
+    public void insertRemoteLogs(List<ExerciseLogEntity> logs) {
+        for (ExerciseLogEntity log : logs) {
+            insertRemoteLog(log);
+        }
+    }
+
+    /**
+     * Replace all synced logs of an exercise in a single transaction.
+     * Pending logs are kept, and win over the copy read from Firestore.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logs The logs read from Firestore
+     */
+    @Transaction
+    public void replaceLogs(String ownerId, String planId, String exerciseId, List<ExerciseLogEntity> logs) {
+        deleteSyncedLogs(ownerId, planId, exerciseId);
+        insertLogsIfAbsent(logs);
+    }
+}
@@ -0,0 +1,48 @@
+package com.erendogan6.planmyworkout.core.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.erendogan6.planmyworkout.core.database.entity.PlanEntity;
+
+import java.util.List;
+
+/**
+ * Data access object for cached workout plans.
+ */
+@Dao
+public abstract class PlanDao {
+
+    @Query("SELECT * FROM plans WHERE ownerId = :ownerId AND planId = :planId")
+    public abstract PlanEntity getPlan(String ownerId, String planId);
+
+    @Query("SELECT * FROM plans WHERE ownerId = :ownerId ORDER BY name")
+    public abstract List<PlanEntity> getPlans(String ownerId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertPlan(PlanEntity plan);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertPlans(List<PlanEntity> plans);
+
+    @Query("DELETE FROM plans WHERE ownerId = :ownerId")
+    public abstract void deletePlans(String ownerId);
+
+    @Query("DELETE FROM plans WHERE ownerId = :ownerId AND planId = :planId")
+    public abstract void deletePlan(String ownerId, String planId);
+
+    /**
+     * Replace all cached plans of an owner in a single transaction.
+     *
+     * @param ownerId The owner ID
+     * @param plans The plans to cache
+     */
+    @Transaction
+    public void replacePlans(String ownerId, List<PlanEntity> plans) {
+        deletePlans(ownerId);
+        insertPlans(plans);
+    }
+}
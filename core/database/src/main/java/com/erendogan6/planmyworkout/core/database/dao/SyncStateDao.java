@@ -0,0 +1,21 @@
+package com.erendogan6.planmyworkout.core.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.erendogan6.planmyworkout.core.database.entity.SyncStateEntity;
+
+/**
+ * Data access object for the sync state of cached collections.
+ */
+@Dao
+public abstract class SyncStateDao {
+
+    @Query("SELECT * FROM sync_state WHERE `key` = :key")
+    public abstract SyncStateEntity getSyncState(String key);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertSyncState(SyncStateEntity syncState);
+}
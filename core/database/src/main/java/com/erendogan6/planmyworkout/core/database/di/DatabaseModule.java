@@ -0,0 +1,65 @@
+package com.erendogan6.planmyworkout.core.database.di;
+
+import android.content.Context;
+
+import androidx.room.Room;
+
+import com.erendogan6.planmyworkout.core.database.AppDatabase;
+import com.erendogan6.planmyworkout.core.database.DatabaseMigrations;
+import com.erendogan6.planmyworkout.core.database.dao.ExerciseDao;
+import com.erendogan6.planmyworkout.core.database.dao.ExerciseLogDao;
+import com.erendogan6.planmyworkout.core.database.dao.PlanDao;
+import com.erendogan6.planmyworkout.core.database.dao.SyncStateDao;
+
+import javax.inject.Singleton;
+
+import dagger.Module;
+import dagger.Provides;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import dagger.hilt.components.SingletonComponent;
+
+/**
+ * Hilt module for providing the local database and its DAOs.
+ */
+@Module
+@InstallIn(SingletonComponent.class)
+public class DatabaseModule {
+
+    /**
+     * Provides the AppDatabase instance.
+     * The database holds logs that are not synced yet, so schema changes are migrated instead of
+     * dropping the tables.
+     *
+     * @param context Application context
+     * @return AppDatabase instance
+     */
+    @Provides
+    @Singleton
+    public AppDatabase provideAppDatabase(@ApplicationContext Context context) {
+        return Room.databaseBuilder(context, AppDatabase.class, AppDatabase.DATABASE_NAME)
+                .addMigrations(DatabaseMigrations.ALL)
+                .fallbackToDestructiveMigrationOnDowngrade(true)
+                .build();
+    }
+
+    @Provides
+    public PlanDao providePlanDao(AppDatabase database) {
+        return database.planDao();
+    }
+
+    @Provides
+    public ExerciseDao provideExerciseDao(AppDatabase database) {
+        return database.exerciseDao();
+    }
+
+    @Provides
+    public ExerciseLogDao provideExerciseLogDao(AppDatabase database) {
+        return database.exerciseLogDao();
+    }
+
+    @Provides
+    public SyncStateDao provideSyncStateDao(AppDatabase database) {
+        return database.syncStateDao();
+    }
+}
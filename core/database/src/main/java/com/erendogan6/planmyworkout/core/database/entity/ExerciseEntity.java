@@ -0,0 +1,153 @@
+package com.erendogan6.planmyworkout.core.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Room entity for a cached exercise of a workout plan.
+ * The last try values mirror the latest log summary stored on the plan document.
+ */
+@Entity(tableName = "exercises",
+        primaryKeys = {"ownerId", "planId", "exerciseId"},
+        indices = {@Index(value = {"ownerId", "planId", "position"})})
+public class ExerciseEntity {
+
+    @NonNull
+    private String ownerId = "";
+    @NonNull
+    private String planId = "";
+    @NonNull
+    private String exerciseId = "";
+    private int position;
+    private String name;
+    private String description;
+    private String muscleGroup;
+    private int sets;
+    private int reps;
+    private int restSeconds;
+    private String unit;
+    private Double lastWeight;
+    private Integer lastReps;
+    // Whether the ID is the positional fallback of a plan entry that stores no ID
+    private boolean positionalId;
+
+    public ExerciseEntity() {
+        // Required empty constructor for Room
+    }
+
+    @NonNull
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(@NonNull String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    @NonNull
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(@NonNull String planId) {
+        this.planId = planId;
+    }
+
+    @NonNull
+    public String getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(@NonNull String exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getMuscleGroup() {
+        return muscleGroup;
+    }
+
+    public void setMuscleGroup(String muscleGroup) {
+        this.muscleGroup = muscleGroup;
+    }
+
+    public int getSets() {
+        return sets;
+    }
+
+    public void setSets(int sets) {
+        this.sets = sets;
+    }
+
+    public int getReps() {
+        return reps;
+    }
+
+    public void setReps(int reps) {
+        this.reps = reps;
+    }
+
+    public int getRestSeconds() {
+        return restSeconds;
+    }
+
+    public void setRestSeconds(int restSeconds) {
+        this.restSeconds = restSeconds;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public Double getLastWeight() {
+        return lastWeight;
+    }
+
+    public void setLastWeight(Double lastWeight) {
+        this.lastWeight = lastWeight;
+    }
+
+    public Integer getLastReps() {
+        return lastReps;
+    }
+
+    public void setLastReps(Integer lastReps) {
+        this.lastReps = lastReps;
+    }
+
+    public boolean isPositionalId() {
+        return positionalId;
+    }
+
+    public void setPositionalId(boolean positionalId) {
+        this.positionalId = positionalId;
+    }
+}
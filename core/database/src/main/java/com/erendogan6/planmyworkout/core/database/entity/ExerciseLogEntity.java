@@ -0,0 +1,175 @@
+package com.erendogan6.planmyworkout.core.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Room entity for a cached exercise log entry.
+ * Logs written on this device stay pending until the outbox has pushed them to Firestore.
+ * The values last pushed are kept, so the outbox can tell a new log from an edit and adjust the
+ * statistics by the difference without reading the stored log first.
+ */
+@Entity(tableName = "exercise_logs",
+        primaryKeys = {"ownerId", "planId", "exerciseId", "logId"},
+        indices = {
+                @Index(value = {"ownerId", "planId", "exerciseId", "timestamp"}),
+                @Index(value = {"ownerId", "pending"})
+        })
+public class ExerciseLogEntity {
+
+    @NonNull
+    private String ownerId = "";
+    @NonNull
+    private String planId = "";
+    @NonNull
+    private String exerciseId = "";
+    @NonNull
+    private String logId = "";
+    private double weight;
+    private int reps;
+    private String notes;
+    private long timestamp;
+    @ColumnInfo(defaultValue = "0")
+    private boolean pending;
+    @ColumnInfo(defaultValue = "0")
+    private int revision;
+    @ColumnInfo(defaultValue = "0")
+    private boolean pushed;
+    @ColumnInfo(defaultValue = "0")
+    private double pushedWeight;
+    @ColumnInfo(defaultValue = "0")
+    private int pushedReps;
+
+    public ExerciseLogEntity() {
+        // Required empty constructor for Room
+    }
+
+    @NonNull
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(@NonNull String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    @NonNull
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(@NonNull String planId) {
+        this.planId = planId;
+    }
+
+    @NonNull
+    public String getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(@NonNull String exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    @NonNull
+    public String getLogId() {
+        return logId;
+    }
+
+    public void setLogId(@NonNull String logId) {
+        this.logId = logId;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+
+    public int getReps() {
+        return reps;
+    }
+
+    public void setReps(int reps) {
+        this.reps = reps;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(boolean pending) {
+        this.pending = pending;
+    }
+
+    /**
+     * Local edit counter, so an outbox flush only clears the pending flag of the revision it pushed.
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * Check if the log is stored in Firestore, with the pushed values.
+     */
+    public boolean isPushed() {
+        return pushed;
+    }
+
+    public void setPushed(boolean pushed) {
+        this.pushed = pushed;
+    }
+
+    public double getPushedWeight() {
+        return pushedWeight;
+    }
+
+    public void setPushedWeight(double pushedWeight) {
+        this.pushedWeight = pushedWeight;
+    }
+
+    /**
+     * Get the reps stored in Firestore, or a negative number if the log is pushed but its
+     * stored values are unknown.
+     */
+    public int getPushedReps() {
+        return pushedReps;
+    }
+
+    public void setPushedReps(int pushedReps) {
+        this.pushedReps = pushedReps;
+    }
+
+    /**
+     * Record the current values as the ones stored in Firestore.
+     */
+    public void markPushed() {
+        pushed = true;
+        pushedWeight = weight;
+        pushedReps = reps;
+    }
+}
@@ -0,0 +1,110 @@
+package com.erendogan6.planmyworkout.core.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+import java.util.List;
+
+/**
+ * Room entity for a cached workout plan.
+ * Plans are keyed by their owner, which is either a user ID or {@link #OWNER_READY_MADE}
+ * for the ready-made plan catalog.
+ */
+@Entity(tableName = "plans", primaryKeys = {"ownerId", "planId"})
+public class PlanEntity {
+
+    /**
+     * Owner ID used for plans from the ready-made catalog.
+     */
+    public static final String OWNER_READY_MADE = "readyWorkoutPlans";
+
+    @NonNull
+    private String ownerId = "";
+    @NonNull
+    private String planId = "";
+    private String name;
+    private String description;
+    private String difficulty;
+    private int daysPerWeek;
+    private int durationWeeks;
+    private List<String> weeklySchedule;
+    private long cachedAt;
+
+    public PlanEntity() {
+        // Required empty constructor for Room
+    }
+
+    @NonNull
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(@NonNull String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    @NonNull
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(@NonNull String planId) {
+        this.planId = planId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public int getDaysPerWeek() {
+        return daysPerWeek;
+    }
+
+    public void setDaysPerWeek(int daysPerWeek) {
+        this.daysPerWeek = daysPerWeek;
+    }
+
+    public int getDurationWeeks() {
+        return durationWeeks;
+    }
+
+    public void setDurationWeeks(int durationWeeks) {
+        this.durationWeeks = durationWeeks;
+    }
+
+    public List<String> getWeeklySchedule() {
+        return weeklySchedule;
+    }
+
+    public void setWeeklySchedule(List<String> weeklySchedule) {
+        this.weeklySchedule = weeklySchedule;
+    }
+
+    public long getCachedAt() {
+        return cachedAt;
+    }
+
+    public void setCachedAt(long cachedAt) {
+        this.cachedAt = cachedAt;
+    }
+}
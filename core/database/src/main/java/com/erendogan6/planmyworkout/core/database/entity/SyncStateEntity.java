@@ -0,0 +1,49 @@
+package com.erendogan6.planmyworkout.core.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room entity recording when a remote collection was last copied into the local cache.
+ * A missing row means the collection has never been fully cached. The watermark is the update
+ * time of the newest remote change that was copied, so the next sync only asks for later ones.
+ */
+@Entity(tableName = "sync_state")
+public class SyncStateEntity {
+
+    @PrimaryKey
+    @NonNull
+    private String key = "";
+    private long syncedAt;
+    private long watermark;
+
+    public SyncStateEntity() {
+        // Required empty constructor for Room
+    }
+
+    @NonNull
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(@NonNull String key) {
+        this.key = key;
+    }
+
+    public long getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(long syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+}
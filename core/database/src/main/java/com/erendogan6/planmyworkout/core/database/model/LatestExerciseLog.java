@@ -0,0 +1,24 @@
+package com.erendogan6.planmyworkout.core.database.model;
+
+import androidx.room.Embedded;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+
+/**
+ * The newest exercise log together with totals over all logs of its exercise.
+ * Any change to the logs of the exercise changes the totals, so observers that keep something
+ * derived from every log can tell when it went stale, not only when a newer log arrived.
+ */
+public class LatestExerciseLog {
+
+    @Embedded
+    public ExerciseLogEntity log;
+
+    public int logCount;
+
+    public double weightTotal;
+
+    public double repsTotal;
+
+    public double volumeTotal;
+}
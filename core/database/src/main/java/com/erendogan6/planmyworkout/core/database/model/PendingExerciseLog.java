@@ -0,0 +1,20 @@
+package com.erendogan6.planmyworkout.core.database.model;
+
+import androidx.room.Embedded;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+
+/**
+ * A pending exercise log together with whether it is the newest log of its exercise.
+ */
+public class PendingExerciseLog {
+
+    @Embedded
+    public ExerciseLogEntity log;
+
+    /**
+     * True if no other log of the same exercise is newer, so the plan's latest log summary
+     * has to follow this log.
+     */
+    public boolean latest;
+}
@@ -0,0 +1,379 @@
+package com.erendogan6.planmyworkout.core.cache;
+
+import android.database.Cursor;
+
+import androidx.lifecycle.LiveData;
+
+import com.erendogan6.planmyworkout.core.database.AppDatabase;
+import com.erendogan6.planmyworkout.core.database.dao.ExerciseLogDao;
+import com.erendogan6.planmyworkout.core.database.dao.SyncStateDao;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.database.entity.SyncStateEntity;
+import com.erendogan6.planmyworkout.core.database.model.LatestExerciseLog;
+import com.erendogan6.planmyworkout.core.database.model.PendingExerciseLog;
+import com.erendogan6.planmyworkout.core.log.ExerciseHistory;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Local cache for exercise logs backed by Room.
+ * It also acts as the outbox for logs written on this device: they are stored as pending
+ * and cleared once they have been committed to Firestore.
+ * All database work runs on the database query executor, so every method is safe to call
+ * from the main thread.
+ */
+@Singleton
+public class ExerciseLogCache {
+
+    private final AppDatabase database;
+    private final ExerciseLogDao logDao;
+    private final SyncStateDao syncStateDao;
+    private final Executor executor;
+
+    @Inject
+    public ExerciseLogCache(AppDatabase database) {
+        this.database = database;
+        this.logDao = database.exerciseLogDao();
+        this.syncStateDao = database.syncStateDao();
+        this.executor = database.getQueryExecutor();
+    }
+
+    /**
+     * Get the cached logs of an exercise, newest first.
+     * Single logs may be cached before the full history was ever read, so the history only
+     * counts as cached once it has been replaced from Firestore.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the cached logs, or null if the full history is not cached
+     */
+    public Task<List<ExerciseLogEntity>> getLogs(String ownerId, String planId, String exerciseId) {
+        return Tasks.call(executor, () -> {
+            if (syncStateDao.getSyncState(getLogsKey(ownerId, planId, exerciseId)) == null) {
+                return null;
+            }
+            return logDao.getLogs(ownerId, planId, exerciseId);
+        });
+    }
+
+    /**
+     * Get the cached log history of an exercise in columns.
+     * The values are copied straight from the query cursor, so no entity is built per log.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the history, or null if the full history is not cached
+     */
+    public Task<ExerciseHistory> getHistory(String ownerId, String planId, String exerciseId) {
+        return Tasks.call(executor, () -> {
+            if (syncStateDao.getSyncState(getLogsKey(ownerId, planId, exerciseId)) == null) {
+                return null;
+            }
+            try (Cursor cursor = logDao.getLogValues(ownerId, planId, exerciseId)) {
+                ExerciseHistory history = new ExerciseHistory(cursor.getCount());
+                while (cursor.moveToNext()) {
+                    history.add(cursor.getLong(0), cursor.getDouble(1), cursor.getInt(2));
+                }
+                return history;
+            }
+        });
+    }
+
+    /**
+     * Get a page of cached logs of an exercise, newest first.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Only logs older than this timestamp in milliseconds are returned
+     * @param limit The maximum number of logs to return
+     * @return Task with the cached logs, or null if the full history is not cached
+     */
+    public Task<List<ExerciseLogEntity>> getLogsBefore(String ownerId, String planId, String exerciseId,
+                                                       long before, int limit) {
+        return Tasks.call(executor, () -> {
+            if (syncStateDao.getSyncState(getLogsKey(ownerId, planId, exerciseId)) == null) {
+                return null;
+            }
+            return logDao.getLogsBefore(ownerId, planId, exerciseId, before, limit);
+        });
+    }
+
+    /**
+     * Get the pending logs of an exercise within a time range, newest first.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Upper bound of the range in milliseconds, exclusive
+     * @param from Lower bound of the range in milliseconds, inclusive
+     * @return Task with the pending logs
+     */
+    public Task<List<ExerciseLogEntity>> getPendingLogsBetween(String ownerId, String planId, String exerciseId,
+                                                               long before, long from) {
+        return Tasks.call(executor, () -> logDao.getPendingLogsBetween(ownerId, planId, exerciseId, before, from));
+    }
+
+    /**
+     * Get the newest cached log of an exercise.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the latest cached log, or null if none is cached
+     */
+    public Task<ExerciseLogEntity> getLatestLog(String ownerId, String planId, String exerciseId) {
+        return Tasks.call(executor, () -> logDao.getLatestLog(ownerId, planId, exerciseId));
+    }
+
+    /**
+     * Observe the newest cached log of an exercise.
+     * Room queries the table again whenever logs change, whether they were written on this
+     * device or read from Firestore.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return LiveData with the latest cached log, holding null if none is cached
+     */
+    public LiveData<ExerciseLogEntity> observeLatestLog(String ownerId, String planId, String exerciseId) {
+        return logDao.observeLatestLog(ownerId, planId, exerciseId);
+    }
+
+    /**
+     * Observe the latest cached log of an exercise together with totals over all of its cached
+     * logs, which change whenever any of them is added, edited or removed.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return LiveData with the latest cached log and the totals, holding null if none is cached
+     */
+    public LiveData<LatestExerciseLog> observeLatestLogWithTotals(String ownerId, String planId, String exerciseId) {
+        return logDao.observeLatestLogWithTotals(ownerId, planId, exerciseId);
+    }
+
+    /**
+     * Replace the cached logs of an exercise.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logs The logs read from Firestore
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> replaceLogs(String ownerId, String planId, String exerciseId, List<ExerciseLogEntity> logs) {
+        return replaceLogs(ownerId, planId, exerciseId, logs, -1);
+    }
+
+    /**
+     * Replace the cached logs of an exercise and record the newest change they include.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logs The logs read from Firestore
+     * @param watermark The update time of the newest log, or -1 to keep the recorded one
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> replaceLogs(String ownerId, String planId, String exerciseId, List<ExerciseLogEntity> logs,
+                                  long watermark) {
+        return Tasks.call(executor, () -> {
+            String key = getLogsKey(ownerId, planId, exerciseId);
+            database.runInTransaction(() -> {
+                logDao.replaceLogs(ownerId, planId, exerciseId, logs);
+                syncStateDao.insertSyncState(createSyncState(key, watermark));
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Get the update time of the newest log change copied into the cache for an exercise.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the watermark, or null if the full history is not cached
+     */
+    public Task<Long> getLogsWatermark(String ownerId, String planId, String exerciseId) {
+        return Tasks.call(executor, () -> {
+            SyncStateEntity syncState = syncStateDao.getSyncState(getLogsKey(ownerId, planId, exerciseId));
+            return syncState != null ? syncState.getWatermark() : null;
+        });
+    }
+
+    /**
+     * Cache logs of an exercise that changed in Firestore since the recorded watermark.
+     * Logs with a pending local change are skipped, like in {@link #insertRemoteLogs(List)}.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logs The changed logs
+     * @param watermark The update time of the newest change
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> mergeRemoteLogs(String ownerId, String planId, String exerciseId,
+                                      List<ExerciseLogEntity> logs, long watermark) {
+        return Tasks.call(executor, () -> {
+            String key = getLogsKey(ownerId, planId, exerciseId);
+            database.runInTransaction(() -> {
+                logDao.insertRemoteLogs(logs);
+                syncStateDao.insertSyncState(createSyncState(key, watermark));
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Cache a single log read from Firestore, unless a local change to it is still pending.
+     *
+     * @param log The log read from Firestore
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> insertRemoteLog(ExerciseLogEntity log) {
+        return Tasks.call(executor, () -> {
+            logDao.insertRemoteLog(log);
+            return null;
+        });
+    }
+
+    /**
+     * Cache logs read from Firestore, unless a local change to them is still pending.
+     *
+     * @param logs The logs read from Firestore
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> insertRemoteLogs(List<ExerciseLogEntity> logs) {
+        return Tasks.call(executor, () -> {
+            logDao.insertRemoteLogs(logs);
+            return null;
+        });
+    }
+
+    /**
+     * Store a new log written on this device and mark it pending.
+     *
+     * @param log The new log
+     * @return Task that completes when the log is stored
+     */
+    public Task<Void> insertPendingLog(ExerciseLogEntity log) {
+        log.setPending(true);
+        log.setRevision(1);
+        return Tasks.call(executor, () -> {
+            logDao.insertLog(log);
+            return null;
+        });
+    }
+
+    /**
+     * Change the values of a stored log and mark it pending.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logId The log ID
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     * @param notes Optional notes about the exercise
+     * @return Task with the updated log, or null if the log is not stored on this device
+     */
+    public Task<ExerciseLogEntity> updatePendingLog(String ownerId, String planId, String exerciseId, String logId,
+                                                    double weight, int reps, String notes) {
+        return Tasks.call(executor, () -> database.runInTransaction(() -> {
+            if (logDao.updatePendingLog(ownerId, planId, exerciseId, logId, weight, reps, notes) == 0) {
+                return null;
+            }
+            return logDao.getLog(ownerId, planId, exerciseId, logId);
+        }));
+    }
+
+    /**
+     * Get the oldest pending logs of an owner.
+     *
+     * @param ownerId The owner ID
+     * @param limit The maximum number of logs to return
+     * @return Task with the pending logs, oldest first
+     */
+    public Task<List<PendingExerciseLog>> getPendingLogs(String ownerId, int limit) {
+        return Tasks.call(executor, () -> logDao.getPendingLogs(ownerId, limit));
+    }
+
+    /**
+     * Clear the pending flag of logs that were committed to Firestore, and record the values
+     * they were committed with.
+     * A log changed again while it was being pushed keeps its flag, since its revision moved on.
+     *
+     * @param logs The committed logs
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> markSynced(List<ExerciseLogEntity> logs) {
+        return Tasks.call(executor, () -> {
+            database.runInTransaction(() -> {
+                for (ExerciseLogEntity log : logs) {
+                    logDao.markPushed(log.getOwnerId(), log.getPlanId(), log.getExerciseId(),
+                            log.getLogId(), log.getWeight(), log.getReps());
+                    logDao.markSynced(log.getOwnerId(), log.getPlanId(), log.getExerciseId(),
+                            log.getLogId(), log.getRevision());
+                }
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Delete all logs of a plan, pending or not, after the plan was deleted in Firestore.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @return Task that completes when the logs are deleted
+     */
+    public Task<Void> deletePlanLogs(String ownerId, String planId) {
+        return Tasks.call(executor, () -> {
+            logDao.deletePlanLogs(ownerId, planId);
+            return null;
+        });
+    }
+
+    /**
+     * Create the sync state of a log collection that was just synced.
+     * Must run inside a database transaction.
+     *
+     * @param key The sync state key
+     * @param watermark The update time of the newest change, or -1 to keep the recorded one
+     * @return The sync state
+     */
+    private SyncStateEntity createSyncState(String key, long watermark) {
+        SyncStateEntity syncState = new SyncStateEntity();
+        syncState.setKey(key);
+        syncState.setSyncedAt(System.currentTimeMillis());
+        if (watermark >= 0) {
+            syncState.setWatermark(watermark);
+        } else {
+            SyncStateEntity previous = syncStateDao.getSyncState(key);
+            syncState.setWatermark(previous != null ? previous.getWatermark() : 0);
+        }
+        return syncState;
+    }
+
+    /**
+     * Build the sync state key of an exercise's log collection.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return The sync state key
+     */
+    private static String getLogsKey(String ownerId, String planId, String exerciseId) {
+        return ownerId + "/plans/" + planId + "/exercises/" + exerciseId + "/logs";
+    }
+}
@@ -0,0 +1,326 @@
+package com.erendogan6.planmyworkout.core.cache;
+
+import com.erendogan6.planmyworkout.core.database.AppDatabase;
+import com.erendogan6.planmyworkout.core.database.dao.ExerciseDao;
+import com.erendogan6.planmyworkout.core.database.dao.ExerciseLogDao;
+import com.erendogan6.planmyworkout.core.database.dao.PlanDao;
+import com.erendogan6.planmyworkout.core.database.dao.SyncStateDao;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseEntity;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.database.entity.PlanEntity;
+import com.erendogan6.planmyworkout.core.database.entity.SyncStateEntity;
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Local cache for plan documents backed by Room.
+ * All database work runs on the database query executor, so every method is safe to call
+ * from the main thread.
+ */
+@Singleton
+public class PlanCache {
+
+    private final AppDatabase database;
+    private final PlanDao planDao;
+    private final ExerciseDao exerciseDao;
+    private final ExerciseLogDao logDao;
+    private final SyncStateDao syncStateDao;
+    private final Executor executor;
+
+    @Inject
+    public PlanCache(AppDatabase database) {
+        this.database = database;
+        this.planDao = database.planDao();
+        this.exerciseDao = database.exerciseDao();
+        this.logDao = database.exerciseLogDao();
+        this.syncStateDao = database.syncStateDao();
+        this.executor = database.getQueryExecutor();
+    }
+
+    /**
+     * Get a cached plan with its exercises.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @return Task with the cached plan, or null if it is not cached
+     */
+    public Task<PlanDocument> getPlan(String ownerId, String planId) {
+        return Tasks.call(executor, () -> database.runInTransaction(() -> {
+            PlanEntity plan = planDao.getPlan(ownerId, planId);
+            if (plan == null) {
+                return null;
+            }
+            return toPlanDocument(plan, exerciseDao.getExercises(ownerId, planId));
+        }));
+    }
+
+    /**
+     * Get a single cached exercise, without reading the rest of its plan.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the cached exercise, or null if it is not cached
+     */
+    public Task<PlanExercise> getExercise(String ownerId, String planId, String exerciseId) {
+        return Tasks.call(executor, () -> {
+            ExerciseEntity exercise = exerciseDao.getExercise(ownerId, planId, exerciseId);
+            return exercise != null ? toPlanExercise(exercise) : null;
+        });
+    }
+
+    /**
+     * Get all cached plans of an owner with their exercises.
+     *
+     * @param ownerId The owner ID
+     * @return Task with the cached plans, ordered by name
+     */
+    public Task<List<PlanDocument>> getPlans(String ownerId) {
+        return Tasks.call(executor, () -> database.runInTransaction(() -> {
+            List<PlanEntity> plans = planDao.getPlans(ownerId);
+            Map<String, List<ExerciseEntity>> exercisesByPlan = new HashMap<>();
+            for (ExerciseEntity exercise : exerciseDao.getExercisesForOwner(ownerId)) {
+                List<ExerciseEntity> exercises = exercisesByPlan.get(exercise.getPlanId());
+                if (exercises == null) {
+                    exercises = new ArrayList<>();
+                    exercisesByPlan.put(exercise.getPlanId(), exercises);
+                }
+                exercises.add(exercise);
+            }
+
+            List<PlanDocument> documents = new ArrayList<>(plans.size());
+            for (PlanEntity plan : plans) {
+                List<ExerciseEntity> exercises = exercisesByPlan.get(plan.getPlanId());
+                documents.add(toPlanDocument(plan, exercises != null ? exercises : new ArrayList<>()));
+            }
+            return documents;
+        }));
+    }
+
+    /**
+     * Store a plan and its exercises, replacing any cached copy.
+     * The last try of exercises whose newest log is still pending is kept, since the plan read
+     * from Firestore does not include it yet.
+     *
+     * @param ownerId The owner ID
+     * @param plan The plan read from Firestore
+     * @return Task with the plan as it was stored
+     */
+    public Task<PlanDocument> savePlan(String ownerId, PlanDocument plan) {
+        return Tasks.call(executor, () -> database.runInTransaction(() -> {
+            PlanDocument storedPlan = applyPendingLastTries(ownerId, plan);
+            planDao.insertPlan(toPlanEntity(ownerId, storedPlan));
+            exerciseDao.replaceExercises(ownerId, storedPlan.getId(), toExerciseEntities(ownerId, storedPlan));
+            return storedPlan;
+        }));
+    }
+
+    /**
+     * Get the version of the cached plans of an owner, which is the update time of the newest
+     * plan they include.
+     *
+     * @param ownerId The owner ID
+     * @return Task with the version, or 0 if the plans were never cached with a version
+     */
+    public Task<Long> getPlansVersion(String ownerId) {
+        return Tasks.call(executor, () -> {
+            SyncStateEntity syncState = syncStateDao.getSyncState(getPlansKey(ownerId));
+            return syncState != null ? syncState.getWatermark() : 0L;
+        });
+    }
+
+    /**
+     * Replace every cached plan of an owner and record the version they correspond to.
+     *
+     * @param ownerId The owner ID
+     * @param plans The complete set of plans
+     * @param version The update time of the newest plan
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> replacePlans(String ownerId, List<PlanDocument> plans, long version) {
+        return Tasks.call(executor, () -> {
+            List<PlanEntity> planEntities = new ArrayList<>(plans.size());
+            List<ExerciseEntity> exercises = new ArrayList<>();
+            for (PlanDocument plan : plans) {
+                planEntities.add(toPlanEntity(ownerId, plan));
+                exercises.addAll(toExerciseEntities(ownerId, plan));
+            }
+
+            database.runInTransaction(() -> {
+                planDao.replacePlans(ownerId, planEntities);
+                exerciseDao.deleteExercisesForOwner(ownerId);
+                exerciseDao.insertExercises(exercises);
+                syncStateDao.insertSyncState(createSyncState(ownerId, version));
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Apply the plans of an owner that changed since the cached version.
+     *
+     * @param ownerId The owner ID
+     * @param changedPlans Plans that were added or updated
+     * @param removedPlanIds IDs of plans that were removed
+     * @param version The update time of the newest change
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> mergePlans(String ownerId, List<PlanDocument> changedPlans, List<String> removedPlanIds,
+                                 long version) {
+        return Tasks.call(executor, () -> {
+            database.runInTransaction(() -> {
+                for (PlanDocument plan : changedPlans) {
+                    planDao.insertPlan(toPlanEntity(ownerId, plan));
+                    exerciseDao.replaceExercises(ownerId, plan.getId(), toExerciseEntities(ownerId, plan));
+                }
+                for (String planId : removedPlanIds) {
+                    planDao.deletePlan(ownerId, planId);
+                    exerciseDao.deleteExercises(ownerId, planId);
+                }
+                syncStateDao.insertSyncState(createSyncState(ownerId, version));
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Update the cached last try of an exercise.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param weight The weight of the latest log
+     * @param reps The reps of the latest log
+     * @return Task that completes when the cache is written
+     */
+    public Task<Void> updateLastTry(String ownerId, String planId, String exerciseId, double weight, int reps) {
+        return Tasks.call(executor, () -> {
+            exerciseDao.updateLastTry(ownerId, planId, exerciseId, weight, reps);
+            return null;
+        });
+    }
+
+    /**
+     * Overwrite the last try of exercises whose newest log has not reached Firestore yet.
+     *
+     * @param ownerId The owner ID
+     * @param plan The plan read from Firestore
+     * @return The plan with the pending last tries applied
+     */
+    private PlanDocument applyPendingLastTries(String ownerId, PlanDocument plan) {
+        PlanDocument result = plan;
+        for (ExerciseLogEntity log : logDao.getLatestPendingLogs(ownerId, plan.getId())) {
+            if (result.getExercise(log.getExerciseId()) != null) {
+                result = result.withLastTry(log.getExerciseId(), log.getWeight(), log.getReps());
+            }
+        }
+        return result;
+    }
+
+    private static SyncStateEntity createSyncState(String ownerId, long version) {
+        SyncStateEntity syncState = new SyncStateEntity();
+        syncState.setKey(getPlansKey(ownerId));
+        syncState.setSyncedAt(System.currentTimeMillis());
+        syncState.setWatermark(version);
+        return syncState;
+    }
+
+    private static String getPlansKey(String ownerId) {
+        return ownerId + "/plans";
+    }
+
+    /**
+     * Convert a cached plan and its exercises to a PlanDocument.
+     */
+    private PlanDocument toPlanDocument(PlanEntity plan, List<ExerciseEntity> exerciseEntities) {
+        List<PlanExercise> exercises = new ArrayList<>(exerciseEntities.size());
+        for (ExerciseEntity entity : exerciseEntities) {
+            exercises.add(toPlanExercise(entity));
+        }
+        return new PlanDocument(
+                plan.getPlanId(),
+                plan.getName(),
+                plan.getDescription(),
+                plan.getDifficulty(),
+                plan.getDaysPerWeek(),
+                plan.getDurationWeeks(),
+                plan.getWeeklySchedule(),
+                exercises
+        );
+    }
+
+    /**
+     * Convert a cached exercise to a PlanExercise.
+     */
+    private PlanExercise toPlanExercise(ExerciseEntity entity) {
+        return new PlanExercise(
+                entity.getExerciseId(),
+                entity.getName(),
+                entity.getDescription(),
+                entity.getMuscleGroup(),
+                entity.getSets(),
+                entity.getReps(),
+                entity.getRestSeconds(),
+                entity.getUnit(),
+                entity.getLastWeight(),
+                entity.getLastReps(),
+                entity.isPositionalId()
+        );
+    }
+
+    /**
+     * Convert a PlanDocument to a PlanEntity.
+     */
+    private PlanEntity toPlanEntity(String ownerId, PlanDocument document) {
+        PlanEntity plan = new PlanEntity();
+        plan.setOwnerId(ownerId);
+        plan.setPlanId(document.getId());
+        plan.setName(document.getName());
+        plan.setDescription(document.getDescription());
+        plan.setDifficulty(document.getDifficulty());
+        plan.setDaysPerWeek(document.getDaysPerWeek());
+        plan.setDurationWeeks(document.getDurationWeeks());
+        plan.setWeeklySchedule(document.getWeeklySchedule());
+        plan.setCachedAt(System.currentTimeMillis());
+        return plan;
+    }
+
+    /**
+     * Convert the exercises of a PlanDocument to ExerciseEntity objects.
+     */
+    private List<ExerciseEntity> toExerciseEntities(String ownerId, PlanDocument document) {
+        List<PlanExercise> planExercises = document.getExercises();
+        List<ExerciseEntity> exercises = new ArrayList<>(planExercises.size());
+        for (int i = 0; i < planExercises.size(); i++) {
+            PlanExercise planExercise = planExercises.get(i);
+            ExerciseEntity exercise = new ExerciseEntity();
+            exercise.setOwnerId(ownerId);
+            exercise.setPlanId(document.getId());
+            exercise.setExerciseId(planExercise.getId());
+            exercise.setPosition(i);
+            exercise.setName(planExercise.getName());
+            exercise.setDescription(planExercise.getDescription());
+            exercise.setMuscleGroup(planExercise.getMuscleGroup());
+            exercise.setSets(planExercise.getSets());
+            exercise.setReps(planExercise.getReps());
+            exercise.setRestSeconds(planExercise.getRestSeconds());
+            exercise.setUnit(planExercise.getUnit());
+            exercise.setLastWeight(planExercise.getLastWeight());
+            exercise.setLastReps(planExercise.getLastReps());
+            exercise.setPositionalId(planExercise.isPositionalId());
+            exercises.add(exercise);
+        }
+        return exercises;
+    }
+}
@@ -2,6 +2,9 @@ package com.erendogan6.planmyworkout.core.di;
 
 import android.content.Context;
 
+import androidx.tracing.Trace;
+
+import com.erendogan6.planmyworkout.core.firestore.FirestoreConfig;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -23,17 +26,30 @@ public class CoreModule {
 
     /**
      * Provides FirebaseFirestore instance.
+     * It is first requested by the startup warm-up on a background thread, see WarmUpInitializer.
+     * The settings are applied here, before anything else can use the instance.
      *
      * @param context Application context
+     * @param config Firestore configuration
      * @return FirebaseFirestore instance
      */
     @Provides
     @Singleton
-    public FirebaseFirestore provideFirebaseFirestore(@ApplicationContext Context context) {
-        // Ensure Firebase is initialized
-        if (FirebaseApp.getApps(context).isEmpty()) {
-            FirebaseApp.initializeApp(context);
+    public FirebaseFirestore provideFirebaseFirestore(@ApplicationContext Context context, FirestoreConfig config) {
+        Trace.beginSection("CoreModule.provideFirebaseFirestore");
+        try {
+            // Ensure Firebase is initialized
+            if (FirebaseApp.getApps(context).isEmpty()) {
+                FirebaseApp.initializeApp(context);
+            }
+            FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+            if (config.getEmulatorHost() != null) {
+                firestore.useEmulator(config.getEmulatorHost(), config.getEmulatorPort());
+            }
+            firestore.setFirestoreSettings(config.toSettings());
+            return firestore;
+        } finally {
+            Trace.endSection();
         }
-        return FirebaseFirestore.getInstance();
     }
 }
@@ -0,0 +1,38 @@
+package com.erendogan6.planmyworkout.core.di;
+
+import com.erendogan6.planmyworkout.core.firestore.FirestoreConfig;
+
+import javax.inject.Singleton;
+
+import dagger.Module;
+import dagger.Provides;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+
+/**
+ * Hilt module for the Firestore configuration.
+ * It is kept apart from CoreModule so tests can replace it, for example with a configuration
+ * that connects to the Firestore emulator.
+ */
+@Module
+@InstallIn(SingletonComponent.class)
+public class FirestoreConfigModule {
+
+    /**
+     * Provides the Firestore configuration.
+     *
+     * @return FirestoreConfig instance
+     */
+    @Provides
+    @Singleton
+    public FirestoreConfig provideFirestoreConfig() {
+        return new FirestoreConfig.Builder()
+                .setCacheLocation(FirestoreConfig.CacheLocation.DISK)
+                .setCacheSizeBytes(FirestoreConfig.DEFAULT_CACHE_SIZE_BYTES)
+                .setGcPolicy(FirestoreConfig.GcPolicy.LRU)
+                // Clients before the monthly layout only write log documents, so keep
+                // compacting off until they are gone
+                .setLogLayout(FirestoreConfig.LogLayout.DOCUMENT_PER_LOG)
+                .build();
+    }
+}
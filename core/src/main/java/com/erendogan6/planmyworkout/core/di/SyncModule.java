@@ -0,0 +1,29 @@
+package com.erendogan6.planmyworkout.core.di;
+
+import com.erendogan6.planmyworkout.core.sync.MainPlanSyncTask;
+import com.erendogan6.planmyworkout.core.sync.SyncTask;
+
+import java.util.Set;
+
+import dagger.Binds;
+import dagger.Module;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+import dagger.multibindings.IntoSet;
+import dagger.multibindings.Multibinds;
+
+/**
+ * Hilt module for the background sync.
+ * Feature modules add their own {@link SyncTask} to the set the same way.
+ */
+@Module
+@InstallIn(SingletonComponent.class)
+public abstract class SyncModule {
+
+    @Multibinds
+    abstract Set<SyncTask> syncTasks();
+
+    @Binds
+    @IntoSet
+    abstract SyncTask bindMainPlanSyncTask(MainPlanSyncTask task);
+}
@@ -0,0 +1,22 @@
+package com.erendogan6.planmyworkout.core.di;
+
+import com.erendogan6.planmyworkout.core.user.SignOutListener;
+
+import java.util.Set;
+
+import dagger.Module;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+import dagger.multibindings.Multibinds;
+
+/**
+ * Hilt module for user session state.
+ * Feature modules add their own {@link SignOutListener} to the set.
+ */
+@Module
+@InstallIn(SingletonComponent.class)
+public abstract class UserModule {
+
+    @Multibinds
+    abstract Set<SignOutListener> signOutListeners();
+}
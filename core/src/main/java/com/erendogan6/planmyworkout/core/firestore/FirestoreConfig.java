@@ -0,0 +1,226 @@
+package com.erendogan6.planmyworkout.core.firestore;
+
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.LocalCacheSettings;
+import com.google.firebase.firestore.MemoryCacheSettings;
+import com.google.firebase.firestore.MemoryEagerGcSettings;
+import com.google.firebase.firestore.MemoryLruGcSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import com.google.firebase.firestore.Source;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings for the shared Firestore instance and for how each repository reads from it.
+ * Instances are immutable and created with {@link Builder}.
+ */
+public final class FirestoreConfig {
+
+    /**
+     * Default size of the local cache, which matches the Firestore default.
+     */
+    public static final long DEFAULT_CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+
+    /**
+     * Where Firestore keeps its local cache.
+     */
+    public enum CacheLocation {
+        /** On disk, so the cache survives restarts and serves offline reads. */
+        DISK,
+        /** In memory only, so the cache is lost when the process ends. */
+        MEMORY
+    }
+
+    /**
+     * How Firestore removes documents from its local cache.
+     */
+    public enum GcPolicy {
+        /** Remove the least recently used documents once the cache exceeds its size. */
+        LRU,
+        /** Remove documents as soon as no listener or pending write uses them. Memory cache only. */
+        EAGER,
+        /** Never remove documents, ignoring the cache size. */
+        NONE
+    }
+
+    /**
+     * Groups of reads that can be given their own {@link Source}.
+     */
+    public enum Repository {
+        PLANS,
+        WORKOUT_LOGS,
+        READY_MADE_CATALOG,
+        USER_PROFILE,
+        EXERCISE_STATS
+    }
+
+    /**
+     * How new exercise logs are stored.
+     */
+    public enum LogLayout {
+        /** One document per log, the original layout. */
+        DOCUMENT_PER_LOG,
+        /**
+         * One document per exercise and month holding all logs of the month. Existing logs are
+         * compacted into it by the background sync.
+         */
+        MONTHLY
+    }
+
+    private final CacheLocation cacheLocation;
+    private final long cacheSizeBytes;
+    private final GcPolicy gcPolicy;
+    private final Map<Repository, Source> sources;
+    private final LogLayout logLayout;
+    private final String emulatorHost;
+    private final int emulatorPort;
+
+    private FirestoreConfig(Builder builder) {
+        this.cacheLocation = builder.cacheLocation;
+        this.cacheSizeBytes = builder.cacheSizeBytes;
+        this.gcPolicy = builder.gcPolicy;
+        this.sources = Collections.unmodifiableMap(new EnumMap<>(builder.sources));
+        this.logLayout = builder.logLayout;
+        this.emulatorHost = builder.emulatorHost;
+        this.emulatorPort = builder.emulatorPort;
+    }
+
+    /**
+     * Create the Firestore settings described by this configuration.
+     *
+     * @return The settings to apply before the instance is first used
+     */
+    public FirebaseFirestoreSettings toSettings() {
+        return new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(toLocalCacheSettings())
+                .build();
+    }
+
+    private LocalCacheSettings toLocalCacheSettings() {
+        long sizeBytes = gcPolicy == GcPolicy.NONE
+                ? FirebaseFirestoreSettings.CACHE_SIZE_UNLIMITED
+                : cacheSizeBytes;
+        if (cacheLocation == CacheLocation.DISK) {
+            return PersistentCacheSettings.newBuilder().setSizeBytes(sizeBytes).build();
+        }
+
+        MemoryCacheSettings.Builder memoryCache = MemoryCacheSettings.newBuilder();
+        if (gcPolicy == GcPolicy.EAGER) {
+            memoryCache.setGcSettings(MemoryEagerGcSettings.newBuilder().build());
+        } else {
+            memoryCache.setGcSettings(MemoryLruGcSettings.newBuilder().setSizeBytes(sizeBytes).build());
+        }
+        return memoryCache.build();
+    }
+
+    /**
+     * Get the source the reads of a repository should use.
+     *
+     * @param repository The repository
+     * @return The configured source, or {@link Source#DEFAULT} if none was set
+     */
+    public Source getSource(Repository repository) {
+        Source source = sources.get(repository);
+        return source != null ? source : Source.DEFAULT;
+    }
+
+    /**
+     * Get the layout that exercise logs are compacted into.
+     * Logs of exercises that were already compacted are read from the monthly documents
+     * whatever this returns.
+     */
+    public LogLayout getLogLayout() {
+        return logLayout;
+    }
+
+    public CacheLocation getCacheLocation() {
+        return cacheLocation;
+    }
+
+    public long getCacheSizeBytes() {
+        return cacheSizeBytes;
+    }
+
+    public GcPolicy getGcPolicy() {
+        return gcPolicy;
+    }
+
+    /**
+     * Get the host of the Firestore emulator to connect to.
+     *
+     * @return The emulator host, or null to use the production backend
+     */
+    public String getEmulatorHost() {
+        return emulatorHost;
+    }
+
+    public int getEmulatorPort() {
+        return emulatorPort;
+    }
+
+    /**
+     * Builder for {@link FirestoreConfig}. Without changes it produces the Firestore defaults.
+     */
+    public static final class Builder {
+        private CacheLocation cacheLocation = CacheLocation.DISK;
+        private long cacheSizeBytes = DEFAULT_CACHE_SIZE_BYTES;
+        private GcPolicy gcPolicy = GcPolicy.LRU;
+        private final Map<Repository, Source> sources = new EnumMap<>(Repository.class);
+        private LogLayout logLayout = LogLayout.DOCUMENT_PER_LOG;
+        private String emulatorHost;
+        private int emulatorPort;
+
+        public Builder setCacheLocation(CacheLocation cacheLocation) {
+            this.cacheLocation = cacheLocation;
+            return this;
+        }
+
+        public Builder setCacheSizeBytes(long cacheSizeBytes) {
+            this.cacheSizeBytes = cacheSizeBytes;
+            return this;
+        }
+
+        public Builder setGcPolicy(GcPolicy gcPolicy) {
+            this.gcPolicy = gcPolicy;
+            return this;
+        }
+
+        public Builder setSource(Repository repository, Source source) {
+            sources.put(repository, source);
+            return this;
+        }
+
+        public Builder setLogLayout(LogLayout logLayout) {
+            this.logLayout = logLayout;
+            return this;
+        }
+
+        /**
+         * Connect to a Firestore emulator instead of the production backend, for tests.
+         *
+         * @param host The emulator host, for example 10.0.2.2 from an Android emulator
+         * @param port The emulator port
+         * @return This builder
+         */
+        public Builder useEmulator(String host, int port) {
+            this.emulatorHost = host;
+            this.emulatorPort = port;
+            return this;
+        }
+
+        /**
+         * Create the configuration.
+         *
+         * @return The configuration
+         * @throws IllegalStateException if eager garbage collection is combined with a disk cache
+         */
+        public FirestoreConfig build() {
+            if (gcPolicy == GcPolicy.EAGER && cacheLocation == CacheLocation.DISK) {
+                throw new IllegalStateException("Eager garbage collection is only available for a memory cache");
+            }
+            return new FirestoreConfig(this);
+        }
+    }
+}
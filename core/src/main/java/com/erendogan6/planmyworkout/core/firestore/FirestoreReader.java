@@ -0,0 +1,133 @@
+package com.erendogan6.planmyworkout.core.firestore;
+
+import androidx.tracing.Trace;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SnapshotMetadata;
+import com.google.firebase.firestore.Source;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Runs one-shot Firestore reads with the {@link Source} configured for each repository and
+ * counts how many of them were served from the local cache.
+ * A repository configured with {@link Source#CACHE} reads cache first and falls back to the
+ * server when the cache has nothing, so it still works before anything was cached.
+ * The hit counts are also published as trace counters, so the hit rate can be followed in a
+ * system trace.
+ */
+@Singleton
+public class FirestoreReader {
+
+    private static final String COUNTER_PREFIX = "Firestore.cacheHits.";
+
+    private final FirestoreConfig config;
+    private final Map<FirestoreConfig.Repository, AtomicLong> reads = new EnumMap<>(FirestoreConfig.Repository.class);
+    private final Map<FirestoreConfig.Repository, AtomicLong> cacheHits =
+            new EnumMap<>(FirestoreConfig.Repository.class);
+
+    @Inject
+    public FirestoreReader(FirestoreConfig config) {
+        this.config = config;
+        for (FirestoreConfig.Repository repository : FirestoreConfig.Repository.values()) {
+            reads.put(repository, new AtomicLong());
+            cacheHits.put(repository, new AtomicLong());
+        }
+    }
+
+    /**
+     * Read a document.
+     *
+     * @param document The document to read
+     * @param repository The repository the read belongs to
+     * @return Task with the document snapshot
+     */
+    public Task<DocumentSnapshot> get(DocumentReference document, FirestoreConfig.Repository repository) {
+        Source source = config.getSource(repository);
+        if (source == Source.CACHE) {
+            return document.get(Source.CACHE).continueWithTask(cacheTask -> {
+                if (cacheTask.isSuccessful() && cacheTask.getResult().exists()) {
+                    return recorded(repository, cacheTask);
+                }
+                return recorded(repository, document.get(Source.SERVER));
+            });
+        }
+        return recorded(repository, document.get(source));
+    }
+
+    /**
+     * Run a query.
+     *
+     * @param query The query to run
+     * @param repository The repository the read belongs to
+     * @return Task with the query snapshot
+     */
+    public Task<QuerySnapshot> get(Query query, FirestoreConfig.Repository repository) {
+        Source source = config.getSource(repository);
+        if (source == Source.CACHE) {
+            return query.get(Source.CACHE).continueWithTask(cacheTask -> {
+                if (cacheTask.isSuccessful() && !cacheTask.getResult().isEmpty()) {
+                    return recordedQuery(repository, cacheTask);
+                }
+                return recordedQuery(repository, query.get(Source.SERVER));
+            });
+        }
+        return recordedQuery(repository, query.get(source));
+    }
+
+    /**
+     * Get the number of successful reads of a repository.
+     *
+     * @param repository The repository
+     * @return The number of reads since the process started
+     */
+    public long getReadCount(FirestoreConfig.Repository repository) {
+        return reads.get(repository).get();
+    }
+
+    /**
+     * Get the number of reads of a repository that were served from the local cache.
+     *
+     * @param repository The repository
+     * @return The number of cache hits since the process started
+     */
+    public long getCacheHitCount(FirestoreConfig.Repository repository) {
+        return cacheHits.get(repository).get();
+    }
+
+    /**
+     * Get the share of reads of a repository that were served from the local cache.
+     *
+     * @param repository The repository
+     * @return The hit rate between 0 and 1, or 0 if nothing was read yet
+     */
+    public double getCacheHitRate(FirestoreConfig.Repository repository) {
+        long readCount = getReadCount(repository);
+        return readCount > 0 ? (double) getCacheHitCount(repository) / readCount : 0;
+    }
+
+    private Task<DocumentSnapshot> recorded(FirestoreConfig.Repository repository, Task<DocumentSnapshot> read) {
+        return read.addOnSuccessListener(snapshot -> record(repository, snapshot.getMetadata()));
+    }
+
+    private Task<QuerySnapshot> recordedQuery(FirestoreConfig.Repository repository, Task<QuerySnapshot> read) {
+        return read.addOnSuccessListener(snapshot -> record(repository, snapshot.getMetadata()));
+    }
+
+    private void record(FirestoreConfig.Repository repository, SnapshotMetadata metadata) {
+        reads.get(repository).incrementAndGet();
+        if (metadata.isFromCache()) {
+            long hits = cacheHits.get(repository).incrementAndGet();
+            Trace.setCounter(COUNTER_PREFIX + repository.name(), (int) hits);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Log history of one exercise held in columns: one primitive array per value, ordered by time.
+ * A log costs 20 bytes here instead of an object with boxed values, a date, an ID and notes,
+ * so analytics and charts can hold thousands of logs and read them by index. IDs and notes
+ * aren't kept; screens that show them read pages of logs instead.
+ * Not thread safe; confine an instance to one thread once it is shared.
+ */
+public final class ExerciseHistory {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] timestamps;
+    private double[] weights;
+    private int[] reps;
+    private int size;
+
+    public ExerciseHistory() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create an empty history.
+     *
+     * @param capacity The number of logs it holds before it grows
+     */
+    public ExerciseHistory(int capacity) {
+        capacity = Math.max(capacity, 1);
+        timestamps = new long[capacity];
+        weights = new double[capacity];
+        reps = new int[capacity];
+    }
+
+    /**
+     * Build the history of a list of logs.
+     *
+     * @param logs The logs, in any order
+     * @return The history
+     */
+    public static ExerciseHistory fromLogs(List<ExerciseLogEntity> logs) {
+        // Sorted first, so every log is appended rather than inserted
+        List<ExerciseLogEntity> ordered = new ArrayList<>(logs);
+        ordered.sort(Comparator.comparingLong(ExerciseLogEntity::getTimestamp));
+
+        ExerciseHistory history = new ExerciseHistory(ordered.size());
+        for (ExerciseLogEntity log : ordered) {
+            history.add(log.getTimestamp(), log.getWeight(), log.getReps());
+        }
+        return history;
+    }
+
+    /**
+     * Add a log. A log not older than the newest one is appended in constant time, an older
+     * one is inserted in place.
+     *
+     * @param timestamp The time the log was created, in milliseconds
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     */
+    public void add(long timestamp, double weight, int reps) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            this.reps = Arrays.copyOf(this.reps, capacity);
+        }
+
+        int position = size;
+        if (size > 0 && timestamp < timestamps[size - 1]) {
+            // After the logs of the same time, so logs of one time keep the order they were added in
+            position = indexAfter(timestamp);
+            System.arraycopy(timestamps, position, timestamps, position + 1, size - position);
+            System.arraycopy(weights, position, weights, position + 1, size - position);
+            System.arraycopy(this.reps, position, this.reps, position + 1, size - position);
+        }
+        timestamps[position] = timestamp;
+        weights[position] = weight;
+        this.reps[position] = reps;
+        size++;
+    }
+
+    /**
+     * Get the number of logs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the time a log was created, in milliseconds.
+     *
+     * @param index The index of the log, oldest first
+     */
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * Get the weight of a log.
+     *
+     * @param index The index of the log, oldest first
+     */
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Get the reps of a log.
+     *
+     * @param index The index of the log, oldest first
+     */
+    public int getReps(int index) {
+        return reps[index];
+    }
+
+    /**
+     * Find the first log created at or after a time. Together with another call for the end
+     * of a range, this gives the index range of the logs created in it.
+     *
+     * @param timestamp The time, in milliseconds
+     * @return The index of the log, or the size if every log is older
+     */
+    public int indexOf(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Count the logs created in a time range.
+     *
+     * @param from Start of the range in milliseconds, inclusive
+     * @param to End of the range in milliseconds, exclusive
+     * @return The number of logs
+     */
+    public int count(long from, long to) {
+        return Math.max(0, indexOf(to) - indexOf(from));
+    }
+
+    private int indexAfter(long timestamp) {
+        return timestamp == Long.MAX_VALUE ? size : indexOf(timestamp + 1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
+import com.google.firebase.firestore.FieldValue;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes monthly log documents, which hold all logs of one exercise created in one
+ * month. The logs are a map from log ID to the fields of a log document, so a log is written
+ * or edited by merging its entry, and a retried write ends in the same state.
+ * Months are taken in UTC, so every device puts a log into the same document.
+ */
+public final class ExerciseLogBucketCodec {
+
+    public static final String COLLECTION = "logMonths";
+    public static final String FIELD_LOGS = "logs";
+    // Set by the server on every write, so syncs can ask for the months changed since a time
+    public static final String FIELD_UPDATED_AT = ExerciseLogCodec.FIELD_UPDATED_AT;
+
+    private ExerciseLogBucketCodec() {
+        // Utility class
+    }
+
+    /**
+     * Get the ID of the monthly document that holds a log.
+     *
+     * @param timestamp The time the log was created, in milliseconds
+     * @return The document ID, such as 2024-03, which sorts in time order
+     */
+    public static String getMonthId(long timestamp) {
+        return YearMonth.from(Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC)).toString();
+    }
+
+    /**
+     * Get the time a log was created from its ID. Logs are created with the creation time as
+     * their ID, which lets a log be found without reading it first.
+     *
+     * @param logId The log ID
+     * @return The creation time in milliseconds, or -1 if the ID is not a time
+     */
+    public static long getCreationTime(String logId) {
+        try {
+            return Long.parseLong(logId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Read the logs of a monthly document.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param data The monthly document data, may be null
+     * @return The logs, in no particular order
+     */
+    public static List<ExerciseLogEntity> decode(String ownerId, String planId, String exerciseId,
+                                                 Map<String, Object> data) {
+        Map<String, Object> entries = data != null ? DocumentValues.getMap(data, FIELD_LOGS) : null;
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+
+        List<ExerciseLogEntity> logs = new ArrayList<>(entries.size());
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            Map<String, Object> log = DocumentValues.getMap(entries, entry.getKey());
+            if (log != null) {
+                logs.add(ExerciseLogCodec.decode(ownerId, planId, exerciseId, entry.getKey(), log));
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Read the entry of one log of a monthly document.
+     *
+     * @param data The monthly document data, may be null
+     * @param logId The log ID
+     * @return The fields of the log, or null if the document doesn't hold it
+     */
+    public static Map<String, Object> decodeEntry(Map<String, Object> data, String logId) {
+        Map<String, Object> entries = data != null ? DocumentValues.getMap(data, FIELD_LOGS) : null;
+        return entries != null ? DocumentValues.getMap(entries, logId) : null;
+    }
+
+    /**
+     * Write the change of a monthly document that adds or replaces one log.
+     * Meant to be merged into the document.
+     *
+     * @param log The log
+     * @return The change
+     */
+    public static Map<String, Object> encode(ExerciseLogEntity log) {
+        return encodeEntries(Collections.singletonMap(log.getLogId(), ExerciseLogCodec.encode(log)));
+    }
+
+    /**
+     * Write the change of a monthly document that adds or replaces the given log entries.
+     * Meant to be merged into the document.
+     *
+     * @param entries The fields of each log, by log ID
+     * @return The change
+     */
+    public static Map<String, Object> encodeEntries(Map<String, Map<String, Object>> entries) {
+        Map<String, Object> data = new HashMap<>(4);
+        data.put(FIELD_LOGS, entries);
+        data.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+        return data;
+    }
+}
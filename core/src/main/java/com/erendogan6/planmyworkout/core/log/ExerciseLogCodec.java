@@ -0,0 +1,86 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
+import com.google.firebase.firestore.FieldValue;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes exercise log documents, and the latest log summaries kept on plan documents.
+ */
+public final class ExerciseLogCodec {
+
+    public static final String FIELD_LOG_ID = "logId";
+    public static final String FIELD_WEIGHT = "weight";
+    public static final String FIELD_REPS = "reps";
+    public static final String FIELD_NOTES = "notes";
+    public static final String FIELD_TIMESTAMP = "timestamp";
+    // Set by the server on every write, so syncs can ask for the logs changed since a time
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+
+    private ExerciseLogCodec() {
+        // Utility class
+    }
+
+    /**
+     * Read a log document.
+     *
+     * @param ownerId The owner ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logId The log document ID
+     * @param data The log document data
+     * @return The log
+     */
+    public static ExerciseLogEntity decode(String ownerId, String planId, String exerciseId, String logId,
+                                           Map<String, Object> data) {
+        ExerciseLogEntity log = new ExerciseLogEntity();
+        log.setOwnerId(ownerId);
+        log.setPlanId(planId);
+        log.setExerciseId(exerciseId);
+        log.setLogId(logId);
+        log.setWeight(DocumentValues.getDouble(data, FIELD_WEIGHT, 0));
+        log.setReps(DocumentValues.getInt(data, FIELD_REPS, 0));
+        log.setNotes(DocumentValues.getString(data, FIELD_NOTES));
+        log.setTimestamp(DocumentValues.getMillis(data, FIELD_TIMESTAMP, 0));
+        log.markPushed();
+        return log;
+    }
+
+    /**
+     * Write a log document.
+     *
+     * @param log The log
+     * @return The log document data
+     */
+    public static Map<String, Object> encode(ExerciseLogEntity log) {
+        Map<String, Object> data = new HashMap<>(6);
+        data.put(FIELD_WEIGHT, log.getWeight());
+        data.put(FIELD_REPS, log.getReps());
+        data.put(FIELD_NOTES, log.getNotes());
+        data.put(FIELD_TIMESTAMP, new Date(log.getTimestamp()));
+        data.put(FIELD_UPDATED_AT, FieldValue.serverTimestamp());
+        return data;
+    }
+
+    /**
+     * Write the latest log summary entry stored on a plan document.
+     *
+     * @param logId The log ID
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     * @param timestamp The time the log was created, may be null
+     * @return The summary entry
+     */
+    public static Map<String, Object> encodeSummary(String logId, double weight, int reps, Date timestamp) {
+        Map<String, Object> summary = new HashMap<>(6);
+        summary.put(FIELD_LOG_ID, logId);
+        summary.put(FIELD_WEIGHT, weight);
+        summary.put(FIELD_REPS, reps);
+        summary.put(FIELD_TIMESTAMP, timestamp);
+        return summary;
+    }
+}
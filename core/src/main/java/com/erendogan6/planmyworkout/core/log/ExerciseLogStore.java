@@ -0,0 +1,686 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreConfig;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreReader;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
+import com.erendogan6.planmyworkout.core.util.RequestScope;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Reads and writes the exercise logs stored in Firestore, in either of their two layouts.
+ * Logs start out as one document per log. With the monthly layout configured, the background
+ * sync compacts them into one document per exercise and month, after which a full history
+ * costs about a dozen reads instead of one per log. Compacted exercises carry a marker on their
+ * exercise document, so every reader and writer follows the layout the exercise actually has.
+ * Writers that check the marker in a transaction never write to the old layout once an exercise
+ * is compacted. Batch writers may, if they read the marker just before it was set, so every
+ * compaction of an exercise that is already compacted sweeps such stranded logs into its months.
+ * Documents are decoded on the background executor.
+ */
+@Singleton
+public class ExerciseLogStore {
+
+    /**
+     * Field of the exercise document that marks its logs as compacted into monthly documents.
+     */
+    public static final String FIELD_LOG_LAYOUT = "logLayout";
+
+    private static final String LAYOUT_MONTHLY = "monthly";
+    private static final String COLLECTION_LOGS = "logs";
+    // Months read per query when paging, since a page rarely spans more than two months
+    private static final int MONTHS_PER_READ = 2;
+    private static final int MAX_WRITES_PER_BATCH = 500;
+    // How long an exercise read as not compacted is trusted before its marker is read again
+    private static final long NOT_COMPACTED_TTL_MS = 5 * 60 * 1_000;
+
+    private final FirebaseFirestore firestore;
+    private final FirestoreReader reader;
+    private final FirestoreConfig config;
+    private final BackgroundExecutor executor;
+    // Compaction can't be undone, so compacted exercises are remembered for good
+    private final Set<String> compactedExercises = ConcurrentHashMap.newKeySet();
+    // Exercises read as not compacted, with the time until which that is trusted
+    private final Map<String, Long> notCompactedUntil = new ConcurrentHashMap<>();
+
+    @Inject
+    public ExerciseLogStore(FirebaseFirestore firestore, FirestoreReader reader, FirestoreConfig config,
+                            BackgroundExecutor executor) {
+        this.firestore = firestore;
+        this.reader = reader;
+        this.config = config;
+        this.executor = executor;
+    }
+
+    /**
+     * Get a reference to the exercise document, which holds the statistics and the layout marker.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Reference to the exercise document
+     */
+    public DocumentReference getExerciseReference(String userId, String planId, String exerciseId) {
+        return firestore.collection("users")
+                .document(userId)
+                .collection("plans")
+                .document(planId)
+                .collection("exercises")
+                .document(exerciseId);
+    }
+
+    /**
+     * Check if the logs of an exercise were compacted into monthly documents.
+     * Without the monthly layout configured nothing is compacted, so only exercises already seen
+     * compacted are. Otherwise the marker is read, and a missing marker is trusted for a few
+     * minutes before it is read again.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with true if the exercise uses the monthly layout, failing if the marker can't be read
+     */
+    public Task<Boolean> isCompacted(String userId, String planId, String exerciseId) {
+        DocumentReference exerciseRef = getExerciseReference(userId, planId, exerciseId);
+        String path = exerciseRef.getPath();
+        if (compactedExercises.contains(path)) {
+            return Tasks.forResult(true);
+        }
+        if (!isCompactionEnabled()) {
+            return Tasks.forResult(false);
+        }
+        Long until = notCompactedUntil.get(path);
+        if (until != null && until > System.currentTimeMillis()) {
+            return Tasks.forResult(false);
+        }
+
+        return reader.get(exerciseRef, FirestoreConfig.Repository.EXERCISE_STATS)
+                .onSuccessTask(exercise -> Tasks.forResult(isCompacted(exercise)));
+    }
+
+    /**
+     * Check if an exercise document marks its logs as compacted. Writers read the exercise
+     * document in their transaction and pass it here, so the marker can't change under them.
+     *
+     * @param exercise The exercise document
+     * @return True if the exercise uses the monthly layout
+     */
+    public boolean isCompacted(DocumentSnapshot exercise) {
+        boolean compacted = LAYOUT_MONTHLY.equals(exercise.getString(FIELD_LOG_LAYOUT));
+        String path = exercise.getReference().getPath();
+        if (compacted) {
+            compactedExercises.add(path);
+            notCompactedUntil.remove(path);
+        } else {
+            notCompactedUntil.put(path, System.currentTimeMillis() + NOT_COMPACTED_TTL_MS);
+        }
+        return compacted;
+    }
+
+    private boolean isCompactionEnabled() {
+        return config.getLogLayout() == FirestoreConfig.LogLayout.MONTHLY;
+    }
+
+    /**
+     * Read all logs of an exercise with the source configured for workout logs.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the logs, in no particular order
+     */
+    public Task<RemoteLogs> getLogs(String userId, String planId, String exerciseId) {
+        return isCompacted(userId, planId, exerciseId).onSuccessTask(compacted -> {
+            return reader.get(getAll(userId, planId, exerciseId, compacted), FirestoreConfig.Repository.WORKOUT_LOGS)
+                    .onSuccessTask(executor, snapshot ->
+                            Tasks.forResult(decode(userId, planId, exerciseId, snapshot, compacted)));
+        });
+    }
+
+    /**
+     * Read all logs of an exercise from the server.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the logs, in no particular order
+     */
+    public Task<RemoteLogs> getLogsFromServer(String userId, String planId, String exerciseId) {
+        return isCompacted(userId, planId, exerciseId).onSuccessTask(compacted -> {
+            return getAll(userId, planId, exerciseId, compacted).get(Source.SERVER).onSuccessTask(executor, snapshot ->
+                    Tasks.forResult(decode(userId, planId, exerciseId, snapshot, compacted)));
+        });
+    }
+
+    /**
+     * Read the logs of an exercise that may have changed since a time, from the server.
+     * With the monthly layout every log of a changed month is returned.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param since The update time of the newest change already read, in milliseconds
+     * @return Task with the logs, in no particular order
+     */
+    public Task<RemoteLogs> getLogsChangedSince(String userId, String planId, String exerciseId, long since) {
+        Timestamp after = new Timestamp(new Date(since));
+        return isCompacted(userId, planId, exerciseId).onSuccessTask(compacted -> {
+            // Both layouts name the field alike, see ExerciseLogBucketCodec.FIELD_UPDATED_AT
+            Query query = getAll(userId, planId, exerciseId, compacted)
+                    .whereGreaterThan(ExerciseLogCodec.FIELD_UPDATED_AT, after);
+            return query.get(Source.SERVER).onSuccessTask(executor, snapshot ->
+                    Tasks.forResult(decode(userId, planId, exerciseId, snapshot, compacted)));
+        });
+    }
+
+    /**
+     * Read the newest logs of an exercise older than a time.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Only logs older than this time in milliseconds are read, or null for the newest
+     * @param limit The maximum number of logs to read
+     * @return Task with the logs, newest first
+     */
+    public Task<List<ExerciseLogEntity>> getLogsBefore(String userId, String planId, String exerciseId, Long before,
+                                                       int limit) {
+        return isCompacted(userId, planId, exerciseId).onSuccessTask(compacted -> {
+            if (compacted) {
+                Query months = getMonths(userId, planId, exerciseId)
+                        .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+                if (before != null) {
+                    months = months.whereLessThanOrEqualTo(FieldPath.documentId(),
+                            ExerciseLogBucketCodec.getMonthId(before));
+                }
+                long upperBound = before != null ? before : Long.MAX_VALUE;
+                return readMonths(userId, planId, exerciseId, months, upperBound, limit, new ArrayList<>());
+            }
+
+            Query logs = getLogCollection(userId, planId, exerciseId)
+                    .orderBy(ExerciseLogCodec.FIELD_TIMESTAMP, Query.Direction.DESCENDING);
+            if (before != null) {
+                logs = logs.startAfter(new Date(before));
+            }
+            return reader.get(logs.limit(limit), FirestoreConfig.Repository.WORKOUT_LOGS)
+                    .onSuccessTask(executor, snapshot ->
+                            Tasks.forResult(decode(userId, planId, exerciseId, snapshot, false).getLogs()));
+        });
+    }
+
+    /**
+     * Read months newest first until they hold enough logs older than a time.
+     * All logs of a month are newer than those of the months before it, so the logs read so
+     * far are the newest ones as soon as there are enough of them.
+     */
+    private Task<List<ExerciseLogEntity>> readMonths(String userId, String planId, String exerciseId, Query months,
+                                                     long before, int limit, List<ExerciseLogEntity> logs) {
+        return reader.get(months.limit(MONTHS_PER_READ), FirestoreConfig.Repository.WORKOUT_LOGS)
+                .onSuccessTask(executor, snapshot -> {
+                    List<DocumentSnapshot> documents = snapshot.getDocuments();
+                    for (DocumentSnapshot month : documents) {
+                        for (ExerciseLogEntity log : ExerciseLogBucketCodec.decode(userId, planId, exerciseId,
+                                month.getData())) {
+                            if (log.getTimestamp() < before) {
+                                logs.add(log);
+                            }
+                        }
+                    }
+
+                    if (logs.size() < limit && documents.size() == MONTHS_PER_READ) {
+                        String oldest = documents.get(documents.size() - 1).getId();
+                        return readMonths(userId, planId, exerciseId,
+                                months.whereLessThan(FieldPath.documentId(), oldest), before, limit, logs);
+                    }
+
+                    logs.sort((first, second) -> Long.compare(second.getTimestamp(), first.getTimestamp()));
+                    return Tasks.forResult(logs.size() > limit ? new ArrayList<>(logs.subList(0, limit)) : logs);
+                });
+    }
+
+    /**
+     * Read the newest log of an exercise.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the newest log, or null if the exercise has none
+     */
+    public Task<ExerciseLogEntity> getLatestLog(String userId, String planId, String exerciseId) {
+        return getLatestLog(userId, planId, exerciseId, RequestScope.NONE);
+    }
+
+    /**
+     * Read the newest log of an exercise, unless the request is cancelled before the log query
+     * is sent.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param token Cancels the read if it hasn't reached the log query yet
+     * @return Task with the newest log, or null if the exercise has none
+     */
+    public Task<ExerciseLogEntity> getLatestLog(String userId, String planId, String exerciseId,
+                                                CancellationToken token) {
+        return isCompacted(userId, planId, exerciseId).onSuccessTask(compacted -> {
+            RequestScope.throwIfCancelled(token);
+            return reader.get(getLatest(userId, planId, exerciseId, compacted), FirestoreConfig.Repository.WORKOUT_LOGS)
+                    .onSuccessTask(executor, snapshot -> Tasks.forResult(
+                            getNewest(decode(userId, planId, exerciseId, snapshot, compacted).getLogs())));
+        });
+    }
+
+    /**
+     * Listen to the newest log of an exercise.
+     * With the monthly layout configured both layouts are listened to, since an exercise can be
+     * compacted while it is observed. The one that doesn't hold the exercise's logs is empty and
+     * stays silent. Otherwise only the layout the exercise has is listened to.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param callbackExecutor The executor the listener is called on
+     * @param listener Called with the newest log of a layout whenever it changes
+     * @return Registration that removes the listeners
+     */
+    public ListenerRegistration addLatestLogListener(String userId, String planId, String exerciseId,
+                                                     Executor callbackExecutor,
+                                                     EventListener<ExerciseLogEntity> listener) {
+        boolean compacted = compactedExercises.contains(getExerciseReference(userId, planId, exerciseId).getPath());
+        if (!isCompactionEnabled()) {
+            return addLatestLogListener(userId, planId, exerciseId, compacted, callbackExecutor, listener);
+        }
+
+        ListenerRegistration logs = addLatestLogListener(userId, planId, exerciseId, false, callbackExecutor,
+                listener);
+        ListenerRegistration months = addLatestLogListener(userId, planId, exerciseId, true, callbackExecutor,
+                listener);
+        return () -> {
+            logs.remove();
+            months.remove();
+        };
+    }
+
+    private ListenerRegistration addLatestLogListener(String userId, String planId, String exerciseId,
+                                                      boolean compacted, Executor callbackExecutor,
+                                                      EventListener<ExerciseLogEntity> listener) {
+        return getLatest(userId, planId, exerciseId, compacted)
+                .addSnapshotListener(callbackExecutor, (snapshot, error) ->
+                        onLatestSnapshot(userId, planId, exerciseId, snapshot, error, compacted, listener));
+    }
+
+    private void onLatestSnapshot(String userId, String planId, String exerciseId, QuerySnapshot snapshot,
+                                  FirebaseFirestoreException error, boolean compacted,
+                                  EventListener<ExerciseLogEntity> listener) {
+        if (error != null) {
+            listener.onEvent(null, error);
+            return;
+        }
+        if (snapshot != null && !snapshot.isEmpty() && !snapshot.getMetadata().hasPendingWrites()) {
+            ExerciseLogEntity latest = getNewest(decode(userId, planId, exerciseId, snapshot, compacted).getLogs());
+            if (latest != null) {
+                listener.onEvent(latest, null);
+            }
+        }
+    }
+
+    /**
+     * Read the stored fields of a log inside a transaction.
+     *
+     * @param transaction The transaction
+     * @param userId The user ID
+     * @param log The log, whose timestamp decides its month
+     * @param compacted Whether the exercise uses the monthly layout
+     * @return The stored fields, or null if the log isn't stored yet
+     * @throws FirebaseFirestoreException If the read fails
+     */
+    public Map<String, Object> readLog(Transaction transaction, String userId, ExerciseLogEntity log,
+                                       boolean compacted) throws FirebaseFirestoreException {
+        return readLog(transaction, userId, log.getPlanId(), log.getExerciseId(), log.getLogId(),
+                log.getTimestamp(), compacted);
+    }
+
+    /**
+     * Read the stored fields of a log inside a transaction.
+     *
+     * @param transaction The transaction
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logId The log ID
+     * @param timestamp The time the log was created, which decides its month
+     * @param compacted Whether the exercise uses the monthly layout
+     * @return The stored fields, or null if the log isn't stored yet
+     * @throws FirebaseFirestoreException If the read fails
+     */
+    public Map<String, Object> readLog(Transaction transaction, String userId, String planId, String exerciseId,
+                                       String logId, long timestamp, boolean compacted)
+            throws FirebaseFirestoreException {
+        if (compacted) {
+            DocumentSnapshot month = transaction.get(getMonthReference(userId, planId, exerciseId, timestamp));
+            return ExerciseLogBucketCodec.decodeEntry(month.getData(), logId);
+        }
+        return transaction.get(getLogCollection(userId, planId, exerciseId).document(logId)).getData();
+    }
+
+    /**
+     * Write a log inside a transaction. The log is merged rather than created, so a retried
+     * write and an edit of a stored log both end up in the same state.
+     *
+     * @param transaction The transaction
+     * @param userId The user ID
+     * @param log The log
+     * @param compacted Whether the exercise uses the monthly layout
+     */
+    public void writeLog(Transaction transaction, String userId, ExerciseLogEntity log, boolean compacted) {
+        if (compacted) {
+            transaction.set(getMonthReference(userId, log.getPlanId(), log.getExerciseId(), log.getTimestamp()),
+                    ExerciseLogBucketCodec.encode(log), SetOptions.merge());
+        } else {
+            transaction.set(getLogCollection(userId, log.getPlanId(), log.getExerciseId()).document(log.getLogId()),
+                    ExerciseLogCodec.encode(log), SetOptions.merge());
+        }
+    }
+
+    /**
+     * Write a log in a batch, merged like {@link #writeLog(Transaction, String, ExerciseLogEntity, boolean)}.
+     *
+     * @param batch The batch
+     * @param userId The user ID
+     * @param log The log
+     * @param compacted Whether the exercise uses the monthly layout
+     */
+    public void writeLog(WriteBatch batch, String userId, ExerciseLogEntity log, boolean compacted) {
+        if (compacted) {
+            batch.set(getMonthReference(userId, log.getPlanId(), log.getExerciseId(), log.getTimestamp()),
+                    ExerciseLogBucketCodec.encode(log), SetOptions.merge());
+        } else {
+            batch.set(getLogCollection(userId, log.getPlanId(), log.getExerciseId()).document(log.getLogId()),
+                    ExerciseLogCodec.encode(log), SetOptions.merge());
+        }
+    }
+
+    /**
+     * Read a log from the local Firestore cache. A log this device wrote stays there until it
+     * reaches the server, even across restarts, so this tells whether a write committed before
+     * the device lost track of it.
+     *
+     * @param userId The user ID
+     * @param log The log, whose timestamp decides its month
+     * @param compacted Whether the exercise uses the monthly layout
+     * @return Task with the stored log, or null if the cache doesn't hold it
+     */
+    public Task<ExerciseLogEntity> getCachedLog(String userId, ExerciseLogEntity log, boolean compacted) {
+        String planId = log.getPlanId();
+        String exerciseId = log.getExerciseId();
+        DocumentReference ref = compacted
+                ? getMonthReference(userId, planId, exerciseId, log.getTimestamp())
+                : getLogCollection(userId, planId, exerciseId).document(log.getLogId());
+        return ref.get(Source.CACHE).continueWith(executor, task -> {
+            Map<String, Object> data = task.isSuccessful() ? task.getResult().getData() : null;
+            if (compacted) {
+                data = ExerciseLogBucketCodec.decodeEntry(data, log.getLogId());
+            }
+            return data != null ? ExerciseLogCodec.decode(userId, planId, exerciseId, log.getLogId(), data) : null;
+        });
+    }
+
+    /**
+     * Change fields of a stored log inside a transaction.
+     *
+     * @param transaction The transaction
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logId The log ID
+     * @param timestamp The time the log was created, which decides its month
+     * @param fields The changed fields
+     * @param compacted Whether the exercise uses the monthly layout
+     */
+    public void updateLog(Transaction transaction, String userId, String planId, String exerciseId, String logId,
+                          long timestamp, Map<String, Object> fields, boolean compacted) {
+        if (compacted) {
+            transaction.set(getMonthReference(userId, planId, exerciseId, timestamp),
+                    ExerciseLogBucketCodec.encodeEntries(Collections.singletonMap(logId, fields)), SetOptions.merge());
+        } else {
+            transaction.update(getLogCollection(userId, planId, exerciseId).document(logId), fields);
+        }
+    }
+
+    /**
+     * Compact the log documents of an exercise into monthly documents, if the monthly layout
+     * is configured. The monthly documents are written first and the marker last, so readers
+     * see the old layout until every log is in place. Writers check the marker before they
+     * write, so the old documents are read once more after the marker is set. Logs that are
+     * new since the first read, changed after it, or written by clients that don't set an
+     * update time are copied again, and only then are the old documents deleted.
+     * An exercise that is already compacted has any log documents batch writers stranded since
+     * copied and deleted the same way.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task that completes when the exercise is compacted
+     */
+    public Task<Void> compact(String userId, String planId, String exerciseId) {
+        if (config.getLogLayout() != FirestoreConfig.LogLayout.MONTHLY) {
+            return Tasks.forResult(null);
+        }
+
+        DocumentReference exerciseRef = getExerciseReference(userId, planId, exerciseId);
+        CollectionReference logs = getLogCollection(userId, planId, exerciseId);
+        return exerciseRef.get(Source.SERVER).onSuccessTask(executor, exercise -> {
+            if (isCompacted(exercise)) {
+                return logs.get(Source.SERVER).onSuccessTask(executor, stranded ->
+                        writeMonths(userId, planId, exerciseId, stranded.getDocuments())
+                                .onSuccessTask(executor, written -> deleteDocuments(stranded.getDocuments())));
+            }
+
+            return logs.get(Source.SERVER).onSuccessTask(executor, snapshot -> {
+                Set<String> copied = new HashSet<>();
+                for (DocumentSnapshot document : snapshot.getDocuments()) {
+                    copied.add(document.getId());
+                }
+                long newest = decode(userId, planId, exerciseId, snapshot, false).getNewestUpdate();
+                Map<String, Object> marker = Collections.singletonMap(FIELD_LOG_LAYOUT, LAYOUT_MONTHLY);
+                return writeMonths(userId, planId, exerciseId, snapshot.getDocuments())
+                        .onSuccessTask(executor, written -> exerciseRef.set(marker, SetOptions.merge()))
+                        // Logs written before writers saw the marker
+                        .onSuccessTask(executor, marked -> logs.get(Source.SERVER))
+                        .onSuccessTask(executor, remaining -> {
+                            compactedExercises.add(exerciseRef.getPath());
+                            List<DocumentSnapshot> changed = new ArrayList<>();
+                            for (DocumentSnapshot document : remaining.getDocuments()) {
+                                Map<String, Object> data = document.getData();
+                                long updated = data != null
+                                        ? DocumentValues.getMillis(data, ExerciseLogCodec.FIELD_UPDATED_AT, -1) : -1;
+                                if (!copied.contains(document.getId()) || updated < 0 || updated > newest) {
+                                    changed.add(document);
+                                }
+                            }
+                            return writeMonths(userId, planId, exerciseId, changed)
+                                    .onSuccessTask(executor, written -> deleteDocuments(remaining.getDocuments()));
+                        });
+            });
+        });
+    }
+
+    /**
+     * Copy log documents into the monthly documents of their months.
+     */
+    private Task<Void> writeMonths(String userId, String planId, String exerciseId, List<DocumentSnapshot> documents) {
+        Map<String, Map<String, Map<String, Object>>> months = new HashMap<>();
+        for (DocumentSnapshot document : documents) {
+            Map<String, Object> data = document.getData();
+            if (data == null) {
+                continue;
+            }
+            long created = DocumentValues.getMillis(data, ExerciseLogCodec.FIELD_TIMESTAMP,
+                    Math.max(0, ExerciseLogBucketCodec.getCreationTime(document.getId())));
+            String monthId = ExerciseLogBucketCodec.getMonthId(created);
+            Map<String, Map<String, Object>> entries = months.get(monthId);
+            if (entries == null) {
+                entries = new HashMap<>();
+                months.put(monthId, entries);
+            }
+            entries.put(document.getId(), data);
+        }
+
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = firestore.batch();
+        int writes = 0;
+        CollectionReference monthsRef = getMonths(userId, planId, exerciseId);
+        for (Map.Entry<String, Map<String, Map<String, Object>>> month : months.entrySet()) {
+            batch.set(monthsRef.document(month.getKey()), ExerciseLogBucketCodec.encodeEntries(month.getValue()),
+                    SetOptions.merge());
+            if (++writes == MAX_WRITES_PER_BATCH) {
+                commits.add(batch.commit());
+                batch = firestore.batch();
+                writes = 0;
+            }
+        }
+        if (writes > 0) {
+            commits.add(batch.commit());
+        }
+        return Tasks.whenAll(commits);
+    }
+
+    private Task<Void> deleteDocuments(List<DocumentSnapshot> documents) {
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = firestore.batch();
+        int writes = 0;
+        for (DocumentSnapshot document : documents) {
+            batch.delete(document.getReference());
+            if (++writes == MAX_WRITES_PER_BATCH) {
+                commits.add(batch.commit());
+                batch = firestore.batch();
+                writes = 0;
+            }
+        }
+        if (writes > 0) {
+            commits.add(batch.commit());
+        }
+        return Tasks.whenAll(commits);
+    }
+
+    /**
+     * Decode the documents of a query in either layout.
+     */
+    private RemoteLogs decode(String userId, String planId, String exerciseId, QuerySnapshot snapshot,
+                              boolean compacted) {
+        executor.assertNotMainThread("ExerciseLogStore.decode");
+        List<ExerciseLogEntity> logs = new ArrayList<>(compacted ? 0 : snapshot.size());
+        long newest = 0;
+        for (DocumentSnapshot document : snapshot.getDocuments()) {
+            Map<String, Object> data = document.getData();
+            if (data == null) {
+                continue;
+            }
+            if (compacted) {
+                logs.addAll(ExerciseLogBucketCodec.decode(userId, planId, exerciseId, data));
+            } else {
+                logs.add(ExerciseLogCodec.decode(userId, planId, exerciseId, document.getId(), data));
+            }
+            newest = Math.max(newest, DocumentValues.getMillis(data, ExerciseLogCodec.FIELD_UPDATED_AT, 0));
+        }
+        return new RemoteLogs(logs, newest);
+    }
+
+    private static ExerciseLogEntity getNewest(List<ExerciseLogEntity> logs) {
+        ExerciseLogEntity newest = null;
+        for (ExerciseLogEntity log : logs) {
+            if (newest == null || log.getTimestamp() > newest.getTimestamp()) {
+                newest = log;
+            }
+        }
+        return newest;
+    }
+
+    private CollectionReference getLogCollection(String userId, String planId, String exerciseId) {
+        return getExerciseReference(userId, planId, exerciseId).collection(COLLECTION_LOGS);
+    }
+
+    private CollectionReference getMonths(String userId, String planId, String exerciseId) {
+        return getExerciseReference(userId, planId, exerciseId).collection(ExerciseLogBucketCodec.COLLECTION);
+    }
+
+    private DocumentReference getMonthReference(String userId, String planId, String exerciseId, long timestamp) {
+        return getMonths(userId, planId, exerciseId).document(ExerciseLogBucketCodec.getMonthId(timestamp));
+    }
+
+    private Query getAll(String userId, String planId, String exerciseId, boolean compacted) {
+        return compacted ? getMonths(userId, planId, exerciseId) : getLogCollection(userId, planId, exerciseId);
+    }
+
+    /**
+     * Query the document holding the newest log: the newest log document, or the newest month.
+     */
+    private Query getLatest(String userId, String planId, String exerciseId, boolean compacted) {
+        if (compacted) {
+            return getMonths(userId, planId, exerciseId)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                    .limit(1);
+        }
+        return getLogCollection(userId, planId, exerciseId)
+                .orderBy(ExerciseLogCodec.FIELD_TIMESTAMP, Query.Direction.DESCENDING)
+                .limit(1);
+    }
+
+    /**
+     * Logs read from Firestore, with the newest server update time among the documents read.
+     */
+    public static final class RemoteLogs {
+        private final List<ExerciseLogEntity> logs;
+        private final long newestUpdate;
+
+        RemoteLogs(List<ExerciseLogEntity> logs, long newestUpdate) {
+            this.logs = logs;
+            this.newestUpdate = newestUpdate;
+        }
+
+        public List<ExerciseLogEntity> getLogs() {
+            return logs;
+        }
+
+        /**
+         * Get the newest update time, to pass to getLogsChangedSince.
+         *
+         * @return The time in milliseconds, or 0 if no document was read
+         */
+        public long getNewestUpdate() {
+            return newestUpdate;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate statistics of all logs of one exercise.
+ * The statistics are kept up to date one log at a time, so showing them never needs the full
+ * log history. An edit that lowers the log holding a best value can't be applied that way;
+ * {@link #replaceLog} reports it and the statistics have to be rebuilt from the logs.
+ */
+public class ExerciseStats {
+
+    /**
+     * How many of the newest sets are kept.
+     */
+    public static final int RECENT_SET_COUNT = 5;
+
+    private double bestWeight;
+    private String bestWeightLogId;
+    private double bestOneRepMax;
+    private String bestOneRepMaxLogId;
+    private double totalVolume;
+    // Every log counts, so two sets of one workout count twice
+    private int logCount;
+    // Logs per training day, each day with logs is one session
+    private final Map<String, Integer> sessionDays = new HashMap<>();
+    private final List<RecentSet> recentSets = new ArrayList<>(RECENT_SET_COUNT + 1);
+
+    /**
+     * Build the statistics of a full log history.
+     *
+     * @param logs The logs, in any order
+     * @return The statistics
+     */
+    public static ExerciseStats fromLogs(List<ExerciseLogEntity> logs) {
+        ExerciseStats stats = new ExerciseStats();
+        for (ExerciseLogEntity log : logs) {
+            stats.addLog(log.getLogId(), log.getWeight(), log.getReps(), log.getTimestamp());
+        }
+        return stats;
+    }
+
+    /**
+     * Estimate the one rep max of a set with the Epley formula.
+     *
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     * @return The estimated one rep max, or 0 if no reps were completed
+     */
+    public static double estimateOneRepMax(double weight, int reps) {
+        if (reps <= 0) {
+            return 0;
+        }
+        return reps == 1 ? weight : weight * (1 + reps / 30.0);
+    }
+
+    /**
+     * Get the training day a log belongs to, as an ISO date in the device's time zone. All logs of
+     * one exercise on the same day make up one session.
+     *
+     * @param timestamp The time the log was created, in milliseconds
+     * @return The day, for example "2024-01-31"
+     */
+    public static String getSessionDay(long timestamp) {
+        return Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDate().toString();
+    }
+
+    /**
+     * Add a new log.
+     *
+     * @param logId The log ID
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     * @param timestamp The time the log was created, in milliseconds
+     */
+    public void addLog(String logId, double weight, int reps, long timestamp) {
+        raiseBests(logId, weight, estimateOneRepMax(weight, reps));
+        totalVolume += weight * reps;
+        logCount++;
+        String day = getSessionDay(timestamp);
+        Integer dayLogs = sessionDays.get(day);
+        sessionDays.put(day, dayLogs != null ? dayLogs + 1 : 1);
+        addRecentSet(new RecentSet(logId, weight, reps, timestamp));
+    }
+
+    /**
+     * Replace the values of a log that was added before.
+     *
+     * @param logId The log ID
+     * @param oldWeight The weight the log had
+     * @param oldReps The number of reps the log had
+     * @param weight The new weight
+     * @param reps The new number of reps
+     * @param timestamp The time the log was created, in milliseconds
+     * @return False if the edit lowered a best value, so the statistics must be rebuilt
+     */
+    public boolean replaceLog(String logId, double oldWeight, int oldReps, double weight, int reps,
+                              long timestamp) {
+        totalVolume += weight * reps - oldWeight * oldReps;
+
+        double oldOneRepMax = estimateOneRepMax(oldWeight, oldReps);
+        double oneRepMax = estimateOneRepMax(weight, reps);
+        boolean exact = (oldWeight < bestWeight || weight >= oldWeight)
+                && (oldOneRepMax < bestOneRepMax || oneRepMax >= oldOneRepMax);
+        raiseBests(logId, weight, oneRepMax);
+
+        for (int i = 0; i < recentSets.size(); i++) {
+            if (recentSets.get(i).logId.equals(logId)) {
+                recentSets.remove(i);
+                break;
+            }
+        }
+        addRecentSet(new RecentSet(logId, weight, reps, timestamp));
+        return exact;
+    }
+
+    private void raiseBests(String logId, double weight, double oneRepMax) {
+        if (bestWeightLogId == null || weight > bestWeight) {
+            bestWeight = weight;
+            bestWeightLogId = logId;
+        }
+        if (bestOneRepMaxLogId == null || oneRepMax > bestOneRepMax) {
+            bestOneRepMax = oneRepMax;
+            bestOneRepMaxLogId = logId;
+        }
+    }
+
+    private void addRecentSet(RecentSet set) {
+        // Keep the sets newest first and drop the oldest one past the limit
+        int index = 0;
+        while (index < recentSets.size() && recentSets.get(index).timestamp >= set.timestamp) {
+            index++;
+        }
+        if (index < RECENT_SET_COUNT) {
+            recentSets.add(index, set);
+            if (recentSets.size() > RECENT_SET_COUNT) {
+                recentSets.remove(recentSets.size() - 1);
+            }
+        }
+    }
+
+    public double getBestWeight() {
+        return bestWeight;
+    }
+
+    /**
+     * Get the ID of the log that holds the best weight, or null if there are no logs.
+     */
+    public String getBestWeightLogId() {
+        return bestWeightLogId;
+    }
+
+    public void setBestWeight(String logId, double bestWeight) {
+        this.bestWeightLogId = logId;
+        this.bestWeight = bestWeight;
+    }
+
+    public double getBestOneRepMax() {
+        return bestOneRepMax;
+    }
+
+    /**
+     * Get the ID of the log that holds the best one rep max, or null if there are no logs.
+     */
+    public String getBestOneRepMaxLogId() {
+        return bestOneRepMaxLogId;
+    }
+
+    public void setBestOneRepMax(String logId, double bestOneRepMax) {
+        this.bestOneRepMaxLogId = logId;
+        this.bestOneRepMax = bestOneRepMax;
+    }
+
+    public double getTotalVolume() {
+        return totalVolume;
+    }
+
+    public void setTotalVolume(double totalVolume) {
+        this.totalVolume = totalVolume;
+    }
+
+    /**
+     * Get the number of logs, which is the number of sets rather than of workouts.
+     */
+    public int getLogCount() {
+        return logCount;
+    }
+
+    public void setLogCount(int logCount) {
+        this.logCount = logCount;
+    }
+
+    /**
+     * Get the number of sessions, which is the number of days with at least one log.
+     */
+    public int getSessionCount() {
+        return sessionDays.size();
+    }
+
+    /**
+     * Get the number of logs per training day, see {@link #getSessionDay(long)}.
+     */
+    public Map<String, Integer> getSessionDays() {
+        return Collections.unmodifiableMap(sessionDays);
+    }
+
+    public void setSessionDays(Map<String, Integer> days) {
+        sessionDays.clear();
+        for (Map.Entry<String, Integer> day : days.entrySet()) {
+            if (day.getValue() > 0) {
+                sessionDays.put(day.getKey(), day.getValue());
+            }
+        }
+    }
+
+    /**
+     * Get the newest sets, newest first.
+     */
+    public List<RecentSet> getRecentSets() {
+        return Collections.unmodifiableList(recentSets);
+    }
+
+    public void setRecentSets(List<RecentSet> sets) {
+        recentSets.clear();
+        for (RecentSet set : sets) {
+            addRecentSet(set);
+        }
+    }
+
+    /**
+     * One of the newest sets of an exercise.
+     */
+    public static final class RecentSet {
+        private final String logId;
+        private final double weight;
+        private final int reps;
+        private final long timestamp;
+
+        public RecentSet(String logId, double weight, int reps, long timestamp) {
+            this.logId = logId;
+            this.weight = weight;
+            this.reps = reps;
+            this.timestamp = timestamp;
+        }
+
+        public String getLogId() {
+            return logId;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public int getReps() {
+            return reps;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
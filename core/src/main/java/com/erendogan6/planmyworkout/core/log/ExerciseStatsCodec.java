@@ -0,0 +1,212 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the statistics stored on exercise documents.
+ * Counts and the volume are plain numbers, so writers change them with increments. Best values
+ * and recent sets are maps keyed by log ID, so writers add and remove single entries without
+ * reading the document in a transaction: the best values are the largest entries of their maps,
+ * and the recent sets the newest entries of theirs. Sessions are a map keyed by training day
+ * that counts the logs of each day, so writers increment single entries and the session count
+ * is the number of days with logs.
+ */
+public final class ExerciseStatsCodec {
+
+    public static final String FIELD_BEST_WEIGHTS = "bestWeights";
+    public static final String FIELD_BEST_ONE_REP_MAXES = "bestOneRepMaxes";
+    public static final String FIELD_TOTAL_VOLUME = "totalVolume";
+    public static final String FIELD_LOG_COUNT = "logCount";
+    public static final String FIELD_RECENT_SETS = "recentSets";
+    public static final String FIELD_SESSION_DAYS = "sessionDays";
+    // Raised by every write, so a rebuild can tell whether logs were added while it read them
+    public static final String FIELD_REVISION = "statsRevision";
+    // Set by writers that couldn't update the statistics in place, until they are rebuilt
+    public static final String FIELD_STALE = "statsStale";
+
+    // Replaced as a whole when all statistics are written
+    private static final List<String> FIELDS = Arrays.asList(FIELD_BEST_WEIGHTS, FIELD_BEST_ONE_REP_MAXES,
+            FIELD_TOTAL_VOLUME, FIELD_LOG_COUNT, FIELD_SESSION_DAYS, FIELD_RECENT_SETS, FIELD_REVISION, FIELD_STALE);
+
+    private ExerciseStatsCodec() {
+        // Utility class
+    }
+
+    /**
+     * Check whether up to date statistics were written to an exercise document.
+     *
+     * @param data The exercise document data, may be null if the document doesn't exist
+     * @return True if the document holds statistics that aren't marked stale
+     */
+    public static boolean hasStats(Map<String, Object> data) {
+        return data != null && data.containsKey(FIELD_LOG_COUNT) && !Boolean.TRUE.equals(data.get(FIELD_STALE));
+    }
+
+    /**
+     * Get the revision of the statistics of an exercise document.
+     *
+     * @param data The exercise document data, may be null if the document doesn't exist
+     * @return The revision, or 0 if the statistics were never written
+     */
+    public static long getRevision(Map<String, Object> data) {
+        Object value = data != null ? data.get(FIELD_REVISION) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * Read the statistics of an exercise document.
+     *
+     * @param data The exercise document data
+     * @return The statistics
+     */
+    public static ExerciseStats decode(Map<String, Object> data) {
+        ExerciseStats stats = new ExerciseStats();
+        Map.Entry<String, Double> bestWeight = getLargest(getValues(data, FIELD_BEST_WEIGHTS));
+        if (bestWeight != null) {
+            stats.setBestWeight(bestWeight.getKey(), bestWeight.getValue());
+        }
+        Map.Entry<String, Double> bestOneRepMax = getLargest(getValues(data, FIELD_BEST_ONE_REP_MAXES));
+        if (bestOneRepMax != null) {
+            stats.setBestOneRepMax(bestOneRepMax.getKey(), bestOneRepMax.getValue());
+        }
+        stats.setTotalVolume(DocumentValues.getDouble(data, FIELD_TOTAL_VOLUME, 0));
+        stats.setLogCount(DocumentValues.getInt(data, FIELD_LOG_COUNT, 0));
+        stats.setSessionDays(getSessionDays(data));
+        stats.setRecentSets(new ArrayList<>(getRecentSets(data).values()));
+        return stats;
+    }
+
+    /**
+     * Read the entries of a best value map.
+     *
+     * @param data The exercise document data
+     * @param field {@link #FIELD_BEST_WEIGHTS} or {@link #FIELD_BEST_ONE_REP_MAXES}
+     * @return The values by log ID
+     */
+    public static Map<String, Double> getValues(Map<String, Object> data, String field) {
+        Map<String, Object> entries = data != null ? DocumentValues.getMap(data, field) : null;
+        Map<String, Double> values = new HashMap<>();
+        if (entries != null) {
+            for (String logId : entries.keySet()) {
+                values.put(logId, DocumentValues.getDouble(entries, logId, 0));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Read the number of logs per training day of an exercise document.
+     *
+     * @param data The exercise document data
+     * @return The number of logs by day
+     */
+    public static Map<String, Integer> getSessionDays(Map<String, Object> data) {
+        Map<String, Object> entries = data != null ? DocumentValues.getMap(data, FIELD_SESSION_DAYS) : null;
+        Map<String, Integer> days = new HashMap<>();
+        if (entries != null) {
+            for (String day : entries.keySet()) {
+                days.put(day, DocumentValues.getInt(entries, day, 0));
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Read the recent sets of an exercise document.
+     *
+     * @param data The exercise document data
+     * @return The recent sets by log ID
+     */
+    public static Map<String, ExerciseStats.RecentSet> getRecentSets(Map<String, Object> data) {
+        Map<String, Object> entries = data != null ? DocumentValues.getMap(data, FIELD_RECENT_SETS) : null;
+        Map<String, ExerciseStats.RecentSet> sets = new HashMap<>();
+        if (entries != null) {
+            for (String logId : entries.keySet()) {
+                Map<String, Object> set = DocumentValues.getMap(entries, logId);
+                if (set != null) {
+                    sets.put(logId, decodeRecentSet(logId, set));
+                }
+            }
+        }
+        return sets;
+    }
+
+    /**
+     * Write all statistics fields of an exercise document.
+     * Meant to be written with {@link #getFieldPaths()} as merge fields, so the maps are
+     * replaced rather than merged.
+     *
+     * @param stats The statistics
+     * @return The fields
+     */
+    public static Map<String, Object> encode(ExerciseStats stats) {
+        Map<String, Object> recentSets = new HashMap<>();
+        for (ExerciseStats.RecentSet set : stats.getRecentSets()) {
+            recentSets.put(set.getLogId(), encodeRecentSet(set));
+        }
+
+        Map<String, Object> data = new HashMap<>(12);
+        data.put(FIELD_BEST_WEIGHTS, encodeBest(stats.getBestWeightLogId(), stats.getBestWeight()));
+        data.put(FIELD_BEST_ONE_REP_MAXES, encodeBest(stats.getBestOneRepMaxLogId(), stats.getBestOneRepMax()));
+        data.put(FIELD_TOTAL_VOLUME, stats.getTotalVolume());
+        data.put(FIELD_LOG_COUNT, stats.getLogCount());
+        data.put(FIELD_SESSION_DAYS, new HashMap<>(stats.getSessionDays()));
+        data.put(FIELD_RECENT_SETS, recentSets);
+        data.put(FIELD_REVISION, FieldValue.increment(1));
+        data.put(FIELD_STALE, false);
+        return data;
+    }
+
+    /**
+     * Get the fields written by {@link #encode(ExerciseStats)}.
+     */
+    public static List<FieldPath> getFieldPaths() {
+        List<FieldPath> paths = new ArrayList<>(FIELDS.size());
+        for (String field : FIELDS) {
+            paths.add(FieldPath.of(field));
+        }
+        return paths;
+    }
+
+    /**
+     * Write the entry of a recent set.
+     */
+    public static Map<String, Object> encodeRecentSet(ExerciseStats.RecentSet set) {
+        return ExerciseLogCodec.encodeSummary(set.getLogId(), set.getWeight(), set.getReps(),
+                new Date(set.getTimestamp()));
+    }
+
+    private static ExerciseStats.RecentSet decodeRecentSet(String logId, Map<String, Object> set) {
+        return new ExerciseStats.RecentSet(logId,
+                DocumentValues.getDouble(set, ExerciseLogCodec.FIELD_WEIGHT, 0),
+                DocumentValues.getInt(set, ExerciseLogCodec.FIELD_REPS, 0),
+                DocumentValues.getMillis(set, ExerciseLogCodec.FIELD_TIMESTAMP, 0));
+    }
+
+    private static Map<String, Object> encodeBest(String logId, double value) {
+        Map<String, Object> best = new HashMap<>(2);
+        if (logId != null) {
+            best.put(logId, value);
+        }
+        return best;
+    }
+
+    private static Map.Entry<String, Double> getLargest(Map<String, Double> values) {
+        Map.Entry<String, Double> largest = null;
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            if (largest == null || entry.getValue() > largest.getValue()) {
+                largest = entry;
+            }
+        }
+        return largest;
+    }
+}
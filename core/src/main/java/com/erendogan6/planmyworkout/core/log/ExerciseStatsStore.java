@@ -0,0 +1,179 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.firestore.FirestoreConfig;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreReader;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Reads and maintains the statistics stored on the exercise documents of a plan.
+ * Writers update the statistics together with the logs they write, either in a batch through
+ * an {@link ExerciseStatsUpdate} or in a transaction. Exercises whose logs predate the
+ * statistics, or whose statistics were marked stale, are rebuilt from their logs the first
+ * time they are read.
+ */
+@Singleton
+public class ExerciseStatsStore {
+
+    // A rebuild starts over when logs are written while it reads them, at most this often
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final FirebaseFirestore firestore;
+    private final FirestoreReader reader;
+    private final ExerciseLogStore logStore;
+
+    @Inject
+    public ExerciseStatsStore(FirebaseFirestore firestore, FirestoreReader reader, ExerciseLogStore logStore) {
+        this.firestore = firestore;
+        this.reader = reader;
+        this.logStore = logStore;
+    }
+
+    /**
+     * Get a reference to the exercise document that holds the statistics.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Reference to the exercise document
+     */
+    public DocumentReference getReference(String userId, String planId, String exerciseId) {
+        return logStore.getExerciseReference(userId, planId, exerciseId);
+    }
+
+    /**
+     * Get the statistics of an exercise.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the statistics
+     */
+    public Task<ExerciseStats> getStats(String userId, String planId, String exerciseId) {
+        return getExercise(userId, planId, exerciseId)
+                .continueWithTask(task -> {
+                    Map<String, Object> data = task.isSuccessful() ? task.getResult().getData() : null;
+                    if (ExerciseStatsCodec.hasStats(data)) {
+                        return Tasks.forResult(ExerciseStatsCodec.decode(data));
+                    }
+                    return rebuild(userId, planId, exerciseId);
+                });
+    }
+
+    /**
+     * Read the exercise document that holds the statistics, with the source configured for
+     * statistics. Batch writers start their {@link ExerciseStatsUpdate} from it.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the exercise document
+     */
+    public Task<DocumentSnapshot> getExercise(String userId, String planId, String exerciseId) {
+        return reader.get(getReference(userId, planId, exerciseId), FirestoreConfig.Repository.EXERCISE_STATS);
+    }
+
+    /**
+     * Rebuild the statistics of an exercise from all of its logs and store them.
+     * The logs are read outside of a transaction, so the statistics are only stored if their
+     * revision didn't move on meanwhile; otherwise a writer added logs the read may have missed,
+     * and the rebuild starts over.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the rebuilt statistics
+     */
+    public Task<ExerciseStats> rebuild(String userId, String planId, String exerciseId) {
+        return rebuild(userId, planId, exerciseId, MAX_REBUILD_ATTEMPTS);
+    }
+
+    private Task<ExerciseStats> rebuild(String userId, String planId, String exerciseId, int attempts) {
+        DocumentReference exerciseRef = getReference(userId, planId, exerciseId);
+        return exerciseRef.get(Source.SERVER).onSuccessTask(exercise -> {
+            long revision = ExerciseStatsCodec.getRevision(exercise.getData());
+            return logStore.getLogsFromServer(userId, planId, exerciseId).onSuccessTask(logs -> {
+                ExerciseStats stats = ExerciseStats.fromLogs(logs.getLogs());
+                return firestore.runTransaction(transaction -> {
+                    Map<String, Object> data = transaction.get(exerciseRef).getData();
+                    if (ExerciseStatsCodec.getRevision(data) != revision) {
+                        return false;
+                    }
+                    write(transaction, exerciseRef, stats);
+                    return true;
+                }).onSuccessTask(written -> {
+                    if (written) {
+                        return Tasks.forResult(stats);
+                    }
+                    if (attempts > 1) {
+                        return rebuild(userId, planId, exerciseId, attempts - 1);
+                    }
+                    return Tasks.forException(new FirebaseFirestoreException(
+                            "Exercise statistics kept changing during the rebuild",
+                            FirebaseFirestoreException.Code.ABORTED));
+                });
+            });
+        });
+    }
+
+    /**
+     * Read the statistics of an exercise inside a transaction.
+     *
+     * @param transaction The transaction
+     * @param exerciseRef Reference to the exercise document
+     * @return The statistics, or null if the exercise has none yet
+     * @throws FirebaseFirestoreException If the read fails
+     */
+    public ExerciseStats read(Transaction transaction, DocumentReference exerciseRef)
+            throws FirebaseFirestoreException {
+        return decode(transaction.get(exerciseRef));
+    }
+
+    /**
+     * Read the statistics of an exercise document, for writers that read the document
+     * themselves because they also need its log layout.
+     *
+     * @param exercise The exercise document
+     * @return The statistics, or null if the exercise has none yet or they are stale
+     */
+    public ExerciseStats decode(DocumentSnapshot exercise) {
+        Map<String, Object> data = exercise.getData();
+        return ExerciseStatsCodec.hasStats(data) ? ExerciseStatsCodec.decode(data) : null;
+    }
+
+    /**
+     * Write the statistics of an exercise inside a transaction, replacing the stored ones.
+     *
+     * @param transaction The transaction
+     * @param exerciseRef Reference to the exercise document
+     * @param stats The statistics
+     */
+    public void write(Transaction transaction, DocumentReference exerciseRef, ExerciseStats stats) {
+        transaction.set(exerciseRef, ExerciseStatsCodec.encode(stats),
+                SetOptions.mergeFieldPaths(ExerciseStatsCodec.getFieldPaths()));
+    }
+
+    /**
+     * Write changes to the statistics of an exercise in a batch.
+     *
+     * @param batch The batch
+     * @param exerciseRef Reference to the exercise document
+     * @param update The changes
+     */
+    public void write(WriteBatch batch, DocumentReference exerciseRef, ExerciseStatsUpdate update) {
+        batch.set(exerciseRef, update.encode(), SetOptions.merge());
+    }
+}
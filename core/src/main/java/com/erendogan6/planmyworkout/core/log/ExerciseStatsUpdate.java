@@ -0,0 +1,200 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.google.firebase.firestore.FieldValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes to the statistics of one exercise, written without reading them in a transaction.
+ * Counts, the volume and the logs per training day change through increments, so concurrent
+ * writers add up. Best values and recent sets change through map entries keyed by log ID: an
+ * entry is added when it beats the entries known from the last read of the document, and known
+ * entries it beats are removed.
+ * An entry another writer added meanwhile is never removed by mistake, so the largest and newest
+ * entries stay correct.
+ * An edit that lowers a best value can't be applied this way; the statistics are then marked
+ * stale and rebuilt from the logs.
+ */
+public final class ExerciseStatsUpdate {
+
+    private final Map<String, Double> bestWeights;
+    private final Map<String, Double> bestOneRepMaxes;
+    private final Map<String, ExerciseStats.RecentSet> recentSets;
+    private final Map<String, Object> bestWeightWrites = new HashMap<>();
+    private final Map<String, Object> bestOneRepMaxWrites = new HashMap<>();
+    private final Map<String, Object> recentSetWrites = new HashMap<>();
+    // Logs added per training day
+    private final Map<String, Integer> sessionDayLogs = new HashMap<>();
+    private int logCount;
+    private double volume;
+    private boolean stale;
+
+    /**
+     * Start changes to the statistics of an exercise.
+     *
+     * @param data The exercise document data as last read, may be null if it couldn't be read
+     */
+    public ExerciseStatsUpdate(Map<String, Object> data) {
+        stale = !ExerciseStatsCodec.hasStats(data);
+        bestWeights = ExerciseStatsCodec.getValues(data, ExerciseStatsCodec.FIELD_BEST_WEIGHTS);
+        bestOneRepMaxes = ExerciseStatsCodec.getValues(data, ExerciseStatsCodec.FIELD_BEST_ONE_REP_MAXES);
+        recentSets = ExerciseStatsCodec.getRecentSets(data);
+    }
+
+    /**
+     * Add a log that isn't stored in Firestore yet.
+     *
+     * @param logId The log ID
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     * @param timestamp The time the log was created, in milliseconds
+     */
+    public void addLog(String logId, double weight, int reps, long timestamp) {
+        logCount++;
+        volume += weight * reps;
+        String day = ExerciseStats.getSessionDay(timestamp);
+        Integer dayLogs = sessionDayLogs.get(day);
+        sessionDayLogs.put(day, dayLogs != null ? dayLogs + 1 : 1);
+        offerBest(bestWeights, bestWeightWrites, logId, weight);
+        offerBest(bestOneRepMaxes, bestOneRepMaxWrites, logId, ExerciseStats.estimateOneRepMax(weight, reps));
+        offerRecentSet(new ExerciseStats.RecentSet(logId, weight, reps, timestamp));
+    }
+
+    /**
+     * Replace the values of a log that is stored in Firestore.
+     *
+     * @param logId The log ID
+     * @param oldWeight The weight stored in Firestore
+     * @param oldReps The number of reps stored in Firestore
+     * @param weight The new weight
+     * @param reps The new number of reps
+     * @param timestamp The time the log was created, in milliseconds
+     */
+    public void replaceLog(String logId, double oldWeight, int oldReps, double weight, int reps, long timestamp) {
+        volume += weight * reps - oldWeight * oldReps;
+        double oneRepMax = ExerciseStats.estimateOneRepMax(weight, reps);
+        if (lowersBest(bestWeights, logId, oldWeight, weight)
+                || lowersBest(bestOneRepMaxes, logId, ExerciseStats.estimateOneRepMax(oldWeight, oldReps), oneRepMax)) {
+            stale = true;
+            return;
+        }
+        offerBest(bestWeights, bestWeightWrites, logId, weight);
+        offerBest(bestOneRepMaxes, bestOneRepMaxWrites, logId, oneRepMax);
+        if (recentSets.containsKey(logId)) {
+            recentSets.put(logId, new ExerciseStats.RecentSet(logId, weight, reps, timestamp));
+            recentSetWrites.put(logId, ExerciseStatsCodec.encodeRecentSet(recentSets.get(logId)));
+        } else {
+            offerRecentSet(new ExerciseStats.RecentSet(logId, weight, reps, timestamp));
+        }
+    }
+
+    /**
+     * Mark the statistics stale, for a change whose effect on them is unknown.
+     */
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Check if the statistics have to be rebuilt from the logs instead.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Write the changes, meant to be merged into the exercise document.
+     * Stale statistics only get their stale flag, so readers rebuild them.
+     *
+     * @return The changes
+     */
+    public Map<String, Object> encode() {
+        Map<String, Object> data = new HashMap<>(8);
+        data.put(ExerciseStatsCodec.FIELD_REVISION, FieldValue.increment(1));
+        if (stale) {
+            data.put(ExerciseStatsCodec.FIELD_STALE, true);
+            return data;
+        }
+
+        data.put(ExerciseStatsCodec.FIELD_LOG_COUNT, FieldValue.increment(logCount));
+        data.put(ExerciseStatsCodec.FIELD_TOTAL_VOLUME, FieldValue.increment(volume));
+        if (!bestWeightWrites.isEmpty()) {
+            data.put(ExerciseStatsCodec.FIELD_BEST_WEIGHTS, bestWeightWrites);
+        }
+        if (!bestOneRepMaxWrites.isEmpty()) {
+            data.put(ExerciseStatsCodec.FIELD_BEST_ONE_REP_MAXES, bestOneRepMaxWrites);
+        }
+        if (!recentSetWrites.isEmpty()) {
+            data.put(ExerciseStatsCodec.FIELD_RECENT_SETS, recentSetWrites);
+        }
+        if (!sessionDayLogs.isEmpty()) {
+            Map<String, Object> sessionDayWrites = new HashMap<>(sessionDayLogs.size() * 2);
+            for (Map.Entry<String, Integer> day : sessionDayLogs.entrySet()) {
+                sessionDayWrites.put(day.getKey(), FieldValue.increment(day.getValue()));
+            }
+            data.put(ExerciseStatsCodec.FIELD_SESSION_DAYS, sessionDayWrites);
+        }
+        return data;
+    }
+
+    /**
+     * Check if an edit lowers a value that may be the best one.
+     */
+    private static boolean lowersBest(Map<String, Double> known, String logId, double oldValue, double value) {
+        return value < oldValue && (known.containsKey(logId) || oldValue >= getLargest(known));
+    }
+
+    /**
+     * Add a value to a best value map if it is the largest, or if the log already has an entry.
+     * Known entries below the new largest value are removed.
+     */
+    private static void offerBest(Map<String, Double> known, Map<String, Object> writes, String logId,
+                                  double value) {
+        if (!known.containsKey(logId) && !known.isEmpty() && value <= getLargest(known)) {
+            return;
+        }
+        known.put(logId, value);
+        writes.put(logId, value);
+
+        double largest = getLargest(known);
+        List<String> beaten = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : known.entrySet()) {
+            if (entry.getValue() < largest) {
+                beaten.add(entry.getKey());
+            }
+        }
+        for (String beatenLogId : beaten) {
+            known.remove(beatenLogId);
+            writes.put(beatenLogId, FieldValue.delete());
+        }
+    }
+
+    /**
+     * Add a set to the recent sets and remove the known sets it pushes out.
+     */
+    private void offerRecentSet(ExerciseStats.RecentSet set) {
+        recentSets.put(set.getLogId(), set);
+        recentSetWrites.put(set.getLogId(), ExerciseStatsCodec.encodeRecentSet(set));
+        while (recentSets.size() > ExerciseStats.RECENT_SET_COUNT) {
+            ExerciseStats.RecentSet oldest = null;
+            for (ExerciseStats.RecentSet known : recentSets.values()) {
+                if (oldest == null || known.getTimestamp() < oldest.getTimestamp()) {
+                    oldest = known;
+                }
+            }
+            recentSets.remove(oldest.getLogId());
+            recentSetWrites.put(oldest.getLogId(), FieldValue.delete());
+        }
+    }
+
+    private static double getLargest(Map<String, Double> values) {
+        double largest = Double.NEGATIVE_INFINITY;
+        for (double value : values.values()) {
+            largest = Math.max(largest, value);
+        }
+        return largest;
+    }
+}
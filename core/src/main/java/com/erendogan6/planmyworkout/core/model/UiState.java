@@ -0,0 +1,204 @@
+package com.erendogan6.planmyworkout.core.model;
+
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable state of one screen.
+ * The content is a {@link Result}, so it is loading, loaded or failed and keeps its data through
+ * all three. Next to it the state knows whether a user action such as a save is running, and
+ * holds a message to show once.
+ * States only change through the with methods, which return the same instance when nothing
+ * changes. Together with value equality this lets a screen expose one distinctUntilChanged
+ * stream that emits once per real change.
+ * @param <T> Type of the screen content
+ */
+public final class UiState<T> {
+
+    private final Result<T> content;
+    private final boolean busy;
+    private final Message message;
+
+    private UiState(Result<T> content, boolean busy, Message message) {
+        this.content = content;
+        this.busy = busy;
+        this.message = message;
+    }
+
+    /**
+     * Create the state of a screen whose content is being loaded.
+     *
+     * @param data The content to show while loading
+     */
+    public static <T> UiState<T> loading(T data) {
+        return new UiState<>(Result.loading(data), false, null);
+    }
+
+    /**
+     * Create the state of a screen whose content is ready.
+     *
+     * @param data The content to show
+     */
+    public static <T> UiState<T> success(T data) {
+        return new UiState<>(Result.success(data), false, null);
+    }
+
+    public Result<T> getContent() {
+        return content;
+    }
+
+    public T getData() {
+        return content.getData();
+    }
+
+    public boolean isLoading() {
+        return content.isLoading();
+    }
+
+    /**
+     * Check if a user action, such as a save, is running.
+     */
+    public boolean isBusy() {
+        return busy;
+    }
+
+    /**
+     * Get the message to show once, or null if there is none.
+     */
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Mark the content as loading, keeping the current data.
+     */
+    public UiState<T> withLoading() {
+        if (content.isLoading()) {
+            return this;
+        }
+        return new UiState<>(Result.loading(getData()), busy, message);
+    }
+
+    /**
+     * Mark the content as loaded with the given data.
+     */
+    public UiState<T> withData(T data) {
+        if (content.isSuccess() && Objects.equals(data, getData())) {
+            return this;
+        }
+        return new UiState<>(Result.success(data), busy, message);
+    }
+
+    /**
+     * Change the data without changing whether it is loading, loaded or failed.
+     *
+     * @param reducer Returns the new data for the current data
+     */
+    public UiState<T> updateData(UnaryOperator<T> reducer) {
+        T data = reducer.apply(getData());
+        if (Objects.equals(data, getData())) {
+            return this;
+        }
+
+        Result<T> updated;
+        switch (content.getStatus()) {
+            case LOADING:
+                updated = Result.loading(data);
+                break;
+            case ERROR:
+                updated = Result.error(content.getMessage(), data);
+                break;
+            default:
+                updated = Result.success(data);
+                break;
+        }
+        return new UiState<>(updated, busy, message);
+    }
+
+    /**
+     * Mark the content as failed, keeping the current data, and show the error once.
+     */
+    public UiState<T> withError(String error) {
+        return new UiState<>(Result.error(error, getData()), busy, Message.error(error));
+    }
+
+    /**
+     * Set whether a user action is running.
+     */
+    public UiState<T> withBusy(boolean busy) {
+        if (this.busy == busy) {
+            return this;
+        }
+        return new UiState<>(content, busy, message);
+    }
+
+    /**
+     * Show a message once, replacing a message not shown yet.
+     */
+    public UiState<T> withMessage(Message message) {
+        return new UiState<>(content, busy, message);
+    }
+
+    /**
+     * Drop a message after the screen showed it.
+     *
+     * @param shown The message that was shown; a newer message is kept
+     */
+    public UiState<T> withoutMessage(Message shown) {
+        if (shown == null || message != shown) {
+            return this;
+        }
+        return new UiState<>(content, busy, null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UiState)) {
+            return false;
+        }
+        UiState<?> other = (UiState<?>) o;
+        return busy == other.busy
+                && message == other.message
+                && content.getStatus() == other.content.getStatus()
+                && Objects.equals(content.getMessage(), other.content.getMessage())
+                && Objects.equals(getData(), other.getData());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(content.getStatus(), content.getMessage(), getData(), busy, message);
+    }
+
+    /**
+     * A message shown once, such as a toast.
+     * Messages are compared by identity, so showing the same text twice emits twice.
+     */
+    public static final class Message {
+        private final String text;
+        private final boolean error;
+
+        private Message(String text, boolean error) {
+            this.text = text;
+            this.error = error;
+        }
+
+        public static Message info(String text) {
+            return new Message(text, false);
+        }
+
+        public static Message error(String text) {
+            return new Message(text, true);
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public boolean isError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.erendogan6.planmyworkout.core.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, parsed form of a plan document. Instances are shared between features, which map
+ * them to their own models.
+ */
+public final class PlanDocument {
+    private final String id;
+    private final String name;
+    private final String description;
+    private final String difficulty;
+    private final int daysPerWeek;
+    private final int durationWeeks;
+    private final List<String> weeklySchedule;
+    private final List<PlanExercise> exercises;
+    private final Map<String, PlanExercise> exercisesById;
+
+    public PlanDocument(String id, String name, String description, String difficulty,
+                        int daysPerWeek, int durationWeeks, List<String> weeklySchedule,
+                        List<PlanExercise> exercises) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.difficulty = difficulty;
+        this.daysPerWeek = daysPerWeek;
+        this.durationWeeks = durationWeeks;
+        this.weeklySchedule = weeklySchedule != null
+                ? Collections.unmodifiableList(new ArrayList<>(weeklySchedule))
+                : null;
+        this.exercises = Collections.unmodifiableList(new ArrayList<>(exercises));
+        this.exercisesById = new HashMap<>(exercises.size() * 2);
+        for (PlanExercise exercise : exercises) {
+            exercisesById.put(exercise.getId(), exercise);
+        }
+    }
+
+    /**
+     * Find an exercise of this plan.
+     *
+     * @param exerciseId The exercise ID
+     * @return The exercise, or null if the plan has no such exercise
+     */
+    public PlanExercise getExercise(String exerciseId) {
+        return exercisesById.get(exerciseId);
+    }
+
+    /**
+     * Create a copy of this plan with a different last try for one exercise.
+     *
+     * @param exerciseId The exercise ID
+     * @param weight The weight of the latest log
+     * @param reps The reps of the latest log
+     * @return The updated copy
+     */
+    public PlanDocument withLastTry(String exerciseId, double weight, int reps) {
+        List<PlanExercise> updatedExercises = new ArrayList<>(exercises.size());
+        for (PlanExercise exercise : exercises) {
+            updatedExercises.add(exercise.getId().equals(exerciseId)
+                    ? exercise.withLastTry(weight, reps)
+                    : exercise);
+        }
+        return new PlanDocument(id, name, description, difficulty, daysPerWeek, durationWeeks,
+                weeklySchedule, updatedExercises);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public int getDaysPerWeek() {
+        return daysPerWeek;
+    }
+
+    public int getDurationWeeks() {
+        return durationWeeks;
+    }
+
+    public List<String> getWeeklySchedule() {
+        return weeklySchedule;
+    }
+
+    public List<PlanExercise> getExercises() {
+        return exercises;
+    }
+}
@@ -0,0 +1,125 @@
+package com.erendogan6.planmyworkout.core.plan;
+
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes plan documents without reflection.
+ * It works on the document's data map, so it runs on a plain JVM as well as on a device.
+ */
+public final class PlanDocumentCodec {
+
+    public static final String FIELD_EXERCISES = "exercises";
+    public static final String FIELD_LATEST_LOGS = "latestLogs";
+
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_DIFFICULTY = "difficulty";
+    private static final String FIELD_DAYS = "days";
+    private static final String FIELD_DAYS_PER_WEEK = "daysPerWeek";
+    private static final String FIELD_DURATION_WEEKS = "durationWeeks";
+    private static final String FIELD_WEEKLY_SCHEDULE = "weeklySchedule";
+    // Prefix of the IDs exercises without a stored ID are read with
+    private static final String POSITIONAL_ID_PREFIX = "ex_";
+
+    private PlanDocumentCodec() {
+        // Utility class
+    }
+
+    /**
+     * Read a plan document.
+     *
+     * @param id The plan document ID
+     * @param data The plan document data
+     * @return The plan
+     */
+    public static PlanDocument decode(String id, Map<String, Object> data) {
+        // Plans are saved with "days", older documents may use "daysPerWeek"
+        int days = DocumentValues.getInt(data, FIELD_DAYS,
+                DocumentValues.getInt(data, FIELD_DAYS_PER_WEEK, 0));
+
+        return new PlanDocument(
+                id,
+                DocumentValues.getString(data, FIELD_NAME),
+                DocumentValues.getString(data, FIELD_DESCRIPTION),
+                DocumentValues.getString(data, FIELD_DIFFICULTY),
+                days,
+                DocumentValues.getInt(data, FIELD_DURATION_WEEKS, 0),
+                DocumentValues.getList(data, FIELD_WEEKLY_SCHEDULE),
+                decodeExercises(data)
+        );
+    }
+
+    /**
+     * Get the ID stored on an exercise entry.
+     *
+     * @param exerciseData The exercise entry
+     * @return The exercise ID, or null if the entry was written before IDs were stored
+     */
+    private static String getStoredId(Map<String, Object> exerciseData) {
+        String exerciseId = DocumentValues.getString(exerciseData, PlanExerciseCodec.FIELD_ID);
+        return exerciseId != null && !exerciseId.isEmpty() ? exerciseId : null;
+    }
+
+    /**
+     * Read the exercises array of a plan document, with the last try taken from the latest log
+     * summary kept on the same document. Entries that aren't maps are skipped, and the others
+     * keep the position they have in the array. Entries written before IDs were stored fall back
+     * to the positional ID they were always read with, so their logs stay attached; such
+     * exercises are marked with {@link PlanExercise#isPositionalId()}.
+     *
+     * @param data The plan document data
+     * @return List of exercises in plan order
+     */
+    private static List<PlanExercise> decodeExercises(Map<String, Object> data) {
+        List<Object> exercisesData = DocumentValues.getList(data, FIELD_EXERCISES);
+        if (exercisesData == null) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Object> latestLogs = DocumentValues.getMap(data, FIELD_LATEST_LOGS);
+        List<PlanExercise> exercises = new ArrayList<>(exercisesData.size());
+        for (int i = 0; i < exercisesData.size(); i++) {
+            if (!(exercisesData.get(i) instanceof Map)) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> exerciseData = (Map<String, Object>) exercisesData.get(i);
+            String storedId = getStoredId(exerciseData);
+            String exerciseId = storedId != null ? storedId : POSITIONAL_ID_PREFIX + i;
+            Map<String, Object> latestLog = latestLogs != null
+                    ? DocumentValues.getMap(latestLogs, exerciseId)
+                    : null;
+            exercises.add(PlanExerciseCodec.decode(exerciseId, exerciseData, latestLog, storedId == null));
+        }
+        return exercises;
+    }
+
+    /**
+     * Write a plan document. Last tries are kept in the latest log summary, which is written
+     * separately, so they are not part of the result.
+     *
+     * @param plan The plan
+     * @return The plan document data
+     */
+    public static Map<String, Object> encode(PlanDocument plan) {
+        List<Map<String, Object>> exercises = new ArrayList<>(plan.getExercises().size());
+        for (PlanExercise exercise : plan.getExercises()) {
+            exercises.add(PlanExerciseCodec.encode(exercise));
+        }
+
+        Map<String, Object> data = new HashMap<>(10);
+        data.put(FIELD_NAME, plan.getName());
+        data.put(FIELD_DESCRIPTION, plan.getDescription());
+        data.put(FIELD_DIFFICULTY, plan.getDifficulty());
+        data.put(FIELD_DAYS, (long) plan.getDaysPerWeek());
+        data.put(FIELD_DURATION_WEEKS, (long) plan.getDurationWeeks());
+        data.put(FIELD_WEEKLY_SCHEDULE, plan.getWeeklySchedule());
+        data.put(FIELD_EXERCISES, exercises);
+        return data;
+    }
+}
@@ -0,0 +1,30 @@
+package com.erendogan6.planmyworkout.core.plan;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Map;
+
+/**
+ * Parses plan documents read from Firestore.
+ * The fields are read by PlanDocumentCodec.
+ */
+public final class PlanDocumentParser {
+
+    private PlanDocumentParser() {
+        // Utility class
+    }
+
+    /**
+     * Parse a plan document.
+     *
+     * @param document The plan document read from Firestore
+     * @return The parsed plan, or null if the document does not exist
+     */
+    public static PlanDocument parse(DocumentSnapshot document) {
+        if (document == null) {
+            return null;
+        }
+        Map<String, Object> data = document.getData();
+        return data != null ? PlanDocumentCodec.decode(document.getId(), data) : null;
+    }
+}
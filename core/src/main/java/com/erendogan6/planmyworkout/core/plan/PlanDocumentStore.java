@@ -0,0 +1,329 @@
+package com.erendogan6.planmyworkout.core.plan;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.lifecycle.LiveData;
+
+import com.erendogan6.planmyworkout.core.cache.PlanCache;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreConfig;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreReader;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
+import com.erendogan6.planmyworkout.core.util.SnapshotListenerLiveData;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Shared store for the plan documents of users.
+ * Plans are served from memory, then from the local cache, then from Firestore. Concurrent
+ * requests for the same plan share a single load, and a plan is read from Firestore at most once
+ * until it is invalidated, so moving between screens that show the same plan costs one read.
+ * Screens that opt in to streaming observe a plan instead, which shares one snapshot listener
+ * per plan across all observers, until the plan is no longer observed. Plans are decoded and
+ * loaded on the background executor, and observed plans only change on the main thread.
+ */
+@Singleton
+public class PlanDocumentStore {
+
+    private static final String TAG = "PlanDocumentStore";
+    private static final int MAX_PLANS_IN_MEMORY = 16;
+
+    private final FirebaseFirestore firestore;
+    private final PlanCache planCache;
+    private final FirestoreReader reader;
+    private final BackgroundExecutor executor;
+    private final LruCache<String, PlanDocument> plans = new LruCache<>(MAX_PLANS_IN_MEMORY);
+    private final Map<String, Task<PlanDocument>> inFlight = new HashMap<>();
+    private final Map<String, PlanLiveData> livePlans = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Bumped on invalidation, so loads started before it do not repopulate memory
+    private int version;
+
+    @Inject
+    public PlanDocumentStore(FirebaseFirestore firestore, PlanCache planCache, FirestoreReader reader,
+                             BackgroundExecutor executor) {
+        this.firestore = firestore;
+        this.planCache = planCache;
+        this.reader = reader;
+        this.executor = executor;
+    }
+
+    /**
+     * Get a plan of a user.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @return Task with the plan, or null if the plan does not exist
+     */
+    public Task<PlanDocument> getPlan(String userId, String planId) {
+        String key = getKey(userId, planId);
+        synchronized (this) {
+            PlanDocument plan = plans.get(key);
+            if (plan != null) {
+                return Tasks.forResult(plan);
+            }
+            Task<PlanDocument> pending = inFlight.get(key);
+            if (pending != null) {
+                return pending;
+            }
+
+            Task<PlanDocument> load = load(userId, planId, version);
+            inFlight.put(key, load);
+            load.addOnCompleteListener(task -> {
+                synchronized (this) {
+                    if (inFlight.get(key) == load) {
+                        inFlight.remove(key);
+                    }
+                }
+            });
+            return load;
+        }
+    }
+
+    /**
+     * Get one exercise of a plan. The exercise is looked up by ID in the plan held in memory, or
+     * read as a single row from the local cache, so the plan is only loaded when neither has it.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the exercise, or null if the plan has no such exercise
+     */
+    public Task<PlanExercise> getExercise(String userId, String planId, String exerciseId) {
+        synchronized (this) {
+            PlanDocument plan = plans.get(getKey(userId, planId));
+            if (plan != null) {
+                return Tasks.forResult(plan.getExercise(exerciseId));
+            }
+        }
+
+        return planCache.getExercise(userId, planId, exerciseId).continueWithTask(executor, cacheTask -> {
+            PlanExercise cachedExercise = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+            if (cachedExercise != null) {
+                return Tasks.forResult(cachedExercise);
+            }
+            return getPlan(userId, planId).continueWith(executor, planTask -> {
+                PlanDocument plan = planTask.getResult();
+                return plan != null ? plan.getExercise(exerciseId) : null;
+            });
+        });
+    }
+
+    /**
+     * Observe a plan of a user. The returned LiveData is shared by all observers of the plan and
+     * follows changes made on other devices while it is observed.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @return LiveData with the plan, holding null if the plan does not exist
+     */
+    public synchronized LiveData<PlanDocument> observePlan(String userId, String planId) {
+        String key = getKey(userId, planId);
+        PlanLiveData livePlan = livePlans.get(key);
+        if (livePlan == null) {
+            PlanDocument plan = plans.get(key);
+            livePlan = plan != null ? new PlanLiveData(userId, planId, plan) : new PlanLiveData(userId, planId);
+            livePlans.put(key, livePlan);
+        }
+        return livePlan;
+    }
+
+    /**
+     * Read a plan from Firestore even if it is held in memory, and store the result.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @return Task with the plan, or null if the plan does not exist
+     */
+    public Task<PlanDocument> refreshPlan(String userId, String planId) {
+        int loadVersion;
+        synchronized (this) {
+            loadVersion = version;
+        }
+        return fetch(userId, planId, loadVersion);
+    }
+
+    /**
+     * Update the last try of an exercise in memory and in the local cache.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param weight The weight of the latest log
+     * @param reps The reps of the latest log
+     * @return Task that completes when the local cache is written
+     */
+    public Task<Void> updateLastTry(String userId, String planId, String exerciseId, double weight, int reps) {
+        String key = getKey(userId, planId);
+        synchronized (this) {
+            PlanDocument plan = plans.get(key);
+            if (plan != null) {
+                plans.put(key, plan.withLastTry(exerciseId, weight, reps));
+            }
+            PlanLiveData livePlan = livePlans.get(key);
+            if (livePlan != null) {
+                // The observed value can only be read and replaced safely on the main thread
+                mainHandler.post(() -> {
+                    PlanDocument observedPlan = livePlan.getValue();
+                    if (observedPlan != null) {
+                        livePlan.setValue(observedPlan.withLastTry(exerciseId, weight, reps));
+                    }
+                });
+            }
+        }
+        return planCache.updateLastTry(userId, planId, exerciseId, weight, reps);
+    }
+
+    /**
+     * Drop a plan from memory, so the next request reads it again.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     */
+    public synchronized void invalidate(String userId, String planId) {
+        String key = getKey(userId, planId);
+        plans.remove(key);
+        inFlight.remove(key);
+        version++;
+    }
+
+    /**
+     * Drop every plan from memory, for example when the user signs out. Observed plans are
+     * dropped as well, so they can't be handed to the next user.
+     */
+    public synchronized void invalidateAll() {
+        plans.evictAll();
+        inFlight.clear();
+        livePlans.clear();
+        version++;
+    }
+
+    private Task<PlanDocument> load(String userId, String planId, int loadVersion) {
+        return planCache.getPlan(userId, planId).continueWithTask(executor, cacheTask -> {
+            PlanDocument cachedPlan = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+            if (cachedPlan != null) {
+                remember(getKey(userId, planId), cachedPlan, loadVersion);
+                // Serve from disk and refresh once in the background
+                fetch(userId, planId, loadVersion);
+                return Tasks.forResult(cachedPlan);
+            }
+            return fetch(userId, planId, loadVersion);
+        });
+    }
+
+    private Task<PlanDocument> fetch(String userId, String planId, int loadVersion) {
+        return reader.get(getPlanReference(userId, planId), FirestoreConfig.Repository.PLANS)
+                .onSuccessTask(executor, document -> {
+                    PlanDocument plan = PlanDocumentParser.parse(document);
+                    if (plan == null) {
+                        return Tasks.<PlanDocument>forResult(null);
+                    }
+                    return planCache.savePlan(userId, plan).continueWith(saveTask -> {
+                        // The stored copy keeps last tries that are still pending in the outbox
+                        PlanDocument storedPlan = saveTask.isSuccessful() ? saveTask.getResult() : plan;
+                        remember(getKey(userId, planId), storedPlan, loadVersion);
+                        return storedPlan;
+                    });
+                });
+    }
+
+    private synchronized int getVersion() {
+        return version;
+    }
+
+    private synchronized void remember(String key, PlanDocument plan, int loadVersion) {
+        if (loadVersion == version) {
+            plans.put(key, plan);
+        }
+    }
+
+    private DocumentReference getPlanReference(String userId, String planId) {
+        return firestore.collection("users")
+                .document(userId)
+                .collection("plans")
+                .document(planId);
+    }
+
+    private static String getKey(String userId, String planId) {
+        return userId + "/" + planId;
+    }
+
+    /**
+     * Shared LiveData of one plan, fed by a snapshot listener on the plan document. Snapshots are
+     * decoded and stored on the background executor, then posted.
+     */
+    private class PlanLiveData extends SnapshotListenerLiveData<PlanDocument> {
+        private final String userId;
+        private final String planId;
+
+        PlanLiveData(String userId, String planId) {
+            super();
+            this.userId = userId;
+            this.planId = planId;
+        }
+
+        PlanLiveData(String userId, String planId, PlanDocument initialPlan) {
+            super(initialPlan);
+            this.userId = userId;
+            this.planId = planId;
+        }
+
+        @Override
+        protected void onReleased() {
+            synchronized (PlanDocumentStore.this) {
+                String key = getKey(userId, planId);
+                if (livePlans.get(key) == this) {
+                    livePlans.remove(key);
+                }
+            }
+        }
+
+        @Override
+        protected void onActive() {
+            if (getValue() == null) {
+                // Show the stored copy until the first snapshot arrives
+                planCache.getPlan(userId, planId).addOnSuccessListener(cachedPlan -> {
+                    if (cachedPlan != null && getValue() == null) {
+                        setValue(cachedPlan);
+                    }
+                });
+            }
+            super.onActive();
+        }
+
+        @Override
+        protected ListenerRegistration addListener() {
+            return getPlanReference(userId, planId).addSnapshotListener(executor, (document, error) -> {
+                if (error != null) {
+                    Log.w(TAG, "Plan listener failed for " + planId, error);
+                    return;
+                }
+
+                PlanDocument plan = PlanDocumentParser.parse(document);
+                if (plan == null) {
+                    postValue(null);
+                    return;
+                }
+
+                int loadVersion = getVersion();
+                planCache.savePlan(userId, plan).addOnCompleteListener(executor, saveTask -> {
+                    // The stored copy keeps last tries that are still pending in the outbox
+                    PlanDocument storedPlan = saveTask.isSuccessful() ? saveTask.getResult() : plan;
+                    remember(getKey(userId, planId), storedPlan, loadVersion);
+                    postValue(storedPlan);
+                });
+            });
+        }
+    }
+}
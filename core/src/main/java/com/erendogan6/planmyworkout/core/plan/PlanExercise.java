@@ -0,0 +1,124 @@
+package com.erendogan6.planmyworkout.core.plan;
+
+import java.util.UUID;
+
+/**
+ * Immutable exercise entry of a plan document, together with the last try of the exercise.
+ */
+public final class PlanExercise {
+    private final String id;
+    private final String name;
+    private final String description;
+    private final String muscleGroup;
+    private final int sets;
+    private final int reps;
+    private final int restSeconds;
+    private final String unit;
+    private final Double lastWeight;
+    private final Integer lastReps;
+    private final boolean positionalId;
+
+    public PlanExercise(String id, String name, String description, String muscleGroup,
+                        int sets, int reps, int restSeconds, String unit,
+                        Double lastWeight, Integer lastReps) {
+        this(id, name, description, muscleGroup, sets, reps, restSeconds, unit, lastWeight, lastReps, false);
+    }
+
+    /**
+     * Create an exercise whose ID may be the positional fallback of an entry without a stored ID.
+     *
+     * @param positionalId True if the ID was not read from the entry but derived from its position
+     */
+    public PlanExercise(String id, String name, String description, String muscleGroup,
+                        int sets, int reps, int restSeconds, String unit,
+                        Double lastWeight, Integer lastReps, boolean positionalId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.muscleGroup = muscleGroup;
+        this.sets = sets;
+        this.reps = reps;
+        this.restSeconds = restSeconds;
+        this.unit = unit;
+        this.lastWeight = lastWeight;
+        this.lastReps = lastReps;
+        this.positionalId = positionalId;
+    }
+
+    /**
+     * Create an ID for a new exercise. The ID is stored on the exercise entry, so it stays the
+     * same when exercises are reordered and their logs remain attached.
+     *
+     * @return A random exercise ID
+     */
+    public static String newId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Create a copy of this exercise with a different last try.
+     *
+     * @param weight The weight of the latest log
+     * @param reps The reps of the latest log
+     * @return The updated copy
+     */
+    public PlanExercise withLastTry(double weight, int reps) {
+        return new PlanExercise(id, name, description, muscleGroup, sets, this.reps, restSeconds, unit,
+                weight, reps, positionalId);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getMuscleGroup() {
+        return muscleGroup;
+    }
+
+    public int getSets() {
+        return sets;
+    }
+
+    public int getReps() {
+        return reps;
+    }
+
+    public int getRestSeconds() {
+        return restSeconds;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public Double getLastWeight() {
+        return lastWeight;
+    }
+
+    public Integer getLastReps() {
+        return lastReps;
+    }
+
+    public boolean hasLastTry() {
+        return lastWeight != null && lastReps != null;
+    }
+
+    /**
+     * Check if the ID is the positional fallback of an entry that stores no ID. Such an ID only
+     * identifies the exercise within the document it was read from. An ID read from the entry
+     * never counts as positional, whatever it looks like.
+     *
+     * @return True if the ID was derived from the position of the entry
+     */
+    public boolean isPositionalId() {
+        return positionalId;
+    }
+}
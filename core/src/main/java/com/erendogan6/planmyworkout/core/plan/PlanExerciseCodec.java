@@ -0,0 +1,82 @@
+package com.erendogan6.planmyworkout.core.plan;
+
+import com.erendogan6.planmyworkout.core.log.ExerciseLogCodec;
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the entries of a plan document's exercises array.
+ */
+public final class PlanExerciseCodec {
+
+    public static final int DEFAULT_REST_SECONDS = 60;
+    public static final String FIELD_ID = "id";
+
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_MUSCLE_GROUP = "muscleGroup";
+    private static final String FIELD_SETS = "sets";
+    private static final String FIELD_REPS = "reps";
+    private static final String FIELD_REST_SECONDS = "restSeconds";
+    private static final String FIELD_UNIT = "unit";
+
+    private PlanExerciseCodec() {
+        // Utility class
+    }
+
+    /**
+     * Read an exercise entry.
+     *
+     * @param id The exercise ID
+     * @param data The exercise entry
+     * @param latestLog The latest log summary of the exercise, or null if there is none
+     * @param positionalId True if the ID was derived from the position of the entry
+     * @return The exercise
+     */
+    public static PlanExercise decode(String id, Map<String, Object> data, Map<String, Object> latestLog,
+                                      boolean positionalId) {
+        Double lastWeight = null;
+        Integer lastReps = null;
+        if (latestLog != null
+                && latestLog.get(ExerciseLogCodec.FIELD_WEIGHT) instanceof Number
+                && latestLog.get(ExerciseLogCodec.FIELD_REPS) instanceof Number) {
+            lastWeight = DocumentValues.getDouble(latestLog, ExerciseLogCodec.FIELD_WEIGHT, 0);
+            lastReps = DocumentValues.getInt(latestLog, ExerciseLogCodec.FIELD_REPS, 0);
+        }
+
+        return new PlanExercise(
+                id,
+                DocumentValues.getString(data, FIELD_NAME),
+                DocumentValues.getString(data, FIELD_DESCRIPTION),
+                DocumentValues.getString(data, FIELD_MUSCLE_GROUP),
+                DocumentValues.getInt(data, FIELD_SETS, 0),
+                DocumentValues.getInt(data, FIELD_REPS, 0),
+                DocumentValues.getInt(data, FIELD_REST_SECONDS, DEFAULT_REST_SECONDS),
+                DocumentValues.getString(data, FIELD_UNIT),
+                lastWeight,
+                lastReps,
+                positionalId
+        );
+    }
+
+    /**
+     * Write an exercise entry, including its ID. The last try is not part of the entry.
+     *
+     * @param exercise The exercise
+     * @return The exercise entry
+     */
+    public static Map<String, Object> encode(PlanExercise exercise) {
+        Map<String, Object> data = new HashMap<>(10);
+        data.put(FIELD_ID, exercise.getId());
+        data.put(FIELD_NAME, exercise.getName());
+        data.put(FIELD_DESCRIPTION, exercise.getDescription());
+        data.put(FIELD_MUSCLE_GROUP, exercise.getMuscleGroup());
+        data.put(FIELD_SETS, (long) exercise.getSets());
+        data.put(FIELD_REPS, (long) exercise.getReps());
+        data.put(FIELD_REST_SECONDS, (long) exercise.getRestSeconds());
+        data.put(FIELD_UNIT, exercise.getUnit());
+        return data;
+    }
+}
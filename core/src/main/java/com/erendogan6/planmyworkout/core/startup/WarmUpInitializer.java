@@ -0,0 +1,93 @@
+package com.erendogan6.planmyworkout.core.startup;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+import androidx.tracing.Trace;
+
+import com.erendogan6.planmyworkout.core.database.AppDatabase;
+import com.erendogan6.planmyworkout.core.sync.SyncScheduler;
+import com.erendogan6.planmyworkout.core.user.UserProfileLoader;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.Collections;
+import java.util.List;
+
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.EntryPointAccessors;
+import dagger.hilt.components.SingletonComponent;
+
+/**
+ * App Startup initializer that creates what the first screen needs on a background thread.
+ * It runs before the application's onCreate, so Firestore, the database and the auth state are
+ * usually ready by the time the first ViewModel is injected, and the user document is already
+ * being read.
+ */
+public class WarmUpInitializer implements Initializer<Void> {
+
+    private static final String TAG = "WarmUpInitializer";
+    private static final String THREAD_NAME = "startup-warm-up";
+
+    /**
+     * Singletons created by the warm-up.
+     */
+    @EntryPoint
+    @InstallIn(SingletonComponent.class)
+    public interface WarmUpEntryPoint {
+        FirebaseFirestore firestore();
+
+        FirebaseAuth firebaseAuth();
+
+        AppDatabase database();
+
+        UserProfileLoader userProfileLoader();
+
+        SyncScheduler syncScheduler();
+    }
+
+    @NonNull
+    @Override
+    public Void create(@NonNull Context context) {
+        Context applicationContext = context.getApplicationContext();
+        new Thread(() -> warmUp(applicationContext), THREAD_NAME).start();
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+
+    private static void warmUp(Context context) {
+        Trace.beginSection("WarmUp");
+        try {
+            WarmUpEntryPoint entryPoint = EntryPointAccessors.fromApplication(context, WarmUpEntryPoint.class);
+            traced("WarmUp.firestore", entryPoint::firestore);
+            traced("WarmUp.auth", () -> entryPoint.firebaseAuth().getCurrentUser());
+            // Opening the database runs pending migrations off the main thread
+            traced("WarmUp.database", () -> entryPoint.database().getOpenHelper().getWritableDatabase());
+            traced("WarmUp.userProfile", () -> entryPoint.userProfileLoader().getProfile());
+            // Keeps the periodic background sync scheduled; an existing schedule is left as is
+            traced("WarmUp.sync", () -> entryPoint.syncScheduler().schedule());
+        } catch (RuntimeException e) {
+            // Everything is created again on first use, so a failed warm-up only costs time
+            Log.w(TAG, "Startup warm-up failed", e);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private static void traced(String sectionName, Runnable work) {
+        Trace.beginSection(sectionName);
+        try {
+            work.run();
+        } finally {
+            Trace.endSection();
+        }
+    }
+}
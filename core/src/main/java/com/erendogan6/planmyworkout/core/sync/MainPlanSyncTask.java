@@ -0,0 +1,105 @@
+package com.erendogan6.planmyworkout.core.sync;
+
+import com.erendogan6.planmyworkout.core.cache.ExerciseLogCache;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogStore;
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.core.user.UserProfileLoader;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Syncs the user's main plan and the logs of its exercises.
+ * The plan is a single document, so it is read again on every run. Logs are pulled per
+ * exercise: the first run copies the full history, later runs only the logs whose server
+ * update time is past the watermark recorded for the exercise. Exercises are compacted into
+ * monthly log documents here when that layout is configured.
+ */
+@Singleton
+public class MainPlanSyncTask implements SyncTask {
+
+    private final UserProfileLoader profileLoader;
+    private final PlanDocumentStore planStore;
+    private final ExerciseLogCache logCache;
+    private final ExerciseLogStore logStore;
+
+    @Inject
+    public MainPlanSyncTask(UserProfileLoader profileLoader, PlanDocumentStore planStore,
+                            ExerciseLogCache logCache, ExerciseLogStore logStore) {
+        this.profileLoader = profileLoader;
+        this.planStore = planStore;
+        this.logCache = logCache;
+        this.logStore = logStore;
+    }
+
+    @Override
+    public Task<Void> sync(String userId) {
+        return profileLoader.getProfile().onSuccessTask(profile -> {
+            if (profile == null || !userId.equals(profile.getUserId()) || profile.getMainPlanId() == null) {
+                return Tasks.<Void>forResult(null);
+            }
+
+            String planId = profile.getMainPlanId();
+            return planStore.refreshPlan(userId, planId).onSuccessTask(plan -> syncLogs(userId, plan));
+        });
+    }
+
+    /**
+     * Sync the logs of every exercise of a plan.
+     *
+     * @param userId The user ID
+     * @param plan The plan, may be null if it doesn't exist
+     * @return Task that completes when all exercises are synced
+     */
+    private Task<Void> syncLogs(String userId, PlanDocument plan) {
+        if (plan == null) {
+            return Tasks.forResult(null);
+        }
+
+        List<Task<Void>> syncs = new ArrayList<>(plan.getExercises().size());
+        for (PlanExercise exercise : plan.getExercises()) {
+            syncs.add(syncLogs(userId, plan.getId(), exercise.getId()));
+        }
+        return Tasks.whenAll(syncs);
+    }
+
+    /**
+     * Sync the logs of one exercise, pulling only what changed since the last run.
+     * With the monthly layout configured the exercise is compacted first, so the sync reads
+     * the monthly documents. A failed compaction is retried on the next run and doesn't hold
+     * up the sync.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task that completes when the local cache is written
+     */
+    private Task<Void> syncLogs(String userId, String planId, String exerciseId) {
+        return logStore.compact(userId, planId, exerciseId)
+                .continueWithTask(compaction -> logCache.getLogsWatermark(userId, planId, exerciseId))
+                .onSuccessTask(watermark -> {
+                    if (watermark == null) {
+                        // The history was never cached, so copy all of it once
+                        return logStore.getLogsFromServer(userId, planId, exerciseId).onSuccessTask(logs ->
+                                logCache.replaceLogs(userId, planId, exerciseId, logs.getLogs(),
+                                        logs.getNewestUpdate()));
+                    }
+
+                    return logStore.getLogsChangedSince(userId, planId, exerciseId, watermark)
+                            .onSuccessTask(logs -> {
+                                if (logs.getLogs().isEmpty()) {
+                                    return Tasks.<Void>forResult(null);
+                                }
+                                long newest = Math.max(watermark, logs.getNewestUpdate());
+                                return logCache.mergeRemoteLogs(userId, planId, exerciseId, logs.getLogs(), newest);
+                            });
+                });
+    }
+}
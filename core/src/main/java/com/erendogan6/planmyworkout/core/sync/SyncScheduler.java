@@ -0,0 +1,53 @@
+package com.erendogan6.planmyworkout.core.sync;
+
+import android.content.Context;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Schedules the background sync.
+ * The sync runs a few times a day while the device charges on an unmetered network, so the
+ * local store is fresh when the app is opened without costing data or battery.
+ */
+@Singleton
+public class SyncScheduler {
+
+    private static final String WORK_NAME = "background-sync";
+    private static final long INTERVAL_HOURS = 6;
+    private static final long BACKOFF_MINUTES = 15;
+
+    private final Context context;
+
+    @Inject
+    public SyncScheduler(@ApplicationContext Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Schedule the periodic sync, keeping the schedule if it already exists.
+     */
+    public void schedule() {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(SyncWorker.class, INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_MINUTES, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+}
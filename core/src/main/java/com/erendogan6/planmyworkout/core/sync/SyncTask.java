@@ -0,0 +1,19 @@
+package com.erendogan6.planmyworkout.core.sync;
+
+import com.google.android.gms.tasks.Task;
+
+/**
+ * One part of the background sync, which copies remote data into the local store ahead of use.
+ * Modules contribute their parts to the sync with a Hilt set binding.
+ */
+public interface SyncTask {
+
+    /**
+     * Copy the remote changes since the last run into the local store.
+     * Called on a background thread.
+     *
+     * @param userId The signed-in user
+     * @return Task that completes when the local store is up to date
+     */
+    Task<Void> sync(String userId);
+}
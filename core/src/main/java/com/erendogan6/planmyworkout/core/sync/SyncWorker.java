@@ -0,0 +1,75 @@
+package com.erendogan6.planmyworkout.core.sync;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.hilt.work.HiltWorker;
+import androidx.tracing.Trace;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.erendogan6.planmyworkout.core.util.FirestoreManager;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import dagger.assisted.Assisted;
+import dagger.assisted.AssistedInject;
+
+/**
+ * Worker that runs every contributed {@link SyncTask} for the signed-in user.
+ * A failed run is retried by WorkManager with its backoff.
+ */
+@HiltWorker
+public class SyncWorker extends Worker {
+
+    private static final String TAG = "SyncWorker";
+
+    // Leaves room within the ten minutes WorkManager gives a worker
+    private static final long TIMEOUT_MINUTES = 5;
+
+    private final FirestoreManager firestoreManager;
+    private final Set<SyncTask> syncTasks;
+
+    @AssistedInject
+    public SyncWorker(@Assisted @NonNull Context context, @Assisted @NonNull WorkerParameters params,
+                      FirestoreManager firestoreManager, Set<SyncTask> syncTasks) {
+        super(context, params);
+        this.firestoreManager = firestoreManager;
+        this.syncTasks = syncTasks;
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return Result.success();
+        }
+
+        Trace.beginSection("SyncWorker");
+        try {
+            List<Task<Void>> runs = new ArrayList<>(syncTasks.size());
+            for (SyncTask syncTask : syncTasks) {
+                runs.add(syncTask.sync(userId));
+            }
+            Tasks.await(Tasks.whenAll(runs), TIMEOUT_MINUTES, TimeUnit.MINUTES);
+            return Result.success();
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "Background sync failed", e);
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        } finally {
+            Trace.endSection();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.erendogan6.planmyworkout.core.user;
+
+/**
+ * Drops the state a module keeps for the signed-in user once they sign out.
+ * Modules contribute their listeners with a Hilt set binding, see UserModule.
+ */
+public interface SignOutListener {
+
+    /**
+     * Forget everything held for the user who signed out.
+     * Called on the main thread.
+     */
+    void onSignOut();
+}
@@ -0,0 +1,143 @@
+package com.erendogan6.planmyworkout.core.user;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.erendogan6.planmyworkout.core.firestore.FirestoreConfig;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreReader;
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Loads the signed-in user's document once per session and shares it between features.
+ * The main plan is prefetched alongside it: the plan ID seen on the previous launch is loaded
+ * while the user document is still in flight, so a returning user's home screen needs a single
+ * round-trip. The document is decoded on the background executor, which also records the plan ID
+ * for the next launch.
+ */
+@Singleton
+public class UserProfileLoader {
+
+    private static final String COLLECTION_USERS = "users";
+    private static final String PREFERENCES_NAME = "user_profile";
+    private static final String KEY_MAIN_PLAN_ID_PREFIX = "mainPlanId_";
+
+    private final FirebaseAuth firebaseAuth;
+    private final FirebaseFirestore firestore;
+    private final PlanDocumentStore planStore;
+    private final FirestoreReader reader;
+    private final BackgroundExecutor executor;
+    private final SharedPreferences preferences;
+
+    private String profileUserId;
+    private Task<UserProfileSnapshot> profile;
+
+    @Inject
+    public UserProfileLoader(@ApplicationContext Context context, FirebaseAuth firebaseAuth,
+                             FirebaseFirestore firestore, PlanDocumentStore planStore, FirestoreReader reader,
+                             BackgroundExecutor executor) {
+        this.firebaseAuth = firebaseAuth;
+        this.firestore = firestore;
+        this.planStore = planStore;
+        this.reader = reader;
+        this.executor = executor;
+        this.preferences = context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Get the profile of the signed-in user. The user document is read at most once per session.
+     *
+     * @return Task with the profile, or null if no user is signed in
+     */
+    public synchronized Task<UserProfileSnapshot> getProfile() {
+        FirebaseUser user = firebaseAuth.getCurrentUser();
+        if (user == null) {
+            return Tasks.forResult(null);
+        }
+
+        String userId = user.getUid();
+        if (profile != null && userId.equals(profileUserId)
+                && (!profile.isComplete() || profile.isSuccessful())) {
+            return profile;
+        }
+
+        String lastMainPlanId = preferences.getString(KEY_MAIN_PLAN_ID_PREFIX + userId, null);
+        if (lastMainPlanId != null) {
+            // Runs alongside the user document read; the plan store shares the load with later requests
+            planStore.getPlan(userId, lastMainPlanId);
+        }
+
+        profileUserId = userId;
+        profile = reader.get(firestore.collection(COLLECTION_USERS).document(userId),
+                        FirestoreConfig.Repository.USER_PROFILE)
+                .continueWith(executor, task -> {
+                    UserProfileSnapshot snapshot = UserProfileSnapshot.fromData(userId, task.getResult().getData());
+                    String mainPlanId = snapshot.getMainPlanId();
+                    if (mainPlanId != null && !mainPlanId.equals(lastMainPlanId)) {
+                        planStore.getPlan(userId, mainPlanId);
+                    }
+                    rememberMainPlanId(userId, mainPlanId);
+                    return snapshot;
+                });
+        return profile;
+    }
+
+    /**
+     * Get the main plan of the signed-in user.
+     *
+     * @return Task with the main plan, or null if the user has none
+     */
+    public Task<PlanDocument> getMainPlan() {
+        return getProfile().onSuccessTask(snapshot -> {
+            if (snapshot == null || snapshot.getMainPlanId() == null) {
+                return Tasks.<PlanDocument>forResult(null);
+            }
+            return planStore.getPlan(snapshot.getUserId(), snapshot.getMainPlanId());
+        });
+    }
+
+    /**
+     * Record a new main plan that was written to the user document, so the loaded profile stays
+     * current without reading the document again.
+     *
+     * @param userId The user ID
+     * @param planId The main plan ID
+     */
+    public synchronized void setMainPlanId(String userId, String planId) {
+        rememberMainPlanId(userId, planId);
+        if (profile != null && userId.equals(profileUserId) && profile.isSuccessful()
+                && profile.getResult() != null) {
+            profile = Tasks.forResult(profile.getResult().withMainPlanId(planId));
+        } else {
+            profile = null;
+        }
+    }
+
+    /**
+     * Drop the loaded profile, for example when the user signs out.
+     */
+    public synchronized void invalidate() {
+        profile = null;
+        profileUserId = null;
+    }
+
+    private void rememberMainPlanId(String userId, String planId) {
+        String key = KEY_MAIN_PLAN_ID_PREFIX + userId;
+        if (planId != null) {
+            preferences.edit().putString(key, planId).apply();
+        } else {
+            preferences.edit().remove(key).apply();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.erendogan6.planmyworkout.core.user;
+
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
+
+import java.util.Map;
+
+/**
+ * Immutable copy of the fields of a user document that features read on launch.
+ */
+public final class UserProfileSnapshot {
+
+    public static final String FIELD_NAME = "name";
+    public static final String FIELD_MAIN_PLAN_ID = "mainPlanId";
+    public static final String FIELD_ONBOARDING_COMPLETED = "onboardingCompleted";
+
+    private final String userId;
+    private final boolean exists;
+    private final String name;
+    private final String mainPlanId;
+    private final boolean onboardingCompleted;
+
+    public UserProfileSnapshot(String userId, boolean exists, String name, String mainPlanId,
+                               boolean onboardingCompleted) {
+        this.userId = userId;
+        this.exists = exists;
+        this.name = name;
+        this.mainPlanId = mainPlanId;
+        this.onboardingCompleted = onboardingCompleted;
+    }
+
+    /**
+     * Read a user document.
+     *
+     * @param userId The user ID
+     * @param data The user document data, or null if the document does not exist
+     * @return The profile
+     */
+    public static UserProfileSnapshot fromData(String userId, Map<String, Object> data) {
+        if (data == null) {
+            return new UserProfileSnapshot(userId, false, null, null, false);
+        }
+        return new UserProfileSnapshot(
+                userId,
+                true,
+                DocumentValues.getString(data, FIELD_NAME),
+                DocumentValues.getString(data, FIELD_MAIN_PLAN_ID),
+                Boolean.TRUE.equals(data.get(FIELD_ONBOARDING_COMPLETED))
+        );
+    }
+
+    /**
+     * Create a copy of this profile with a different main plan.
+     *
+     * @param planId The main plan ID
+     * @return The updated copy
+     */
+    public UserProfileSnapshot withMainPlanId(String planId) {
+        return new UserProfileSnapshot(userId, true, name, planId, onboardingCompleted);
+    }
+
+    /**
+     * Check whether the user has finished onboarding, which is the case once a main plan is set
+     * or the document says so.
+     *
+     * @return true if onboarding is completed
+     */
+    public boolean hasCompletedOnboarding() {
+        return mainPlanId != null || onboardingCompleted;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public boolean exists() {
+        return exists;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMainPlanId() {
+        return mainPlanId;
+    }
+
+    public boolean isOnboardingCompleted() {
+        return onboardingCompleted;
+    }
+}
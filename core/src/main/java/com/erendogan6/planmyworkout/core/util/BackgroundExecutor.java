@@ -0,0 +1,68 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.os.Looper;
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Shared executor for the CPU work of repositories, such as decoding documents and building lists.
+ * Task continuations run on the main thread unless they are given an executor, so repositories
+ * pass this one and only the final LiveData update runs on the main thread. The pool is bounded
+ * and its threads run at background priority, so parsing never competes with the UI for long.
+ * Database work stays on Room's own executor.
+ */
+@Singleton
+public class BackgroundExecutor implements Executor {
+
+    private static final int MAX_THREADS = 4;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor pool;
+    private final boolean checkThreads;
+
+    @Inject
+    public BackgroundExecutor(@ApplicationContext Context context) {
+        int threads = Math.max(2, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }, "background-" + threadCount.incrementAndGet()));
+        // Idle threads go away, so the pool costs nothing between loads
+        pool.allowCoreThreadTimeOut(true);
+        checkThreads = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        pool.execute(command);
+    }
+
+    /**
+     * Flag work that is meant to run on this executor but runs on the main thread.
+     * Throws in debuggable builds and does nothing in release builds.
+     *
+     * @param work Name of the work, for the error message
+     * @throws IllegalStateException If called on the main thread of a debuggable build
+     */
+    public void assertNotMainThread(String work) {
+        if (checkThreads && Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException(work + " must not run on the main thread");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import com.google.firebase.Timestamp;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed readers for values of a Firestore document's data map.
+ * Numbers are read straight from the boxed values Firestore hands out, without allocating
+ * new boxes or going through reflection.
+ */
+public final class DocumentValues {
+
+    private DocumentValues() {
+        // Utility class
+    }
+
+    /**
+     * Read a string field.
+     *
+     * @param data The document data
+     * @param field The field name
+     * @return The string, or null if the field is missing or not a string
+     */
+    public static String getString(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Read a numeric field as an int.
+     *
+     * @param data The document data
+     * @param field The field name
+     * @param defaultValue The value used if the field is missing or not a number
+     * @return The int value
+     */
+    public static int getInt(Map<String, Object> data, String field, int defaultValue) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    /**
+     * Read a numeric field as a double.
+     *
+     * @param data The document data
+     * @param field The field name
+     * @param defaultValue The value used if the field is missing or not a number
+     * @return The double value
+     */
+    public static double getDouble(Map<String, Object> data, String field, double defaultValue) {
+        Object value = data.get(field);
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    /**
+     * Read a timestamp field as milliseconds since the epoch.
+     *
+     * @param data The document data
+     * @param field The field name
+     * @param defaultValue The value used if the field is missing or not a timestamp
+     * @return The time in milliseconds
+     */
+    public static long getMillis(Map<String, Object> data, String field, long defaultValue) {
+        Object value = data.get(field);
+        if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp) value;
+            return timestamp.getSeconds() * 1000 + timestamp.getNanoseconds() / 1_000_000;
+        }
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Read a map field.
+     *
+     * @param data The document data
+     * @param field The field name
+     * @return The map, or null if the field is missing or not a map
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> getMap(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+
+    /**
+     * Read an array field.
+     *
+     * @param data The document data
+     * @param field The field name
+     * @return The list, or null if the field is missing or not an array
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> getList(Map<String, Object> data, String field) {
+        Object value = data.get(field);
+        return value instanceof List ? (List<T>) value : null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.CancellationTokenSource;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+/**
+ * Cancellation scope for the requests of one screen, built on a CancellationTokenSource.
+ * A ViewModel owns a scope, passes its token to the repositories and cancels it in onCleared.
+ * Repositories check the token before each step, so an abandoned screen starts no more reads
+ * and builds no more results, and the Tasks they return end as canceled, which runs neither
+ * the success nor the failure listeners of the ViewModel.
+ */
+public class RequestScope {
+
+    /**
+     * Token for callers that have no scope; it is never cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationTokenSource().getToken();
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private final CancellationTokenSource source = new CancellationTokenSource();
+
+    /**
+     * Get the token to pass to the requests of this scope.
+     */
+    public CancellationToken getToken() {
+        return source.getToken();
+    }
+
+    /**
+     * Cancel every request of this scope, including requests made afterwards.
+     */
+    public void cancel() {
+        source.cancel();
+    }
+
+    /**
+     * Bind a Task to this scope.
+     *
+     * @param task The task
+     * @return Task with the same result, or a canceled Task if the scope is cancelled first
+     */
+    public <T> Task<T> bind(Task<T> task) {
+        return bind(task, getToken());
+    }
+
+    /**
+     * Bind a Task to a token. Shared loads, which other callers may still need, are bound
+     * rather than cancelled, so only this caller stops waiting for them.
+     *
+     * @param task The task
+     * @param token The cancellation token
+     * @return Task with the same result, or a canceled Task if the token is cancelled first
+     */
+    public static <T> Task<T> bind(Task<T> task, CancellationToken token) {
+        return task.continueWithTask(DIRECT, done -> token.isCancellationRequested() ? Tasks.forCanceled() : done);
+    }
+
+    /**
+     * End a continuation step early if its token is cancelled.
+     * The thrown exception fails the step, which {@link #bind} then reports as canceled.
+     *
+     * @param token The cancellation token
+     * @throws CancellationException If the token is cancelled
+     */
+    public static void throwIfCancelled(CancellationToken token) {
+        if (token.isCancellationRequested()) {
+            throw new CancellationException();
+        }
+    }
+}
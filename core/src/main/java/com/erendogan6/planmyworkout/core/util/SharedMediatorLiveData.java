@@ -0,0 +1,46 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.MediatorLiveData;
+
+/**
+ * MediatorLiveData meant to be shared by every observer of the same data through a map of its
+ * owner. Once it has had no observer for a while, {@link #onReleased()} lets the owner drop it
+ * from the map, so the map only holds what screens still use. Moving between screens stays
+ * within the delay, so it keeps the shared instance.
+ *
+ * @param <T> The type of the value
+ */
+public abstract class SharedMediatorLiveData<T> extends MediatorLiveData<T> {
+
+    private static final long RELEASE_DELAY_MS = 60_000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable release = this::release;
+
+    /**
+     * Called on the main thread once the instance had no observer for a while. The owner should
+     * stop handing it out.
+     */
+    protected abstract void onReleased();
+
+    @Override
+    protected void onActive() {
+        super.onActive();
+        handler.removeCallbacks(release);
+    }
+
+    @Override
+    protected void onInactive() {
+        super.onInactive();
+        handler.postDelayed(release, RELEASE_DELAY_MS);
+    }
+
+    private void release() {
+        if (!hasObservers()) {
+            onReleased();
+        }
+    }
+}
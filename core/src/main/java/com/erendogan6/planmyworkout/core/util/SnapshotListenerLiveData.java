@@ -0,0 +1,75 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+
+import com.google.firebase.firestore.ListenerRegistration;
+
+/**
+ * LiveData that keeps a Firestore snapshot listener registered while it has active observers.
+ * One instance is meant to be shared by every observer of the same document or query: the
+ * listener is registered when the first observer becomes active and removed a while after the
+ * last one went away, so moving between screens does not register it again. Owners that keep
+ * instances in a map drop them in {@link #onReleased()}.
+ *
+ * @param <T> The type of the value
+ */
+public abstract class SnapshotListenerLiveData<T> extends LiveData<T> {
+
+    private static final long REMOVE_LISTENER_DELAY_MS = 60_000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable removeListener = this::removeListener;
+    private ListenerRegistration registration;
+
+    protected SnapshotListenerLiveData() {
+        super();
+    }
+
+    protected SnapshotListenerLiveData(T value) {
+        super(value);
+    }
+
+    /**
+     * Register the snapshot listener that feeds this LiveData.
+     *
+     * @return The registration of the listener
+     */
+    protected abstract ListenerRegistration addListener();
+
+    /**
+     * Called on the main thread when the listener was removed and no observer is left, so an
+     * owner that shares instances through a map can drop this one.
+     */
+    protected void onReleased() {
+        // Nothing to drop by default
+    }
+
+    @Override
+    protected void onActive() {
+        handler.removeCallbacks(removeListener);
+        if (registration == null) {
+            registration = addListener();
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        handler.postDelayed(removeListener, REMOVE_LISTENER_DELAY_MS);
+    }
+
+    private void removeListener() {
+        if (hasActiveObservers()) {
+            return;
+        }
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        if (!hasObservers()) {
+            onReleased();
+        }
+    }
+}
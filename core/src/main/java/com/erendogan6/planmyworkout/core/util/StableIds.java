@@ -0,0 +1,67 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Stable item IDs for list adapters, handed out from a counter per item key, so two items never
+ * share an ID the way hash codes of their keys can. IDs of items that left the list are dropped
+ * by {@link #retain(List)}, and are never handed out again.
+ * Meant to be used on the main thread by a single adapter.
+ *
+ * @param <T> The type of the items
+ */
+public final class StableIds<T> {
+
+    /**
+     * ID of an item without a key, the same value as RecyclerView.NO_ID.
+     */
+    public static final long NO_ID = -1;
+
+    private final Function<T, String> keyOf;
+    private final Map<String, Long> ids = new HashMap<>();
+    private long nextId;
+
+    /**
+     * @param keyOf Gets the key of an item, which may be null for items without one
+     */
+    public StableIds(Function<T, String> keyOf) {
+        this.keyOf = keyOf;
+    }
+
+    /**
+     * Get the ID of an item, handing out a new one the first time its key is seen.
+     *
+     * @param item The item
+     * @return The ID, or {@link #NO_ID} if the item has no key
+     */
+    public long getId(T item) {
+        String key = keyOf.apply(item);
+        if (key == null) {
+            return NO_ID;
+        }
+        Long id = ids.get(key);
+        if (id == null) {
+            id = nextId++;
+            ids.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Drop the IDs of items that are no longer in the list.
+     *
+     * @param items The current items
+     */
+    public void retain(List<T> items) {
+        Set<String> keys = new HashSet<>(items.size() * 2);
+        for (T item : items) {
+            keys.add(keyOf.apply(item));
+        }
+        ids.keySet().retainAll(keys);
+    }
+}
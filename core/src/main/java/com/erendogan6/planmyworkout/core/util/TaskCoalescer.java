@@ -0,0 +1,126 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import android.os.SystemClock;
+
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keyed single-flight for Task based loads.
+ * Calls with the same key while a load is running share its Task, and a successful result is
+ * handed out again until it is older than the time to live. Failed loads are forgotten as soon
+ * as they complete, so the next call tries again.
+ * Keys are paths such as "userId/planId/exerciseId/logs", which lets a write drop everything
+ * under a path with {@link #invalidatePrefix(String)}.
+ */
+public class TaskCoalescer {
+
+    private final long ttlMs;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * @param ttlMs How long a successful result is reused, in milliseconds
+     */
+    public TaskCoalescer(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Get the Task for a key, starting the load only if there is no running or fresh one.
+     *
+     * @param key The key of the load
+     * @param load Starts the load
+     * @return Task with the result of the load
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Task<T> run(String key, Supplier<Task<T>> load) {
+        Entry entry = entries.get(key);
+        if (entry != null && (!entry.task.isComplete() || isFresh(entry))) {
+            return (Task<T>) entry.task;
+        }
+
+        Task<T> task = load.get();
+        Entry newEntry = new Entry(task);
+        entries.put(key, newEntry);
+        task.addOnCompleteListener(Runnable::run, completed -> onComplete(key, newEntry));
+        return task;
+    }
+
+    /**
+     * Get the Task for a key on behalf of a cancellable request. A cancelled request starts no
+     * load, and stops waiting for a shared one without cancelling it for the other callers.
+     *
+     * @param key The key of the load
+     * @param token The cancellation token of the request
+     * @param load Starts the load
+     * @return Task with the result of the load, or a canceled Task if the token is cancelled first
+     */
+    public <T> Task<T> run(String key, CancellationToken token, Supplier<Task<T>> load) {
+        if (token.isCancellationRequested()) {
+            return Tasks.forCanceled();
+        }
+        return RequestScope.bind(run(key, load), token);
+    }
+
+    /**
+     * Forget the result stored for a key.
+     *
+     * @param key The key of the load
+     */
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Forget every result whose key starts with a path.
+     *
+     * @param prefix The path, such as "userId/planId/exerciseId/"
+     */
+    public synchronized void invalidatePrefix(String prefix) {
+        Iterator<String> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Forget every stored result.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized void onComplete(String key, Entry entry) {
+        // A newer load or an invalidation may have replaced the entry in the meantime
+        if (entries.get(key) != entry) {
+            return;
+        }
+        if (entry.task.isSuccessful()) {
+            entry.completedAt = SystemClock.elapsedRealtime();
+        } else {
+            entries.remove(key);
+        }
+    }
+
+    private boolean isFresh(Entry entry) {
+        return entry.task.isSuccessful()
+                && SystemClock.elapsedRealtime() - entry.completedAt < ttlMs;
+    }
+
+    private static class Entry {
+        final Task<?> task;
+        long completedAt;
+
+        Entry(Task<?> task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.Observer;
+import androidx.lifecycle.Transformations;
+
+import com.erendogan6.planmyworkout.core.model.UiState;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the UiState of a screen and changes it only through reducers.
+ * The screen observes a single distinctUntilChanged stream, so reducers that change nothing
+ * don't render. Streams the state depends on are added as sources, which keeps them active
+ * exactly while the screen observes its state.
+ * @param <T> Type of the screen content
+ */
+public class UiStateStore<T> {
+
+    private final MediatorLiveData<UiState<T>> state;
+    private final LiveData<UiState<T>> distinctState;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public UiStateStore(UiState<T> initialState) {
+        this.state = new MediatorLiveData<>(initialState);
+        this.distinctState = Transformations.distinctUntilChanged(state);
+    }
+
+    /**
+     * Get the stream of states to render.
+     */
+    public LiveData<UiState<T>> getState() {
+        return distinctState;
+    }
+
+    /**
+     * Get the current state.
+     */
+    public UiState<T> get() {
+        return state.getValue();
+    }
+
+    /**
+     * Apply a reducer to the current state. Reducers passed from other threads run on the
+     * main thread, in the order they were passed.
+     *
+     * @param reducer Returns the next state for the current one
+     */
+    public void reduce(UnaryOperator<UiState<T>> reducer) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            mainHandler.post(() -> reduce(reducer));
+            return;
+        }
+
+        UiState<T> current = state.getValue();
+        UiState<T> next = reducer.apply(current);
+        if (next != current) {
+            state.setValue(next);
+        }
+    }
+
+    /**
+     * Follow a stream while the state is observed. Must be called on the main thread.
+     *
+     * @param source The stream
+     * @param onChanged Called with each value, usually to reduce the state
+     */
+    public <S> void addSource(LiveData<S> source, Observer<? super S> onChanged) {
+        state.addSource(source, onChanged);
+    }
+
+    /**
+     * Stop following a stream. Must be called on the main thread.
+     *
+     * @param source The stream
+     */
+    public void removeSource(LiveData<?> source) {
+        state.removeSource(source);
+    }
+}
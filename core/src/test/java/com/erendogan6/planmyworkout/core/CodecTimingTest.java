@@ -0,0 +1,201 @@
+package com.erendogan6.planmyworkout.core;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogCodec;
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentCodec;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.core.plan.PlanExerciseCodec;
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Times the document codecs on a plain JVM, so parsing can be measured without a device.
+ * Each case checks its result, then reports the median time per operation to the test output.
+ * The device benchmarks in the benchmark module stay the numbers baselines are kept for.
+ */
+public class CodecTimingTest {
+
+    // A large plan, well above what the ready-made plans hold
+    private static final int EXERCISE_COUNT = 200;
+    // One page of the exercise history screen
+    private static final int LOG_PAGE_SIZE = 20;
+
+    private static final int WARMUP_OPERATIONS = 5_000;
+    private static final int ROUNDS = 15;
+    private static final int OPERATIONS_PER_ROUND = 500;
+
+    private static final long FIRST_LOG_MILLIS = 1_700_000_000_000L;
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final Map<String, Object> planData = plan(EXERCISE_COUNT);
+    private final List<Map<String, Object>> logPage = logs(LOG_PAGE_SIZE);
+
+    // Keeps the timed work from being optimized away
+    private volatile int sink;
+
+    @Test
+    public void decodeLargePlan() {
+        PlanDocument plan = PlanDocumentCodec.decode("plan", planData);
+        assertEquals(EXERCISE_COUNT, plan.getExercises().size());
+        assertEquals(Double.valueOf(40.0 + EXERCISE_COUNT - 1),
+                plan.getExercises().get(EXERCISE_COUNT - 1).getLastWeight());
+
+        time("decodeLargePlan", () -> PlanDocumentCodec.decode("plan", planData).getExercises().size());
+    }
+
+    @Test
+    public void decodePlanExercises() {
+        List<Object> exercises = castList(planData.get(PlanDocumentCodec.FIELD_EXERCISES));
+        Map<String, Object> latestLogs = castMap(planData.get(PlanDocumentCodec.FIELD_LATEST_LOGS));
+        PlanExercise first = PlanExerciseCodec.decode("ex_0", castMap(exercises.get(0)),
+                castMap(latestLogs.get("ex_0")), false);
+        assertEquals("Exercise 0", first.getName());
+        assertEquals(Integer.valueOf(10), first.getLastReps());
+
+        time("decodePlanExercises", () -> {
+            int decoded = 0;
+            for (int i = 0; i < exercises.size(); i++) {
+                String id = "ex_" + i;
+                decoded += PlanExerciseCodec.decode(id, castMap(exercises.get(i)), castMap(latestLogs.get(id)),
+                        false).getSets();
+            }
+            return decoded;
+        });
+    }
+
+    @Test
+    public void encodeLargePlan() {
+        PlanDocument plan = PlanDocumentCodec.decode("plan", planData);
+        List<Object> encoded = castList(PlanDocumentCodec.encode(plan).get(PlanDocumentCodec.FIELD_EXERCISES));
+        assertEquals(EXERCISE_COUNT, encoded.size());
+
+        time("encodeLargePlan", () -> PlanDocumentCodec.encode(plan).size());
+    }
+
+    @Test
+    public void decodeLogPage() {
+        ExerciseLogEntity newest = ExerciseLogCodec.decode("user", "plan", "ex_0", logId(0), logPage.get(0));
+        assertNotNull(newest.getLogId());
+        assertEquals(FIRST_LOG_MILLIS + (LOG_PAGE_SIZE - 1) * DAY_MILLIS, newest.getTimestamp());
+
+        time("decodeLogPage", () -> {
+            List<ExerciseLogEntity> entities = new ArrayList<>(LOG_PAGE_SIZE);
+            for (int i = 0; i < LOG_PAGE_SIZE; i++) {
+                entities.add(ExerciseLogCodec.decode("user", "plan", "ex_0", logId(i), logPage.get(i)));
+            }
+            return entities.size();
+        });
+    }
+
+    /**
+     * Run an operation until the JIT settled, then time it in rounds and report the median.
+     *
+     * @param name Name of the case, for the output
+     * @param operation The operation, returning a value derived from its result
+     */
+    private void time(String name, IntSupplier operation) {
+        int result = 0;
+        for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+            result += operation.getAsInt();
+        }
+
+        long[] roundNanos = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS_PER_ROUND; i++) {
+                result += operation.getAsInt();
+            }
+            roundNanos[round] = (System.nanoTime() - start) / OPERATIONS_PER_ROUND;
+        }
+        sink = result;
+
+        Arrays.sort(roundNanos);
+        long median = roundNanos[ROUNDS / 2];
+        System.out.println(getClass().getSimpleName() + "." + name + ": " + median + " ns");
+    }
+
+    /**
+     * A plan with the given number of exercises, each with a latest log summary, using the value
+     * types Firestore hands out.
+     */
+    private static Map<String, Object> plan(int exerciseCount) {
+        List<Map<String, Object>> exercises = new ArrayList<>(exerciseCount);
+        Map<String, Object> latestLogs = new HashMap<>();
+        for (int i = 0; i < exerciseCount; i++) {
+            Map<String, Object> exercise = new HashMap<>();
+            exercise.put("id", "ex_" + i);
+            exercise.put("name", "Exercise " + i);
+            exercise.put("description", "Description of exercise " + i);
+            exercise.put("muscleGroup", "Chest");
+            exercise.put("sets", 4L);
+            exercise.put("reps", 10L);
+            exercise.put("restSeconds", 90L);
+            exercise.put("unit", "reps");
+            exercises.add(exercise);
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("logId", String.valueOf(FIRST_LOG_MILLIS + i));
+            summary.put("weight", 40.0 + i);
+            summary.put("reps", 10L);
+            summary.put("timestamp", timestamp(FIRST_LOG_MILLIS + i));
+            latestLogs.put("ex_" + i, summary);
+        }
+
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("name", "Large Plan");
+        plan.put("description", "A plan with " + exerciseCount + " exercises");
+        plan.put("difficulty", "Intermediate");
+        plan.put("days", 4L);
+        plan.put("durationWeeks", 12L);
+        plan.put("weeklySchedule", Arrays.asList("Monday", "Tuesday", "Thursday", "Friday"));
+        plan.put("exercises", exercises);
+        plan.put("latestLogs", latestLogs);
+        return plan;
+    }
+
+    /**
+     * A page of log documents, newest first.
+     */
+    private static List<Map<String, Object>> logs(int count) {
+        List<Map<String, Object>> logs = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            Map<String, Object> log = new HashMap<>();
+            log.put("weight", 40.0 + (i % 20) * 2.5);
+            log.put("reps", (long) (8 + i % 5));
+            log.put("notes", i % 3 == 0 ? "Felt strong today" : null);
+            log.put("timestamp", timestamp(FIRST_LOG_MILLIS + i * DAY_MILLIS));
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    private static String logId(int position) {
+        return String.valueOf(FIRST_LOG_MILLIS + (LOG_PAGE_SIZE - 1 - position) * DAY_MILLIS);
+    }
+
+    private static Timestamp timestamp(long millis) {
+        return new Timestamp(millis / 1000, (int) (millis % 1000) * 1_000_000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> castList(Object value) {
+        return (List<Object>) value;
+    }
+}
@@ -0,0 +1,117 @@
+package com.erendogan6.planmyworkout.core.log;
+
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the columnar history stays ordered by time and answers range queries.
+ */
+public class ExerciseHistoryTest {
+
+    @Test
+    public void appendedLogsKeepTheirOrderAndValues() {
+        ExerciseHistory history = new ExerciseHistory(1);
+        history.add(10, 40.0, 8);
+        history.add(20, 42.5, 10);
+        history.add(20, 45.0, 6);
+
+        assertEquals(3, history.size());
+        assertArrayEquals(new long[]{10, 20, 20}, timestamps(history));
+        assertEquals(42.5, history.getWeight(1), 0);
+        assertEquals(6, history.getReps(2));
+    }
+
+    @Test
+    public void olderLogIsInsertedInPlace() {
+        ExerciseHistory history = new ExerciseHistory();
+        history.add(10, 40.0, 8);
+        history.add(30, 50.0, 5);
+        history.add(20, 45.0, 6);
+        history.add(5, 35.0, 12);
+
+        assertArrayEquals(new long[]{5, 10, 20, 30}, timestamps(history));
+        assertEquals(45.0, history.getWeight(2), 0);
+        assertEquals(6, history.getReps(2));
+        assertEquals(50.0, history.getWeight(3), 0);
+    }
+
+    @Test
+    public void olderLogGoesAfterLogsOfTheSameTime() {
+        ExerciseHistory history = new ExerciseHistory();
+        history.add(10, 40.0, 8);
+        history.add(30, 50.0, 5);
+        history.add(10, 42.5, 7);
+
+        assertArrayEquals(new long[]{10, 10, 30}, timestamps(history));
+        assertEquals(40.0, history.getWeight(0), 0);
+        assertEquals(42.5, history.getWeight(1), 0);
+    }
+
+    @Test
+    public void indexOfFindsFirstLogOfEqualTimestamps() {
+        ExerciseHistory history = history(10, 20, 20, 20, 30);
+
+        assertEquals(1, history.indexOf(20));
+        assertEquals(0, history.indexOf(10));
+        assertEquals(4, history.indexOf(30));
+    }
+
+    @Test
+    public void indexOfMissingTimestampFindsNextLog() {
+        ExerciseHistory history = history(10, 20, 30);
+
+        assertEquals(0, history.indexOf(5));
+        assertEquals(2, history.indexOf(25));
+        assertEquals(3, history.indexOf(35));
+        assertEquals(0, new ExerciseHistory().indexOf(10));
+    }
+
+    @Test
+    public void countIncludesStartAndExcludesEnd() {
+        ExerciseHistory history = history(10, 20, 20, 30, 40);
+
+        assertEquals(3, history.count(20, 40));
+        assertEquals(2, history.count(15, 30));
+        assertEquals(5, history.count(Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(0, history.count(21, 30));
+        assertEquals(0, history.count(40, 10));
+    }
+
+    @Test
+    public void fromLogsOrdersByTime() {
+        ExerciseHistory history = ExerciseHistory.fromLogs(Arrays.asList(log(30, 50.0), log(10, 40.0), log(20, 45.0)));
+
+        assertArrayEquals(new long[]{10, 20, 30}, timestamps(history));
+        assertEquals(45.0, history.getWeight(1), 0);
+    }
+
+    private static ExerciseHistory history(long... timestamps) {
+        ExerciseHistory history = new ExerciseHistory(timestamps.length);
+        for (long timestamp : timestamps) {
+            history.add(timestamp, 40.0, 8);
+        }
+        return history;
+    }
+
+    private static long[] timestamps(ExerciseHistory history) {
+        long[] timestamps = new long[history.size()];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = history.getTimestamp(i);
+        }
+        return timestamps;
+    }
+
+    private static ExerciseLogEntity log(long timestamp, double weight) {
+        ExerciseLogEntity log = new ExerciseLogEntity();
+        log.setTimestamp(timestamp);
+        log.setWeight(weight);
+        log.setReps(8);
+        return log;
+    }
+}
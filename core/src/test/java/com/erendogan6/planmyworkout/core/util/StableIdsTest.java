@@ -0,0 +1,52 @@
+package com.erendogan6.planmyworkout.core.util;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Checks that stable IDs stay the same per key and are never shared.
+ */
+public class StableIdsTest {
+
+    private final StableIds<String> stableIds = new StableIds<>(item -> item);
+
+    @Test
+    public void keysWithEqualHashCodesGetDistinctIds() {
+        // "Aa" and "BB" have the same hash code
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        assertNotEquals(stableIds.getId("Aa"), stableIds.getId("BB"));
+    }
+
+    @Test
+    public void sameKeyKeepsItsId() {
+        long id = stableIds.getId("a");
+        stableIds.getId("b");
+
+        assertEquals(id, stableIds.getId("a"));
+    }
+
+    @Test
+    public void itemWithoutKeyHasNoId() {
+        assertEquals(StableIds.NO_ID, new StableIds<String>(item -> null).getId("a"));
+    }
+
+    @Test
+    public void droppedIdsAreNotHandedOutAgain() {
+        long first = stableIds.getId("a");
+        long second = stableIds.getId("b");
+        stableIds.retain(Collections.singletonList("b"));
+
+        long third = stableIds.getId("c");
+        long returned = stableIds.getId("a");
+
+        assertEquals(second, stableIds.getId("b"));
+        assertNotEquals(first, third);
+        assertNotEquals(second, third);
+        assertNotEquals(first, returned);
+    }
+}
@@ -2,11 +2,16 @@ package com.erendogan6.planmyworkout.feature.auth.di;
 
 import android.content.Context;
 
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.user.SignOutListener;
+import com.erendogan6.planmyworkout.core.user.UserProfileLoader;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
 import com.erendogan6.planmyworkout.feature.auth.repository.AuthRepository;
 import com.erendogan6.planmyworkout.feature.auth.repository.AuthRepositoryImpl;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.Set;
 
 import javax.inject.Singleton;
 
@@ -45,11 +50,17 @@ public class AuthModule {
      * Provides AuthRepository implementation.
      *
      * @param firebaseAuth Firebase authentication instance
+     * @param profileLoader Shared loader for the user document
+     * @param planStore Shared store for plan documents
+     * @param executor Executor for the continuations of the repository
+     * @param signOutListeners Listeners that drop the data other features keep for the user
      * @return AuthRepository implementation
      */
     @Provides
     @Singleton
-    public AuthRepository provideAuthRepository(FirebaseAuth firebaseAuth, FirebaseFirestore firestore) {
-        return new AuthRepositoryImpl(firebaseAuth, firestore);
+    public AuthRepository provideAuthRepository(FirebaseAuth firebaseAuth, UserProfileLoader profileLoader,
+                                                PlanDocumentStore planStore, BackgroundExecutor executor,
+                                                Set<SignOutListener> signOutListeners) {
+        return new AuthRepositoryImpl(firebaseAuth, profileLoader, planStore, executor, signOutListeners);
     }
 }
\ No newline at end of file
@@ -1,5 +1,10 @@
 package com.erendogan6.planmyworkout.feature.auth.repository;
 
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.user.SignOutListener;
+import com.erendogan6.planmyworkout.core.user.UserProfileLoader;
+import com.erendogan6.planmyworkout.core.user.UserProfileSnapshot;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
 import com.erendogan6.planmyworkout.feature.auth.model.AuthResult;
 import com.erendogan6.planmyworkout.feature.auth.model.AuthResponse;
 import com.erendogan6.planmyworkout.feature.auth.model.User;
@@ -10,8 +15,8 @@ import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.FirebaseAuthInvalidCredentialsException;
 import com.google.firebase.auth.FirebaseAuthInvalidUserException;
 import com.google.firebase.auth.FirebaseAuthUserCollisionException;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -19,23 +24,34 @@ import javax.inject.Singleton;
 /**
  * Implementation of the AuthRepository interface using Firebase Authentication.
  * Handles all Firebase authentication operations and converts Firebase objects to domain models.
+ * Results are converted on the background executor.
  */
 @Singleton
 public class AuthRepositoryImpl implements AuthRepository {
 
     private final FirebaseAuth firebaseAuth;
-    private final FirebaseFirestore firestore;
+    private final UserProfileLoader profileLoader;
+    private final PlanDocumentStore planStore;
+    private final BackgroundExecutor executor;
+    private final Set<SignOutListener> signOutListeners;
 
     /**
      * Constructor for dependency injection.
      *
      * @param firebaseAuth Firebase Authentication instance
-     * @param firestore Firebase Firestore instance
+     * @param profileLoader Shared loader for the user document
+     * @param planStore Shared store for plan documents
+     * @param executor Executor for the continuations of the repository
+     * @param signOutListeners Listeners that drop the data other features keep for the user
      */
     @Inject
-    public AuthRepositoryImpl(FirebaseAuth firebaseAuth, FirebaseFirestore firestore) {
+    public AuthRepositoryImpl(FirebaseAuth firebaseAuth, UserProfileLoader profileLoader, PlanDocumentStore planStore,
+                              BackgroundExecutor executor, Set<SignOutListener> signOutListeners) {
         this.firebaseAuth = firebaseAuth;
-        this.firestore = firestore;
+        this.profileLoader = profileLoader;
+        this.planStore = planStore;
+        this.executor = executor;
+        this.signOutListeners = signOutListeners;
     }
 
     /**
@@ -46,7 +62,7 @@ public class AuthRepositoryImpl implements AuthRepository {
     @Override
     public Task<AuthResponse<AuthResult>> login(String email, String password) {
         return firebaseAuth.signInWithEmailAndPassword(email, password)
-                .continueWith(task -> {
+                .continueWith(executor, task -> {
                     if (task.isSuccessful() && task.getResult() != null) {
                         FirebaseUser firebaseUser = task.getResult().getUser();
                         if (firebaseUser != null) {
@@ -70,7 +86,7 @@ public class AuthRepositoryImpl implements AuthRepository {
     @Override
     public Task<AuthResponse<AuthResult>> register(String email, String password) {
         return firebaseAuth.createUserWithEmailAndPassword(email, password)
-                .continueWith(task -> {
+                .continueWith(executor, task -> {
                     if (task.isSuccessful() && task.getResult() != null) {
                         FirebaseUser firebaseUser = task.getResult().getUser();
                         if (firebaseUser != null) {
@@ -94,7 +110,7 @@ public class AuthRepositoryImpl implements AuthRepository {
     @Override
     public Task<AuthResponse<Void>> resetPassword(String email) {
         return firebaseAuth.sendPasswordResetEmail(email)
-                .continueWith(task -> {
+                .continueWith(executor, task -> {
                     if (task.isSuccessful()) {
                         return new AuthResponse.Success<>(null);
                     } else {
@@ -130,11 +146,16 @@ public class AuthRepositoryImpl implements AuthRepository {
     /**
      * {@inheritDoc}
      *
-     * Signs out the current user from Firebase Authentication.
+     * Signs out the current user from Firebase Authentication and drops the data loaded for them.
      */
     @Override
     public void signOut() {
         firebaseAuth.signOut();
+        profileLoader.invalidate();
+        planStore.invalidateAll();
+        for (SignOutListener listener : signOutListeners) {
+            listener.onSignOut();
+        }
     }
 
     /**
@@ -173,6 +194,7 @@ public class AuthRepositoryImpl implements AuthRepository {
      * {@inheritDoc}
      * <p>
      * Checks if the user has completed onboarding by looking for a mainPlanId in Firestore.
+     * The user document is shared with the other features, so this does not cost a read of its own.
      */
     @Override
     public Task<Boolean> hasCompletedOnboarding() {
@@ -181,27 +203,10 @@ public class AuthRepositoryImpl implements AuthRepository {
             return Tasks.forResult(false);
         }
 
-        return firestore.collection("users")
-                .document(userId)
-                .get()
-                .continueWith(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        DocumentSnapshot document = task.getResult();
-                        if (document.exists()) {
-                            // Check if the user has a mainPlanId or any plans
-                            if (document.contains("mainPlanId") && document.getString("mainPlanId") != null) {
-                                return true;
-                            }
-
-                            // Alternatively, check if the user has completed onboarding
-                            if (document.contains("onboardingCompleted")) {
-                                Boolean onboardingCompleted = document.getBoolean("onboardingCompleted");
-                                return onboardingCompleted != null && onboardingCompleted;
-                            }
-                        }
-                    }
-                    return false;
-                });
+        return profileLoader.getProfile().continueWith(executor, task -> {
+            UserProfileSnapshot profile = task.isSuccessful() ? task.getResult() : null;
+            return profile != null && profile.hasCompletedOnboarding();
+        });
     }
 
     /**
@@ -1,58 +1,66 @@
 package com.erendogan6.planmyworkout.feature.home.data;
 
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.core.user.UserProfileLoader;
+import com.erendogan6.planmyworkout.core.user.UserProfileSnapshot;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
 import com.erendogan6.planmyworkout.core.util.FirestoreManager;
+import com.erendogan6.planmyworkout.core.util.RequestScope;
 import com.erendogan6.planmyworkout.feature.home.model.WorkoutPlan;
+import com.google.android.gms.tasks.CancellationToken;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 /**
  * Repository for home screen repository.
+ * Plans are converted on the background executor, callers only see the finished model.
  */
 @Singleton
 public class HomeRepository {
 
     private final FirebaseAuth firebaseAuth;
-    private final FirebaseFirestore firestore;
     private final FirestoreManager firestoreManager;
+    private final PlanDocumentStore planStore;
+    private final UserProfileLoader profileLoader;
+    private final BackgroundExecutor executor;
 
     @Inject
-    public HomeRepository(FirebaseAuth firebaseAuth, FirebaseFirestore firestore, FirestoreManager firestoreManager) {
+    public HomeRepository(FirebaseAuth firebaseAuth, FirestoreManager firestoreManager, PlanDocumentStore planStore,
+                          UserProfileLoader profileLoader, BackgroundExecutor executor) {
         this.firebaseAuth = firebaseAuth;
-        this.firestore = firestore;
         this.firestoreManager = firestoreManager;
+        this.planStore = planStore;
+        this.profileLoader = profileLoader;
+        this.executor = executor;
     }
 
     /**
      * Get the current user's name.
      *
+     * @param token Cancels the request
      * @return Task with the user's name
      */
-    public Task<String> getUserName() {
+    public Task<String> getUserName(CancellationToken token) {
         FirebaseUser user = firebaseAuth.getCurrentUser();
         if (user != null) {
-            return firestore.collection("users")
-                    .document(user.getUid())
-                    .get()
-                    .continueWith(task -> {
-                        if (task.isSuccessful() && task.getResult() != null) {
-                            DocumentSnapshot document = task.getResult();
-                            if (document.exists() && document.contains("name")) {
-                                return document.getString("name");
-                            }
-                        }
-                        return user.getDisplayName() != null ? user.getDisplayName() : "User";
-                    });
+            return RequestScope.bind(profileLoader.getProfile().continueWith(executor, task -> {
+                RequestScope.throwIfCancelled(token);
+                UserProfileSnapshot profile = task.isSuccessful() ? task.getResult() : null;
+                if (profile != null && profile.getName() != null) {
+                    return profile.getName();
+                }
+                return user.getDisplayName() != null ? user.getDisplayName() : "User";
+            }), token);
         }
         // Create a task that returns a default value
         return Tasks.forResult(null);
@@ -64,24 +72,26 @@ public class HomeRepository {
      * @return Task with the plan ID
      */
     public Task<String> getCurrentPlanId() {
-        String userId = firestoreManager.getCurrentUserId();
-        if (userId != null) {
-            return firestore.collection("users")
-                    .document(userId)
-                    .get()
-                    .continueWith(task -> {
-                        if (task.isSuccessful() && task.getResult() != null) {
-                            DocumentSnapshot document = task.getResult();
-                            if (document.exists() && document.contains("mainPlanId")) {
-                                return document.getString("mainPlanId");
-                            }
-                        }
-                        // Return null if no plan ID is found
-                        return null;
-                    });
-        }
-        // Create a task that returns null if no user is logged in
-        return Tasks.forResult(null);
+        return profileLoader.getProfile().continueWith(executor, task -> {
+            UserProfileSnapshot profile = task.isSuccessful() ? task.getResult() : null;
+            // Return null if no plan ID is found
+            return profile != null ? profile.getMainPlanId() : null;
+        });
+    }
+
+    /**
+     * Get the current user's active workout plan. The plan is prefetched together with the user
+     * document, so this does not wait for a second read.
+     *
+     * @param token Cancels the request
+     * @return Task with the workout plan, or null if the user has no active plan
+     */
+    public Task<WorkoutPlan> getCurrentPlan(CancellationToken token) {
+        return RequestScope.bind(profileLoader.getMainPlan().continueWith(executor, task -> {
+            RequestScope.throwIfCancelled(token);
+            PlanDocument plan = task.isSuccessful() ? task.getResult() : null;
+            return plan != null ? toWorkoutPlan(plan) : null;
+        }), token);
     }
 
     /**
@@ -96,57 +106,33 @@ public class HomeRepository {
             return Tasks.forResult(null);
         }
 
-        // Get the plan from the user's plans collection
-        return firestore.collection("users")
-                .document(userId)
-                .collection("plans")
-                .document(planId)
-                .get()
-                .continueWith(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        DocumentSnapshot document = task.getResult();
-                        if (document.exists()) {
-                            // Create a new WorkoutPlan object and populate it manually
-                            WorkoutPlan plan = new WorkoutPlan();
-                            plan.setId(document.getId());
-                            plan.setName(document.getString("name"));
-                            plan.setDescription(document.getString("description"));
-                            plan.setDifficulty(document.getString("difficulty"));
-
-                            // Get days per week and duration
-                            Long daysPerWeek = document.getLong("days");
-                            if (daysPerWeek != null) {
-                                plan.setDaysPerWeek(daysPerWeek.intValue());
-                            }
-
-                            Long durationWeeks = document.getLong("durationWeeks");
-                            if (durationWeeks != null) {
-                                plan.setDurationWeeks(durationWeeks.intValue());
-                            }
-
-                            // Get weekly schedule
-                            List<String> weeklySchedule = (List<String>) document.get("weeklySchedule");
-                            plan.setWeeklySchedule(weeklySchedule);
-
-                            // Get exercises
-                            List<Map<String, Object>> exercisesData = (List<Map<String, Object>>) document.get("exercises");
-                            if (exercisesData != null) {
-                                List<String> exerciseNames = new ArrayList<>();
-                                for (Map<String, Object> exerciseData : exercisesData) {
-                                    String exerciseName = (String) exerciseData.get("name");
-                                    if (exerciseName != null) {
-                                        exerciseNames.add(exerciseName);
-                                    }
-                                }
-                                plan.setExerciseNames(exerciseNames);
-                            }
-
-                            return plan;
-                        }
-                    }
-                    return null;
-                });
+        return planStore.getPlan(userId, planId).continueWith(executor, task -> {
+            PlanDocument plan = task.isSuccessful() ? task.getResult() : null;
+            return plan != null ? toWorkoutPlan(plan) : null;
+        });
     }
 
-
+    /**
+     * Convert a shared plan document to this feature's WorkoutPlan.
+     */
+    private WorkoutPlan toWorkoutPlan(PlanDocument document) {
+        executor.assertNotMainThread("HomeRepository.toWorkoutPlan");
+        WorkoutPlan plan = new WorkoutPlan();
+        plan.setId(document.getId());
+        plan.setName(document.getName());
+        plan.setDescription(document.getDescription());
+        plan.setDifficulty(document.getDifficulty());
+        plan.setDaysPerWeek(document.getDaysPerWeek());
+        plan.setDurationWeeks(document.getDurationWeeks());
+        plan.setWeeklySchedule(document.getWeeklySchedule());
+
+        List<String> exerciseNames = new ArrayList<>();
+        for (PlanExercise exercise : document.getExercises()) {
+            if (exercise.getName() != null) {
+                exerciseNames.add(exercise.getName());
+            }
+        }
+        plan.setExerciseNames(exerciseNames);
+        return plan;
+    }
 }
@@ -0,0 +1,49 @@
+package com.erendogan6.planmyworkout.feature.home.model;
+
+import java.util.Objects;
+
+/**
+ * Content of the home screen.
+ */
+public final class HomeState {
+
+    public static final HomeState EMPTY = new HomeState(null, null);
+
+    private final String userName;
+    private final WorkoutPlan plan;
+
+    public HomeState(String userName, WorkoutPlan plan) {
+        this.userName = userName;
+        this.plan = plan;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Get the user's current plan.
+     *
+     * @return The plan, or null if no plan is selected
+     */
+    public WorkoutPlan getPlan() {
+        return plan;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HomeState)) {
+            return false;
+        }
+        HomeState other = (HomeState) o;
+        return Objects.equals(userName, other.userName) && plan == other.plan;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userName, System.identityHashCode(plan));
+    }
+}
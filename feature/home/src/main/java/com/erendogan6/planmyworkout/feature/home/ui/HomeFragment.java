@@ -12,10 +12,13 @@ import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 
+import com.erendogan6.planmyworkout.core.model.UiState;
 import com.erendogan6.planmyworkout.coreui.base.BaseFragment;
 
 import com.erendogan6.planmyworkout.feature.home.R;
 import com.erendogan6.planmyworkout.feature.home.databinding.FragmentHomeBinding;
+import com.erendogan6.planmyworkout.feature.home.model.HomeState;
+import com.erendogan6.planmyworkout.feature.home.model.WorkoutPlan;
 import com.erendogan6.planmyworkout.feature.home.viewmodel.HomeViewModel;
 
 import dagger.hilt.android.AndroidEntryPoint;
@@ -83,59 +86,59 @@ public class HomeFragment extends BaseFragment {
     }
 
     private void observeViewModel() {
-        // Observe loading state
-        viewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
-            if (Boolean.TRUE.equals(isLoading)) {
-                showLoading();
-            } else {
-                hideLoading();
-            }
-        });
+        viewModel.getState().observe(getViewLifecycleOwner(), this::render);
+    }
 
-        viewModel.getUserName().observe(getViewLifecycleOwner(), name -> {
-            if (name != null && !name.isEmpty()) {
-                binding.tvMotivationalMessage.setText("Keep pushing, " + name + "! You're doing great!");
+    private void render(UiState<HomeState> state) {
+        if (state.isLoading()) {
+            showLoading();
+        } else {
+            hideLoading();
+        }
+
+        HomeState home = state.getData();
+        String name = home.getUserName();
+        if (name != null && !name.isEmpty()) {
+            binding.tvMotivationalMessage.setText("Keep pushing, " + name + "! You're doing great!");
+        }
+
+        WorkoutPlan plan = home.getPlan();
+        if (plan != null) {
+            // Set plan name
+            binding.tvCurrentPlanName.setText(plan.getName());
+
+            // Set schedule
+            if (plan.getWeeklySchedule() != null && !plan.getWeeklySchedule().isEmpty()) {
+                binding.tvPlanSchedule.setText(String.join(", ", plan.getWeeklySchedule()));
+            } else {
+                binding.tvPlanSchedule.setText(plan.getDaysPerWeek() + " days per week");
             }
-        });
 
-        viewModel.getCurrentPlan().observe(getViewLifecycleOwner(), plan -> {
-            if (plan != null) {
-                // Set plan name
-                binding.tvCurrentPlanName.setText(plan.getName());
-
-                // Set schedule
-                if (plan.getWeeklySchedule() != null && !plan.getWeeklySchedule().isEmpty()) {
-                    binding.tvPlanSchedule.setText(String.join(", ", plan.getWeeklySchedule()));
-                } else {
-                    binding.tvPlanSchedule.setText(plan.getDaysPerWeek() + " days per week");
-                }
-
-                // Set duration
-                binding.tvPlanDuration.setText(plan.getDurationWeeks() + " weeks program");
-
-                // Set exercises preview
-                if (plan.getExerciseNames() != null && !plan.getExerciseNames().isEmpty()) {
-                    // Show first 3 exercises with ellipsis if there are more
-                    List<String> previewExercises = plan.getExerciseNames().subList(
-                            0, Math.min(3, plan.getExerciseNames().size()));
-                    String exercisesText = String.join(", ", previewExercises);
-                    if (plan.getExerciseNames().size() > 3) {
-                        exercisesText += "...";
-                    }
-                    binding.tvPlanExercises.setText(exercisesText);
-                } else {
-                    binding.tvPlanExercises.setVisibility(View.GONE);
+            // Set duration
+            binding.tvPlanDuration.setText(plan.getDurationWeeks() + " weeks program");
+
+            // Set exercises preview
+            if (plan.getExerciseNames() != null && !plan.getExerciseNames().isEmpty()) {
+                // Show first 3 exercises with ellipsis if there are more
+                List<String> previewExercises = plan.getExerciseNames().subList(
+                        0, Math.min(3, plan.getExerciseNames().size()));
+                String exercisesText = String.join(", ", previewExercises);
+                if (plan.getExerciseNames().size() > 3) {
+                    exercisesText += "...";
                 }
-
-                // Show the plan layout and hide the no plan message
-                binding.tvNoWorkoutPlan.setVisibility(View.GONE);
-                binding.layoutCurrentPlan.setVisibility(View.VISIBLE);
+                binding.tvPlanExercises.setText(exercisesText);
             } else {
-                // No plan available, show the no plan message
-                binding.tvNoWorkoutPlan.setVisibility(View.VISIBLE);
-                binding.layoutCurrentPlan.setVisibility(View.GONE);
+                binding.tvPlanExercises.setVisibility(View.GONE);
             }
-        });
+
+            // Show the plan layout and hide the no plan message
+            binding.tvNoWorkoutPlan.setVisibility(View.GONE);
+            binding.layoutCurrentPlan.setVisibility(View.VISIBLE);
+        } else if (!state.isLoading()) {
+            // No plan available, show the no plan message
+            binding.tvNoWorkoutPlan.setVisibility(View.VISIBLE);
+            binding.layoutCurrentPlan.setVisibility(View.GONE);
+        }
     }
 
     @Override
@@ -1,11 +1,16 @@
 package com.erendogan6.planmyworkout.feature.home.viewmodel;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.erendogan6.planmyworkout.core.model.UiState;
+import com.erendogan6.planmyworkout.core.util.RequestScope;
+import com.erendogan6.planmyworkout.core.util.UiStateStore;
 import com.erendogan6.planmyworkout.feature.home.data.HomeRepository;
+import com.erendogan6.planmyworkout.feature.home.model.HomeState;
 import com.erendogan6.planmyworkout.feature.home.model.WorkoutPlan;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 
 import javax.inject.Inject;
 
@@ -13,66 +18,48 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 
 /**
  * ViewModel for the home screen.
+ * The user's name and plan are loaded together and published as one state, so the screen
+ * renders once per load. Its requests are cancelled when it is cleared.
  */
 @HiltViewModel
 public class HomeViewModel extends ViewModel {
 
     private final HomeRepository homeRepository;
-    private final MutableLiveData<String> userName = new MutableLiveData<>();
-    private final MutableLiveData<WorkoutPlan> currentPlan = new MutableLiveData<>();
-    private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
-    private String currentPlanId;
+    private final UiStateStore<HomeState> store = new UiStateStore<>(UiState.loading(HomeState.EMPTY));
+    private final RequestScope requests = new RequestScope();
 
     @Inject
     public HomeViewModel(HomeRepository homeRepository) {
         this.homeRepository = homeRepository;
-        loadUserData();
-        loadCurrentPlan();
+        loadHome();
     }
 
-    private void loadUserData() {
-        isLoading.setValue(true);
-        homeRepository.getUserName().addOnSuccessListener(name -> {
-            userName.setValue(name);
-            // Don't hide loading here as we're still loading the plan
-        });
-    }
+    private void loadHome() {
+        store.reduce(UiState::withLoading);
+        // Both share the user document read
+        Task<String> nameTask = homeRepository.getUserName(requests.getToken());
+        Task<WorkoutPlan> planTask = homeRepository.getCurrentPlan(requests.getToken());
 
-    private void loadCurrentPlan() {
-        isLoading.setValue(true);
-        homeRepository.getCurrentPlanId().addOnSuccessListener(planId -> {
-            if (planId != null && !planId.isEmpty()) {
-                currentPlanId = planId;
-                homeRepository.getWorkoutPlan(planId).addOnSuccessListener(plan -> {
-                    currentPlan.setValue(plan);
-                    isLoading.setValue(false);
-                }).addOnFailureListener(e -> {
-                    isLoading.setValue(false);
-                });
-            } else {
-                isLoading.setValue(false);
-            }
-        }).addOnFailureListener(e -> {
-            isLoading.setValue(false);
+        requests.bind(Tasks.whenAllComplete(nameTask, planTask)).addOnSuccessListener(done -> {
+            // A failed part shows as missing, as the screen has nothing better to offer
+            String name = nameTask.isSuccessful() ? nameTask.getResult() : null;
+            WorkoutPlan plan = planTask.isSuccessful() ? planTask.getResult() : null;
+            store.reduce(state -> state.withData(new HomeState(name, plan)));
         });
     }
 
-    /**
-     * Get the user's name LiveData.
-     *
-     * @return LiveData with the user's name
-     */
-    public LiveData<String> getUserName() {
-        return userName;
+    @Override
+    protected void onCleared() {
+        requests.cancel();
     }
 
     /**
-     * Get the current workout plan LiveData.
+     * Get the state of the home screen.
      *
-     * @return LiveData with the current workout plan
+     * @return LiveData that emits once per change of the state
      */
-    public LiveData<WorkoutPlan> getCurrentPlan() {
-        return currentPlan;
+    public LiveData<UiState<HomeState>> getState() {
+        return store.getState();
     }
 
     /**
@@ -81,15 +68,7 @@ public class HomeViewModel extends ViewModel {
      * @return The current plan ID or null if no plan is selected
      */
     public String getCurrentPlanId() {
-        return currentPlanId;
-    }
-
-    /**
-     * Get the loading state LiveData.
-     *
-     * @return LiveData with the loading state
-     */
-    public LiveData<Boolean> getIsLoading() {
-        return isLoading;
+        WorkoutPlan plan = store.get().getData().getPlan();
+        return plan != null ? plan.getId() : null;
     }
 }
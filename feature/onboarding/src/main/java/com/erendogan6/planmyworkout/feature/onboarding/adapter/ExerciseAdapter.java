@@ -4,23 +4,48 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.erendogan6.planmyworkout.core.util.StableIds;
 import com.erendogan6.planmyworkout.feature.onboarding.databinding.ItemExerciseBinding;
 import com.erendogan6.planmyworkout.feature.onboarding.model.Exercise;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying exercises in a RecyclerView.
  * Uses ViewBinding for cleaner view access.
+ * New lists are diffed on a background thread, so only exercises that changed are rebound.
  */
-public class ExerciseAdapter extends RecyclerView.Adapter<ExerciseAdapter.ExerciseViewHolder> {
-
-    private List<Exercise> exercises;
-
-    public ExerciseAdapter(List<Exercise> exercises) {
-        this.exercises = exercises;
+public class ExerciseAdapter extends ListAdapter<Exercise, ExerciseAdapter.ExerciseViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Exercise> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Exercise>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Exercise oldItem, @NonNull Exercise newItem) {
+                    return Objects.equals(oldItem.getId(), newItem.getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Exercise oldItem, @NonNull Exercise newItem) {
+                    return Objects.equals(oldItem.getName(), newItem.getName())
+                            && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                            && Objects.equals(oldItem.getMuscleGroup(), newItem.getMuscleGroup())
+                            && Objects.equals(oldItem.getUnit(), newItem.getUnit())
+                            && oldItem.getSets() == newItem.getSets()
+                            && oldItem.getRepsPerSet() == newItem.getRepsPerSet()
+                            && oldItem.getRestSeconds() == newItem.getRestSeconds();
+                }
+            };
+
+    private final StableIds<Exercise> stableIds = new StableIds<>(Exercise::getId);
+
+    public ExerciseAdapter() {
+        super(DIFF_CALLBACK);
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -33,13 +58,18 @@ public class ExerciseAdapter extends RecyclerView.Adapter<ExerciseAdapter.Exerci
 
     @Override
     public void onBindViewHolder(@NonNull ExerciseViewHolder holder, int position) {
-        Exercise exercise = exercises.get(position);
+        Exercise exercise = getItem(position);
         holder.bind(exercise);
     }
 
     @Override
-    public int getItemCount() {
-        return exercises != null ? exercises.size() : 0;
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position));
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<Exercise> previousList, @NonNull List<Exercise> currentList) {
+        stableIds.retain(currentList);
     }
 
     /**
@@ -47,8 +77,7 @@ public class ExerciseAdapter extends RecyclerView.Adapter<ExerciseAdapter.Exerci
      * @param newExercises The new list of exercises
      */
     public void updateExercises(List<Exercise> newExercises) {
-        this.exercises = newExercises;
-        notifyDataSetChanged();
+        submitList(newExercises);
     }
 
     /**
@@ -4,20 +4,42 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.erendogan6.planmyworkout.core.util.StableIds;
 import com.erendogan6.planmyworkout.feature.onboarding.databinding.ItemWorkoutPlanBinding;
 import com.erendogan6.planmyworkout.feature.onboarding.model.WorkoutPlan;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying workout plans in a RecyclerView.
  * Uses ViewBinding for cleaner view access.
+ * New lists are diffed on a background thread, so only plans that changed are rebound.
  */
-public class WorkoutPlanAdapter extends RecyclerView.Adapter<WorkoutPlanAdapter.WorkoutPlanViewHolder> {
+public class WorkoutPlanAdapter extends ListAdapter<WorkoutPlan, WorkoutPlanAdapter.WorkoutPlanViewHolder> {
 
-    private List<WorkoutPlan> workoutPlans;
+    private static final DiffUtil.ItemCallback<WorkoutPlan> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<WorkoutPlan>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull WorkoutPlan oldItem, @NonNull WorkoutPlan newItem) {
+                    return Objects.equals(oldItem.getId(), newItem.getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull WorkoutPlan oldItem, @NonNull WorkoutPlan newItem) {
+                    return Objects.equals(oldItem.getName(), newItem.getName())
+                            && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                            && Objects.equals(oldItem.getDifficulty(), newItem.getDifficulty())
+                            && oldItem.getDaysPerWeek() == newItem.getDaysPerWeek()
+                            && oldItem.getDurationWeeks() == newItem.getDurationWeeks();
+                }
+            };
+
+    private final StableIds<WorkoutPlan> stableIds = new StableIds<>(WorkoutPlan::getId);
     private final OnPlanSelectedListener listener;
 
     /**
@@ -27,9 +49,10 @@ public class WorkoutPlanAdapter extends RecyclerView.Adapter<WorkoutPlanAdapter.
         void onPlanSelected(WorkoutPlan plan);
     }
 
-    public WorkoutPlanAdapter(List<WorkoutPlan> workoutPlans, OnPlanSelectedListener listener) {
-        this.workoutPlans = workoutPlans;
+    public WorkoutPlanAdapter(OnPlanSelectedListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -42,13 +65,18 @@ public class WorkoutPlanAdapter extends RecyclerView.Adapter<WorkoutPlanAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull WorkoutPlanViewHolder holder, int position) {
-        WorkoutPlan plan = workoutPlans.get(position);
+        WorkoutPlan plan = getItem(position);
         holder.bind(plan);
     }
 
     @Override
-    public int getItemCount() {
-        return workoutPlans != null ? workoutPlans.size() : 0;
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position));
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<WorkoutPlan> previousList, @NonNull List<WorkoutPlan> currentList) {
+        stableIds.retain(currentList);
     }
 
     /**
@@ -56,8 +84,7 @@ public class WorkoutPlanAdapter extends RecyclerView.Adapter<WorkoutPlanAdapter.
      * @param newPlans The new list of workout plans
      */
     public void updatePlans(List<WorkoutPlan> newPlans) {
-        this.workoutPlans = newPlans;
-        notifyDataSetChanged();
+        submitList(newPlans);
     }
 
     /**
@@ -75,7 +102,7 @@ public class WorkoutPlanAdapter extends RecyclerView.Adapter<WorkoutPlanAdapter.
             binding.getRoot().setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onPlanSelected(workoutPlans.get(position));
+                    listener.onPlanSelected(getItem(position));
                 }
             });
 
@@ -83,7 +110,7 @@ public class WorkoutPlanAdapter extends RecyclerView.Adapter<WorkoutPlanAdapter.
             binding.btnSelectPlan.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onPlanSelected(workoutPlans.get(position));
+                    listener.onPlanSelected(getItem(position));
                 }
             });
         }
@@ -1,5 +1,11 @@
 package com.erendogan6.planmyworkout.feature.onboarding.di;
 
+import com.erendogan6.planmyworkout.core.cache.PlanCache;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreReader;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.sync.SyncTask;
+import com.erendogan6.planmyworkout.core.user.UserProfileLoader;
+import com.erendogan6.planmyworkout.feature.onboarding.repository.BundledPlanCatalog;
 import com.erendogan6.planmyworkout.feature.onboarding.repository.WorkoutPlanRepository;
 import com.erendogan6.planmyworkout.feature.onboarding.repository.WorkoutPlanRepositoryImpl;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -10,6 +16,7 @@ import dagger.Module;
 import dagger.Provides;
 import dagger.hilt.InstallIn;
 import dagger.hilt.components.SingletonComponent;
+import dagger.multibindings.IntoSet;
 
 /**
  * Hilt module for the onboarding feature.
@@ -20,7 +27,19 @@ public class OnboardingModule {
 
     @Provides
     @Singleton
-    public WorkoutPlanRepository provideWorkoutPlanRepository(FirebaseFirestore firestore) {
-        return new WorkoutPlanRepositoryImpl(firestore);
+    public WorkoutPlanRepository provideWorkoutPlanRepository(FirebaseFirestore firestore, PlanCache planCache,
+                                                              PlanDocumentStore planStore,
+                                                              BundledPlanCatalog bundledCatalog,
+                                                              UserProfileLoader profileLoader,
+                                                              FirestoreReader reader) {
+        return new WorkoutPlanRepositoryImpl(firestore, planCache, planStore, bundledCatalog, profileLoader,
+                reader);
     }
-}
\ No newline at end of file
+
+    @Provides
+    @IntoSet
+    public SyncTask provideCatalogSyncTask(WorkoutPlanRepository repository) {
+        // The catalog is shared by all users, so it syncs the same way for everyone
+        return userId -> repository.syncReadyMadeWorkoutPlans();
+    }
+}
@@ -0,0 +1,140 @@
+package com.erendogan6.planmyworkout.feature.onboarding.repository;
+
+import android.content.Context;
+
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentCodec;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import dagger.hilt.android.qualifiers.ApplicationContext;
+
+/**
+ * Copy of the ready-made plan catalog shipped with the app, so onboarding can show plans on the
+ * first run without a network connection.
+ * The asset holds a version, which is the update time of the newest plan it includes, and the
+ * plans in the same shape as the catalog documents, each with its document ID in an "id" field.
+ */
+@Singleton
+public class BundledPlanCatalog {
+
+    private static final String ASSET_NAME = "ready_made_plans.json";
+    private static final String FIELD_VERSION = "version";
+    private static final String FIELD_PLANS = "plans";
+    private static final String FIELD_ID = "id";
+
+    private final Context context;
+    // Reads the asset off the main thread
+    private final BackgroundExecutor executor;
+
+    @Inject
+    public BundledPlanCatalog(@ApplicationContext Context context, BackgroundExecutor executor) {
+        this.context = context;
+        this.executor = executor;
+    }
+
+    /**
+     * Read the bundled catalog.
+     *
+     * @return Task with the bundled catalog
+     */
+    public Task<Contents> load() {
+        return Tasks.call(executor, () -> {
+            JSONObject catalog = new JSONObject(readAsset());
+            JSONArray plansJson = catalog.optJSONArray(FIELD_PLANS);
+            List<PlanDocument> plans = new ArrayList<>();
+            if (plansJson != null) {
+                for (int i = 0; i < plansJson.length(); i++) {
+                    JSONObject planJson = plansJson.getJSONObject(i);
+                    plans.add(PlanDocumentCodec.decode(planJson.getString(FIELD_ID), toMap(planJson)));
+                }
+            }
+            return new Contents(catalog.optLong(FIELD_VERSION, 0L), plans);
+        });
+    }
+
+    private String readAsset() throws IOException {
+        try (InputStream input = context.getAssets().open(ASSET_NAME)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toString(StandardCharsets.UTF_8.name());
+        }
+    }
+
+    /**
+     * Convert a JSON object to document data, using the value types Firestore returns.
+     */
+    private static Map<String, Object> toMap(JSONObject json) throws JSONException {
+        Map<String, Object> data = new HashMap<>(json.length() * 2);
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            data.put(key, toValue(json.get(key)));
+        }
+        return data;
+    }
+
+    private static Object toValue(Object value) throws JSONException {
+        if (value == JSONObject.NULL) {
+            return null;
+        } else if (value instanceof JSONObject) {
+            return toMap((JSONObject) value);
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            List<Object> list = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                list.add(toValue(array.get(i)));
+            }
+            return list;
+        } else if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return value;
+    }
+
+    /**
+     * Plans of the bundled catalog together with its version.
+     */
+    public static final class Contents {
+        private final long version;
+        private final List<PlanDocument> plans;
+
+        Contents(long version, List<PlanDocument> plans) {
+            this.version = version;
+            this.plans = Collections.unmodifiableList(plans);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<PlanDocument> getPlans() {
+            return plans;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.erendogan6.planmyworkout.feature.onboarding.repository;
 
 import com.erendogan6.planmyworkout.feature.onboarding.model.WorkoutPlan;
+import com.google.android.gms.tasks.Task;
 
 import java.util.List;
 
@@ -17,6 +18,14 @@ public interface WorkoutPlanRepository {
         void onError(Exception e);
     }
 
+    /**
+     * Interface for callback when fetching a single workout plan.
+     */
+    interface WorkoutPlanCallback {
+        void onSuccess(WorkoutPlan workoutPlan);
+        void onError(Exception e);
+    }
+
     /**
      * Interface for callback when saving a workout plan.
      */
@@ -31,6 +40,19 @@ public interface WorkoutPlanRepository {
      */
     void getReadyMadeWorkoutPlans(WorkoutPlansCallback callback);
 
+    /**
+     * Get a single ready-made workout plan without loading the whole catalog.
+     * @param planId The ID of the plan
+     * @param callback Callback to handle the result, which receives null if the plan does not exist
+     */
+    void getReadyMadeWorkoutPlan(String planId, WorkoutPlanCallback callback);
+
+    /**
+     * Bring the cached ready-made plans up to date with Firestore.
+     * @return Task that completes when the cache is up to date
+     */
+    Task<Void> syncReadyMadeWorkoutPlans();
+
     /**
      * Save a workout plan to Firestore as the user's main plan.
      * @param userId The ID of the user
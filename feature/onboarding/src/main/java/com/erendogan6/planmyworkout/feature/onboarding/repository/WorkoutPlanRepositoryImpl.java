@@ -2,21 +2,39 @@ package com.erendogan6.planmyworkout.feature.onboarding.repository;
 
 import android.util.Log;
 
+import com.erendogan6.planmyworkout.core.cache.PlanCache;
+import com.erendogan6.planmyworkout.core.database.entity.PlanEntity;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreConfig;
+import com.erendogan6.planmyworkout.core.firestore.FirestoreReader;
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentCodec;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentParser;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.core.user.UserProfileLoader;
+import com.erendogan6.planmyworkout.core.user.UserProfileSnapshot;
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
 import com.erendogan6.planmyworkout.feature.onboarding.model.Exercise;
-import com.erendogan6.planmyworkout.feature.onboarding.model.ExerciseDocument;
 import com.erendogan6.planmyworkout.feature.onboarding.model.WorkoutPlan;
-import com.erendogan6.planmyworkout.feature.onboarding.model.WorkoutPlanDocument;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.UUID;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -24,6 +42,12 @@ import javax.inject.Singleton;
 /**
  * Implementation of the WorkoutPlanRepository interface.
  * Handles all Firestore operations related to workout plans.
+ * Ready-made plans are served from the local cache first, or from the catalog bundled with the app on the
+ * first run, while the cache is brought up to date in the background. Catalog documents carry an
+ * "updatedAt" timestamp, so only plans changed since the cached version are downloaded, and removed plans
+ * are kept as documents marked "deleted". A catalog with documents that lack the timestamp gets no
+ * version, so it is downloaded in full each time. The catalog is also kept in memory once loaded, so
+ * moving from the plan list to a plan's details costs no further reads.
  */
 @Singleton
 public class WorkoutPlanRepositoryImpl implements WorkoutPlanRepository {
@@ -32,158 +56,503 @@ public class WorkoutPlanRepositoryImpl implements WorkoutPlanRepository {
     private static final String COLLECTION_READY_WORKOUT_PLANS = "readyWorkoutPlans";
     private static final String COLLECTION_USERS = "users";
     private static final String SUBCOLLECTION_PLANS = "plans";
-    private static final String FIELD_MAIN_PLAN_ID = "mainPlanId";
+    private static final String FIELD_UPDATED_AT = "updatedAt";
+    private static final String FIELD_DELETED = "deleted";
+    private static final FirestoreConfig.Repository CATALOG = FirestoreConfig.Repository.READY_MADE_CATALOG;
 
-    private static final int DEFAULT_DAYS = 0;
     private static final int DEFAULT_DURATION_WEEKS = 4;
-    private static final int DEFAULT_REST_SECONDS = 60;
     private static final String DEFAULT_UNIT = "reps";
 
     private final FirebaseFirestore firestore;
+    private final PlanCache planCache;
+    private final PlanDocumentStore planStore;
+    private final BundledPlanCatalog bundledCatalog;
+    private final UserProfileLoader profileLoader;
+    private final FirestoreReader reader;
+    // Ready-made plans by ID, in catalog order
+    private final Map<String, PlanDocument> readyMadePlans = new LinkedHashMap<>();
+    private boolean catalogLoaded;
+    private Task<Void> catalogSync;
 
     @Inject
-    public WorkoutPlanRepositoryImpl(FirebaseFirestore firestore) {
+    public WorkoutPlanRepositoryImpl(FirebaseFirestore firestore, PlanCache planCache, PlanDocumentStore planStore,
+                                     BundledPlanCatalog bundledCatalog, UserProfileLoader profileLoader,
+                                     FirestoreReader reader) {
         this.firestore = firestore;
+        this.planCache = planCache;
+        this.planStore = planStore;
+        this.bundledCatalog = bundledCatalog;
+        this.profileLoader = profileLoader;
+        this.reader = reader;
     }
 
     /**
-     * Retrieves all ready-made workout plans from Firestore.
+     * Retrieves all ready-made workout plans, from the local cache or the bundled catalog when available.
      *
      * @param callback Callback for handling the result
      */
     @Override
     public void getReadyMadeWorkoutPlans(WorkoutPlansCallback callback) {
-        firestore.collection(COLLECTION_READY_WORKOUT_PLANS)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots ->
-                        callback.onSuccess(processDocuments(queryDocumentSnapshots)))
-                .addOnFailureListener(callback::onError);
+        List<PlanDocument> catalog = getCatalog();
+        if (catalog != null) {
+            callback.onSuccess(convertPlans(catalog));
+            return;
+        }
+
+        planCache.getPlans(PlanEntity.OWNER_READY_MADE).addOnCompleteListener(cacheTask -> {
+            List<PlanDocument> cachedPlans = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+            if (cachedPlans != null && !cachedPlans.isEmpty()) {
+                rememberCatalog(cachedPlans);
+                callback.onSuccess(convertPlans(cachedPlans));
+                // Bring the cache up to date in the background for the next request
+                syncReadyMadeWorkoutPlans();
+                return;
+            }
+
+            loadBundledWorkoutPlans(callback);
+        });
     }
 
     /**
-     * Processes a QuerySnapshot and converts it to a list of WorkoutPlan objects.
+     * Serves the catalog bundled with the app and seeds the local cache with it, so the first run needs no
+     * network. Plans changed after the bundle was built are then merged on top by a delta sync. Falls back to
+     * a full download if the bundle can't be read.
      *
-     * @param queryDocumentSnapshots The QuerySnapshot to process
-     * @return List of WorkoutPlan objects
+     * @param callback Callback for handling the result
      */
-    private List<WorkoutPlan> processDocuments(QuerySnapshot queryDocumentSnapshots) {
-        return queryDocumentSnapshots.getDocuments().stream()
-                .map(document -> convertDocumentToWorkoutPlan((QueryDocumentSnapshot) document))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    private void loadBundledWorkoutPlans(WorkoutPlansCallback callback) {
+        bundledCatalog.load().addOnCompleteListener(bundleTask -> {
+            BundledPlanCatalog.Contents bundle = getUsableBundle(bundleTask);
+            if (bundle != null) {
+                callback.onSuccess(convertPlans(bundle.getPlans()));
+                seedCatalog(bundle).addOnCompleteListener(seedTask -> syncReadyMadeWorkoutPlans());
+                return;
+            }
+
+            fetchReadyMadeWorkoutPlans()
+                    .addOnSuccessListener(plans -> callback.onSuccess(convertPlans(plans)))
+                    .addOnFailureListener(callback::onError);
+        });
     }
 
     /**
-     * Converts a Firestore document to a WorkoutPlan object.
+     * Returns the bundled catalog if it can seed the cache.
      *
-     * @param document The Firestore document to convert
-     * @return WorkoutPlan object or null if conversion fails
+     * @param bundleTask The task that read the bundled catalog
+     * @return The bundled catalog, or null if it couldn't be read, holds no plans or has no version
      */
-    private WorkoutPlan convertDocumentToWorkoutPlan(QueryDocumentSnapshot document) {
-        try {
-            WorkoutPlanDocument planDocument = document.toObject(WorkoutPlanDocument.class);
-            return buildWorkoutPlan(document.getId(), planDocument);
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing document: " + document.getId(), e);
+    private BundledPlanCatalog.Contents getUsableBundle(Task<BundledPlanCatalog.Contents> bundleTask) {
+        if (!bundleTask.isSuccessful()) {
+            Log.e(TAG, "Error reading the bundled catalog", bundleTask.getException());
             return null;
         }
+        BundledPlanCatalog.Contents bundle = bundleTask.getResult();
+        return bundle != null && !bundle.getPlans().isEmpty() && bundle.getVersion() > 0 ? bundle : null;
     }
 
     /**
-     * Builds a WorkoutPlan object from a WorkoutPlanDocument.
+     * Writes the bundled catalog to memory and the local cache, with the bundle's version, so the next sync
+     * only downloads plans changed after it was built.
      *
-     * @param id The document ID
-     * @param planDocument The plan document repository
-     * @return A fully constructed WorkoutPlan object
+     * @param bundle The bundled catalog
+     * @return Task that completes when the cache is seeded
      */
-    private WorkoutPlan buildWorkoutPlan(String id, WorkoutPlanDocument planDocument) {
-        WorkoutPlan plan = createBasicWorkoutPlan(id, planDocument);
+    private Task<Void> seedCatalog(BundledPlanCatalog.Contents bundle) {
+        rememberCatalog(bundle.getPlans());
+        return planCache.replacePlans(PlanEntity.OWNER_READY_MADE, bundle.getPlans(), bundle.getVersion());
+    }
 
-        if (planDocument.getWeeklySchedule() != null) {
-            plan.setWeeklySchedule(planDocument.getWeeklySchedule());
+    /**
+     * Brings the cached catalog up to date, downloading only the plans changed since its version.
+     * An empty cache is first seeded from the bundled catalog, so a sync that runs before onboarding was
+     * opened doesn't download the whole catalog either. Concurrent requests share a single sync.
+     *
+     * @return Task that completes when the cache is up to date
+     */
+    @Override
+    public synchronized Task<Void> syncReadyMadeWorkoutPlans() {
+        if (catalogSync != null && !catalogSync.isComplete()) {
+            return catalogSync;
         }
 
-        if (planDocument.getExercises() != null) {
-            plan.setExercises(convertExercises(planDocument.getExercises()));
+        catalogSync = planCache.getPlansVersion(PlanEntity.OWNER_READY_MADE).continueWithTask(versionTask -> {
+            long version = versionTask.isSuccessful() ? versionTask.getResult() : 0L;
+            if (version <= 0) {
+                return syncUnversionedCatalog();
+            }
+            return fetchChangedReadyMadeWorkoutPlans(version);
+        });
+        catalogSync.addOnFailureListener(e -> Log.e(TAG, "Error syncing ready-made plans", e));
+        return catalogSync;
+    }
+
+    /**
+     * Syncs a cached catalog without a version. An empty cache is seeded from the bundled catalog and only
+     * the changes since the bundle are downloaded. A cached catalog that lost its version to documents
+     * without an update time has to be downloaded in full.
+     *
+     * @return Task that completes when the cache is up to date
+     */
+    private Task<Void> syncUnversionedCatalog() {
+        return planCache.getPlans(PlanEntity.OWNER_READY_MADE).continueWithTask(cacheTask -> {
+            List<PlanDocument> cachedPlans = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+            if (cachedPlans != null && !cachedPlans.isEmpty()) {
+                return fetchReadyMadeWorkoutPlans().onSuccessTask(plans -> Tasks.<Void>forResult(null));
+            }
+
+            return bundledCatalog.load().continueWithTask(bundleTask -> {
+                BundledPlanCatalog.Contents bundle = getUsableBundle(bundleTask);
+                if (bundle == null) {
+                    return fetchReadyMadeWorkoutPlans().onSuccessTask(plans -> Tasks.<Void>forResult(null));
+                }
+                return seedCatalog(bundle)
+                        .continueWithTask(seedTask -> fetchChangedReadyMadeWorkoutPlans(bundle.getVersion()));
+            });
+        });
+    }
+
+    /**
+     * Retrieves a single ready-made workout plan from memory, the local cache or a direct document read.
+     *
+     * @param planId The ID of the plan
+     * @param callback Callback for handling the result
+     */
+    @Override
+    public void getReadyMadeWorkoutPlan(String planId, WorkoutPlanCallback callback) {
+        PlanDocument plan = getRememberedPlan(planId);
+        if (plan != null) {
+            callback.onSuccess(convertPlan(plan));
+            return;
         }
 
-        return plan;
+        planCache.getPlan(PlanEntity.OWNER_READY_MADE, planId).addOnCompleteListener(cacheTask -> {
+            PlanDocument cachedPlan = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+            if (cachedPlan != null) {
+                rememberPlan(cachedPlan);
+                callback.onSuccess(convertPlan(cachedPlan));
+                return;
+            }
+
+            fetchReadyMadeWorkoutPlan(planId)
+                    .addOnSuccessListener(fetchedPlan ->
+                            callback.onSuccess(fetchedPlan != null ? convertPlan(fetchedPlan) : null))
+                    .addOnFailureListener(callback::onError);
+        });
     }
 
     /**
-     * Creates a basic WorkoutPlan object with essential properties.
+     * Fetches the ready-made workout plans from Firestore and writes them through to memory and the local cache.
      *
-     * @param id The plan ID
-     * @param planDocument The plan document repository
-     * @return A basic WorkoutPlan object
+     * @return Task with the parsed plans
      */
-    private WorkoutPlan createBasicWorkoutPlan(String id, WorkoutPlanDocument planDocument) {
-        return new WorkoutPlan(
-                id,
-                planDocument.getName(),
-                planDocument.getDescription(),
-                planDocument.getDifficulty(),
-                getIntValue(planDocument.getDays(), DEFAULT_DAYS),
-                getIntValue(planDocument.getDurationWeeks(), DEFAULT_DURATION_WEEKS)
-        );
+    private Task<List<PlanDocument>> fetchReadyMadeWorkoutPlans() {
+        return reader.get(firestore.collection(COLLECTION_READY_WORKOUT_PLANS), CATALOG)
+                .onSuccessTask(queryDocumentSnapshots -> {
+                    List<PlanDocument> plans = new ArrayList<>(queryDocumentSnapshots.size());
+                    long version = processDocuments(queryDocumentSnapshots, plans, new ArrayList<>(), 0L);
+                    rememberCatalog(plans);
+                    planCache.replacePlans(PlanEntity.OWNER_READY_MADE, plans, version);
+                    return Tasks.forResult(plans);
+                });
+    }
+
+    /**
+     * Fetches the ready-made workout plans changed after a version and merges them into memory and the
+     * local cache.
+     *
+     * @param version The update time of the newest cached plan
+     * @return Task that completes when the changes are cached
+     */
+    private Task<Void> fetchChangedReadyMadeWorkoutPlans(long version) {
+        Query changedPlans = firestore.collection(COLLECTION_READY_WORKOUT_PLANS)
+                .whereGreaterThan(FIELD_UPDATED_AT, new Timestamp(new Date(version)));
+        return reader.get(changedPlans, CATALOG)
+                .onSuccessTask(queryDocumentSnapshots -> {
+                    if (queryDocumentSnapshots.isEmpty()) {
+                        return Tasks.<Void>forResult(null);
+                    }
+
+                    List<PlanDocument> changedPlans = new ArrayList<>(queryDocumentSnapshots.size());
+                    List<String> removedPlanIds = new ArrayList<>();
+                    long newVersion = processDocuments(queryDocumentSnapshots, changedPlans, removedPlanIds, version);
+                    mergeCatalog(changedPlans, removedPlanIds);
+                    return planCache.mergePlans(PlanEntity.OWNER_READY_MADE, changedPlans, removedPlanIds,
+                            newVersion);
+                });
     }
 
     /**
-     * Converts a list of ExerciseDocument objects to Exercise objects.
+     * Fetches one ready-made workout plan document from Firestore and writes it through to memory and the
+     * local cache.
      *
-     * @param exerciseDocs List of ExerciseDocument objects
-     * @return List of Exercise objects
+     * @param planId The ID of the plan
+     * @return Task with the parsed plan, or null if the plan does not exist
      */
-    private List<Exercise> convertExercises(List<ExerciseDocument> exerciseDocs) {
-        List<Exercise> exercises = new ArrayList<>(exerciseDocs.size());
+    private Task<PlanDocument> fetchReadyMadeWorkoutPlan(String planId) {
+        return reader.get(firestore.collection(COLLECTION_READY_WORKOUT_PLANS).document(planId), CATALOG)
+                .onSuccessTask(document -> {
+                    PlanDocument plan = isDeleted(document) ? null : PlanDocumentParser.parse(document);
+                    if (plan != null) {
+                        rememberPlan(plan);
+                        planCache.savePlan(PlanEntity.OWNER_READY_MADE, plan);
+                    }
+                    return Tasks.forResult(plan);
+                });
+    }
+
+    /**
+     * Returns the ready-made catalog held in memory.
+     *
+     * @return The plans in catalog order, or null if the catalog has not been loaded
+     */
+    private synchronized List<PlanDocument> getCatalog() {
+        return catalogLoaded ? new ArrayList<>(readyMadePlans.values()) : null;
+    }
 
-        for (int i = 0; i < exerciseDocs.size(); i++) {
-            exercises.add(convertExerciseDocument(exerciseDocs.get(i), i));
+    /**
+     * Replaces the ready-made catalog held in memory.
+     *
+     * @param plans The plans in catalog order
+     */
+    private synchronized void rememberCatalog(List<PlanDocument> plans) {
+        readyMadePlans.clear();
+        for (PlanDocument plan : plans) {
+            readyMadePlans.put(plan.getId(), plan);
         }
+        catalogLoaded = true;
+    }
 
-        return exercises;
+    /**
+     * Applies changed and removed plans to the catalog held in memory. Changed plans keep their position,
+     * new plans are added at the end.
+     *
+     * @param changedPlans Plans that were added or updated
+     * @param removedPlanIds IDs of plans that were removed
+     */
+    private synchronized void mergeCatalog(List<PlanDocument> changedPlans, List<String> removedPlanIds) {
+        for (PlanDocument plan : changedPlans) {
+            readyMadePlans.put(plan.getId(), plan);
+        }
+        for (String planId : removedPlanIds) {
+            readyMadePlans.remove(planId);
+        }
+    }
+
+    /**
+     * Returns a ready-made plan held in memory.
+     *
+     * @param planId The ID of the plan
+     * @return The plan, or null if it is not held in memory
+     */
+    private synchronized PlanDocument getRememberedPlan(String planId) {
+        return readyMadePlans.get(planId);
+    }
+
+    /**
+     * Keeps a single ready-made plan in memory without marking the catalog as loaded.
+     *
+     * @param plan The plan
+     */
+    private synchronized void rememberPlan(PlanDocument plan) {
+        readyMadePlans.put(plan.getId(), plan);
+    }
+
+    /**
+     * Processes a QuerySnapshot and parses each document once, skipping documents that can't be parsed.
+     * Documents marked as deleted are reported as removed instead. A document without an update time
+     * would never match a query for changes, so reading one leaves the catalog without a version.
+     *
+     * @param queryDocumentSnapshots The QuerySnapshot to process
+     * @param plans List that receives the parsed plans
+     * @param removedPlanIds List that receives the IDs of removed plans
+     * @param version The version the documents are applied to
+     * @return The update time of the newest document, the given version if none is newer, or 0 if a
+     *         document has no update time
+     */
+    private long processDocuments(QuerySnapshot queryDocumentSnapshots, List<PlanDocument> plans,
+                                  List<String> removedPlanIds, long version) {
+        long newestUpdate = version;
+        boolean untimed = false;
+        for (DocumentSnapshot document : queryDocumentSnapshots.getDocuments()) {
+            try {
+                Map<String, Object> data = document.getData();
+                long updated = data != null ? DocumentValues.getMillis(data, FIELD_UPDATED_AT, -1L) : -1L;
+                if (updated < 0) {
+                    untimed = true;
+                }
+                newestUpdate = Math.max(newestUpdate, updated);
+
+                if (isDeleted(document)) {
+                    removedPlanIds.add(document.getId());
+                    continue;
+                }
+                PlanDocument plan = PlanDocumentParser.parse(document);
+                if (plan != null) {
+                    plans.add(plan);
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error parsing document: " + document.getId(), e);
+            }
+        }
+        return untimed ? 0L : newestUpdate;
+    }
+
+    /**
+     * Checks whether a catalog document marks a removed plan.
+     *
+     * @param document The catalog document
+     * @return true if the plan was removed from the catalog
+     */
+    private boolean isDeleted(DocumentSnapshot document) {
+        return Boolean.TRUE.equals(document.getBoolean(FIELD_DELETED));
     }
 
     /**
-     * Converts an ExerciseDocument to an Exercise object.
+     * Converts parsed plans to WorkoutPlan objects.
      *
-     * @param exerciseDoc The exercise document to convert
-     * @param index The index for generating exercise ID
-     * @return Exercise object
+     * @param planDocuments The parsed plans
+     * @return List of WorkoutPlan objects
+     */
+    private List<WorkoutPlan> convertPlans(List<PlanDocument> planDocuments) {
+        List<WorkoutPlan> plans = new ArrayList<>(planDocuments.size());
+        for (PlanDocument planDocument : planDocuments) {
+            plans.add(convertPlan(planDocument));
+        }
+        return plans;
+    }
+
+    /**
+     * Converts a parsed plan to a WorkoutPlan object. Catalog entries that store no exercise ID get one
+     * derived from the plan ID and the entry, so the same entry always gets the same ID.
+     *
+     * @param planDocument The parsed plan
+     * @return WorkoutPlan object
      */
-    private Exercise convertExerciseDocument(ExerciseDocument exerciseDoc, int index) {
-        return new Exercise(
-                generateExerciseId(index),
-                exerciseDoc.getName(),
-                getOrDefault(exerciseDoc.getDescription(), ""),
-                getOrDefault(exerciseDoc.getMuscleGroup(), ""),
-                "",
-                getIntValue(exerciseDoc.getSets(), 0),
-                getIntValue(exerciseDoc.getReps(), 0),
-                getIntValue(exerciseDoc.getRestSeconds(), DEFAULT_REST_SECONDS),
-                getOrDefault(exerciseDoc.getUnit(), DEFAULT_UNIT)
+    private WorkoutPlan convertPlan(PlanDocument planDocument) {
+        WorkoutPlan plan = new WorkoutPlan(
+                planDocument.getId(),
+                planDocument.getName(),
+                planDocument.getDescription(),
+                planDocument.getDifficulty(),
+                planDocument.getDaysPerWeek(),
+                planDocument.getDurationWeeks() > 0 ? planDocument.getDurationWeeks() : DEFAULT_DURATION_WEEKS
         );
+        if (planDocument.getWeeklySchedule() != null) {
+            plan.setWeeklySchedule(new ArrayList<>(planDocument.getWeeklySchedule()));
+        }
+
+        List<Exercise> exercises = new ArrayList<>(planDocument.getExercises().size());
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (PlanExercise exercise : planDocument.getExercises()) {
+            exercises.add(new Exercise(
+                    exercise.isPositionalId()
+                            ? deriveExerciseId(planDocument.getId(), exercise.getName(), occurrences)
+                            : exercise.getId(),
+                    exercise.getName(),
+                    getOrDefault(exercise.getDescription(), ""),
+                    getOrDefault(exercise.getMuscleGroup(), ""),
+                    "",
+                    exercise.getSets(),
+                    exercise.getReps(),
+                    exercise.getRestSeconds(),
+                    getOrDefault(exercise.getUnit(), DEFAULT_UNIT)
+            ));
+        }
+        plan.setExercises(exercises);
+        return plan;
     }
 
     /**
-     * Generates a unique exercise ID based on index.
+     * Derives the ID of a catalog entry that stores none from the plan ID and the entry's name, counting
+     * entries of the same name, so reordering the catalog doesn't change it.
      *
-     * @param index The index of the exercise
-     * @return A unique exercise ID
+     * @param planId The catalog plan ID
+     * @param name The exercise name
+     * @param occurrences How often each name was seen so far in the plan, updated in place
+     * @return The derived exercise ID
      */
-    private String generateExerciseId(int index) {
-        return "ex_" + index;
+    private static String deriveExerciseId(String planId, String name, Map<String, Integer> occurrences) {
+        String key = name != null ? name : "";
+        Integer seen = occurrences.get(key);
+        int occurrence = seen != null ? seen : 0;
+        occurrences.put(key, occurrence + 1);
+        String entry = planId + "/" + key + "/" + occurrence;
+        return UUID.nameUUIDFromBytes(entry.getBytes(StandardCharsets.UTF_8)).toString();
     }
 
     /**
-     * Safely converts a Long value to int with a default value.
+     * Converts a WorkoutPlan to the shared plan model, so it can be written by PlanDocumentCodec.
+     * The plan is merged into the user's copy saved under the same ID, whose exercises may already have
+     * logs. So an exercise keeps its ID if the copy has it, or else takes the ID of an unclaimed exercise
+     * of the same name in the copy, which covers entries the copy reads with a positional ID. That ID is
+     * then stored on the entry. Only exercises without an ID, or whose ID is already taken, get a new one.
      *
-     * @param value The Long value to convert
-     * @param defaultValue The default value if the input is null
-     * @return The converted int value
+     * @param plan The WorkoutPlan to convert
+     * @param savedPlan The user's copy of the plan, or null if there is none
+     * @return The plan document
      */
-    private int getIntValue(Long value, int defaultValue) {
-        return value != null ? value.intValue() : defaultValue;
+    private PlanDocument toPlanDocument(WorkoutPlan plan, PlanDocument savedPlan) {
+        List<PlanExercise> savedExercises = savedPlan != null ? savedPlan.getExercises() : new ArrayList<>();
+        Set<String> claimedIds = new HashSet<>();
+        List<PlanExercise> exercises = new ArrayList<>();
+        if (plan.getExercises() != null) {
+            for (Exercise exercise : plan.getExercises()) {
+                String exerciseId = getSavedExerciseId(exercise, savedExercises, claimedIds);
+                claimedIds.add(exerciseId);
+                exercises.add(new PlanExercise(
+                        exerciseId,
+                        exercise.getName(),
+                        exercise.getDescription(),
+                        exercise.getMuscleGroup(),
+                        exercise.getSets(),
+                        exercise.getRepsPerSet(),
+                        exercise.getRestSeconds(),
+                        exercise.getUnit(),
+                        null,
+                        null
+                ));
+            }
+        }
+        return new PlanDocument(
+                plan.getId(),
+                plan.getName(),
+                plan.getDescription(),
+                plan.getDifficulty(),
+                plan.getDaysPerWeek(),
+                plan.getDurationWeeks(),
+                plan.getWeeklySchedule(),
+                exercises
+        );
+    }
+
+    /**
+     * Picks the ID an exercise is saved with, see {@link #toPlanDocument(WorkoutPlan, PlanDocument)}.
+     *
+     * @param exercise The exercise to save
+     * @param savedExercises The exercises of the user's copy of the plan
+     * @param claimedIds IDs already given to other exercises of the plan
+     * @return The exercise ID
+     */
+    private static String getSavedExerciseId(Exercise exercise, List<PlanExercise> savedExercises,
+                                             Set<String> claimedIds) {
+        String exerciseId = exercise.getId();
+        PlanExercise sameName = null;
+        boolean idTaken = exerciseId == null || claimedIds.contains(exerciseId);
+        for (PlanExercise saved : savedExercises) {
+            if (saved.getId().equals(exerciseId)) {
+                if (!idTaken) {
+                    return exerciseId;
+                }
+            } else if (sameName == null && !claimedIds.contains(saved.getId())
+                    && saved.getName() != null && saved.getName().equals(exercise.getName())) {
+                sameName = saved;
+            }
+        }
+
+        if (sameName != null) {
+            return sameName.getId();
+        }
+        return idTaken ? PlanExercise.newId() : exerciseId;
     }
 
     /**
@@ -210,8 +579,15 @@ public class WorkoutPlanRepositoryImpl implements WorkoutPlanRepository {
             return;
         }
 
-        WorkoutPlanDocument planDocument = WorkoutPlanDocument.fromWorkoutPlan(plan);
-        savePlanAndUpdateMainPlanId(userId, plan.getId(), planDocument, callback);
+        // The user's copy is read first, so its exercises keep their IDs and logs
+        planStore.refreshPlan(userId, plan.getId())
+                .continueWithTask(refreshTask -> refreshTask.isSuccessful()
+                        ? refreshTask : planStore.getPlan(userId, plan.getId()))
+                .addOnSuccessListener(savedPlan -> {
+                    Map<String, Object> planData = PlanDocumentCodec.encode(toPlanDocument(plan, savedPlan));
+                    savePlanAndUpdateMainPlanId(userId, plan.getId(), planData, callback);
+                })
+                .addOnFailureListener(callback::onError);
     }
 
     /**
@@ -231,22 +607,27 @@ public class WorkoutPlanRepositoryImpl implements WorkoutPlanRepository {
     }
 
     /**
-     * Saves a workout plan and updates the user's main plan ID.
+     * Saves a workout plan and updates the user's main plan ID. The plan is merged into an existing
+     * document of the same ID, so the latest log summaries written by workouts survive.
      *
      * @param userId       The ID of the user
      * @param planId       The ID of the plan
-     * @param planDocument The document to save
+     * @param planData     The document data to save
      * @param callback     Callback to handle the operation result
      */
     private void savePlanAndUpdateMainPlanId(String userId, String planId,
-                                             WorkoutPlanDocument planDocument,
+                                             Map<String, Object> planData,
                                              SavePlanCallback callback) {
         firestore.collection(COLLECTION_USERS)
                 .document(userId)
                 .collection(SUBCOLLECTION_PLANS)
                 .document(planId)
-                .set(planDocument)
-                .addOnSuccessListener(aVoid -> updateMainPlanId(userId, planId, callback))
+                .set(planData, SetOptions.merge())
+                .addOnSuccessListener(aVoid -> {
+                    // A copy of a plan saved under the same ID earlier is now stale
+                    planStore.invalidate(userId, planId);
+                    updateMainPlanId(userId, planId, callback);
+                })
                 .addOnFailureListener(callback::onError);
     }
 
@@ -259,12 +640,15 @@ public class WorkoutPlanRepositoryImpl implements WorkoutPlanRepository {
      */
     private void updateMainPlanId(String userId, String planId, SavePlanCallback callback) {
         Map<String, Object> mainPlanData = new HashMap<>();
-        mainPlanData.put(FIELD_MAIN_PLAN_ID, planId);
+        mainPlanData.put(UserProfileSnapshot.FIELD_MAIN_PLAN_ID, planId);
 
         firestore.collection(COLLECTION_USERS)
                 .document(userId)
                 .set(mainPlanData, SetOptions.merge())
-                .addOnSuccessListener(aVoid -> callback.onSuccess())
+                .addOnSuccessListener(aVoid -> {
+                    profileLoader.setMainPlanId(userId, planId);
+                    callback.onSuccess();
+                })
                 .addOnFailureListener(callback::onError);
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.erendogan6.planmyworkout.core.model.UiState;
 import com.erendogan6.planmyworkout.coreui.base.BaseFragment;
 
 import com.erendogan6.planmyworkout.feature.onboarding.R;
@@ -33,6 +34,7 @@ public class PlanDetailFragment extends BaseFragment {
 
     private FragmentPlanDetailImprovedBinding binding;
     private PlanDetailViewModel viewModel;
+    private WorkoutPlan renderedPlan;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -64,51 +66,45 @@ public class PlanDetailFragment extends BaseFragment {
     }
 
     private void observeViewModel() {
-        // Observe workout plan
-        viewModel.getWorkoutPlan().observe(getViewLifecycleOwner(), workoutPlan -> {
-            if (workoutPlan != null) {
-                updateUI(workoutPlan);
-            }
-        });
+        viewModel.getState().observe(getViewLifecycleOwner(), this::render);
+    }
 
-        // Observe exercises
-        viewModel.getExercises().observe(getViewLifecycleOwner(), exercises -> {
+    private void render(UiState<WorkoutPlan> state) {
+        WorkoutPlan plan = state.getData();
+        if (plan != null && plan != renderedPlan) {
+            renderedPlan = plan;
+            updateUI(plan);
+            List<Exercise> exercises = plan.getExercises();
             if (exercises != null && !exercises.isEmpty()) {
                 setupExercisesRecyclerView(exercises);
             }
-        });
-
-        // Observe loading state
-        viewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
-            if (Boolean.TRUE.equals(isLoading)) {
-                showLoading();
-                binding.btnStartPlan.setEnabled(false);
-                binding.cardExercises.setAlpha(0.5f);
-            } else {
-                hideLoading();
-                binding.btnStartPlan.setEnabled(true);
-                binding.cardExercises.setAlpha(1.0f);
-            }
-        });
-
-        // Observe save plan success
-        viewModel.getSavePlanSuccess().observe(getViewLifecycleOwner(), success -> {
-            if (success != null && success) {
-                // Plan saved successfully, navigate to home screen
-                Toast.makeText(requireContext(), "Plan started! Redirecting to home screen.", Toast.LENGTH_SHORT).show();
+        }
 
-                // Navigate to home using Navigation Component
-                Navigation.findNavController(requireView())
-                        .navigate(R.id.action_planDetailFragment_to_bottom_nav_graph);
-            }
-        });
+        if (state.isLoading() || state.isBusy()) {
+            showLoading();
+            binding.btnStartPlan.setEnabled(false);
+            binding.cardExercises.setAlpha(0.5f);
+        } else {
+            hideLoading();
+            binding.btnStartPlan.setEnabled(true);
+            binding.cardExercises.setAlpha(1.0f);
+        }
 
-        // Observe error message
-        viewModel.getErrorMessage().observe(getViewLifecycleOwner(), errorMessage -> {
-            if (errorMessage != null && !errorMessage.isEmpty()) {
-                Toast.makeText(requireContext(), errorMessage, Toast.LENGTH_LONG).show();
-            }
-        });
+        UiState.Message message = state.getMessage();
+        if (message == null) {
+            return;
+        }
+        viewModel.onMessageShown(message);
+        if (message.isError()) {
+            Toast.makeText(requireContext(), message.getText(), Toast.LENGTH_LONG).show();
+        } else {
+            // Plan saved successfully, navigate to home screen
+            Toast.makeText(requireContext(), message.getText(), Toast.LENGTH_SHORT).show();
+
+            // Navigate to home using Navigation Component
+            Navigation.findNavController(requireView())
+                    .navigate(R.id.action_planDetailFragment_to_bottom_nav_graph);
+        }
     }
 
     private void updateUI(WorkoutPlan plan) {
@@ -137,14 +133,16 @@ public class PlanDetailFragment extends BaseFragment {
     }
 
     private void setupExercisesRecyclerView(List<Exercise> exercises) {
-        ExerciseAdapter adapter = new ExerciseAdapter(exercises);
+        ExerciseAdapter adapter = new ExerciseAdapter();
         binding.rvExercises.setLayoutManager(new LinearLayoutManager(requireContext()));
         binding.rvExercises.setAdapter(adapter);
+        adapter.submitList(exercises);
     }
 
     @Override
     public void onDestroyView() {
         super.onDestroyView();
         binding = null;
+        renderedPlan = null;
     }
 }
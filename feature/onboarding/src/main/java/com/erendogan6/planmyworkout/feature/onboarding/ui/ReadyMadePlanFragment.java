@@ -59,7 +59,7 @@ public class ReadyMadePlanFragment extends BaseFragment implements WorkoutPlanAd
 
     private void setupRecyclerView() {
         binding.recyclerViewPlans.setLayoutManager(new LinearLayoutManager(requireContext()));
-        adapter = new WorkoutPlanAdapter(null, this);
+        adapter = new WorkoutPlanAdapter(this);
         binding.recyclerViewPlans.setAdapter(adapter);
     }
 
@@ -0,0 +1,48 @@
+package com.erendogan6.planmyworkout.feature.onboarding.usecase;
+
+import com.erendogan6.planmyworkout.feature.onboarding.model.WorkoutPlan;
+import com.erendogan6.planmyworkout.feature.onboarding.repository.WorkoutPlanRepository;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Use case for getting a single ready-made workout plan.
+ */
+@Singleton
+public class GetReadyMadePlanUseCase {
+
+    private final WorkoutPlanRepository repository;
+
+    @Inject
+    public GetReadyMadePlanUseCase(WorkoutPlanRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Interface for callback when fetching a workout plan.
+     */
+    public interface GetReadyMadePlanCallback {
+        void onSuccess(WorkoutPlan workoutPlan);
+        void onError(Exception e);
+    }
+
+    /**
+     * Execute the use case to get a ready-made workout plan.
+     * @param planId The ID of the plan
+     * @param callback Callback to handle the result, which receives null if the plan does not exist
+     */
+    public void execute(String planId, GetReadyMadePlanCallback callback) {
+        repository.getReadyMadeWorkoutPlan(planId, new WorkoutPlanRepository.WorkoutPlanCallback() {
+            @Override
+            public void onSuccess(WorkoutPlan workoutPlan) {
+                callback.onSuccess(workoutPlan);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+}
@@ -1,17 +1,15 @@
 package com.erendogan6.planmyworkout.feature.onboarding.viewmodel;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.erendogan6.planmyworkout.core.model.UiState;
 import com.erendogan6.planmyworkout.core.util.FirestoreManager;
-import com.erendogan6.planmyworkout.feature.onboarding.model.Exercise;
+import com.erendogan6.planmyworkout.core.util.UiStateStore;
 import com.erendogan6.planmyworkout.feature.onboarding.model.WorkoutPlan;
-import com.erendogan6.planmyworkout.feature.onboarding.usecase.GetReadyMadePlansUseCase;
+import com.erendogan6.planmyworkout.feature.onboarding.usecase.GetReadyMadePlanUseCase;
 import com.erendogan6.planmyworkout.feature.onboarding.usecase.SavePlanUseCase;
 
-import java.util.List;
-
 import javax.inject.Inject;
 
 import dagger.hilt.android.lifecycle.HiltViewModel;
@@ -19,26 +17,23 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 /**
  * ViewModel for the workout plan detail screen.
  * This class follows the MVVM architecture pattern and handles the business logic for the workout plan detail screen.
+ * The plan and the save progress are published as one state, and results are shown once as messages.
  */
 @HiltViewModel
 public class PlanDetailViewModel extends ViewModel {
 
-    private final GetReadyMadePlansUseCase getReadyMadePlansUseCase;
+    private final GetReadyMadePlanUseCase getReadyMadePlanUseCase;
     private final SavePlanUseCase savePlanUseCase;
     private final FirestoreManager firestoreManager;
 
-    final MutableLiveData<WorkoutPlan> workoutPlan = new MutableLiveData<>();
-    final MutableLiveData<List<Exercise>> exercises = new MutableLiveData<>();
-    final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
-    final MutableLiveData<Boolean> savePlanSuccess = new MutableLiveData<>();
-    final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final UiStateStore<WorkoutPlan> store = new UiStateStore<>(UiState.success(null));
 
     @Inject
     public PlanDetailViewModel(
-            GetReadyMadePlansUseCase getReadyMadePlansUseCase,
+            GetReadyMadePlanUseCase getReadyMadePlanUseCase,
             SavePlanUseCase savePlanUseCase,
             FirestoreManager firestoreManager) {
-        this.getReadyMadePlansUseCase = getReadyMadePlansUseCase;
+        this.getReadyMadePlanUseCase = getReadyMadePlanUseCase;
         this.savePlanUseCase = savePlanUseCase;
         this.firestoreManager = firestoreManager;
     }
@@ -48,37 +43,22 @@ public class PlanDetailViewModel extends ViewModel {
      * @param planId The ID of the plan to load
      */
     public void loadPlanDetails(String planId) {
-        isLoading.setValue(true);
-        errorMessage.setValue(null); // Clear any previous error
+        store.reduce(UiState::withLoading);
 
-        // Load from Firestore
-        getReadyMadePlansUseCase.execute(new GetReadyMadePlansUseCase.GetReadyMadePlansCallback() {
+        // Served from the catalog already loaded by the plan list when possible
+        getReadyMadePlanUseCase.execute(planId, new GetReadyMadePlanUseCase.GetReadyMadePlanCallback() {
             @Override
-            public void onSuccess(List<WorkoutPlan> plans) {
-                WorkoutPlan selectedPlan = null;
-                for (WorkoutPlan plan : plans) {
-                    if (plan.getId().equals(planId)) {
-                        selectedPlan = plan;
-                        break;
-                    }
-                }
-
-                // Update LiveData
+            public void onSuccess(WorkoutPlan selectedPlan) {
                 if (selectedPlan != null) {
-                    workoutPlan.postValue(selectedPlan);
-                    // Use the exercises from the plan
-                    exercises.postValue(selectedPlan.getExercises());
+                    store.reduce(state -> state.withData(selectedPlan));
                 } else {
-                    errorMessage.postValue("Plan not found");
+                    store.reduce(state -> state.withError("Plan not found"));
                 }
-
-                isLoading.postValue(false);
             }
 
             @Override
             public void onError(Exception e) {
-                errorMessage.postValue("Failed to load plan: " + e.getMessage());
-                isLoading.postValue(false);
+                store.reduce(state -> state.withError("Failed to load plan: " + e.getMessage()));
             }
         });
     }
@@ -87,61 +67,56 @@ public class PlanDetailViewModel extends ViewModel {
      * Save the selected workout plan to Firestore using the repository.
      */
     public void savePlan() {
-        isLoading.setValue(true);
-
         // Get the current user ID
         String userId = firestoreManager.getCurrentUserId();
         if (userId == null) {
-            isLoading.setValue(false);
-            errorMessage.setValue("User not logged in");
-            savePlanSuccess.setValue(false);
+            showError("User not logged in");
             return;
         }
 
         // Get the current workout plan
-        WorkoutPlan plan = workoutPlan.getValue();
+        WorkoutPlan plan = store.get().getData();
         if (plan == null) {
-            isLoading.setValue(false);
-            errorMessage.setValue("No workout plan selected");
-            savePlanSuccess.setValue(false);
+            showError("No workout plan selected");
             return;
         }
 
+        store.reduce(state -> state.withBusy(true));
+
         // Use the SavePlanUseCase to save the plan
         savePlanUseCase.execute(userId, plan, new SavePlanUseCase.SavePlanCallback() {
             @Override
             public void onSuccess() {
-                isLoading.postValue(false);
-                savePlanSuccess.postValue(true);
+                store.reduce(state -> state.withBusy(false)
+                        .withMessage(UiState.Message.info("Plan started! Redirecting to home screen.")));
             }
 
             @Override
             public void onError(Exception e) {
-                isLoading.postValue(false);
-                errorMessage.postValue("Failed to save plan: " + e.getMessage());
-                savePlanSuccess.postValue(false);
+                showError("Failed to save plan: " + e.getMessage());
             }
         });
     }
 
-    // Getter methods remain the same
-    public LiveData<WorkoutPlan> getWorkoutPlan() {
-        return workoutPlan;
-    }
-
-    public LiveData<List<Exercise>> getExercises() {
-        return exercises;
-    }
-
-    public LiveData<Boolean> getIsLoading() {
-        return isLoading;
+    /**
+     * Get the state of the plan detail screen.
+     *
+     * @return LiveData that emits once per change of the state
+     */
+    public LiveData<UiState<WorkoutPlan>> getState() {
+        return store.getState();
     }
 
-    public LiveData<Boolean> getSavePlanSuccess() {
-        return savePlanSuccess;
+    /**
+     * Drop a message after the screen showed it.
+     *
+     * @param message The message that was shown
+     */
+    public void onMessageShown(UiState.Message message) {
+        store.reduce(state -> state.withoutMessage(message));
     }
 
-    public LiveData<String> getErrorMessage() {
-        return errorMessage;
+    private void showError(String error) {
+        store.reduce(state -> state.withBusy(false).withMessage(UiState.Message.error(error)));
     }
-}
\ No newline at end of file
+}
@@ -61,6 +61,7 @@ dependencies {
     // Lifecycle Components
     implementation(libs.lifecycle.viewmodel)
     implementation(libs.lifecycle.runtime)
+    implementation(libs.lifecycle.livedata)
 
     // Navigation Components
     implementation(libs.navigation.fragment)
@@ -0,0 +1,22 @@
+package com.erendogan6.planmyworkout.feature.progress.di;
+
+import com.erendogan6.planmyworkout.core.user.SignOutListener;
+import com.erendogan6.planmyworkout.feature.progress.engine.ProgressEngine;
+
+import dagger.Binds;
+import dagger.Module;
+import dagger.hilt.InstallIn;
+import dagger.hilt.components.SingletonComponent;
+import dagger.multibindings.IntoSet;
+
+/**
+ * Dagger module for providing progress dependencies.
+ */
+@Module
+@InstallIn(SingletonComponent.class)
+public abstract class ProgressModule {
+
+    @Binds
+    @IntoSet
+    abstract SignOutListener bindProgressSignOutListener(ProgressEngine engine);
+}
@@ -0,0 +1,339 @@
+package com.erendogan6.planmyworkout.feature.progress.engine;
+
+import com.erendogan6.planmyworkout.core.log.ExerciseHistory;
+import com.erendogan6.planmyworkout.core.log.ExerciseStats;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * Progress time series of one exercise: volume per week, the best estimated one rep max of
+ * each training day with its moving average, and the streak of consecutive training weeks.
+ * The series are held in primitive arrays, so years of history stay small in memory and can be
+ * handed to a chart by index. Logs are expected in time order: adding a log that is not older
+ * than the newest one updates everything in constant time. An older log is inserted in place,
+ * which costs one pass over the series but never a pass over the logs.
+ * Not thread safe; confine an instance to one thread once it is shared.
+ */
+public final class ExerciseSeries {
+
+    /**
+     * How many training days the moving average of the one rep max covers.
+     */
+    public static final int MOVING_AVERAGE_DAYS = 5;
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final TimeZone timeZone;
+
+    // Weeks are counted from the Monday before the epoch, days from the epoch
+    private int[] weeks = new int[INITIAL_CAPACITY];
+    private double[] weeklyVolume = new double[INITIAL_CAPACITY];
+    private int[] weeklySets = new int[INITIAL_CAPACITY];
+    private int weekCount;
+
+    private int[] days = new int[INITIAL_CAPACITY];
+    private double[] oneRepMax = new double[INITIAL_CAPACITY];
+    private double[] movingAverage = new double[INITIAL_CAPACITY];
+    private int dayCount;
+    // Sum of the last MOVING_AVERAGE_DAYS values of oneRepMax
+    private double windowSum;
+
+    private int currentStreak;
+    private int longestStreak;
+    private long latestTimestamp = Long.MIN_VALUE;
+    private int logCount;
+    private double totalVolume;
+
+    public ExerciseSeries(ZoneId zone) {
+        this.timeZone = TimeZone.getTimeZone(zone);
+    }
+
+    /**
+     * Build the series of a full log history.
+     *
+     * @param history The history
+     * @param zone The time zone that decides where days and weeks start
+     * @return The series
+     */
+    public static ExerciseSeries fromHistory(ExerciseHistory history, ZoneId zone) {
+        return fromHistory(history, Long.MIN_VALUE, Long.MAX_VALUE, zone);
+    }
+
+    /**
+     * Build the series of the logs of a time range, such as the weeks a chart shows.
+     *
+     * @param history The history
+     * @param from Start of the range in milliseconds, inclusive
+     * @param to End of the range in milliseconds, exclusive
+     * @param zone The time zone that decides where days and weeks start
+     * @return The series
+     */
+    public static ExerciseSeries fromHistory(ExerciseHistory history, long from, long to, ZoneId zone) {
+        ExerciseSeries series = new ExerciseSeries(zone);
+        // The history is in time order, so every log is appended
+        for (int i = history.indexOf(from), end = history.indexOf(to); i < end; i++) {
+            series.add(history.getWeight(i), history.getReps(i), history.getTimestamp(i));
+        }
+        return series;
+    }
+
+    /**
+     * Add a log to the series.
+     *
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     * @param timestamp The time the log was created, in milliseconds
+     */
+    public void add(double weight, int reps, long timestamp) {
+        int day = toDay(timestamp);
+        int week = toWeek(day);
+        double volume = weight * reps;
+        double estimate = ExerciseStats.estimateOneRepMax(weight, reps);
+        logCount++;
+        totalVolume += volume;
+
+        if (timestamp < latestTimestamp) {
+            insert(day, week, volume, estimate);
+            return;
+        }
+        latestTimestamp = timestamp;
+        appendWeek(week, volume);
+        appendDay(day, estimate);
+    }
+
+    private void appendWeek(int week, double volume) {
+        int last = weekCount - 1;
+        if (last >= 0 && weeks[last] == week) {
+            weeklyVolume[last] += volume;
+            weeklySets[last]++;
+            return;
+        }
+
+        ensureWeekCapacity();
+        weeks[weekCount] = week;
+        weeklyVolume[weekCount] = volume;
+        weeklySets[weekCount] = 1;
+        weekCount++;
+
+        currentStreak = last >= 0 && weeks[last] == week - 1 ? currentStreak + 1 : 1;
+        longestStreak = Math.max(longestStreak, currentStreak);
+    }
+
+    private void appendDay(int day, double estimate) {
+        int last = dayCount - 1;
+        if (last >= 0 && days[last] == day) {
+            if (estimate > oneRepMax[last]) {
+                windowSum += estimate - oneRepMax[last];
+                oneRepMax[last] = estimate;
+                movingAverage[last] = windowSum / Math.min(dayCount, MOVING_AVERAGE_DAYS);
+            }
+            return;
+        }
+
+        ensureDayCapacity();
+        days[dayCount] = day;
+        oneRepMax[dayCount] = estimate;
+        windowSum += estimate;
+        if (dayCount >= MOVING_AVERAGE_DAYS) {
+            windowSum -= oneRepMax[dayCount - MOVING_AVERAGE_DAYS];
+        }
+        dayCount++;
+        movingAverage[dayCount - 1] = windowSum / Math.min(dayCount, MOVING_AVERAGE_DAYS);
+    }
+
+    /**
+     * Insert a log older than the newest one and recompute what follows from it.
+     */
+    private void insert(int day, int week, double volume, double estimate) {
+        int weekIndex = Arrays.binarySearch(weeks, 0, weekCount, week);
+        if (weekIndex >= 0) {
+            weeklyVolume[weekIndex] += volume;
+            weeklySets[weekIndex]++;
+        } else {
+            int position = -weekIndex - 1;
+            ensureWeekCapacity();
+            shift(position, weekCount);
+            weeks[position] = week;
+            weeklyVolume[position] = volume;
+            weeklySets[position] = 1;
+            weekCount++;
+            recomputeStreaks();
+        }
+
+        int dayIndex = Arrays.binarySearch(days, 0, dayCount, day);
+        if (dayIndex >= 0) {
+            if (estimate > oneRepMax[dayIndex]) {
+                oneRepMax[dayIndex] = estimate;
+                recomputeMovingAverage(dayIndex);
+            }
+        } else {
+            int position = -dayIndex - 1;
+            ensureDayCapacity();
+            System.arraycopy(days, position, days, position + 1, dayCount - position);
+            System.arraycopy(oneRepMax, position, oneRepMax, position + 1, dayCount - position);
+            days[position] = day;
+            oneRepMax[position] = estimate;
+            dayCount++;
+            recomputeMovingAverage(position);
+        }
+    }
+
+    private void shift(int position, int count) {
+        System.arraycopy(weeks, position, weeks, position + 1, count - position);
+        System.arraycopy(weeklyVolume, position, weeklyVolume, position + 1, count - position);
+        System.arraycopy(weeklySets, position, weeklySets, position + 1, count - position);
+    }
+
+    private void recomputeStreaks() {
+        currentStreak = 0;
+        longestStreak = 0;
+        for (int i = 0; i < weekCount; i++) {
+            currentStreak = i > 0 && weeks[i - 1] == weeks[i] - 1 ? currentStreak + 1 : 1;
+            longestStreak = Math.max(longestStreak, currentStreak);
+        }
+    }
+
+    private void recomputeMovingAverage(int from) {
+        // Rebuild the window sum as it was before the day, then slide it forward
+        windowSum = 0;
+        int start = Math.max(0, from - MOVING_AVERAGE_DAYS);
+        for (int i = start; i < from; i++) {
+            windowSum += oneRepMax[i];
+        }
+        for (int i = from; i < dayCount; i++) {
+            windowSum += oneRepMax[i];
+            if (i >= MOVING_AVERAGE_DAYS) {
+                windowSum -= oneRepMax[i - MOVING_AVERAGE_DAYS];
+            }
+            movingAverage[i] = windowSum / Math.min(i + 1, MOVING_AVERAGE_DAYS);
+        }
+    }
+
+    private void ensureWeekCapacity() {
+        if (weekCount == weeks.length) {
+            int capacity = weeks.length * 2;
+            weeks = Arrays.copyOf(weeks, capacity);
+            weeklyVolume = Arrays.copyOf(weeklyVolume, capacity);
+            weeklySets = Arrays.copyOf(weeklySets, capacity);
+        }
+    }
+
+    private void ensureDayCapacity() {
+        if (dayCount == days.length) {
+            int capacity = days.length * 2;
+            days = Arrays.copyOf(days, capacity);
+            oneRepMax = Arrays.copyOf(oneRepMax, capacity);
+            movingAverage = Arrays.copyOf(movingAverage, capacity);
+        }
+    }
+
+    private int toDay(long timestamp) {
+        return (int) Math.floorDiv(timestamp + timeZone.getOffset(timestamp), DAY_MS);
+    }
+
+    private static int toWeek(int day) {
+        // The epoch was a Thursday, so day 4 is the first Monday
+        return Math.floorDiv(day + 3, 7);
+    }
+
+    /**
+     * Get the number of weeks with at least one log.
+     */
+    public int getWeekCount() {
+        return weekCount;
+    }
+
+    /**
+     * Get the first day of a week of the weekly series, in days since the epoch.
+     *
+     * @param index The index in the weekly series
+     */
+    public long getWeekStartDay(int index) {
+        return weeks[index] * 7L - 3;
+    }
+
+    public double getWeeklyVolume(int index) {
+        return weeklyVolume[index];
+    }
+
+    public int getWeeklySets(int index) {
+        return weeklySets[index];
+    }
+
+    /**
+     * Get the number of training days.
+     */
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    /**
+     * Get a training day of the daily series, in days since the epoch.
+     *
+     * @param index The index in the daily series
+     */
+    public long getDay(int index) {
+        return days[index];
+    }
+
+    /**
+     * Get the best estimated one rep max of a training day.
+     *
+     * @param index The index in the daily series
+     */
+    public double getOneRepMax(int index) {
+        return oneRepMax[index];
+    }
+
+    /**
+     * Get the moving average of the one rep max over the training days up to a day.
+     *
+     * @param index The index in the daily series
+     */
+    public double getOneRepMaxMovingAverage(int index) {
+        return movingAverage[index];
+    }
+
+    /**
+     * Get the number of consecutive training weeks that end with the current or the last week.
+     *
+     * @param now The current time, in milliseconds
+     */
+    public int getCurrentStreak(long now) {
+        if (weekCount == 0) {
+            return 0;
+        }
+        return weeks[weekCount - 1] >= toWeek(toDay(now)) - 1 ? currentStreak : 0;
+    }
+
+    /**
+     * Get the largest number of consecutive training weeks.
+     */
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    /**
+     * Get the number of logs in the series.
+     */
+    public int getLogCount() {
+        return logCount;
+    }
+
+    /**
+     * Get the volume of all logs in the series.
+     */
+    public double getTotalVolume() {
+        return totalVolume;
+    }
+
+    /**
+     * Get the time of the newest log, or Long.MIN_VALUE if there is none.
+     */
+    public long getLatestTimestamp() {
+        return latestTimestamp;
+    }
+}
@@ -0,0 +1,258 @@
+package com.erendogan6.planmyworkout.feature.progress.engine;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.erendogan6.planmyworkout.core.cache.ExerciseLogCache;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.database.model.LatestExerciseLog;
+import com.erendogan6.planmyworkout.core.log.ExerciseHistory;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogStore;
+import com.erendogan6.planmyworkout.core.user.SignOutListener;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
+import com.erendogan6.planmyworkout.core.util.FirestoreManager;
+import com.erendogan6.planmyworkout.core.util.SharedMediatorLiveData;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Computes the progress series of exercises from the local log cache.
+ * The full history of an exercise is read once, from Firestore if the cache doesn't hold it
+ * yet, and every later log is added to the series as it arrives in the cache. Other changes,
+ * such as edits or removed logs, can't be applied that way, so they rebuild the series from
+ * the cache. Totals over the cached logs tell the two apart.
+ * All observers of the same exercise share one series, which is only changed on the main thread.
+ * A series is dropped once it is no longer observed, and all of them when the user signs out.
+ */
+@Singleton
+public class ProgressEngine implements SignOutListener {
+
+    private static final String TAG = "ProgressEngine";
+    // Allowed difference between totals summed in a different order
+    private static final double TOTAL_TOLERANCE = 1e-6;
+
+    private final FirestoreManager firestoreManager;
+    private final ExerciseLogCache logCache;
+    private final ExerciseLogStore logStore;
+    // Builds series of long histories off the main thread
+    private final BackgroundExecutor executor;
+    private final Map<String, LiveData<ExerciseSeries>> streams = new HashMap<>();
+
+    @Inject
+    public ProgressEngine(FirestoreManager firestoreManager, ExerciseLogCache logCache, ExerciseLogStore logStore,
+                          BackgroundExecutor executor) {
+        this.firestoreManager = firestoreManager;
+        this.logCache = logCache;
+        this.logStore = logStore;
+        this.executor = executor;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Drops the shared series of the user.
+     */
+    @Override
+    public void onSignOut() {
+        streams.clear();
+    }
+
+    /**
+     * Observe the progress series of an exercise. Must be called on the main thread.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return LiveData with the series, which holds no value until the history is loaded
+     */
+    public LiveData<ExerciseSeries> observeSeries(String planId, String exerciseId) {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return new MutableLiveData<>();
+        }
+
+        String key = userId + "/" + planId + "/" + exerciseId;
+        LiveData<ExerciseSeries> stream = streams.get(key);
+        if (stream == null) {
+            stream = new SeriesLiveData(userId, planId, exerciseId);
+            streams.put(key, stream);
+        }
+        return stream;
+    }
+
+    /**
+     * Load the full log history of an exercise and build its series.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the series
+     */
+    private Task<ExerciseSeries> loadSeries(String userId, String planId, String exerciseId) {
+        ZoneId zone = ZoneId.systemDefault();
+        return logCache.getHistory(userId, planId, exerciseId)
+                .continueWithTask(cacheTask -> {
+                    ExerciseHistory cached = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+                    return cached != null ? Tasks.forResult(cached) : fetchHistory(userId, planId, exerciseId);
+                })
+                .onSuccessTask(executor, history -> Tasks.forResult(ExerciseSeries.fromHistory(history, zone)));
+    }
+
+    /**
+     * Fetch the full log history of an exercise from Firestore and write it to the local cache.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the history
+     */
+    private Task<ExerciseHistory> fetchHistory(String userId, String planId, String exerciseId) {
+        return logStore.getLogs(userId, planId, exerciseId).onSuccessTask(executor, remoteLogs -> {
+            List<ExerciseLogEntity> logs = remoteLogs.getLogs();
+            logCache.replaceLogs(userId, planId, exerciseId, logs);
+            return Tasks.forResult(ExerciseHistory.fromLogs(logs));
+        });
+    }
+
+    /**
+     * The shared series of one exercise, fed by the newest log in the local cache together with
+     * totals over all of its logs. A new newest log whose totals add up is added to the series;
+     * any other change to the totals, such as an edit of an older log, reloads the series.
+     */
+    private class SeriesLiveData extends SharedMediatorLiveData<ExerciseSeries> {
+
+        private final String userId;
+        private final String planId;
+        private final String exerciseId;
+        private ExerciseSeries series;
+        // The cache state the series was last checked against
+        private LatestExerciseLog applied;
+        private boolean received;
+        private boolean loading;
+        private boolean changedWhileLoading;
+
+        SeriesLiveData(String userId, String planId, String exerciseId) {
+            this.userId = userId;
+            this.planId = planId;
+            this.exerciseId = exerciseId;
+            // Attached before the first load, so a failed load is retried on the next change
+            addSource(logCache.observeLatestLogWithTotals(userId, planId, exerciseId), this::onLogsChanged);
+            load();
+        }
+
+        @Override
+        protected void onReleased() {
+            String key = userId + "/" + planId + "/" + exerciseId;
+            if (streams.get(key) == this) {
+                streams.remove(key);
+            }
+        }
+
+        @Override
+        protected void onActive() {
+            super.onActive();
+            // A new observer retries a load that failed
+            if (series == null && !loading) {
+                load();
+            }
+        }
+
+        private void load() {
+            loading = true;
+            changedWhileLoading = false;
+            loadSeries(userId, planId, exerciseId).addOnCompleteListener(task -> {
+                loading = false;
+                if (!task.isSuccessful()) {
+                    Log.w(TAG, "Failed to load the progress of " + exerciseId, task.getException());
+                    return;
+                }
+
+                series = task.getResult();
+                setValue(series);
+                // The load may have read the cache before a change that arrived meanwhile
+                if (changedWhileLoading && received && !matches(series, applied)) {
+                    load();
+                }
+            });
+        }
+
+        private void onLogsChanged(LatestExerciseLog latest) {
+            LatestExerciseLog previous = applied;
+            boolean first = !received;
+            applied = latest;
+            received = true;
+            if (loading) {
+                changedWhileLoading = true;
+                return;
+            }
+            if (series == null) {
+                load();
+                return;
+            }
+
+            if (first ? matches(series, latest) : sameTotals(previous, latest)) {
+                return;
+            }
+            if (!first && isAppended(previous, latest) && latest.log.getTimestamp() >= series.getLatestTimestamp()) {
+                ExerciseLogEntity log = latest.log;
+                series.add(log.getWeight(), log.getReps(), log.getTimestamp());
+                setValue(series);
+                return;
+            }
+            load();
+        }
+    }
+
+    /**
+     * Check whether a series holds the logs the cache totals describe.
+     */
+    private static boolean matches(ExerciseSeries series, LatestExerciseLog latest) {
+        if (latest == null) {
+            return series.getLogCount() == 0;
+        }
+        return series.getLogCount() == latest.logCount
+                && isClose(series.getTotalVolume(), latest.volumeTotal);
+    }
+
+    private static boolean sameTotals(LatestExerciseLog previous, LatestExerciseLog latest) {
+        if (previous == null || latest == null) {
+            return previous == latest;
+        }
+        return previous.logCount == latest.logCount
+                && isClose(previous.weightTotal, latest.weightTotal)
+                && isClose(previous.repsTotal, latest.repsTotal)
+                && isClose(previous.volumeTotal, latest.volumeTotal);
+    }
+
+    /**
+     * Check whether the only change between two cache states is a newest log that was added.
+     */
+    private static boolean isAppended(LatestExerciseLog previous, LatestExerciseLog latest) {
+        if (latest == null) {
+            return false;
+        }
+        ExerciseLogEntity log = latest.log;
+        int count = previous != null ? previous.logCount : 0;
+        double weight = previous != null ? previous.weightTotal : 0;
+        double reps = previous != null ? previous.repsTotal : 0;
+        double volume = previous != null ? previous.volumeTotal : 0;
+        return latest.logCount == count + 1
+                && (previous == null || !log.getLogId().equals(previous.log.getLogId()))
+                && isClose(weight + log.getWeight(), latest.weightTotal)
+                && isClose(reps + log.getReps(), latest.repsTotal)
+                && isClose(volume + log.getWeight() * log.getReps(), latest.volumeTotal);
+    }
+
+    private static boolean isClose(double first, double second) {
+        return Math.abs(first - second) <= TOTAL_TOLERANCE * Math.max(1, Math.abs(first));
+    }
+}
@@ -0,0 +1,124 @@
+package com.erendogan6.planmyworkout.feature.progress.engine;
+
+import com.erendogan6.planmyworkout.core.log.ExerciseHistory;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that a series kept up to date one log at a time matches a series built from scratch.
+ */
+public class ExerciseSeriesTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Istanbul");
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    // Monday 2024-01-01 00:00 in Istanbul
+    private static final long START = 1_704_056_400_000L;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void appendedLogsMatchRebuild() {
+        List<long[]> logs = createLogs(new Random(1), 300);
+        ExerciseSeries incremental = new ExerciseSeries(ZONE);
+        for (long[] log : logs) {
+            incremental.add(log[1] / 2.0, (int) log[2], log[0]);
+        }
+
+        assertSameSeries(rebuild(logs), incremental);
+    }
+
+    @Test
+    public void logsAddedOutOfOrderMatchRebuild() {
+        List<long[]> logs = createLogs(new Random(2), 300);
+        List<long[]> shuffled = new ArrayList<>(logs);
+        Collections.shuffle(shuffled, new Random(3));
+        ExerciseSeries incremental = new ExerciseSeries(ZONE);
+        for (long[] log : shuffled) {
+            incremental.add(log[1] / 2.0, (int) log[2], log[0]);
+        }
+
+        assertSameSeries(rebuild(logs), incremental);
+    }
+
+    @Test
+    public void olderLogFillsGapBetweenWeeks() {
+        ExerciseSeries incremental = new ExerciseSeries(ZONE);
+        incremental.add(60, 5, START);
+        incremental.add(70, 5, START + 14 * DAY_MS);
+        assertEquals(1, incremental.getLongestStreak());
+
+        incremental.add(65, 5, START + 7 * DAY_MS);
+
+        assertEquals(3, incremental.getWeekCount());
+        assertEquals(3, incremental.getLongestStreak());
+        assertEquals(3, incremental.getCurrentStreak(START + 15 * DAY_MS));
+    }
+
+    @Test
+    public void logsOfOneDayKeepTheBestOneRepMax() {
+        ExerciseSeries incremental = new ExerciseSeries(ZONE);
+        incremental.add(100, 1, START + 10 * 60 * 60 * 1000);
+        incremental.add(80, 10, START + 11 * 60 * 60 * 1000);
+        incremental.add(60, 12, START + 9 * 60 * 60 * 1000);
+
+        assertEquals(1, incremental.getDayCount());
+        assertEquals(80 * (1 + 10 / 30.0), incremental.getOneRepMax(0), DELTA);
+        assertEquals(3, incremental.getWeeklySets(0));
+        assertEquals(100 + 800 + 720, incremental.getWeeklyVolume(0), DELTA);
+    }
+
+    /**
+     * Create logs in time order, as timestamp, weight in half kilograms and reps. Some days have
+     * several logs, and some weeks none.
+     */
+    private static List<long[]> createLogs(Random random, int count) {
+        List<long[]> logs = new ArrayList<>(count);
+        long timestamp = START;
+        for (int i = 0; i < count; i++) {
+            int gap = random.nextInt(10);
+            // Most logs follow on the same day, a few after a break of several weeks
+            timestamp += gap < 6 ? random.nextInt(30 * 60 * 1000) : gap < 9 ? DAY_MS : 20 * DAY_MS;
+            logs.add(new long[]{timestamp, 40 + random.nextInt(200), 1 + random.nextInt(15)});
+        }
+        return logs;
+    }
+
+    private static ExerciseSeries rebuild(List<long[]> logs) {
+        ExerciseHistory history = new ExerciseHistory(logs.size());
+        for (long[] log : logs) {
+            history.add(log[0], log[1] / 2.0, (int) log[2]);
+        }
+        return ExerciseSeries.fromHistory(history, ZONE);
+    }
+
+    private static void assertSameSeries(ExerciseSeries expected, ExerciseSeries actual) {
+        assertEquals(expected.getLogCount(), actual.getLogCount());
+        assertEquals(expected.getTotalVolume(), actual.getTotalVolume(), 1e-6);
+        assertEquals(expected.getLatestTimestamp(), actual.getLatestTimestamp());
+
+        assertEquals(expected.getWeekCount(), actual.getWeekCount());
+        for (int i = 0; i < expected.getWeekCount(); i++) {
+            assertEquals(expected.getWeekStartDay(i), actual.getWeekStartDay(i));
+            assertEquals(expected.getWeeklyVolume(i), actual.getWeeklyVolume(i), 1e-6);
+            assertEquals(expected.getWeeklySets(i), actual.getWeeklySets(i));
+        }
+
+        assertEquals(expected.getDayCount(), actual.getDayCount());
+        for (int i = 0; i < expected.getDayCount(); i++) {
+            assertEquals(expected.getDay(i), actual.getDay(i));
+            assertEquals(expected.getOneRepMax(i), actual.getOneRepMax(i), DELTA);
+            assertEquals(expected.getOneRepMaxMovingAverage(i), actual.getOneRepMaxMovingAverage(i), 1e-6);
+        }
+
+        assertEquals(expected.getLongestStreak(), actual.getLongestStreak());
+        long now = expected.getLatestTimestamp();
+        assertEquals(expected.getCurrentStreak(now), actual.getCurrentStreak(now));
+    }
+}
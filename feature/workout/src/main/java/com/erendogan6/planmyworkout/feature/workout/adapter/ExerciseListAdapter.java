@@ -4,28 +4,50 @@ import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.erendogan6.planmyworkout.core.util.StableIds;
 import com.erendogan6.planmyworkout.feature.workout.databinding.ItemExerciseListBinding;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying exercises with progress in a RecyclerView.
+ * New lists are diffed on a background thread, so only exercises that changed are rebound.
  */
-public class ExerciseListAdapter extends RecyclerView.Adapter<ExerciseListAdapter.ExerciseViewHolder> {
+public class ExerciseListAdapter extends ListAdapter<ExerciseWithProgress, ExerciseListAdapter.ExerciseViewHolder> {
+
+    private static final DiffUtil.ItemCallback<ExerciseWithProgress> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<ExerciseWithProgress>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull ExerciseWithProgress oldItem,
+                                               @NonNull ExerciseWithProgress newItem) {
+                    return Objects.equals(oldItem.getId(), newItem.getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull ExerciseWithProgress oldItem,
+                                                  @NonNull ExerciseWithProgress newItem) {
+                    return Objects.equals(oldItem.getName(), newItem.getName())
+                            && Objects.equals(oldItem.getLastTryText(), newItem.getLastTryText());
+                }
+            };
 
-    private List<ExerciseWithProgress> exercises;
+    private final StableIds<ExerciseWithProgress> stableIds = new StableIds<>(ExerciseWithProgress::getId);
     private final OnExerciseSelectedListener listener;
 
     public interface OnExerciseSelectedListener {
         void onExerciseSelected(ExerciseWithProgress exercise);
     }
 
-    public ExerciseListAdapter(List<ExerciseWithProgress> exercises, OnExerciseSelectedListener listener) {
-        this.exercises = exercises;
+    public ExerciseListAdapter(OnExerciseSelectedListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -38,21 +60,26 @@ public class ExerciseListAdapter extends RecyclerView.Adapter<ExerciseListAdapte
 
     @Override
     public void onBindViewHolder(@NonNull ExerciseViewHolder holder, int position) {
-        ExerciseWithProgress exercise = exercises.get(position);
+        ExerciseWithProgress exercise = getItem(position);
         holder.bind(exercise);
     }
 
     @Override
-    public int getItemCount() {
-        return exercises != null ? exercises.size() : 0;
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position));
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<ExerciseWithProgress> previousList,
+                                     @NonNull List<ExerciseWithProgress> currentList) {
+        stableIds.retain(currentList);
     }
 
     /**
      * Update the adapter with a new list of exercises.
      */
     public void updateExercises(List<ExerciseWithProgress> newExercises) {
-        this.exercises = newExercises;
-        notifyDataSetChanged();
+        submitList(newExercises);
     }
 
     /**
@@ -69,7 +96,7 @@ public class ExerciseListAdapter extends RecyclerView.Adapter<ExerciseListAdapte
             binding.getRoot().setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onExerciseSelected(exercises.get(position));
+                    listener.onExerciseSelected(getItem(position));
                 }
             });
         }
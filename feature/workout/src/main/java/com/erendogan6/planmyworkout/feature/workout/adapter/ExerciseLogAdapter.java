@@ -6,19 +6,42 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.erendogan6.planmyworkout.core.util.StableIds;
 import com.erendogan6.planmyworkout.feature.workout.R;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogItem;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying exercise logs in a RecyclerView.
+ * New lists are diffed on a background thread, so appending a page or editing a log only binds
+ * the rows that changed. Rows are bound from precomputed display text, so binding formats nothing.
  */
-public class ExerciseLogAdapter extends RecyclerView.Adapter<ExerciseLogAdapter.LogViewHolder> {
+public class ExerciseLogAdapter extends ListAdapter<ExerciseLogItem, ExerciseLogAdapter.LogViewHolder> {
 
-    private List<ExerciseLog> logs;
+    private static final DiffUtil.ItemCallback<ExerciseLogItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<ExerciseLogItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull ExerciseLogItem oldItem, @NonNull ExerciseLogItem newItem) {
+                    return Objects.equals(oldItem.getId(), newItem.getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull ExerciseLogItem oldItem,
+                                                  @NonNull ExerciseLogItem newItem) {
+                    return oldItem.getDateText().equals(newItem.getDateText())
+                            && oldItem.getWeightRepsText().equals(newItem.getWeightRepsText())
+                            && Objects.equals(oldItem.getNotes(), newItem.getNotes());
+                }
+            };
+
+    private final StableIds<ExerciseLogItem> stableIds = new StableIds<>(ExerciseLogItem::getId);
     private final OnLogSelectedListener listener;
 
     /**
@@ -28,9 +51,10 @@ public class ExerciseLogAdapter extends RecyclerView.Adapter<ExerciseLogAdapter.
         void onLogSelected(ExerciseLog log);
     }
 
-    public ExerciseLogAdapter(List<ExerciseLog> logs, OnLogSelectedListener listener) {
-        this.logs = logs;
+    public ExerciseLogAdapter(OnLogSelectedListener listener) {
+        super(DIFF_CALLBACK);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -43,27 +67,31 @@ public class ExerciseLogAdapter extends RecyclerView.Adapter<ExerciseLogAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull LogViewHolder holder, int position) {
-        ExerciseLog log = logs.get(position);
-        holder.bind(log, listener);
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return logs != null ? logs.size() : 0;
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position));
+    }
+
+    @Override
+    public void onCurrentListChanged(@NonNull List<ExerciseLogItem> previousList,
+                                     @NonNull List<ExerciseLogItem> currentList) {
+        stableIds.retain(currentList);
     }
 
     /**
      * Update the logs in the adapter.
      */
-    public void updateLogs(List<ExerciseLog> newLogs) {
-        this.logs = newLogs;
-        notifyDataSetChanged();
+    public void updateLogs(List<ExerciseLogItem> newLogs) {
+        submitList(newLogs);
     }
 
     /**
      * ViewHolder for exercise logs.
      */
-    static class LogViewHolder extends RecyclerView.ViewHolder {
+    class LogViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvDate;
         private final TextView tvWeightReps;
         private final TextView tvNotes;
@@ -75,28 +103,29 @@ public class ExerciseLogAdapter extends RecyclerView.Adapter<ExerciseLogAdapter.
             tvWeightReps = itemView.findViewById(R.id.tvWeightReps);
             tvNotes = itemView.findViewById(R.id.tvNotes);
             divider = itemView.findViewById(R.id.divider);
+
+            // Add ripple effect animation
+            itemView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && listener != null) {
+                    listener.onLogSelected(getItem(position).getLog());
+                }
+            });
         }
 
-        public void bind(ExerciseLog log, OnLogSelectedListener listener) {
-            tvDate.setText(log.getFormattedDate());
-            tvWeightReps.setText(String.format("%.1f kg × %d", log.getWeight(), log.getReps()));
+        public void bind(ExerciseLogItem item) {
+            tvDate.setText(item.getDateText());
+            tvWeightReps.setText(item.getWeightRepsText());
 
             // Show notes if available
-            if (log.getNotes() != null && !log.getNotes().isEmpty()) {
+            if (item.hasNotes()) {
                 divider.setVisibility(View.VISIBLE);
                 tvNotes.setVisibility(View.VISIBLE);
-                tvNotes.setText(log.getNotes());
+                tvNotes.setText(item.getNotes());
             } else {
                 divider.setVisibility(View.GONE);
                 tvNotes.setVisibility(View.GONE);
             }
-
-            // Add ripple effect animation
-            itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onLogSelected(log);
-                }
-            });
         }
     }
 }
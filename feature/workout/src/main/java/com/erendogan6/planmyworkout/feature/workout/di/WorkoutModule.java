@@ -1,5 +1,6 @@
 package com.erendogan6.planmyworkout.feature.workout.di;
 
+import com.erendogan6.planmyworkout.core.user.SignOutListener;
 import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepository;
 import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepositoryImpl;
 
@@ -7,6 +8,7 @@ import dagger.Binds;
 import dagger.Module;
 import dagger.hilt.InstallIn;
 import dagger.hilt.components.SingletonComponent;
+import dagger.multibindings.IntoSet;
 
 /**
  * Dagger module for providing workout dependencies.
@@ -17,4 +19,8 @@ public abstract class WorkoutModule {
 
     @Binds
     abstract WorkoutRepository bindWorkoutRepository(WorkoutRepositoryImpl impl);
+
+    @Binds
+    @IntoSet
+    abstract SignOutListener bindWorkoutSignOutListener(WorkoutRepositoryImpl impl);
 }
\ No newline at end of file
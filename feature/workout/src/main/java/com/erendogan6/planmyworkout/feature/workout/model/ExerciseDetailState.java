@@ -0,0 +1,88 @@
+package com.erendogan6.planmyworkout.feature.workout.model;
+
+import com.erendogan6.planmyworkout.core.log.ExerciseStats;
+
+import java.util.Objects;
+
+/**
+ * Content of the exercise detail screen.
+ */
+public final class ExerciseDetailState {
+
+    public static final ExerciseDetailState EMPTY = new ExerciseDetailState(null, null, false, null);
+
+    private final ExerciseWithProgress exercise;
+    private final ExerciseLog latestLog;
+    private final boolean latestLogLoaded;
+    private final ExerciseStats stats;
+
+    private ExerciseDetailState(ExerciseWithProgress exercise, ExerciseLog latestLog, boolean latestLogLoaded,
+                                ExerciseStats stats) {
+        this.exercise = exercise;
+        this.latestLog = latestLog;
+        this.latestLogLoaded = latestLogLoaded;
+        this.stats = stats;
+    }
+
+    public ExerciseWithProgress getExercise() {
+        return exercise;
+    }
+
+    /**
+     * Get the latest log of the exercise.
+     *
+     * @return The latest log, or null if there is none or it isn't loaded yet
+     */
+    public ExerciseLog getLatestLog() {
+        return latestLog;
+    }
+
+    /**
+     * Check if the latest log was loaded, so a null log means the exercise was never logged.
+     */
+    public boolean isLatestLogLoaded() {
+        return latestLogLoaded;
+    }
+
+    /**
+     * Get the statistics of the exercise.
+     *
+     * @return The statistics, or null if they aren't loaded
+     */
+    public ExerciseStats getStats() {
+        return stats;
+    }
+
+    public ExerciseDetailState withExercise(ExerciseWithProgress exercise) {
+        return new ExerciseDetailState(exercise, latestLog, latestLogLoaded, stats);
+    }
+
+    public ExerciseDetailState withLatestLog(ExerciseLog latestLog) {
+        return new ExerciseDetailState(exercise, latestLog, true, stats);
+    }
+
+    public ExerciseDetailState withStats(ExerciseStats stats) {
+        return new ExerciseDetailState(exercise, latestLog, latestLogLoaded, stats);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExerciseDetailState)) {
+            return false;
+        }
+        ExerciseDetailState other = (ExerciseDetailState) o;
+        return exercise == other.exercise
+                && latestLog == other.latestLog
+                && latestLogLoaded == other.latestLogLoaded
+                && stats == other.stats;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(exercise), System.identityHashCode(latestLog),
+                latestLogLoaded, System.identityHashCode(stats));
+    }
+}
@@ -0,0 +1,63 @@
+package com.erendogan6.planmyworkout.feature.workout.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Content of the exercise list screen.
+ */
+public final class ExerciseListState {
+
+    public static final ExerciseListState EMPTY = new ExerciseListState(null, null);
+
+    private final WorkoutPlan plan;
+    private final List<ExerciseWithProgress> exercises;
+
+    private ExerciseListState(WorkoutPlan plan, List<ExerciseWithProgress> exercises) {
+        this.plan = plan;
+        this.exercises = exercises;
+    }
+
+    /**
+     * Get the plan.
+     *
+     * @return The plan, or null if it isn't loaded or doesn't exist
+     */
+    public WorkoutPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Get the exercises of the plan.
+     *
+     * @return The exercises, or null if they aren't loaded yet
+     */
+    public List<ExerciseWithProgress> getExercises() {
+        return exercises;
+    }
+
+    public ExerciseListState withPlan(WorkoutPlan plan) {
+        return new ExerciseListState(plan, exercises);
+    }
+
+    public ExerciseListState withExercises(List<ExerciseWithProgress> exercises) {
+        return new ExerciseListState(plan, exercises);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExerciseListState)) {
+            return false;
+        }
+        ExerciseListState other = (ExerciseListState) o;
+        return plan == other.plan && Objects.equals(exercises, other.exercises);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(plan), exercises);
+    }
+}
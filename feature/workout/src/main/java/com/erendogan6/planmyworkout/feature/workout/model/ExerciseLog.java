@@ -1,8 +1,9 @@
 package com.erendogan6.planmyworkout.feature.workout.model;
 
-import java.text.SimpleDateFormat;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.feature.workout.util.WorkoutFormatter;
+
 import java.util.Date;
-import java.util.Locale;
 
 /**
  * Model class representing a log entry for an exercise.
@@ -33,6 +34,19 @@ public class ExerciseLog {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Create an ExerciseLog from a cached log.
+     */
+    public static ExerciseLog fromEntity(ExerciseLogEntity entity) {
+        return new ExerciseLog(
+                entity.getLogId(),
+                entity.getWeight(),
+                entity.getReps(),
+                entity.getNotes(),
+                new Date(entity.getTimestamp())
+        );
+    }
+
     public String getId() {
         return id;
     }
@@ -78,10 +92,6 @@ public class ExerciseLog {
      * @return Formatted date string (e.g., "April 18, 2024")
      */
     public String getFormattedDate() {
-        if (timestamp == null) {
-            return "";
-        }
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM d, yyyy", Locale.getDefault());
-        return dateFormat.format(timestamp);
+        return WorkoutFormatter.formatDate(timestamp);
     }
 }
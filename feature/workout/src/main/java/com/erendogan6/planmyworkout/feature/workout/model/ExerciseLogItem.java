@@ -0,0 +1,55 @@
+package com.erendogan6.planmyworkout.feature.workout.model;
+
+import com.erendogan6.planmyworkout.feature.workout.util.WorkoutFormatter;
+
+/**
+ * Display model of an exercise log row.
+ * The display text is built once when the log is loaded, so binding a row formats nothing.
+ */
+public final class ExerciseLogItem {
+    private final ExerciseLog log;
+    private final String dateText;
+    private final String weightRepsText;
+    private final boolean hasNotes;
+
+    private ExerciseLogItem(ExerciseLog log) {
+        this.log = log;
+        this.dateText = WorkoutFormatter.formatDate(log.getTimestamp());
+        this.weightRepsText = WorkoutFormatter.formatWeightReps(log.getWeight(), log.getReps());
+        this.hasNotes = log.getNotes() != null && !log.getNotes().isEmpty();
+    }
+
+    /**
+     * Build the display model of a log. Safe to call from any thread.
+     *
+     * @param log The exercise log
+     * @return The display model
+     */
+    public static ExerciseLogItem from(ExerciseLog log) {
+        return new ExerciseLogItem(log);
+    }
+
+    public ExerciseLog getLog() {
+        return log;
+    }
+
+    public String getId() {
+        return log.getId();
+    }
+
+    public String getDateText() {
+        return dateText;
+    }
+
+    public String getWeightRepsText() {
+        return weightRepsText;
+    }
+
+    public String getNotes() {
+        return log.getNotes();
+    }
+
+    public boolean hasNotes() {
+        return hasNotes;
+    }
+}
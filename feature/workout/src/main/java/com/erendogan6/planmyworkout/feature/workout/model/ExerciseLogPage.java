@@ -0,0 +1,37 @@
+package com.erendogan6.planmyworkout.feature.workout.model;
+
+import java.util.List;
+
+/**
+ * Model class representing one page of an exercise's log history, newest first.
+ */
+public class ExerciseLogPage {
+    private final List<ExerciseLog> logs;
+    private final boolean hasMore;
+
+    public ExerciseLogPage(List<ExerciseLog> logs, boolean hasMore) {
+        this.logs = logs;
+        this.hasMore = hasMore;
+    }
+
+    public List<ExerciseLog> getLogs() {
+        return logs;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Get the cursor for the next page, which starts after the oldest log of this page.
+     *
+     * @return Timestamp in milliseconds of the oldest log, or null if the page is empty
+     */
+    public Long getNextCursor() {
+        if (logs.isEmpty()) {
+            return null;
+        }
+        ExerciseLog oldestLog = logs.get(logs.size() - 1);
+        return oldestLog.getTimestamp() != null ? oldestLog.getTimestamp().getTime() : 0L;
+    }
+}
@@ -1,5 +1,8 @@
 package com.erendogan6.planmyworkout.feature.workout.model;
 
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.feature.workout.util.WorkoutFormatter;
+
 import java.io.Serializable;
 
 /**
@@ -16,6 +19,8 @@ public class ExerciseWithProgress implements Serializable {
     private int restSeconds;
     private Double lastWeight;
     private Integer lastReps;
+    // Built when the last try changes, so list rows don't format while binding
+    private transient String lastTryText;
 
     public ExerciseWithProgress() {
         // Required empty constructor for Firestore
@@ -34,6 +39,25 @@ public class ExerciseWithProgress implements Serializable {
         this.restSeconds = restSeconds;
         this.lastWeight = lastWeight;
         this.lastReps = lastReps;
+        this.lastTryText = WorkoutFormatter.formatLastTry(lastWeight, lastReps);
+    }
+
+    /**
+     * Create an ExerciseWithProgress from an exercise of a shared plan document.
+     */
+    public static ExerciseWithProgress fromPlanExercise(PlanExercise exercise) {
+        return new ExerciseWithProgress(
+                exercise.getId(),
+                exercise.getName() != null ? exercise.getName() : "Unknown Exercise",
+                exercise.getDescription() != null ? exercise.getDescription() : "",
+                exercise.getMuscleGroup() != null ? exercise.getMuscleGroup() : "",
+                "", // No image URL for now
+                exercise.getSets(),
+                exercise.getReps(),
+                exercise.getRestSeconds(),
+                exercise.getLastWeight(),
+                exercise.getLastReps()
+        );
     }
 
     /**
@@ -72,15 +96,23 @@ public class ExerciseWithProgress implements Serializable {
         );
     }
 
+    /**
+     * Create a copy of this exercise with a different last try, leaving this one untouched
+     * for lists that are already shown.
+     */
+    public ExerciseWithProgress withLastTry(Double weight, Integer reps) {
+        return new ExerciseWithProgress(id, name, description, muscleGroup, imageUrl, sets, repsPerSet,
+                restSeconds, weight, reps);
+    }
+
     /**
      * Get a formatted string representing the last try.
      */
     public String getLastTryText() {
-        if (lastWeight != null && lastReps != null) {
-            return String.format("Last try: %.1f kg × %d reps", lastWeight, lastReps);
-        } else {
-            return "No previous attempts";
+        if (lastTryText == null) {
+            lastTryText = WorkoutFormatter.formatLastTry(lastWeight, lastReps);
         }
+        return lastTryText;
     }
 
     public String getId() {
@@ -153,6 +185,7 @@ public class ExerciseWithProgress implements Serializable {
 
     public void setLastWeight(Double lastWeight) {
         this.lastWeight = lastWeight;
+        this.lastTryText = WorkoutFormatter.formatLastTry(lastWeight, lastReps);
     }
 
     public Integer getLastReps() {
@@ -161,6 +194,7 @@ public class ExerciseWithProgress implements Serializable {
 
     public void setLastReps(Integer lastReps) {
         this.lastReps = lastReps;
+        this.lastTryText = WorkoutFormatter.formatLastTry(lastWeight, lastReps);
     }
 
     /**
@@ -1,8 +1,13 @@
 package com.erendogan6.planmyworkout.feature.workout.repository;
 
+import androidx.lifecycle.LiveData;
+
+import com.erendogan6.planmyworkout.core.log.ExerciseStats;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogPage;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
 import com.erendogan6.planmyworkout.feature.workout.model.WorkoutPlan;
+import com.google.android.gms.tasks.CancellationToken;
 import com.google.android.gms.tasks.Task;
 
 import java.util.List;
@@ -25,17 +30,37 @@ public interface WorkoutRepository {
      *
      * @param planId The plan ID
      * @param exerciseId The exercise ID
+     * @param token Cancels the request, which then ends as canceled
      * @return Task with the exercise with progress
      */
-    Task<ExerciseWithProgress> getExercise(String planId, String exerciseId);
+    Task<ExerciseWithProgress> getExercise(String planId, String exerciseId, CancellationToken token);
 
     /**
      * Get exercises for a workout plan.
      *
      * @param planId The plan ID
+     * @param token Cancels the request, including last try lookups not started yet
      * @return Task with the list of exercises with progress
      */
-    Task<List<ExerciseWithProgress>> getExercisesForPlan(String planId);
+    Task<List<ExerciseWithProgress>> getExercisesForPlan(String planId, CancellationToken token);
+
+    /**
+     * Observe a workout plan by ID.
+     * The plan follows changes made on other devices while it is observed.
+     *
+     * @param planId The plan ID
+     * @return LiveData with the workout plan, holding null if it does not exist
+     */
+    LiveData<WorkoutPlan> observeWorkoutPlan(String planId);
+
+    /**
+     * Observe the exercises of a workout plan.
+     *
+     * @param planId The plan ID
+     * @param token Stops the last try lookups the stream starts in the background
+     * @return LiveData with the list of exercises with progress, empty if the plan does not exist
+     */
+    LiveData<List<ExerciseWithProgress>> observeExercisesForPlan(String planId, CancellationToken token);
 
     /**
      * Get the latest exercise log for a specific exercise in a plan.
@@ -46,6 +71,25 @@ public interface WorkoutRepository {
      */
     Task<ExerciseLog> getLatestExerciseLog(String planId, String exerciseId);
 
+    /**
+     * Observe the latest exercise log for a specific exercise in a plan.
+     * Logs saved on this device show up right away, logs from other devices once they arrive.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return LiveData with the latest exercise log, holding null if there is none
+     */
+    LiveData<ExerciseLog> observeLatestExerciseLog(String planId, String exerciseId);
+
+    /**
+     * Get the aggregate statistics of an exercise in a plan, without reading its logs.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the exercise statistics
+     */
+    Task<ExerciseStats> getExerciseStats(String planId, String exerciseId);
+
     /**
      * Get all exercise logs for a specific exercise in a plan.
      *
@@ -55,8 +99,22 @@ public interface WorkoutRepository {
      */
     Task<List<ExerciseLog>> getExerciseLogs(String planId, String exerciseId);
 
+    /**
+     * Get one page of logs for a specific exercise, newest first.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Cursor returned by the previous page, or null for the newest page
+     * @param pageSize The maximum number of logs in the page
+     * @param token Cancels the request, which then ends as canceled
+     * @return Task with the page of exercise logs
+     */
+    Task<ExerciseLogPage> getExerciseLogsPage(String planId, String exerciseId, Long before, int pageSize,
+                                              CancellationToken token);
+
     /**
      * Save a new exercise log for a specific exercise in a plan.
+     * The log is stored on the device first and pushed to Firestore in the background.
      *
      * @param planId The plan ID
      * @param exerciseId The exercise ID
@@ -69,6 +127,7 @@ public interface WorkoutRepository {
 
     /**
      * Update an existing exercise log.
+     * The change is stored on the device first and pushed to Firestore in the background.
      *
      * @param planId The plan ID
      * @param exerciseId The exercise ID
@@ -1,22 +1,56 @@
 package com.erendogan6.planmyworkout.feature.workout.repository;
 
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+
+import com.erendogan6.planmyworkout.core.cache.ExerciseLogCache;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogBucketCodec;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogCodec;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogStore;
+import com.erendogan6.planmyworkout.core.log.ExerciseStats;
+import com.erendogan6.planmyworkout.core.log.ExerciseStatsStore;
+import com.erendogan6.planmyworkout.core.plan.PlanDocument;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentCodec;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentStore;
+import com.erendogan6.planmyworkout.core.plan.PlanExercise;
+import com.erendogan6.planmyworkout.core.user.SignOutListener;
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
+import com.erendogan6.planmyworkout.core.util.DocumentValues;
 import com.erendogan6.planmyworkout.core.util.FirestoreManager;
+import com.erendogan6.planmyworkout.core.util.RequestScope;
+import com.erendogan6.planmyworkout.core.util.SharedMediatorLiveData;
+import com.erendogan6.planmyworkout.core.util.SnapshotListenerLiveData;
+import com.erendogan6.planmyworkout.core.util.TaskCoalescer;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogPage;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
 import com.erendogan6.planmyworkout.feature.workout.model.WorkoutPlan;
+import com.erendogan6.planmyworkout.feature.workout.sync.ExerciseLogOutbox;
+import com.google.android.gms.tasks.CancellationToken;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -24,16 +58,66 @@ import javax.inject.Singleton;
 /**
  * Implementation of the WorkoutRepository interface.
  * This class handles the communication with Firestore for workout operations.
+ * Plans are read through the shared PlanDocumentStore, logs from the local cache first and then
+ * through the ExerciseLogStore, which hides whether an exercise's logs were compacted.
+ * The observe methods stream through shared snapshot listeners instead of one-shot reads.
+ * One-shot reads of an exercise are coalesced by path, so repeated loads share one Task.
+ * Documents are decoded and lists built on the background executor; callers add their listeners
+ * on the main thread and only receive the finished result there.
+ * Requests that take a cancellation token check it before each step. Coalesced reads may be
+ * shared with other callers, so they keep running and only the cancelled caller's Task ends.
+ * Shared streams are dropped once they are no longer observed, and everything kept for the user
+ * is dropped when they sign out.
  */
 @Singleton
-public class WorkoutRepositoryImpl implements WorkoutRepository {
+public class WorkoutRepositoryImpl implements WorkoutRepository, SignOutListener {
+    private static final String TAG = "WorkoutRepository";
+    private static final String FIELD_LATEST_LOGS = PlanDocumentCodec.FIELD_LATEST_LOGS;
+    // How long a finished read is handed out again to identical requests
+    private static final long READ_TTL_MS = 5_000;
+
     private final FirebaseFirestore firestore;
     private final FirestoreManager firestoreManager;
+    private final PlanDocumentStore planStore;
+    private final ExerciseLogCache logCache;
+    private final ExerciseLogOutbox outbox;
+    private final ExerciseLogStore logStore;
+    private final ExerciseStatsStore statsStore;
+    private final BackgroundExecutor executor;
+    private final Set<String> backfilledPlans = Collections.synchronizedSet(new HashSet<>());
+    private final Map<String, LiveData<ExerciseLog>> latestLogStreams = new HashMap<>();
+    private final TaskCoalescer reads = new TaskCoalescer(READ_TTL_MS);
 
     @Inject
-    public WorkoutRepositoryImpl(FirebaseFirestore firestore, FirestoreManager firestoreManager) {
+    public WorkoutRepositoryImpl(FirebaseFirestore firestore, FirestoreManager firestoreManager,
+                                 PlanDocumentStore planStore, ExerciseLogCache logCache, ExerciseLogOutbox outbox,
+                                 ExerciseLogStore logStore, ExerciseStatsStore statsStore,
+                                 BackgroundExecutor executor) {
         this.firestore = firestore;
         this.firestoreManager = firestoreManager;
+        this.planStore = planStore;
+        this.logCache = logCache;
+        this.outbox = outbox;
+        this.logStore = logStore;
+        this.statsStore = statsStore;
+        this.executor = executor;
+
+        // Push logs left pending by a previous session
+        outbox.requestFlush();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Drops the shared streams, the coalesced reads and the plans whose last tries were looked up.
+     */
+    @Override
+    public void onSignOut() {
+        synchronized (latestLogStreams) {
+            latestLogStreams.clear();
+        }
+        reads.clear();
+        backfilledPlans.clear();
     }
 
     /**
@@ -48,38 +132,10 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
             return Tasks.forException(new IllegalStateException("User not logged in"));
         }
 
-        return firestore.collection("users")
-                .document(userId)
-                .collection("plans")
-                .document(planId)
-                .get()
-                .continueWith(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        DocumentSnapshot document = task.getResult();
-                        if (document.exists()) {
-                            // Create a new WorkoutPlan object and populate it manually
-                            WorkoutPlan plan = new WorkoutPlan();
-                            plan.setId(document.getId());
-                            plan.setName(document.getString("name"));
-                            plan.setDescription(document.getString("description"));
-                            plan.setDifficulty(document.getString("difficulty"));
-
-                            // Get days per week and duration
-                            Long daysPerWeek = document.getLong("daysPerWeek");
-                            if (daysPerWeek != null) {
-                                plan.setDaysPerWeek(daysPerWeek.intValue());
-                            }
-
-                            Long durationWeeks = document.getLong("durationWeeks");
-                            if (durationWeeks != null) {
-                                plan.setDurationWeeks(durationWeeks.intValue());
-                            }
-
-                            return plan;
-                        }
-                    }
-                    return null;
-                });
+        return planStore.getPlan(userId, planId).continueWith(executor, task -> {
+            PlanDocument plan = task.isSuccessful() ? task.getResult() : null;
+            return plan != null ? toWorkoutPlan(plan) : null;
+        });
     }
 
     /**
@@ -87,158 +143,226 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
      *
      * @param planId The plan ID
      * @param exerciseId The exercise ID
+     * @param token Cancels the request
      * @return Task with the exercise with progress
      */
-    public Task<ExerciseWithProgress> getExercise(String planId, String exerciseId) {
+    @Override
+    public Task<ExerciseWithProgress> getExercise(String planId, String exerciseId, CancellationToken token) {
         String userId = firestoreManager.getCurrentUserId();
         if (userId == null) {
             return Tasks.forException(new IllegalStateException("User not logged in"));
         }
 
-        return firestore.collection("users")
-                .document(userId)
-                .collection("plans")
-                .document(planId)
-                .get()
-                .continueWith(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        DocumentSnapshot document = task.getResult();
-                        if (document.exists()) {
-                            List<Map<String, Object>> exercisesData = (List<Map<String, Object>>) document.get("exercises");
-                            if (exercisesData != null) {
-                                // Extract exercise ID index from format "ex_X"
-                                int index = -1;
-                                try {
-                                    index = Integer.parseInt(exerciseId.substring(3));
-                                } catch (Exception e) {
-                                    // Invalid exerciseId format
-                                    return null;
-                                }
-
-                                if (index >= 0 && index < exercisesData.size()) {
-                                    Map<String, Object> exerciseData = exercisesData.get(index);
-                                    String name = (String) exerciseData.get("name");
-                                    String description = (String) exerciseData.get("description");
-                                    String muscleGroup = (String) exerciseData.get("muscleGroup");
-                                    Long setsLong = (Long) exerciseData.get("sets");
-                                    Long repsLong = (Long) exerciseData.get("reps");
-                                    Long restSecondsLong = (Long) exerciseData.get("restSeconds");
-
-                                    int sets = setsLong != null ? setsLong.intValue() : 0;
-                                    int reps = repsLong != null ? repsLong.intValue() : 0;
-                                    int restSeconds = restSecondsLong != null ? restSecondsLong.intValue() : 60;
-
-                                    return new ExerciseWithProgress(
-                                            exerciseId,
-                                            name != null ? name : "Unknown Exercise",
-                                            description != null ? description : "",
-                                            muscleGroup != null ? muscleGroup : "",
-                                            "", // No image URL for now
-                                            sets,
-                                            reps,
-                                            restSeconds,
-                                            null, // No last weight yet
-                                            null  // No last reps yet
-                                    );
-                                }
-                            }
-                        }
-                    }
-                    return null;
-                });
+        String key = getExercisePath(userId, planId, exerciseId) + "exercise";
+        return RequestScope.bind(reads.run(key, () -> planStore.getExercise(userId, planId, exerciseId)
+                .continueWith(executor, task -> {
+                    PlanExercise exercise = task.isSuccessful() ? task.getResult() : null;
+                    return exercise != null ? ExerciseWithProgress.fromPlanExercise(exercise) : null;
+                })), token);
     }
 
     /**
      * Get exercises for a workout plan.
      *
      * @param planId The plan ID
+     * @param token Cancels the request, including last try lookups not started yet
      * @return Task with the list of exercises with progress
      */
-    public Task<List<ExerciseWithProgress>> getExercisesForPlan(String planId) {
+    @Override
+    public Task<List<ExerciseWithProgress>> getExercisesForPlan(String planId, CancellationToken token) {
         String userId = firestoreManager.getCurrentUserId();
         if (userId == null) {
             return Tasks.forException(new IllegalStateException("User not logged in"));
         }
 
-        // First, get the plan to access the exercises array
+        return RequestScope.bind(planStore.getPlan(userId, planId).continueWithTask(executor, task -> {
+            RequestScope.throwIfCancelled(token);
+            PlanDocument plan = task.isSuccessful() ? task.getResult() : null;
+            List<ExerciseWithProgress> exercises = toExercisesWithProgress(plan);
+            return backfillLastTries(userId, planId, exercises, token);
+        }), token);
+    }
+
+    /**
+     * Observe a workout plan by ID.
+     *
+     * @param planId The plan ID
+     * @return LiveData with the workout plan, holding null if it does not exist
+     */
+    @Override
+    public LiveData<WorkoutPlan> observeWorkoutPlan(String planId) {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return new MutableLiveData<>(null);
+        }
+
+        return Transformations.map(planStore.observePlan(userId, planId),
+                plan -> plan != null ? toWorkoutPlan(plan) : null);
+    }
+
+    /**
+     * Observe the exercises of a workout plan.
+     * Last tries missing from the plan document are looked up once per plan and session,
+     * and arrive through the plan stream once they are found.
+     *
+     * @param planId The plan ID
+     * @param token Stops the last try lookups that have not started yet
+     * @return LiveData with the list of exercises with progress, empty if the plan does not exist
+     */
+    @Override
+    public LiveData<List<ExerciseWithProgress>> observeExercisesForPlan(String planId, CancellationToken token) {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return new MutableLiveData<>(new ArrayList<>());
+        }
+
+        MediatorLiveData<List<ExerciseWithProgress>> exercises = new MediatorLiveData<>();
+        AtomicInteger emissions = new AtomicInteger();
+        exercises.addSource(planStore.observePlan(userId, planId), plan -> {
+            int emission = emissions.incrementAndGet();
+            executor.execute(() -> {
+                List<ExerciseWithProgress> list = toExercisesWithProgress(plan);
+                // Lists are built in parallel, so one built for an older plan is dropped
+                if (emission == emissions.get()) {
+                    exercises.postValue(list);
+                }
+                if (plan != null) {
+                    // Leaves the posted list alone, the results come back through updateLastTry
+                    backfillLastTries(userId, planId, list, token);
+                }
+            });
+        });
+        return exercises;
+    }
+
+    /**
+     * Convert the exercises of a plan document, or return an empty list for a missing plan.
+     *
+     * @param plan The plan document, may be null
+     * @return The list of exercises with progress
+     */
+    private List<ExerciseWithProgress> toExercisesWithProgress(PlanDocument plan) {
+        List<ExerciseWithProgress> exercises = new ArrayList<>();
+        if (plan == null) {
+            return exercises;
+        }
+        for (PlanExercise exercise : plan.getExercises()) {
+            exercises.add(ExerciseWithProgress.fromPlanExercise(exercise));
+        }
+        return exercises;
+    }
+
+    /**
+     * Fill in the last tries that are missing from the plan document by querying the log
+     * subcollection. Runs once per plan and session, unless it is cancelled or a lookup fails.
+     * The token is checked before each lookup starts and again before its log query is sent,
+     * and lookups of the same exercise share one read.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exercises The exercises of the plan, left unchanged
+     * @param token Cancels the lookups
+     * @return Task with a copy of the exercises holding the found last tries, once all lookups finished
+     */
+    private Task<List<ExerciseWithProgress>> backfillLastTries(String userId, String planId,
+                                                               List<ExerciseWithProgress> exercises,
+                                                               CancellationToken token) {
+        // Exercises without a summary entry were last logged by an older client (or never
+        // logged), so fall back to querying their log subcollection, once per plan and session
+        String planKey = userId + "/" + planId;
+        if (exercises.isEmpty() || token.isCancellationRequested() || !backfilledPlans.add(planKey)) {
+            return Tasks.forResult(exercises);
+        }
+
+        List<Task<ExerciseWithProgress>> exerciseTasks = new ArrayList<>();
+        int lookups = 0;
+        for (ExerciseWithProgress exercise : exercises) {
+            if (exercise.hasLastTry()) {
+                exerciseTasks.add(Tasks.forResult(exercise));
+                continue;
+            }
+            if (token.isCancellationRequested()) {
+                // The rest is kept as it is, so the result still holds every exercise
+                backfilledPlans.remove(planKey);
+                exerciseTasks.add(Tasks.forResult(exercise));
+                continue;
+            }
+            String key = getExercisePath(userId, planId, exercise.getId()) + "remoteLatestLog";
+            Task<ExerciseWithProgress> logTask = reads.run(key, token,
+                            () -> fetchLatestExerciseLog(userId, planId, exercise.getId(), token))
+                    .continueWith(executor, logResult -> {
+                        if (token.isCancellationRequested()) {
+                            // Nothing is applied, so the next request looks the plan up again
+                            backfilledPlans.remove(planKey);
+                            return exercise;
+                        }
+                        if (!logResult.isSuccessful()) {
+                            // A failed lookup isn't final, so the next request tries the plan again.
+                            // That includes a shared lookup another request cancelled
+                            Log.w(TAG, "Failed to look up the last try of " + exercise.getId(),
+                                    logResult.getException());
+                            backfilledPlans.remove(planKey);
+                        } else if (logResult.getResult() != null) {
+                            ExerciseLog log = logResult.getResult();
+                            backfillLatestLogSummary(userId, planId, exercise.getId(), log);
+                            planStore.updateLastTry(userId, planId, exercise.getId(),
+                                    log.getWeight(), log.getReps());
+                            return exercise.withLastTry(log.getWeight(), log.getReps());
+                        }
+                        return exercise;
+                    });
+            exerciseTasks.add(logTask);
+            lookups++;
+        }
+
+        if (lookups == 0) {
+            return Tasks.forResult(exercises);
+        }
+
+        // Wait for all fallback log tasks to complete, results keep the order of the plan
+        return Tasks.whenAllSuccess(exerciseTasks);
+    }
+
+    /**
+     * Writes a summary entry for a log that was found through the fallback query,
+     * so the next plan read can skip the per-exercise query.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param log The latest exercise log
+     */
+    private void backfillLatestLogSummary(String userId, String planId, String exerciseId, ExerciseLog log) {
+        getPlanReference(userId, planId)
+                .update(FieldPath.of(FIELD_LATEST_LOGS, exerciseId),
+                        ExerciseLogCodec.encodeSummary(log.getId(), log.getWeight(), log.getReps(),
+                                log.getTimestamp()));
+    }
+
+    /**
+     * Get a reference to a plan document of a user.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @return Reference to the plan document
+     */
+    private DocumentReference getPlanReference(String userId, String planId) {
         return firestore.collection("users")
                 .document(userId)
                 .collection("plans")
-                .document(planId)
-                .get()
-                .continueWith(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        DocumentSnapshot document = task.getResult();
-                        if (document.exists()) {
-                            List<Map<String, Object>> exercisesData = (List<Map<String, Object>>) document.get("exercises");
-                            if (exercisesData != null) {
-                                List<ExerciseWithProgress> exercises = new ArrayList<>();
-
-                                for (int i = 0; i < exercisesData.size(); i++) {
-                                    Map<String, Object> exerciseData = exercisesData.get(i);
-                                    String exerciseId = "ex_" + i; // Generate an ID based on position
-                                    String name = (String) exerciseData.get("name");
-                                    String description = (String) exerciseData.get("description");
-                                    String muscleGroup = (String) exerciseData.get("muscleGroup");
-                                    Long setsLong = (Long) exerciseData.get("sets");
-                                    Long repsLong = (Long) exerciseData.get("reps");
-                                    Long restSecondsLong = (Long) exerciseData.get("restSeconds");
-
-                                    int sets = setsLong != null ? setsLong.intValue() : 0;
-                                    int reps = repsLong != null ? repsLong.intValue() : 0;
-                                    int restSeconds = restSecondsLong != null ? restSecondsLong.intValue() : 60;
-
-                                    // Create the exercise with progress
-                                    ExerciseWithProgress exercise = new ExerciseWithProgress(
-                                            exerciseId,
-                                            name != null ? name : "Unknown Exercise",
-                                            description != null ? description : "",
-                                            muscleGroup != null ? muscleGroup : "",
-                                            "", // No image URL for now
-                                            sets,
-                                            reps,
-                                            restSeconds,
-                                            null, // No last weight yet
-                                            null  // No last reps yet
-                                    );
-
-                                    exercises.add(exercise);
-                                }
-
-                                // Now, for each exercise, try to get the latest log to populate progress repository
-                                return exercises;
-                            }
-                        }
-                    }
-                    return new ArrayList<ExerciseWithProgress>();
-                })
-                .continueWithTask(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        List<ExerciseWithProgress> exercises = task.getResult();
-                        if (!exercises.isEmpty()) {
-                            // Create a list of tasks to fetch the latest log for each exercise
-                            List<Task<ExerciseWithProgress>> logTasks = new ArrayList<>();
-
-                            for (ExerciseWithProgress exercise : exercises) {
-                                Task<ExerciseWithProgress> logTask = getLatestExerciseLog(planId, exercise.getId())
-                                        .continueWith(logResult -> {
-                                            if (logResult.isSuccessful() && logResult.getResult() != null) {
-                                                ExerciseLog log = logResult.getResult();
-                                                exercise.setLastWeight(log.getWeight());
-                                                exercise.setLastReps(log.getReps());
-                                            }
-                                            return exercise;
-                                        });
-                                logTasks.add(logTask);
-                            }
-
-                            // Wait for all log tasks to complete
-                            return Tasks.whenAllSuccess(logTasks)
-                                    .continueWith(allLogsTask -> exercises);
-                        }
-                    }
-                    return Tasks.forResult(new ArrayList<ExerciseWithProgress>());
-                });
+                .document(planId);
+    }
+
+    /**
+     * Get the path that keys the coalesced reads of an exercise.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return The path, ending with a slash
+     */
+    private static String getExercisePath(String userId, String planId, String exerciseId) {
+        return userId + "/" + planId + "/" + exerciseId + "/";
     }
 
     /**
@@ -254,37 +378,140 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
             return Tasks.forException(new IllegalStateException("User not logged in"));
         }
 
-        return firestore.collection("users")
-                .document(userId)
-                .collection("plans")
-                .document(planId)
-                .collection("exercises")
-                .document(exerciseId)
-                .collection("logs")
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .limit(1)
-                .get()
-                .continueWith(task -> {
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        QuerySnapshot querySnapshot = task.getResult();
-                        if (!querySnapshot.isEmpty()) {
-                            DocumentSnapshot document = querySnapshot.getDocuments().get(0);
-                            String logId = document.getId();
-                            Double weight = document.getDouble("weight");
-                            Long reps = document.getLong("reps");
-                            String notes = document.getString("notes");
-                            Date timestamp = document.getDate("timestamp");
-
-                            return new ExerciseLog(
-                                    logId,
-                                    weight != null ? weight : 0,
-                                    reps != null ? reps.intValue() : 0,
-                                    notes,
-                                    timestamp
-                            );
-                        }
+        String key = getExercisePath(userId, planId, exerciseId) + "latestLog";
+        return reads.run(key, () -> logCache.getLatestLog(userId, planId, exerciseId)
+                .continueWithTask(executor, cacheTask -> {
+                    ExerciseLogEntity cachedLog = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+                    if (cachedLog != null) {
+                        // Serve from disk and refresh the cache in the background
+                        fetchLatestExerciseLog(userId, planId, exerciseId);
+                        return Tasks.forResult(ExerciseLog.fromEntity(cachedLog));
+                    }
+                    return fetchLatestExerciseLog(userId, planId, exerciseId);
+                }));
+    }
+
+    /**
+     * Get the aggregate statistics of an exercise in a plan.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the exercise statistics
+     */
+    @Override
+    public Task<ExerciseStats> getExerciseStats(String planId, String exerciseId) {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return Tasks.forException(new IllegalStateException("User not logged in"));
+        }
+
+        String key = getExercisePath(userId, planId, exerciseId) + "stats";
+        return reads.run(key, () -> statsStore.getStats(userId, planId, exerciseId));
+    }
+
+    /**
+     * Observe the latest exercise log for a specific exercise in a plan.
+     * The local cache is the source of truth: it already holds logs saved on this device, and a
+     * shared snapshot listener writes the newest Firestore log into it. Observers of the same
+     * exercise share one stream, until it is no longer observed.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return LiveData with the latest exercise log, holding null if there is none
+     */
+    @Override
+    public LiveData<ExerciseLog> observeLatestExerciseLog(String planId, String exerciseId) {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return new MutableLiveData<>(null);
+        }
+
+        String key = userId + "/" + planId + "/" + exerciseId;
+        synchronized (latestLogStreams) {
+            LiveData<ExerciseLog> stream = latestLogStreams.get(key);
+            if (stream == null) {
+                stream = createLatestLogStream(key, userId, planId, exerciseId);
+                latestLogStreams.put(key, stream);
+            }
+            return stream;
+        }
+    }
+
+    /**
+     * Build the stream behind observeLatestExerciseLog, which drops itself from the shared
+     * streams once it is no longer observed.
+     *
+     * @param key The key of the stream in the shared streams
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return LiveData with the latest exercise log
+     */
+    private LiveData<ExerciseLog> createLatestLogStream(String key, String userId, String planId,
+                                                        String exerciseId) {
+        // Only feeds the local cache, so it never emits a value of its own
+        LiveData<Void> remoteUpdates = new SnapshotListenerLiveData<Void>() {
+            @Override
+            protected ListenerRegistration addListener() {
+                // Decoded off the main thread, the cache then notifies its observers
+                return logStore.addLatestLogListener(userId, planId, exerciseId, executor, (log, error) -> {
+                    if (error != null) {
+                        Log.w(TAG, "Latest log listener failed for " + exerciseId, error);
+                        return;
                     }
-                    return null;
+                    logCache.insertRemoteLog(log);
+                });
+            }
+        };
+
+        MediatorLiveData<ExerciseLog> latestLog = new SharedMediatorLiveData<ExerciseLog>() {
+            @Override
+            protected void onReleased() {
+                synchronized (latestLogStreams) {
+                    if (latestLogStreams.get(key) == this) {
+                        latestLogStreams.remove(key);
+                    }
+                }
+            }
+        };
+        latestLog.addSource(logCache.observeLatestLog(userId, planId, exerciseId),
+                entity -> latestLog.setValue(entity != null ? ExerciseLog.fromEntity(entity) : null));
+        latestLog.addSource(remoteUpdates, ignored -> { });
+        return latestLog;
+    }
+
+    /**
+     * Fetch the latest exercise log from Firestore and write it through to the local cache.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the latest exercise log, or null if it can't be read
+     */
+    private Task<ExerciseLog> fetchLatestExerciseLog(String userId, String planId, String exerciseId) {
+        return fetchLatestExerciseLog(userId, planId, exerciseId, RequestScope.NONE)
+                .continueWith(task -> task.isSuccessful() ? task.getResult() : null);
+    }
+
+    /**
+     * Fetch the latest exercise log from Firestore for a cancellable request, and write it
+     * through to the local cache.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param token Cancels the fetch if its log query wasn't sent yet
+     * @return Task with the latest exercise log, or null if there is none, failing if it can't be read
+     */
+    private Task<ExerciseLog> fetchLatestExerciseLog(String userId, String planId, String exerciseId,
+                                                     CancellationToken token) {
+        return logStore.getLatestLog(userId, planId, exerciseId, token)
+                .onSuccessTask(executor, log -> {
+                    if (log == null) {
+                        return Tasks.<ExerciseLog>forResult(null);
+                    }
+                    logCache.insertRemoteLog(log);
+                    return Tasks.forResult(ExerciseLog.fromEntity(log));
                 });
     }
 
@@ -302,39 +529,180 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
             return Tasks.forException(new IllegalStateException("User not logged in"));
         }
 
-        return firestore.collection("users")
-                .document(userId)
-                .collection("plans")
-                .document(planId)
-                .collection("exercises")
-                .document(exerciseId)
-                .collection("logs")
-                .orderBy("timestamp", Query.Direction.DESCENDING)
-                .get()
-                .continueWith(task -> {
-                    List<ExerciseLog> logs = new ArrayList<>();
-                    if (task.isSuccessful() && task.getResult() != null) {
-                        QuerySnapshot querySnapshot = task.getResult();
-                        for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                            String logId = document.getId();
-                            Double weight = document.getDouble("weight");
-                            Long reps = document.getLong("reps");
-                            String notes = document.getString("notes");
-                            Date timestamp = document.getDate("timestamp");
-
-                            logs.add(new ExerciseLog(
-                                    logId,
-                                    weight != null ? weight : 0,
-                                    reps != null ? reps.intValue() : 0,
-                                    notes,
-                                    timestamp
-                            ));
+        String key = getExercisePath(userId, planId, exerciseId) + "logs";
+        return reads.run(key, () -> logCache.getLogs(userId, planId, exerciseId)
+                .continueWithTask(executor, cacheTask -> {
+                    List<ExerciseLogEntity> cachedLogs = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+                    if (cachedLogs != null) {
+                        // Serve from disk and refresh the cache in the background
+                        fetchExerciseLogs(userId, planId, exerciseId);
+                        return Tasks.forResult(toExerciseLogs(cachedLogs, cachedLogs.size()));
+                    }
+                    return fetchExerciseLogs(userId, planId, exerciseId);
+                }));
+    }
+
+    /**
+     * Fetch all logs of an exercise from Firestore and write them through to the local cache.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the list of exercise logs
+     */
+    private Task<List<ExerciseLog>> fetchExerciseLogs(String userId, String planId, String exerciseId) {
+        return logStore.getLogs(userId, planId, exerciseId)
+                .continueWith(executor, task -> {
+                    if (!task.isSuccessful()) {
+                        return new ArrayList<>();
+                    }
+                    List<ExerciseLogEntity> entities = task.getResult().getLogs();
+                    entities.sort((first, second) -> Long.compare(second.getTimestamp(), first.getTimestamp()));
+                    logCache.replaceLogs(userId, planId, exerciseId, entities);
+                    return toExerciseLogs(entities, entities.size());
+                });
+    }
+
+    /**
+     * Get one page of logs for a specific exercise, newest first.
+     * Pages come from the local cache once the full history is cached there, otherwise from
+     * Firestore with a cursor on the log timestamp.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Cursor returned by the previous page, or null for the newest page
+     * @param pageSize The maximum number of logs in the page
+     * @param token Cancels the request
+     * @return Task with the page of exercise logs
+     */
+    @Override
+    public Task<ExerciseLogPage> getExerciseLogsPage(String planId, String exerciseId, Long before, int pageSize,
+                                                     CancellationToken token) {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return Tasks.forException(new IllegalStateException("User not logged in"));
+        }
+
+        String key = getExercisePath(userId, planId, exerciseId) + "logs/" + before + "/" + pageSize;
+        Task<ExerciseLogPage> page = reads.run(key,
+                () -> loadExerciseLogsPage(userId, planId, exerciseId, before, pageSize));
+        return RequestScope.bind(page, token);
+    }
+
+    /**
+     * Load one page of logs, from the local cache when it holds the page.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Cursor returned by the previous page, or null for the newest page
+     * @param pageSize The maximum number of logs in the page
+     * @return Task with the page of exercise logs
+     */
+    private Task<ExerciseLogPage> loadExerciseLogsPage(String userId, String planId, String exerciseId,
+                                                       Long before, int pageSize) {
+        long upperBound = before != null ? before : Long.MAX_VALUE;
+        // Ask for one extra log to know whether another page follows
+        return logCache.getLogsBefore(userId, planId, exerciseId, upperBound, pageSize + 1)
+                .continueWithTask(executor, cacheTask -> {
+                    List<ExerciseLogEntity> cachedLogs = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+                    if (cachedLogs != null) {
+                        if (before == null) {
+                            // Refresh the newest page in the background
+                            fetchExerciseLogsPage(userId, planId, exerciseId, null, pageSize);
                         }
+
+                        boolean hasMore = cachedLogs.size() > pageSize;
+                        return Tasks.forResult(new ExerciseLogPage(toExerciseLogs(cachedLogs, pageSize), hasMore));
                     }
-                    return logs;
+                    return fetchExerciseLogsPage(userId, planId, exerciseId, before, pageSize);
                 });
     }
 
+    /**
+     * Fetch one page of logs from Firestore, merged with the pending logs of the same time range.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Cursor returned by the previous page, or null for the newest page
+     * @param pageSize The maximum number of logs in the page
+     * @return Task with the page of exercise logs
+     */
+    private Task<ExerciseLogPage> fetchExerciseLogsPage(String userId, String planId, String exerciseId,
+                                                        Long before, int pageSize) {
+        // Ask for one extra log to know whether another page follows
+        Task<List<ExerciseLogEntity>> remoteLogs = logStore.getLogsBefore(userId, planId, exerciseId, before,
+                pageSize + 1);
+        return remoteLogs.onSuccessTask(executor, storedLogs -> {
+            boolean hasMore = storedLogs.size() > pageSize;
+
+            List<ExerciseLogEntity> entities = hasMore ? new ArrayList<>(storedLogs.subList(0, pageSize)) : storedLogs;
+            List<ExerciseLog> logs = toExerciseLogs(entities, pageSize);
+
+            if (before == null && !hasMore) {
+                // The whole history fits in this page, so the cache can serve it from now on
+                logCache.replaceLogs(userId, planId, exerciseId, entities);
+            } else {
+                logCache.insertRemoteLogs(entities);
+            }
+
+            // Logs still waiting in the outbox are not in Firestore yet
+            ExerciseLogPage page = new ExerciseLogPage(logs, hasMore);
+            long upperBound = before != null ? before : Long.MAX_VALUE;
+            long lowerBound = hasMore ? page.getNextCursor() : Long.MIN_VALUE;
+            return logCache.getPendingLogsBetween(userId, planId, exerciseId, upperBound, lowerBound)
+                    .continueWith(executor, pendingTask -> {
+                        if (!pendingTask.isSuccessful() || pendingTask.getResult().isEmpty()) {
+                            return page;
+                        }
+                        return new ExerciseLogPage(mergePendingLogs(logs, pendingTask.getResult()), hasMore);
+                    });
+        });
+    }
+
+    /**
+     * Merge pending logs into logs read from Firestore. A pending log replaces the Firestore copy
+     * with the same ID, and the result stays ordered newest first.
+     *
+     * @param logs The logs read from Firestore, newest first
+     * @param pendingLogs The pending logs of the same time range
+     * @return The merged logs
+     */
+    private List<ExerciseLog> mergePendingLogs(List<ExerciseLog> logs, List<ExerciseLogEntity> pendingLogs) {
+        Map<String, ExerciseLog> logsById = new HashMap<>();
+        for (ExerciseLog log : logs) {
+            logsById.put(log.getId(), log);
+        }
+        for (ExerciseLogEntity pendingLog : pendingLogs) {
+            logsById.put(pendingLog.getLogId(), ExerciseLog.fromEntity(pendingLog));
+        }
+
+        List<ExerciseLog> merged = new ArrayList<>(logsById.values());
+        merged.sort((first, second) -> Long.compare(getTime(second), getTime(first)));
+        return merged;
+    }
+
+    /**
+     * Convert cached logs, keeping their order.
+     *
+     * @param entities The cached logs
+     * @param limit The maximum number of logs to convert
+     * @return The converted logs
+     */
+    private List<ExerciseLog> toExerciseLogs(List<ExerciseLogEntity> entities, int limit) {
+        executor.assertNotMainThread("WorkoutRepository.toExerciseLogs");
+        List<ExerciseLog> logs = new ArrayList<>(Math.min(entities.size(), limit));
+        for (int i = 0; i < entities.size() && i < limit; i++) {
+            logs.add(ExerciseLog.fromEntity(entities.get(i)));
+        }
+        return logs;
+    }
+
+    private static long getTime(ExerciseLog log) {
+        return log.getTimestamp() != null ? log.getTimestamp().getTime() : 0;
+    }
+
     /**
      * Save a new exercise log for a specific exercise in a plan.
      *
@@ -343,7 +711,7 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
      * @param weight The weight used
      * @param reps The number of reps completed
      * @param notes Optional notes about the exercise
-     * @return Task indicating success or failure
+     * @return Task that completes once the log is stored on this device
      */
     @Override
     public Task<Void> saveExerciseLog(String planId, String exerciseId, double weight, int reps, String notes) {
@@ -352,26 +720,18 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
             return Tasks.forException(new IllegalStateException("User not logged in"));
         }
 
-        // Create a new document with the current timestamp as the ID
-        String timestamp = String.valueOf(new Date().getTime());
-        DocumentReference logRef = firestore.collection("users")
-                .document(userId)
-                .collection("plans")
-                .document(planId)
-                .collection("exercises")
-                .document(exerciseId)
-                .collection("logs")
-                .document(timestamp);
-
-        // Create the log data
-        Map<String, Object> logData = new HashMap<>();
-        logData.put("weight", weight);
-        logData.put("reps", reps);
-        logData.put("notes", notes);
-        logData.put("timestamp", new Date());
-
-        // Save the log to Firestore
-        return logRef.set(logData);
+        // Store the log locally with the current timestamp as the ID and let the outbox push it
+        Date now = new Date();
+        String logId = String.valueOf(now.getTime());
+        ExerciseLog savedLog = new ExerciseLog(logId, weight, reps, notes, now);
+
+        String path = getExercisePath(userId, planId, exerciseId);
+        reads.invalidatePrefix(path);
+        return Tasks.whenAll(
+                logCache.insertPendingLog(toLogEntity(userId, planId, exerciseId, savedLog)),
+                planStore.updateLastTry(userId, planId, exerciseId, weight, reps)
+        ).addOnCompleteListener(task -> reads.invalidatePrefix(path))
+                .addOnSuccessListener(aVoid -> outbox.requestFlush());
     }
 
     /**
@@ -383,7 +743,7 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
      * @param weight The weight used
      * @param reps The number of reps completed
      * @param notes Optional notes about the exercise
-     * @return Task indicating success or failure
+     * @return Task that completes once the change is stored on this device
      */
     @Override
     public Task<Void> updateExerciseLog(String planId, String exerciseId, String logId, double weight, int reps, String notes) {
@@ -392,25 +752,151 @@ public class WorkoutRepositoryImpl implements WorkoutRepository {
             return Tasks.forException(new IllegalStateException("User not logged in"));
         }
 
-        DocumentReference logRef = firestore.collection("users")
-                .document(userId)
-                .collection("plans")
-                .document(planId)
-                .collection("exercises")
-                .document(exerciseId)
-                .collection("logs")
-                .document(logId);
+        String path = getExercisePath(userId, planId, exerciseId);
+        reads.invalidatePrefix(path);
+        return logCache.updatePendingLog(userId, planId, exerciseId, logId, weight, reps, notes)
+                .continueWithTask(executor, cacheTask -> {
+                    ExerciseLogEntity updatedLog = cacheTask.isSuccessful() ? cacheTask.getResult() : null;
+                    if (updatedLog == null) {
+                        // The log is not stored on this device, so it can't go through the outbox
+                        return updateRemoteExerciseLog(userId, planId, exerciseId, logId, weight, reps, notes);
+                    }
+
+                    outbox.requestFlush();
+                    return logCache.getLatestLog(userId, planId, exerciseId).onSuccessTask(latestLog -> {
+                        if (latestLog != null && logId.equals(latestLog.getLogId())) {
+                            return planStore.updateLastTry(userId, planId, exerciseId, weight, reps);
+                        }
+                        return Tasks.<Void>forResult(null);
+                    });
+                })
+                .addOnCompleteListener(task -> reads.invalidatePrefix(path));
+    }
+
+    /**
+     * Update an exercise log directly in Firestore.
+     *
+     * @param userId The user ID
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param logId The log ID
+     * @param weight The weight used
+     * @param reps The number of reps completed
+     * @param notes Optional notes about the exercise
+     * @return Task indicating success or failure
+     */
+    private Task<Void> updateRemoteExerciseLog(String userId, String planId, String exerciseId, String logId,
+                                               double weight, int reps, String notes) {
+        DocumentReference planRef = getPlanReference(userId, planId);
+        // Log IDs are their creation time, which names the monthly document holding the log
+        long created = ExerciseLogBucketCodec.getCreationTime(logId);
 
         // Create the updated log data
         Map<String, Object> logData = new HashMap<>();
-        logData.put("weight", weight);
-        logData.put("reps", reps);
-        logData.put("notes", notes);
+        logData.put(ExerciseLogCodec.FIELD_WEIGHT, weight);
+        logData.put(ExerciseLogCodec.FIELD_REPS, reps);
+        logData.put(ExerciseLogCodec.FIELD_NOTES, notes);
+        logData.put(ExerciseLogCodec.FIELD_UPDATED_AT, FieldValue.serverTimestamp());
         // Don't update the timestamp for edits
 
-        // Update the log in Firestore
-        return logRef.update(logData);
+        // Update the log, the exercise statistics, and the plan's summary too if this log is the
+        // latest one
+        DocumentReference exerciseRef = statsStore.getReference(userId, planId, exerciseId);
+        return firestore.runTransaction(transaction -> {
+            DocumentSnapshot plan = transaction.get(planRef);
+            DocumentSnapshot exercise = transaction.get(exerciseRef);
+            boolean compacted = logStore.isCompacted(exercise);
+            Map<String, Object> storedData = compacted && created < 0 ? null
+                    : logStore.readLog(transaction, userId, planId, exerciseId, logId, created, compacted);
+            if (storedData == null) {
+                throw new FirebaseFirestoreException("Exercise log " + logId + " not found",
+                        FirebaseFirestoreException.Code.NOT_FOUND);
+            }
+            ExerciseStats stats = statsStore.decode(exercise);
+            logStore.updateLog(transaction, userId, planId, exerciseId, logId, created, logData, compacted);
+
+            RemoteLogUpdate update = new RemoteLogUpdate();
+            if (plan.exists()) {
+                Map<String, Object> latestLogs = DocumentValues.getMap(plan.getData(), FIELD_LATEST_LOGS);
+                Map<String, Object> latestLog = latestLogs != null ? DocumentValues.getMap(latestLogs, exerciseId) : null;
+                if (latestLog != null && logId.equals(latestLog.get(ExerciseLogCodec.FIELD_LOG_ID))) {
+                    long logMillis = DocumentValues.getMillis(latestLog, ExerciseLogCodec.FIELD_TIMESTAMP, -1);
+                    Date logDate = logMillis >= 0 ? new Date(logMillis) : null;
+                    transaction.update(planRef, FieldPath.of(FIELD_LATEST_LOGS, exerciseId),
+                            ExerciseLogCodec.encodeSummary(logId, weight, reps, logDate));
+                    update.latest = true;
+                }
+            }
+
+            if (stats != null && stats.replaceLog(logId,
+                    DocumentValues.getDouble(storedData, ExerciseLogCodec.FIELD_WEIGHT, 0),
+                    DocumentValues.getInt(storedData, ExerciseLogCodec.FIELD_REPS, 0),
+                    weight, reps, DocumentValues.getMillis(storedData, ExerciseLogCodec.FIELD_TIMESTAMP, 0))) {
+                statsStore.write(transaction, exerciseRef, stats);
+            } else {
+                update.staleStats = true;
+            }
+            return update;
+        }).onSuccessTask(update -> {
+            if (update.staleStats) {
+                statsStore.rebuild(userId, planId, exerciseId)
+                        .addOnFailureListener(e -> Log.w(TAG, "Failed to rebuild exercise statistics", e));
+            }
+            if (!update.latest) {
+                return Tasks.<Void>forResult(null);
+            }
+            return writeToCache(planStore.updateLastTry(userId, planId, exerciseId, weight, reps));
+        });
     }
 
+    /**
+     * What a remote log update changed besides the log itself.
+     */
+    private static final class RemoteLogUpdate {
+        // The log is the latest one of its exercise, so the plan's summary was updated
+        boolean latest;
+        // The statistics could not be updated in place and have to be rebuilt
+        boolean staleStats;
+    }
+
+    /**
+     * Wait for local cache writes that follow a successful Firestore write.
+     * The remote write already succeeded, so cache failures are not reported to the caller.
+     *
+     * @param cacheTasks The cache write tasks
+     * @return Task that completes when all cache writes finished
+     */
+    private Task<Void> writeToCache(Task<?>... cacheTasks) {
+        return Tasks.whenAll(cacheTasks).continueWith(task -> null);
+    }
 
-}
\ No newline at end of file
+    /**
+     * Convert a shared plan document to this feature's WorkoutPlan.
+     */
+    private WorkoutPlan toWorkoutPlan(PlanDocument document) {
+        WorkoutPlan plan = new WorkoutPlan();
+        plan.setId(document.getId());
+        plan.setName(document.getName());
+        plan.setDescription(document.getDescription());
+        plan.setDifficulty(document.getDifficulty());
+        plan.setDaysPerWeek(document.getDaysPerWeek());
+        plan.setDurationWeeks(document.getDurationWeeks());
+        return plan;
+    }
+
+    /**
+     * Convert an ExerciseLog to a cache entity.
+     */
+    private ExerciseLogEntity toLogEntity(String userId, String planId, String exerciseId, ExerciseLog log) {
+        ExerciseLogEntity entity = new ExerciseLogEntity();
+        entity.setOwnerId(userId);
+        entity.setPlanId(planId);
+        entity.setExerciseId(exerciseId);
+        entity.setLogId(log.getId());
+        entity.setWeight(log.getWeight());
+        entity.setReps(log.getReps());
+        entity.setNotes(log.getNotes());
+        entity.setTimestamp(log.getTimestamp() != null ? log.getTimestamp().getTime() : 0);
+        return entity;
+    }
+}
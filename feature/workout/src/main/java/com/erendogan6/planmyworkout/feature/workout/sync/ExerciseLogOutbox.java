@@ -0,0 +1,342 @@
+package com.erendogan6.planmyworkout.feature.workout.sync;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.erendogan6.planmyworkout.core.cache.ExerciseLogCache;
+import com.erendogan6.planmyworkout.core.database.entity.ExerciseLogEntity;
+import com.erendogan6.planmyworkout.core.database.model.PendingExerciseLog;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogCodec;
+import com.erendogan6.planmyworkout.core.log.ExerciseLogStore;
+import com.erendogan6.planmyworkout.core.log.ExerciseStatsStore;
+import com.erendogan6.planmyworkout.core.log.ExerciseStatsUpdate;
+import com.erendogan6.planmyworkout.core.plan.PlanDocumentCodec;
+import com.erendogan6.planmyworkout.core.util.FirestoreManager;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Pushes exercise logs that were saved on this device to Firestore.
+ * Pending logs are committed together in a single batch that also updates the statistics of
+ * their exercises, and failed flushes are retried with exponential backoff. The batch is built
+ * from reads made in parallel beforehand: each log is written in the layout its exercise document
+ * names, and the cache tells whether a log is new or an edit, so no log has to be read from
+ * Firestore. A batch only commits once the server has it, so while offline a flush waits rather
+ * than fails. All state is confined to the main thread.
+ */
+@Singleton
+public class ExerciseLogOutbox {
+
+    private static final String TAG = "ExerciseLogOutbox";
+    private static final String FIELD_LATEST_LOGS = PlanDocumentCodec.FIELD_LATEST_LOGS;
+
+    // Each log takes at most two writes plus one for the statistics of its exercise, which keeps
+    // a flush below the 500 write limit
+    private static final int MAX_LOGS_PER_BATCH = 150;
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 5 * 60 * 1_000;
+
+    private final FirebaseFirestore firestore;
+    private final FirestoreManager firestoreManager;
+    private final ExerciseLogCache logCache;
+    private final ExerciseStatsStore statsStore;
+    private final ExerciseLogStore logStore;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    private boolean flushing;
+    private boolean flushRequested;
+    private int failedAttempts;
+
+    @Inject
+    public ExerciseLogOutbox(FirebaseFirestore firestore, FirestoreManager firestoreManager,
+                             ExerciseLogCache logCache, ExerciseStatsStore statsStore,
+                             ExerciseLogStore logStore) {
+        this.firestore = firestore;
+        this.firestoreManager = firestoreManager;
+        this.logCache = logCache;
+        this.statsStore = statsStore;
+        this.logStore = logStore;
+    }
+
+    /**
+     * Request a flush of all pending logs. Requests made while a flush is running are coalesced
+     * into a single follow-up flush. Safe to call from any thread.
+     */
+    public void requestFlush() {
+        handler.post(() -> {
+            if (flushing) {
+                flushRequested = true;
+                return;
+            }
+            // A new log should not wait for the backoff of an earlier failure
+            handler.removeCallbacks(flushRunnable);
+            flush();
+        });
+    }
+
+    private void flush() {
+        String userId = firestoreManager.getCurrentUserId();
+        if (userId == null) {
+            return;
+        }
+
+        flushing = true;
+        flushRequested = false;
+        logCache.getPendingLogs(userId, MAX_LOGS_PER_BATCH)
+                .onSuccessTask(pendingLogs -> {
+                    if (pendingLogs.isEmpty()) {
+                        return Tasks.<Void>forResult(null);
+                    }
+
+                    // More logs may be waiting behind this batch
+                    if (pendingLogs.size() == MAX_LOGS_PER_BATCH) {
+                        flushRequested = true;
+                    }
+                    return prepare(userId, pendingLogs)
+                            .onSuccessTask(flushState -> {
+                                WriteBatch batch = firestore.batch();
+                                FlushResult result = writeLogs(batch, userId, flushState);
+                                return batch.commit().onSuccessTask(committed -> {
+                                    for (ExerciseLogEntity log : result.staleExercises) {
+                                        rebuildStats(userId, log);
+                                    }
+                                    List<Task<Void>> cacheWrites = new ArrayList<>();
+                                    cacheWrites.add(logCache.markSynced(result.writtenLogs));
+                                    for (String planId : result.deletedPlans) {
+                                        // Nothing can be written for a deleted plan, so drop its logs
+                                        Log.w(TAG, "Dropping pending logs of deleted plan " + planId);
+                                        cacheWrites.add(logCache.deletePlanLogs(userId, planId));
+                                    }
+                                    return Tasks.whenAll(cacheWrites);
+                                });
+                            });
+                })
+                .addOnCompleteListener(task -> {
+                    flushing = false;
+                    if (task.isSuccessful()) {
+                        failedAttempts = 0;
+                        if (flushRequested) {
+                            flush();
+                        }
+                    } else {
+                        Log.w(TAG, "Failed to flush pending exercise logs", task.getException());
+                        scheduleRetry();
+                    }
+                });
+    }
+
+    private void scheduleRetry() {
+        long delay = Math.min(INITIAL_BACKOFF_MS << Math.min(failedAttempts, 16), MAX_BACKOFF_MS);
+        failedAttempts++;
+        handler.removeCallbacks(flushRunnable);
+        handler.postDelayed(flushRunnable, delay);
+    }
+
+    /**
+     * Read what a flush needs before it writes, all reads running in parallel: whether each plan
+     * still exists, the exercise document of each exercise, and, for logs that were never pushed,
+     * the copy in the Firestore cache that a commit the cache didn't record may have left.
+     *
+     * @param userId The user ID
+     * @param pendingLogs The pending logs
+     * @return Task with the reads, failing if an exercise document can't be read
+     */
+    private Task<FlushState> prepare(String userId, List<PendingExerciseLog> pendingLogs) {
+        FlushState state = new FlushState(pendingLogs);
+        List<Task<?>> planReads = new ArrayList<>();
+        List<Task<?>> exerciseReads = new ArrayList<>();
+        for (PendingExerciseLog pendingLog : pendingLogs) {
+            ExerciseLogEntity log = pendingLog.log;
+            String planId = log.getPlanId();
+            if (!state.plans.containsKey(planId)) {
+                // A plan that can't be read counts as existing; if it is gone, the commit fails
+                state.plans.put(planId, true);
+                planReads.add(getPlanReference(userId, log).get()
+                        .addOnSuccessListener(plan -> state.plans.put(planId, plan.exists())));
+            }
+
+            String key = getExerciseKey(log);
+            if (!state.exercises.containsKey(key)) {
+                state.exercises.put(key, null);
+                exerciseReads.add(statsStore.getExercise(userId, planId, log.getExerciseId())
+                        .onSuccessTask(exercise -> {
+                            state.exercises.put(key, exercise);
+                            state.compacted.put(key, logStore.isCompacted(exercise));
+                            return readCachedLogs(userId, state, key);
+                        }));
+            }
+        }
+
+        return Tasks.whenAllComplete(planReads)
+                .continueWithTask(plans -> Tasks.whenAll(exerciseReads))
+                .onSuccessTask(read -> Tasks.forResult(state));
+    }
+
+    /**
+     * Read the cached copies of the logs of an exercise that were never pushed.
+     */
+    private Task<Void> readCachedLogs(String userId, FlushState state, String key) {
+        boolean compacted = state.compacted.get(key);
+        List<Task<?>> reads = new ArrayList<>();
+        for (PendingExerciseLog pendingLog : state.pendingLogs) {
+            ExerciseLogEntity log = pendingLog.log;
+            if (!log.isPushed() && key.equals(getExerciseKey(log))) {
+                reads.add(logStore.getCachedLog(userId, log, compacted).addOnSuccessListener(cached -> {
+                    if (cached != null) {
+                        state.cachedLogs.put(log.getLogId(), cached);
+                    }
+                }));
+            }
+        }
+        return Tasks.whenAll(reads);
+    }
+
+    /**
+     * Add pending logs and the changes to the statistics of their exercises to a batch.
+     * A log that was pushed before is an edit, so the values it was pushed with are taken out of
+     * the statistics before the new ones are added. Logs of plans that no longer exist are left
+     * out, so they can't fail the whole flush on every retry.
+     *
+     * @param batch The batch
+     * @param userId The user ID
+     * @param state The reads of the flush
+     * @return What the flush has to do once the batch is committed
+     */
+    private FlushResult writeLogs(WriteBatch batch, String userId, FlushState state) {
+        FlushResult result = new FlushResult();
+        for (Map.Entry<String, Boolean> plan : state.plans.entrySet()) {
+            if (!plan.getValue()) {
+                result.deletedPlans.add(plan.getKey());
+            }
+        }
+
+        Map<String, ExerciseStatsUpdate> updates = new LinkedHashMap<>();
+        Map<String, ExerciseLogEntity> exercises = new HashMap<>();
+        for (PendingExerciseLog pendingLog : state.pendingLogs) {
+            ExerciseLogEntity log = pendingLog.log;
+            if (!state.plans.get(log.getPlanId())) {
+                continue;
+            }
+            String key = getExerciseKey(log);
+            addWrites(batch, userId, pendingLog, state.compacted.get(key));
+            result.writtenLogs.add(log);
+
+            ExerciseStatsUpdate update = updates.get(key);
+            if (update == null) {
+                update = new ExerciseStatsUpdate(state.exercises.get(key).getData());
+                updates.put(key, update);
+                exercises.put(key, log);
+            }
+            ExerciseLogEntity cached = state.cachedLogs.get(log.getLogId());
+            if (log.isPushed() && log.getPushedReps() < 0) {
+                // Pushed before the pushed values were recorded, so they are unknown
+                update.markStale();
+            } else if (log.isPushed()) {
+                update.replaceLog(log.getLogId(), log.getPushedWeight(), log.getPushedReps(),
+                        log.getWeight(), log.getReps(), log.getTimestamp());
+            } else if (cached != null) {
+                update.replaceLog(log.getLogId(), cached.getWeight(), cached.getReps(),
+                        log.getWeight(), log.getReps(), log.getTimestamp());
+            } else {
+                update.addLog(log.getLogId(), log.getWeight(), log.getReps(), log.getTimestamp());
+            }
+        }
+
+        for (Map.Entry<String, ExerciseStatsUpdate> update : updates.entrySet()) {
+            ExerciseLogEntity log = exercises.get(update.getKey());
+            statsStore.write(batch, statsStore.getReference(userId, log.getPlanId(), log.getExerciseId()),
+                    update.getValue());
+            if (update.getValue().isStale()) {
+                result.staleExercises.add(log);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add the writes of a pending log to a batch.
+     *
+     * @param batch The batch to add the writes to
+     * @param userId The user ID
+     * @param pendingLog The pending log
+     * @param compacted Whether the exercise of the log uses the monthly layout
+     */
+    private void addWrites(WriteBatch batch, String userId, PendingExerciseLog pendingLog, boolean compacted) {
+        ExerciseLogEntity log = pendingLog.log;
+        logStore.writeLog(batch, userId, log, compacted);
+
+        if (pendingLog.latest) {
+            Map<String, Object> summary = ExerciseLogCodec.encodeSummary(log.getLogId(), log.getWeight(),
+                    log.getReps(), new Date(log.getTimestamp()));
+            batch.update(getPlanReference(userId, log), FieldPath.of(FIELD_LATEST_LOGS, log.getExerciseId()),
+                    summary);
+        }
+    }
+
+    /**
+     * What a flush read before writing, filled in on the main thread as the reads complete.
+     */
+    private static final class FlushState {
+        final List<PendingExerciseLog> pendingLogs;
+        // Whether each plan still exists
+        final Map<String, Boolean> plans = new HashMap<>();
+        // The exercise document of each exercise, by plan and exercise ID
+        final Map<String, DocumentSnapshot> exercises = new HashMap<>();
+        // Whether each exercise uses the monthly layout
+        final Map<String, Boolean> compacted = new HashMap<>();
+        // Cached copies of logs that were never pushed, by log ID
+        final Map<String, ExerciseLogEntity> cachedLogs = new HashMap<>();
+
+        FlushState(List<PendingExerciseLog> pendingLogs) {
+            this.pendingLogs = pendingLogs;
+        }
+    }
+
+    /**
+     * What a flush has to do once its batch is committed.
+     */
+    private static final class FlushResult {
+        // The logs in the batch
+        final List<ExerciseLogEntity> writtenLogs = new ArrayList<>();
+        // One log of each exercise whose statistics could not be updated in place
+        final List<ExerciseLogEntity> staleExercises = new ArrayList<>();
+        // Plans that no longer exist, so their pending logs were not written
+        final List<String> deletedPlans = new ArrayList<>();
+    }
+
+    /**
+     * Rebuild the statistics of an exercise from its logs after a flush.
+     */
+    private void rebuildStats(String userId, ExerciseLogEntity log) {
+        statsStore.rebuild(userId, log.getPlanId(), log.getExerciseId())
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to rebuild exercise statistics", e));
+    }
+
+    private DocumentReference getPlanReference(String userId, ExerciseLogEntity log) {
+        return firestore.collection("users")
+                .document(userId)
+                .collection("plans")
+                .document(log.getPlanId());
+    }
+
+    private static String getExerciseKey(ExerciseLogEntity log) {
+        return log.getPlanId() + "/" + log.getExerciseId();
+    }
+}
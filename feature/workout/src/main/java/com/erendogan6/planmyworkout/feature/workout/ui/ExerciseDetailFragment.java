@@ -15,9 +15,13 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 
+import com.erendogan6.planmyworkout.core.log.ExerciseStats;
+import com.erendogan6.planmyworkout.core.model.UiState;
 import com.erendogan6.planmyworkout.coreui.base.BaseFragment;
 
 import com.erendogan6.planmyworkout.feature.workout.databinding.FragmentExerciseDetailBinding;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseDetailState;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
 import com.erendogan6.planmyworkout.feature.workout.viewmodel.ExerciseDetailViewModel;
 
 import dagger.hilt.android.AndroidEntryPoint;
@@ -30,6 +34,7 @@ public class ExerciseDetailFragment extends BaseFragment {
 
     private FragmentExerciseDetailBinding binding;
     private ExerciseDetailViewModel viewModel;
+    private UiState<ExerciseDetailState> rendered;
 
     @Nullable
     @Override
@@ -90,86 +95,87 @@ public class ExerciseDetailFragment extends BaseFragment {
     }
 
     private void observeViewModel() {
-        // Observe exercise
-        viewModel.getExercise().observe(getViewLifecycleOwner(), exercise -> {
-            if (exercise != null) {
-                binding.tvExerciseName.setText(exercise.getName());
-            }
-        });
+        viewModel.getState().observe(getViewLifecycleOwner(), this::render);
+    }
 
-        // Observe latest log
-        viewModel.getLatestLog().observe(getViewLifecycleOwner(), log -> {
-            if (log != null) {
-                // Set last try text with formatted date
-                binding.tvLastTry.setText(String.format("Last Try: %.1f kg × %d on %s",
-                        log.getWeight(), log.getReps(), log.getFormattedDate()));
-
-                // Show notes if available
-                if (log.getNotes() != null && !log.getNotes().isEmpty()) {
-                    binding.tvLastNotes.setVisibility(View.VISIBLE);
-                    binding.tvLastNotes.setText(log.getNotes());
-                } else {
-                    binding.tvLastNotes.setVisibility(View.GONE);
-                }
+    private void render(UiState<ExerciseDetailState> state) {
+        ExerciseDetailState detail = state.getData();
+        ExerciseDetailState previous = rendered != null ? rendered.getData() : null;
+        rendered = state;
 
-                // Pre-fill the input fields with the last values
-                binding.etWeight.setText(String.format("%.1f", log.getWeight()));
-                binding.etReps.setText(String.valueOf(log.getReps()));
+        if (detail.getExercise() != null) {
+            binding.tvExerciseName.setText(detail.getExercise().getName());
+        }
 
-                // Show the last try section
-                binding.layoutLastTry.setVisibility(View.VISIBLE);
-            } else {
-                // No previous log
-                binding.tvLastTry.setText("No previous attempts");
-                binding.tvLastNotes.setVisibility(View.GONE);
-                binding.layoutLastTry.setVisibility(View.VISIBLE);
-            }
-        });
+        // Only a new latest log is rendered, so typed values survive other changes
+        if (detail.isLatestLogLoaded() && (previous == null || !previous.isLatestLogLoaded()
+                || previous.getLatestLog() != detail.getLatestLog())) {
+            renderLatestLog(detail.getLatestLog());
+        }
 
-        // Observe loading state
-        viewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
-            if (isLoading) {
-                showLoading();
-            } else {
-                hideLoading();
-            }
-        });
+        ExerciseStats stats = detail.getStats();
+        if (stats != null && stats.getLogCount() > 0) {
+            binding.tvStats.setText(String.format("Best: %.1f kg · Est. 1RM: %.1f kg · %d sessions · %d sets",
+                    stats.getBestWeight(), stats.getBestOneRepMax(), stats.getSessionCount(),
+                    stats.getLogCount()));
+            binding.tvStats.setVisibility(View.VISIBLE);
+        } else {
+            binding.tvStats.setVisibility(View.GONE);
+        }
 
-        // Observe saving state
-        viewModel.getIsSaving().observe(getViewLifecycleOwner(), isSaving -> {
-            if (Boolean.TRUE.equals(isSaving)) {
-                showLoading();
-                binding.btnSave.setEnabled(false);
-                binding.etWeight.setEnabled(false);
-                binding.etReps.setEnabled(false);
-                binding.etNotes.setEnabled(false);
+        if (state.isLoading() || state.isBusy()) {
+            showLoading();
+        } else {
+            hideLoading();
+        }
+        boolean editable = !state.isBusy();
+        binding.btnSave.setEnabled(editable);
+        binding.etWeight.setEnabled(editable);
+        binding.etReps.setEnabled(editable);
+        binding.etNotes.setEnabled(editable);
+
+        UiState.Message message = state.getMessage();
+        if (message != null) {
+            if (message.isError()) {
+                Toast.makeText(requireContext(), message.getText(), Toast.LENGTH_LONG).show();
             } else {
-                hideLoading();
-                binding.btnSave.setEnabled(true);
-                binding.etWeight.setEnabled(true);
-                binding.etReps.setEnabled(true);
-                binding.etNotes.setEnabled(true);
-            }
-        });
-
-        // Observe save success
-        viewModel.getSaveSuccess().observe(getViewLifecycleOwner(), success -> {
-            if (Boolean.TRUE.equals(success)) {
-                Toast.makeText(requireContext(), "Exercise log saved successfully", Toast.LENGTH_SHORT).show();
+                Toast.makeText(requireContext(), message.getText(), Toast.LENGTH_SHORT).show();
 
                 // Clear input fields
                 binding.etWeight.setText("");
                 binding.etReps.setText("");
                 binding.etNotes.setText("");
             }
-        });
+            viewModel.onMessageShown(message);
+        }
+    }
+
+    private void renderLatestLog(ExerciseLog log) {
+        if (log != null) {
+            // Set last try text with formatted date
+            binding.tvLastTry.setText(String.format("Last Try: %.1f kg × %d on %s",
+                    log.getWeight(), log.getReps(), log.getFormattedDate()));
 
-        // Observe error message
-        viewModel.getErrorMessage().observe(getViewLifecycleOwner(), errorMessage -> {
-            if (errorMessage != null && !errorMessage.isEmpty()) {
-                Toast.makeText(requireContext(), errorMessage, Toast.LENGTH_LONG).show();
+            // Show notes if available
+            if (log.getNotes() != null && !log.getNotes().isEmpty()) {
+                binding.tvLastNotes.setVisibility(View.VISIBLE);
+                binding.tvLastNotes.setText(log.getNotes());
+            } else {
+                binding.tvLastNotes.setVisibility(View.GONE);
             }
-        });
+
+            // Pre-fill the input fields with the last values
+            binding.etWeight.setText(String.format("%.1f", log.getWeight()));
+            binding.etReps.setText(String.valueOf(log.getReps()));
+
+            // Show the last try section
+            binding.layoutLastTry.setVisibility(View.VISIBLE);
+        } else {
+            // No previous log
+            binding.tvLastTry.setText("No previous attempts");
+            binding.tvLastNotes.setVisibility(View.GONE);
+            binding.layoutLastTry.setVisibility(View.VISIBLE);
+        }
     }
 
     private void saveExerciseLog() {
@@ -207,5 +213,6 @@ public class ExerciseDetailFragment extends BaseFragment {
     public void onDestroyView() {
         super.onDestroyView();
         binding = null;
+        rendered = null;
     }
 }
@@ -12,6 +12,7 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.erendogan6.planmyworkout.coreui.base.BaseFragment;
 
@@ -20,8 +21,6 @@ import com.erendogan6.planmyworkout.feature.workout.databinding.FragmentExercise
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
 import com.erendogan6.planmyworkout.feature.workout.viewmodel.ExerciseHistoryViewModel;
 
-import java.util.ArrayList;
-
 import dagger.hilt.android.AndroidEntryPoint;
 
 /**
@@ -30,6 +29,9 @@ import dagger.hilt.android.AndroidEntryPoint;
 @AndroidEntryPoint
 public class ExerciseHistoryFragment extends BaseFragment implements ExerciseLogAdapter.OnLogSelectedListener {
 
+    // Number of rows left below the screen when the next page is requested
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     private FragmentExerciseHistoryBinding binding;
     private ExerciseHistoryViewModel viewModel;
     private ExerciseLogAdapter adapter;
@@ -68,9 +70,21 @@ public class ExerciseHistoryFragment extends BaseFragment implements ExerciseLog
     }
 
     private void setupRecyclerView() {
-        binding.rvLogs.setLayoutManager(new LinearLayoutManager(requireContext()));
-        adapter = new ExerciseLogAdapter(new ArrayList<>(), this);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        binding.rvLogs.setLayoutManager(layoutManager);
+        adapter = new ExerciseLogAdapter(this);
         binding.rvLogs.setAdapter(adapter);
+
+        // Load the next page when the list gets close to its end
+        binding.rvLogs.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= adapter.getItemCount() - 1 - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMoreLogs();
+                }
+            }
+        });
     }
 
     private void observeViewModel() {
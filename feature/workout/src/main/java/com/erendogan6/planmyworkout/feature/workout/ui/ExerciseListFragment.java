@@ -6,6 +6,8 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Toast;
 
+import java.util.List;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
@@ -13,15 +15,16 @@ import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.erendogan6.planmyworkout.core.model.UiState;
 import com.erendogan6.planmyworkout.coreui.base.BaseFragment;
 
 import com.erendogan6.planmyworkout.feature.workout.adapter.ExerciseListAdapter;
 import com.erendogan6.planmyworkout.feature.workout.databinding.FragmentExerciseListBinding;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseListState;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
+import com.erendogan6.planmyworkout.feature.workout.model.WorkoutPlan;
 import com.erendogan6.planmyworkout.feature.workout.viewmodel.ExerciseListViewModel;
 
-import java.util.ArrayList;
-
 import dagger.hilt.android.AndroidEntryPoint;
 
 /**
@@ -72,43 +75,42 @@ public class ExerciseListFragment extends BaseFragment implements ExerciseListAd
 
     private void setupRecyclerView() {
         binding.rvExercises.setLayoutManager(new LinearLayoutManager(requireContext()));
-        adapter = new ExerciseListAdapter(new ArrayList<>(), this);
+        adapter = new ExerciseListAdapter(this);
         binding.rvExercises.setAdapter(adapter);
     }
 
     private void observeViewModel() {
-        // Observe workout plan
-        viewModel.getWorkoutPlan().observe(getViewLifecycleOwner(), plan -> {
-            if (plan != null) {
-                binding.tvPlanTitle.setText(plan.getName());
-            }
-        });
+        viewModel.getState().observe(getViewLifecycleOwner(), this::render);
+    }
+
+    private void render(UiState<ExerciseListState> state) {
+        WorkoutPlan plan = state.getData().getPlan();
+        if (plan != null) {
+            binding.tvPlanTitle.setText(plan.getName());
+        }
+
+        List<ExerciseWithProgress> exercises = state.getData().getExercises();
+        if (exercises != null) {
+            adapter.updateExercises(exercises);
+        }
 
-        // Observe exercises
-        viewModel.getExercises().observe(getViewLifecycleOwner(), exercises -> {
+        if (state.isLoading()) {
+            showLoading();
+            binding.rvExercises.setVisibility(View.GONE);
+        } else {
+            hideLoading();
             if (exercises != null) {
-                adapter.updateExercises(exercises);
                 updateEmptyState(exercises.isEmpty());
-            }
-        });
-
-        // Observe loading state
-        viewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
-            if (Boolean.TRUE.equals(isLoading)) {
-                showLoading();
-                binding.rvExercises.setVisibility(View.GONE);
             } else {
-                hideLoading();
                 binding.rvExercises.setVisibility(View.VISIBLE);
             }
-        });
+        }
 
-        // Observe error messages
-        viewModel.getErrorMessage().observe(getViewLifecycleOwner(), errorMessage -> {
-            if (errorMessage != null && !errorMessage.isEmpty()) {
-                Toast.makeText(requireContext(), errorMessage, Toast.LENGTH_LONG).show();
-            }
-        });
+        UiState.Message message = state.getMessage();
+        if (message != null) {
+            Toast.makeText(requireContext(), message.getText(), Toast.LENGTH_LONG).show();
+            viewModel.onMessageShown(message);
+        }
     }
 
     private void updateEmptyState(boolean isEmpty) {
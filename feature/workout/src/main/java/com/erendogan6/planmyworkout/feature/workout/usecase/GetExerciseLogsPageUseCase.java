@@ -0,0 +1,38 @@
+package com.erendogan6.planmyworkout.feature.workout.usecase;
+
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogPage;
+import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepository;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Use case for getting one page of exercise logs.
+ */
+@Singleton
+public class GetExerciseLogsPageUseCase {
+
+    private final WorkoutRepository repository;
+
+    @Inject
+    public GetExerciseLogsPageUseCase(WorkoutRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Execute the use case to get one page of exercise logs.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param before Cursor of the previous page, or null for the newest page
+     * @param pageSize The maximum number of logs in the page
+     * @param token Cancels the request
+     * @return Task with the page of exercise logs
+     */
+    public Task<ExerciseLogPage> execute(String planId, String exerciseId, Long before, int pageSize,
+                                         CancellationToken token) {
+        return repository.getExerciseLogsPage(planId, exerciseId, before, pageSize, token);
+    }
+}
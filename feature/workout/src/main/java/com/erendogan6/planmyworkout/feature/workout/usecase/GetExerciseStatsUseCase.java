@@ -0,0 +1,33 @@
+package com.erendogan6.planmyworkout.feature.workout.usecase;
+
+import com.erendogan6.planmyworkout.core.log.ExerciseStats;
+import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepository;
+import com.google.android.gms.tasks.Task;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Use case for getting the aggregate statistics of an exercise.
+ */
+@Singleton
+public class GetExerciseStatsUseCase {
+
+    private final WorkoutRepository repository;
+
+    @Inject
+    public GetExerciseStatsUseCase(WorkoutRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Execute the use case to get the exercise statistics.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return Task with the exercise statistics
+     */
+    public Task<ExerciseStats> execute(String planId, String exerciseId) {
+        return repository.getExerciseStats(planId, exerciseId);
+    }
+}
@@ -1,7 +1,9 @@
 package com.erendogan6.planmyworkout.feature.workout.usecase;
 
+import com.erendogan6.planmyworkout.core.util.RequestScope;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
 import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepository;
+import com.google.android.gms.tasks.CancellationToken;
 import com.google.android.gms.tasks.Task;
 
 import javax.inject.Inject;
@@ -28,6 +30,18 @@ public class GetExerciseUseCase {
      * @return Task with the exercise with progress
      */
     public Task<ExerciseWithProgress> execute(String planId, String exerciseId) {
-        return repository.getExercise(planId, exerciseId);
+        return execute(planId, exerciseId, RequestScope.NONE);
+    }
+
+    /**
+     * Execute the use case to get an exercise, for a caller that may cancel it.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @param token Cancels the request
+     * @return Task with the exercise with progress, canceled if the token is cancelled first
+     */
+    public Task<ExerciseWithProgress> execute(String planId, String exerciseId, CancellationToken token) {
+        return repository.getExercise(planId, exerciseId, token);
     }
 }
\ No newline at end of file
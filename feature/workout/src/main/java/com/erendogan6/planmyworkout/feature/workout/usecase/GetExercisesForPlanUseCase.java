@@ -1,7 +1,10 @@
 package com.erendogan6.planmyworkout.feature.workout.usecase;
 
+import androidx.lifecycle.LiveData;
+
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
 import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepository;
+import com.google.android.gms.tasks.CancellationToken;
 import com.google.android.gms.tasks.Task;
 
 import java.util.List;
@@ -26,9 +29,21 @@ public class GetExercisesForPlanUseCase {
      * Execute the use case to get exercises for a plan.
      *
      * @param planId The plan ID
+     * @param token Cancels the request
      * @return Task with the list of exercises with progress
      */
-    public Task<List<ExerciseWithProgress>> execute(String planId) {
-        return repository.getExercisesForPlan(planId);
+    public Task<List<ExerciseWithProgress>> execute(String planId, CancellationToken token) {
+        return repository.getExercisesForPlan(planId, token);
+    }
+
+    /**
+     * Observe the exercises of a plan, following changes while they are observed.
+     *
+     * @param planId The plan ID
+     * @param token Stops the background work of the stream
+     * @return LiveData with the list of exercises with progress
+     */
+    public LiveData<List<ExerciseWithProgress>> observe(String planId, CancellationToken token) {
+        return repository.observeExercisesForPlan(planId, token);
     }
 }
\ No newline at end of file
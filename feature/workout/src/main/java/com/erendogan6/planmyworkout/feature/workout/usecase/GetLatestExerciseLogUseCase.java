@@ -1,5 +1,7 @@
 package com.erendogan6.planmyworkout.feature.workout.usecase;
 
+import androidx.lifecycle.LiveData;
+
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
 import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepository;
 import com.google.android.gms.tasks.Task;
@@ -30,4 +32,15 @@ public class GetLatestExerciseLogUseCase {
     public Task<ExerciseLog> execute(String planId, String exerciseId) {
         return repository.getLatestExerciseLog(planId, exerciseId);
     }
+
+    /**
+     * Observe the latest exercise log, following new logs while it is observed.
+     *
+     * @param planId The plan ID
+     * @param exerciseId The exercise ID
+     * @return LiveData with the latest exercise log
+     */
+    public LiveData<ExerciseLog> observe(String planId, String exerciseId) {
+        return repository.observeLatestExerciseLog(planId, exerciseId);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.erendogan6.planmyworkout.feature.workout.usecase;
 
+import androidx.lifecycle.LiveData;
+
 import com.erendogan6.planmyworkout.feature.workout.model.WorkoutPlan;
 import com.erendogan6.planmyworkout.feature.workout.repository.WorkoutRepository;
 import com.google.android.gms.tasks.Task;
@@ -29,4 +31,14 @@ public class GetWorkoutPlanUseCase {
     public Task<WorkoutPlan> execute(String planId) {
         return repository.getWorkoutPlan(planId);
     }
+
+    /**
+     * Observe a workout plan, following changes while it is observed.
+     *
+     * @param planId The plan ID
+     * @return LiveData with the workout plan
+     */
+    public LiveData<WorkoutPlan> observe(String planId) {
+        return repository.observeWorkoutPlan(planId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.erendogan6.planmyworkout.feature.workout.util;
+
+import java.text.DecimalFormatSymbols;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Formats workout values for display.
+ * Unlike String.format and SimpleDateFormat, it keeps its formatters between calls and is safe
+ * to use from any thread, so display text can be built off the main thread.
+ */
+public final class WorkoutFormatter {
+
+    private static final String DATE_PATTERN = "MMMM d, yyyy";
+
+    // Rebuilt only when the default locale changes
+    private static volatile LocaleFormats localeFormats;
+
+    private WorkoutFormatter() {
+    }
+
+    /**
+     * Format a date, e.g. "April 18, 2024".
+     *
+     * @param date The date, may be null
+     * @return The formatted date, or an empty string for null
+     */
+    public static String formatDate(Date date) {
+        if (date == null) {
+            return "";
+        }
+        return getLocaleFormats().dateFormatter.format(date.toInstant().atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Format a weight and a rep count, e.g. "60.0 kg × 8".
+     *
+     * @param weight The weight in kg
+     * @param reps The number of reps
+     * @return The formatted text
+     */
+    public static String formatWeightReps(double weight, int reps) {
+        StringBuilder builder = new StringBuilder(16);
+        appendWeight(builder, weight);
+        return builder.append(" kg × ").append(reps).toString();
+    }
+
+    /**
+     * Format the last try of an exercise, e.g. "Last try: 60.0 kg × 8 reps".
+     *
+     * @param weight The weight of the last try, or null if there is none
+     * @param reps The reps of the last try, or null if there is none
+     * @return The formatted text
+     */
+    public static String formatLastTry(Double weight, Integer reps) {
+        if (weight == null || reps == null) {
+            return "No previous attempts";
+        }
+        StringBuilder builder = new StringBuilder(32).append("Last try: ");
+        appendWeight(builder, weight);
+        return builder.append(" kg × ").append(reps).append(" reps").toString();
+    }
+
+    /**
+     * Append a weight with one decimal, rounded half up like "%.1f".
+     */
+    private static void appendWeight(StringBuilder builder, double weight) {
+        long tenths = Math.round(Math.abs(weight) * 10);
+        if (weight < 0 && tenths != 0) {
+            builder.append('-');
+        }
+        builder.append(tenths / 10)
+                .append(getLocaleFormats().decimalSeparator)
+                .append(tenths % 10);
+    }
+
+    private static LocaleFormats getLocaleFormats() {
+        Locale locale = Locale.getDefault();
+        LocaleFormats formats = localeFormats;
+        if (formats == null || !formats.locale.equals(locale)) {
+            formats = new LocaleFormats(locale);
+            localeFormats = formats;
+        }
+        return formats;
+    }
+
+    /**
+     * Formatters for one locale. DateTimeFormatter is immutable, so it can be shared by threads.
+     */
+    private static final class LocaleFormats {
+        final Locale locale;
+        final DateTimeFormatter dateFormatter;
+        final char decimalSeparator;
+
+        LocaleFormats(Locale locale) {
+            this.locale = locale;
+            this.dateFormatter = DateTimeFormatter.ofPattern(DATE_PATTERN, locale);
+            this.decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+        }
+    }
+}
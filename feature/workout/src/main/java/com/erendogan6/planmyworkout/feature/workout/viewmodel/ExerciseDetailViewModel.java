@@ -1,12 +1,14 @@
 package com.erendogan6.planmyworkout.feature.workout.viewmodel;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.SavedStateHandle;
 import androidx.lifecycle.ViewModel;
 
+import com.erendogan6.planmyworkout.core.model.UiState;
+import com.erendogan6.planmyworkout.core.util.UiStateStore;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseDetailState;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
-import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
+import com.erendogan6.planmyworkout.feature.workout.usecase.GetExerciseStatsUseCase;
 import com.erendogan6.planmyworkout.feature.workout.usecase.GetExerciseUseCase;
 import com.erendogan6.planmyworkout.feature.workout.usecase.GetLatestExerciseLogUseCase;
 import com.erendogan6.planmyworkout.feature.workout.usecase.SaveExerciseLogUseCase;
@@ -18,20 +20,20 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 
 /**
  * ViewModel for the ExerciseDetailFragment.
+ * The exercise, its latest log and statistics, and the save progress are reduced into one state,
+ * so the screen renders once per change and shows each message once.
  */
 @HiltViewModel
 public class ExerciseDetailViewModel extends ViewModel {
 
     private final GetExerciseUseCase getExerciseUseCase;
     private final GetLatestExerciseLogUseCase getLatestExerciseLogUseCase;
+    private final GetExerciseStatsUseCase getExerciseStatsUseCase;
     private final SaveExerciseLogUseCase saveExerciseLogUseCase;
     private final SavedStateHandle savedStateHandle;
-    private final MutableLiveData<ExerciseWithProgress> exercise = new MutableLiveData<>();
-    private final MutableLiveData<ExerciseLog> latestLog = new MutableLiveData<>();
-    private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
-    private final MutableLiveData<Boolean> isSaving = new MutableLiveData<>(false);
-    private final MutableLiveData<Boolean> saveSuccess = new MutableLiveData<>();
-    private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final UiStateStore<ExerciseDetailState> store =
+            new UiStateStore<>(UiState.success(ExerciseDetailState.EMPTY));
+    private LiveData<ExerciseLog> latestLogSource;
 
     // Edit mode fields
     private boolean editMode = false;
@@ -43,38 +45,34 @@ public class ExerciseDetailViewModel extends ViewModel {
     public ExerciseDetailViewModel(
             GetExerciseUseCase getExerciseUseCase,
             GetLatestExerciseLogUseCase getLatestExerciseLogUseCase,
+            GetExerciseStatsUseCase getExerciseStatsUseCase,
             SaveExerciseLogUseCase saveExerciseLogUseCase,
             UpdateExerciseLogUseCase updateExerciseLogUseCase,
             SavedStateHandle savedStateHandle) {
         this.getExerciseUseCase = getExerciseUseCase;
         this.getLatestExerciseLogUseCase = getLatestExerciseLogUseCase;
+        this.getExerciseStatsUseCase = getExerciseStatsUseCase;
         this.saveExerciseLogUseCase = saveExerciseLogUseCase;
         this.updateExerciseLogUseCase = updateExerciseLogUseCase;
         this.savedStateHandle = savedStateHandle;
     }
 
-    public LiveData<ExerciseWithProgress> getExercise() {
-        return exercise;
-    }
-
-    public LiveData<ExerciseLog> getLatestLog() {
-        return latestLog;
-    }
-
-    public LiveData<Boolean> getIsLoading() {
-        return isLoading;
-    }
-
-    public LiveData<Boolean> getIsSaving() {
-        return isSaving;
-    }
-
-    public LiveData<Boolean> getSaveSuccess() {
-        return saveSuccess;
+    /**
+     * Get the state of the exercise detail screen.
+     *
+     * @return LiveData that emits once per change of the state
+     */
+    public LiveData<UiState<ExerciseDetailState>> getState() {
+        return store.getState();
     }
 
-    public LiveData<String> getErrorMessage() {
-        return errorMessage;
+    /**
+     * Drop a message after the screen showed it.
+     *
+     * @param message The message that was shown
+     */
+    public void onMessageShown(UiState.Message message) {
+        store.reduce(state -> state.withoutMessage(message));
     }
 
     /**
@@ -100,34 +98,32 @@ public class ExerciseDetailViewModel extends ViewModel {
         String planId = savedStateHandle.get("planId");
 
         if (exerciseId != null && planId != null) {
-            isLoading.setValue(true);
+            store.reduce(UiState::withLoading);
             getExerciseUseCase.execute(planId, exerciseId)
-                    .addOnSuccessListener(loadedExercise -> {
-                        exercise.setValue(loadedExercise);
-                        isLoading.setValue(false);
-                    })
-                    .addOnFailureListener(e -> {
-                        errorMessage.setValue("Failed to load exercise: " + e.getMessage());
-                        isLoading.setValue(false);
-                    });
+                    .addOnSuccessListener(loadedExercise -> store.reduce(state ->
+                            state.withData(state.getData().withExercise(loadedExercise))))
+                    .addOnFailureListener(e -> store.reduce(state ->
+                            state.withError("Failed to load exercise: " + e.getMessage())));
+
+            // The statistics are extra information, so the screen works without them
+            getExerciseStatsUseCase.execute(planId, exerciseId)
+                    .addOnSuccessListener(stats -> store.reduce(state ->
+                            state.updateData(data -> data.withStats(stats))));
         }
     }
 
     /**
-     * Load the latest exercise log from Firestore.
+     * Start streaming the latest exercise log.
+     * New logs, whether saved here or on another device, show up without reloading.
      */
     public void loadLatestLog() {
         String exerciseId = savedStateHandle.get("exerciseId");
         String planId = savedStateHandle.get("planId");
 
-        if (exerciseId != null && planId != null) {
-            isLoading.setValue(true);
-            getLatestExerciseLogUseCase.execute(planId, exerciseId)
-                    .addOnSuccessListener(log -> {
-                        latestLog.setValue(log);
-                        isLoading.setValue(false);
-                    })
-                    .addOnFailureListener(e -> isLoading.setValue(false));
+        if (exerciseId != null && planId != null && latestLogSource == null) {
+            latestLogSource = getLatestExerciseLogUseCase.observe(planId, exerciseId);
+            store.addSource(latestLogSource, log -> store.reduce(state ->
+                    state.updateData(data -> data.withLatestLog(log))));
         }
     }
 
@@ -139,36 +135,28 @@ public class ExerciseDetailViewModel extends ViewModel {
         String planId = savedStateHandle.get("planId");
 
         if (exerciseId == null || planId == null) {
-            errorMessage.setValue("Exercise ID or Plan ID not found");
+            showError("Exercise ID or Plan ID not found");
             return;
         }
 
         // Validate inputs
         if (weight <= 0) {
-            errorMessage.setValue("Please enter a valid weight");
+            showError("Please enter a valid weight");
             return;
         }
 
         if (reps <= 0) {
-            errorMessage.setValue("Please enter a valid number of reps");
+            showError("Please enter a valid number of reps");
             return;
         }
 
         // Show loading state
-        isSaving.setValue(true);
+        store.reduce(state -> state.withBusy(true));
 
         // Save to Firestore
         saveExerciseLogUseCase.execute(planId, exerciseId, weight, reps, notes)
-                .addOnSuccessListener(aVoid -> {
-                    saveSuccess.setValue(true);
-                    isSaving.setValue(false);
-                    // Reload the latest log to show the updated repository
-                    loadLatestLog();
-                })
-                .addOnFailureListener(e -> {
-                    errorMessage.setValue("Failed to save log: " + e.getMessage());
-                    isSaving.setValue(false);
-                });
+                .addOnSuccessListener(aVoid -> onSaved())
+                .addOnFailureListener(e -> onSaveFailed("Failed to save log: " + e.getMessage()));
     }
 
     /**
@@ -179,38 +167,45 @@ public class ExerciseDetailViewModel extends ViewModel {
         String planId = savedStateHandle.get("planId");
 
         if (exerciseId == null || planId == null) {
-            errorMessage.setValue("Exercise ID or Plan ID not found");
+            showError("Exercise ID or Plan ID not found");
             return;
         }
 
         if (!editMode || logId.isEmpty()) {
-            errorMessage.setValue("Not in edit mode or missing log ID");
+            showError("Not in edit mode or missing log ID");
             return;
         }
 
         // Validate inputs
         if (weight <= 0) {
-            errorMessage.setValue("Please enter a valid weight");
+            showError("Please enter a valid weight");
             return;
         }
 
         if (reps <= 0) {
-            errorMessage.setValue("Please enter a valid number of reps");
+            showError("Please enter a valid number of reps");
             return;
         }
 
         // Show loading state
-        isSaving.setValue(true);
+        store.reduce(state -> state.withBusy(true));
 
         // Update in Firestore
         updateExerciseLogUseCase.execute(planId, exerciseId, logId, weight, reps, notes)
-                .addOnSuccessListener(aVoid -> {
-                    saveSuccess.setValue(true);
-                    isSaving.setValue(false);
-                })
-                .addOnFailureListener(e -> {
-                    errorMessage.setValue("Failed to update log: " + e.getMessage());
-                    isSaving.setValue(false);
-                });
+                .addOnSuccessListener(aVoid -> onSaved())
+                .addOnFailureListener(e -> onSaveFailed("Failed to update log: " + e.getMessage()));
+    }
+
+    private void onSaved() {
+        store.reduce(state -> state.withBusy(false)
+                .withMessage(UiState.Message.info("Exercise log saved successfully")));
+    }
+
+    private void onSaveFailed(String error) {
+        store.reduce(state -> state.withBusy(false).withMessage(UiState.Message.error(error)));
+    }
+
+    private void showError(String error) {
+        store.reduce(state -> state.withMessage(UiState.Message.error(error)));
     }
-}
\ No newline at end of file
+}
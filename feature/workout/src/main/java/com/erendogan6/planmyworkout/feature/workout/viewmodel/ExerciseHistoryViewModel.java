@@ -5,12 +5,18 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.SavedStateHandle;
 import androidx.lifecycle.ViewModel;
 
+import com.erendogan6.planmyworkout.core.util.BackgroundExecutor;
+import com.erendogan6.planmyworkout.core.util.RequestScope;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLog;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogItem;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseLogPage;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
-import com.erendogan6.planmyworkout.feature.workout.usecase.GetExerciseLogsUseCase;
+import com.erendogan6.planmyworkout.feature.workout.usecase.GetExerciseLogsPageUseCase;
 import com.erendogan6.planmyworkout.feature.workout.usecase.GetExerciseUseCase;
+import com.google.android.gms.tasks.Tasks;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -19,33 +25,48 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 
 /**
  * ViewModel for the ExerciseHistoryFragment.
+ * Logs are loaded one page at a time, so the first page costs the same no matter how long
+ * the history is. The display text of each page is built on a background thread.
+ * Its requests are cancelled when it is cleared.
  */
 @HiltViewModel
 public class ExerciseHistoryViewModel extends ViewModel {
 
+    private static final int PAGE_SIZE = 20;
+
     private final GetExerciseUseCase getExerciseUseCase;
-    private final GetExerciseLogsUseCase getExerciseLogsUseCase;
+    private final GetExerciseLogsPageUseCase getExerciseLogsPageUseCase;
     private final SavedStateHandle savedStateHandle;
+    private final BackgroundExecutor executor;
     private final MutableLiveData<ExerciseWithProgress> exercise = new MutableLiveData<>();
-    private final MutableLiveData<List<ExerciseLog>> logs = new MutableLiveData<>(new ArrayList<>());
+    private final MutableLiveData<List<ExerciseLogItem>> logs = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final RequestScope requests = new RequestScope();
+
+    // Paging state
+    private Long nextCursor;
+    private boolean hasMoreLogs;
+    private boolean isLoadingPage;
+    private int pageGeneration;
 
     @Inject
     public ExerciseHistoryViewModel(
             GetExerciseUseCase getExerciseUseCase,
-            GetExerciseLogsUseCase getExerciseLogsUseCase,
-            SavedStateHandle savedStateHandle) {
+            GetExerciseLogsPageUseCase getExerciseLogsPageUseCase,
+            SavedStateHandle savedStateHandle,
+            BackgroundExecutor executor) {
         this.getExerciseUseCase = getExerciseUseCase;
-        this.getExerciseLogsUseCase = getExerciseLogsUseCase;
+        this.getExerciseLogsPageUseCase = getExerciseLogsPageUseCase;
         this.savedStateHandle = savedStateHandle;
+        this.executor = executor;
     }
 
     public LiveData<ExerciseWithProgress> getExercise() {
         return exercise;
     }
 
-    public LiveData<List<ExerciseLog>> getLogs() {
+    public LiveData<List<ExerciseLogItem>> getLogs() {
         return logs;
     }
 
@@ -58,7 +79,7 @@ public class ExerciseHistoryViewModel extends ViewModel {
     }
 
     /**
-     * Load the exercise details and logs from Firestore.
+     * Load the exercise details and the newest page of logs.
      */
     public void loadExerciseData() {
         String exerciseId = savedStateHandle.get("exerciseId");
@@ -72,7 +93,7 @@ public class ExerciseHistoryViewModel extends ViewModel {
         isLoading.setValue(true);
 
         // Load exercise details
-        getExerciseUseCase.execute(planId, exerciseId)
+        getExerciseUseCase.execute(planId, exerciseId, requests.getToken())
                 .addOnSuccessListener(loadedExercise -> {
                     exercise.setValue(loadedExercise);
                     
@@ -86,20 +107,81 @@ public class ExerciseHistoryViewModel extends ViewModel {
     }
 
     /**
-     * Load all exercise logs from Firestore.
+     * Load the newest page of exercise logs, dropping any pages loaded before.
      */
     private void loadExerciseLogs(String planId, String exerciseId) {
-        getExerciseLogsUseCase.execute(planId, exerciseId)
-                .addOnSuccessListener(exerciseLogs -> {
-                    logs.setValue(exerciseLogs);
-                    isLoading.setValue(false);
-                })
+        // Results of requests made before this one are ignored
+        pageGeneration++;
+        nextCursor = null;
+        hasMoreLogs = false;
+        loadPage(planId, exerciseId, true);
+    }
+
+    /**
+     * Load the next page of exercise logs, if there is one and no page is loading.
+     */
+    public void loadMoreLogs() {
+        String exerciseId = savedStateHandle.get("exerciseId");
+        String planId = savedStateHandle.get("planId");
+
+        if (exerciseId != null && planId != null && hasMoreLogs && !isLoadingPage) {
+            loadPage(planId, exerciseId, false);
+        }
+    }
+
+    private void loadPage(String planId, String exerciseId, boolean firstPage) {
+        int generation = pageGeneration;
+        isLoadingPage = true;
+        getExerciseLogsPageUseCase.execute(planId, exerciseId, nextCursor, PAGE_SIZE, requests.getToken())
+                .addOnSuccessListener(page -> requests.bind(Tasks.call(executor, () -> toItems(page.getLogs())))
+                        .addOnSuccessListener(items -> {
+                            if (generation != pageGeneration) {
+                                return;
+                            }
+                            isLoadingPage = false;
+                            appendPage(page, items, firstPage);
+                            if (firstPage) {
+                                isLoading.setValue(false);
+                            }
+                        }))
                 .addOnFailureListener(e -> {
+                    if (generation != pageGeneration) {
+                        return;
+                    }
+                    isLoadingPage = false;
                     errorMessage.setValue("Failed to load logs: " + e.getMessage());
-                    isLoading.setValue(false);
+                    if (firstPage) {
+                        isLoading.setValue(false);
+                    }
                 });
     }
 
+    /**
+     * Build the display models of a page of logs.
+     */
+    private static List<ExerciseLogItem> toItems(List<ExerciseLog> pageLogs) {
+        List<ExerciseLogItem> items = new ArrayList<>(pageLogs.size());
+        for (ExerciseLog log : pageLogs) {
+            items.add(ExerciseLogItem.from(log));
+        }
+        return items;
+    }
+
+    private void appendPage(ExerciseLogPage page, List<ExerciseLogItem> pageItems, boolean firstPage) {
+        List<ExerciseLogItem> currentLogs = logs.getValue();
+        List<ExerciseLogItem> updatedLogs = new ArrayList<>();
+        if (!firstPage && currentLogs != null) {
+            updatedLogs.addAll(currentLogs);
+        }
+        updatedLogs.addAll(pageItems);
+
+        hasMoreLogs = page.hasMore();
+        if (page.getNextCursor() != null) {
+            nextCursor = page.getNextCursor();
+        }
+        logs.setValue(Collections.unmodifiableList(updatedLogs));
+    }
+
     /**
      * Refresh the exercise logs.
      */
@@ -113,6 +195,11 @@ public class ExerciseHistoryViewModel extends ViewModel {
         }
     }
 
+    @Override
+    protected void onCleared() {
+        requests.cancel();
+    }
+
     /**
      * Get the exercise ID.
      */
@@ -1,9 +1,12 @@
 package com.erendogan6.planmyworkout.feature.workout.viewmodel;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.erendogan6.planmyworkout.core.model.UiState;
+import com.erendogan6.planmyworkout.core.util.RequestScope;
+import com.erendogan6.planmyworkout.core.util.UiStateStore;
+import com.erendogan6.planmyworkout.feature.workout.model.ExerciseListState;
 import com.erendogan6.planmyworkout.feature.workout.model.ExerciseWithProgress;
 import com.erendogan6.planmyworkout.feature.workout.model.WorkoutPlan;
 import com.erendogan6.planmyworkout.feature.workout.usecase.GetExercisesForPlanUseCase;
@@ -18,16 +21,20 @@ import dagger.hilt.android.lifecycle.HiltViewModel;
 
 /**
  * ViewModel for the exercise list screen.
+ * The plan and its exercises are reduced into one state, so the screen renders once per change.
+ * Last try lookups started for the list stop when it is cleared.
  */
 @HiltViewModel
 public class ExerciseListViewModel extends ViewModel {
 
     private final GetWorkoutPlanUseCase getWorkoutPlanUseCase;
     private final GetExercisesForPlanUseCase getExercisesForPlanUseCase;
-    private final MutableLiveData<WorkoutPlan> workoutPlan = new MutableLiveData<>();
-    private final MutableLiveData<List<ExerciseWithProgress>> exercises = new MutableLiveData<>();
-    private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
-    private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final UiStateStore<ExerciseListState> store =
+            new UiStateStore<>(UiState.success(ExerciseListState.EMPTY));
+    private final RequestScope requests = new RequestScope();
+    private LiveData<WorkoutPlan> planSource;
+    private LiveData<List<ExerciseWithProgress>> exercisesSource;
+    private String observedPlanId;
 
     @Inject
     public ExerciseListViewModel(
@@ -39,70 +46,64 @@ public class ExerciseListViewModel extends ViewModel {
 
     /**
      * Load exercises for the given plan ID.
+     * The plan and its exercises are streamed, so they stay current while the screen is shown.
      */
     public void loadExercisesForPlan(String planId) {
         if (planId == null || planId.isEmpty()) {
-            errorMessage.setValue("Invalid plan ID");
+            store.reduce(state -> state.withError("Invalid plan ID"));
+            return;
+        }
+        if (planId.equals(observedPlanId)) {
+            // Already streaming this plan, e.g. after the view was recreated
             return;
         }
 
-        isLoading.setValue(true);
-
-        // Load the workout plan from Firestore
-        getWorkoutPlanUseCase.execute(planId)
-                .addOnSuccessListener(plan -> {
-                    if (plan != null) {
-                        workoutPlan.setValue(plan);
-
-                        // Load exercises for the plan
-                        getExercisesForPlanUseCase.execute(planId)
-                                .addOnSuccessListener(exerciseList -> {
-                                    exercises.setValue(exerciseList);
-                                    isLoading.setValue(false);
-                                })
-                                .addOnFailureListener(e -> {
-                                    errorMessage.setValue("Failed to load exercises: " + e.getMessage());
-                                    exercises.setValue(new ArrayList<>());
-                                    isLoading.setValue(false);
-                                });
-                    } else {
-                        errorMessage.setValue("Workout plan not found");
-                        exercises.setValue(new ArrayList<>());
-                        isLoading.setValue(false);
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    errorMessage.setValue("Failed to load workout plan: " + e.getMessage());
-                    exercises.setValue(new ArrayList<>());
-                    isLoading.setValue(false);
-                });
-    }
-
-    /**
-     * Get the workout plan LiveData.
-     */
-    public LiveData<WorkoutPlan> getWorkoutPlan() {
-        return workoutPlan;
+        if (planSource != null) {
+            store.removeSource(planSource);
+            store.removeSource(exercisesSource);
+        }
+        observedPlanId = planId;
+        planSource = getWorkoutPlanUseCase.observe(planId);
+        exercisesSource = getExercisesForPlanUseCase.observe(planId, requests.getToken());
+
+        store.reduce(state -> state.updateData(data -> ExerciseListState.EMPTY).withLoading());
+        store.addSource(planSource, plan -> {
+            if (plan == null) {
+                store.reduce(state -> state
+                        .updateData(data -> data.withPlan(null).withExercises(new ArrayList<>()))
+                        .withError("Workout plan not found"));
+                return;
+            }
+            store.reduce(state -> state.updateData(data -> data.withPlan(plan)));
+        });
+        store.addSource(exercisesSource, exerciseList -> store.reduce(state -> {
+            if (state.getData().getPlan() == null && exerciseList.isEmpty()) {
+                return state;
+            }
+            return state.withData(state.getData().withExercises(exerciseList));
+        }));
     }
 
-    /**
-     * Get the exercises LiveData.
-     */
-    public LiveData<List<ExerciseWithProgress>> getExercises() {
-        return exercises;
+    @Override
+    protected void onCleared() {
+        requests.cancel();
     }
 
     /**
-     * Get the loading state LiveData.
+     * Get the state of the exercise list screen.
+     *
+     * @return LiveData that emits once per change of the state
      */
-    public LiveData<Boolean> getIsLoading() {
-        return isLoading;
+    public LiveData<UiState<ExerciseListState>> getState() {
+        return store.getState();
     }
 
     /**
-     * Get the error message LiveData.
+     * Drop a message after the screen showed it.
+     *
+     * @param message The message that was shown
      */
-    public LiveData<String> getErrorMessage() {
-        return errorMessage;
+    public void onMessageShown(UiState.Message message) {
+        store.reduce(state -> state.withoutMessage(message));
     }
-}
\ No newline at end of file
+}
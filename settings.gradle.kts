@@ -27,6 +27,8 @@ include(":app")
 // Core modules
 include(":core")
 include(":core-ui")
+include(":core:common")
+include(":core:database")
 
 // Feature modules
 include(":feature:auth")
@@ -35,3 +37,7 @@ include(":feature:home")
 include(":feature:workout")
 include(":feature:progress")
 include(":feature:profile")
+
+// Benchmarks
+include(":benchmark")
+include(":baselineprofile")